@@ -0,0 +1,133 @@
+package com.paymybuddy.benchmark;
+
+import com.paymybuddy.app.datasource.PooledIdSeeder;
+import com.paymybuddy.app.entity.id.PooledIdGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Seeds the benchmark database with plain JDBC batches, bypassing the services so large data sets load quickly.
+ *
+ * <p>IDs are given explicitly, above those already in each table: entity IDs come from {@link PooledIdGenerator},
+ * so the columns have no auto-increment. {@link PooledIdSeeder} has to run again once seeding is done, before
+ * Hibernate inserts anything.</p>
+ *
+ * <p>User {@code i} adds the {@code relationsPerUser} users that follow it (wrapping around), and sends its past
+ * transactions to them in turn over the last 30 days. Accounts get balances and daily limits large enough for any
+ * benchmark run, so payments never fail on funds.</p>
+ */
+public class DataSeeder {
+
+    static final long FEE_PERCENTAGE = 500;
+
+    private static final int BATCH_SIZE = 1000;
+    private static final long BALANCE = 1_000_000_000_000L;
+    private static final long TRANSACTION_AMOUNT = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DataSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Seeds users, accounts, relations, one transaction fee and past transactions.
+     *
+     * @param userCount           the number of users.
+     * @param relationsPerUser    the number of relations each user adds, capped below half the user count.
+     * @param transactionsPerUser the number of past transactions sent by each user.
+     * @return the IDs of the seeded users and relations.
+     */
+    public SeededData seed(int userCount, int relationsPerUser, int transactionsPerUser) {
+        if (userCount < 2) {
+            throw new IllegalArgumentException("At least two users are needed, got " + userCount);
+        }
+        // Beyond half the user count, the relation i -> j would meet j -> i.
+        int relations = Math.max(1, Math.min(relationsPerUser, (userCount - 1) / 2));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        int roleId = nextId("roles", "role_id");
+        jdbcTemplate.update("INSERT INTO roles (role_id, role_name) VALUES (?, 'USER')", roleId);
+
+        int firstUserId = nextId("users", "id");
+        int[] userIds = new int[userCount];
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            userIds[i] = firstUserId + i;
+            users.add(new Object[]{userIds[i], "user" + i, "user" + i + "@benchmark.test", "password", roleId, now});
+        }
+        batch("INSERT INTO users (id, username, email, password, role_id, created_at, is_deleted) "
+                + "VALUES (?, ?, ?, ?, ?, ?, FALSE)", users);
+
+        int accountId = nextId("app_account", "account_id");
+        List<Object[]> accounts = new ArrayList<>();
+        for (int userId : userIds) {
+            accounts.add(new Object[]{accountId++, userId, BALANCE, now, BALANCE});
+        }
+        batch("INSERT INTO app_account (account_id, user_id, balance, created_at, daily_limit, version) "
+                + "VALUES (?, ?, ?, ?, ?, 0)", accounts);
+
+        int feeId = nextId("transactions_fee", "fee_id");
+        jdbcTemplate.update("INSERT INTO transactions_fee (fee_id, percentage, effective_date) VALUES (?, ?, ?)",
+                feeId, FEE_PERCENTAGE, Timestamp.valueOf(LocalDateTime.now().minusYears(1)));
+
+        int[][] relationPairs = new int[userIds.length * relations][];
+        List<Object[]> relationRows = new ArrayList<>();
+        for (int i = 0; i < userIds.length; i++) {
+            for (int offset = 1; offset <= relations; offset++) {
+                int[] pair = {userIds[i], userIds[(i + offset) % userIds.length]};
+                relationPairs[i * relations + offset - 1] = pair;
+                relationRows.add(new Object[]{pair[0], pair[1], now});
+            }
+        }
+        batch("INSERT INTO user_relation (user_id, user_relation_id, status, created_at) VALUES (?, ?, TRUE, ?)",
+                relationRows);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long fee = TRANSACTION_AMOUNT * FEE_PERCENTAGE / 100000;
+        int transactionId = nextId("transaction", "id");
+        List<Object[]> transactions = new ArrayList<>();
+        for (int i = 0; i < userIds.length; i++) {
+            for (int t = 0; t < transactionsPerUser; t++) {
+                int receiverId = userIds[(i + 1 + t % relations) % userIds.length];
+                Timestamp date = Timestamp.valueOf(LocalDateTime.now().minusMinutes(random.nextInt(30 * 24 * 60)));
+                transactions.add(new Object[]{transactionId++, userIds[i], receiverId, TRANSACTION_AMOUNT,
+                        TRANSACTION_AMOUNT + fee, "seed", date, feeId, FEE_PERCENTAGE});
+            }
+        }
+        batch("INSERT INTO transaction (id, sender_id, receiver_id, amount, amount_with_fee, description, "
+                + "transaction_date, fee_id, fee_percentage) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", transactions);
+
+        return new SeededData(userIds, relationPairs);
+    }
+
+    /**
+     * First free ID of a table, above both its rows and the block the generator may already have handed out.
+     */
+    private int nextId(String table, String idColumn) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table, Long.class);
+        Long reserved = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(next_val), 0) FROM " + PooledIdGenerator.TABLE
+                + " WHERE sequence_name = ?", Long.class, table);
+        return (int) Math.max(maxId, reserved) + 1;
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+
+    /**
+     * IDs of the seeded rows.
+     *
+     * @param userIds   the IDs of all seeded users, in ascending order.
+     * @param relations the seeded relations, each as {user who added it, added user}.
+     */
+    public record SeededData(int[] userIds, int[][] relations) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.paymybuddy.benchmark;
+
+import com.paymybuddy.app.service.TransactionFeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fee calculation for a payment, resolved from the cached fee schedule.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeeCalculationBenchmark {
+
+    private TransactionFeeService transactionFeeService;
+
+    @Setup
+    public void setUp(SeededApplication application) {
+        transactionFeeService = application.getBean(TransactionFeeService.class);
+    }
+
+    @Benchmark
+    public long calculateFeeForTransaction() {
+        return transactionFeeService.calculateFeeForTransaction(12_345L);
+    }
+}
@@ -0,0 +1,47 @@
+package com.paymybuddy.benchmark;
+
+import com.paymybuddy.app.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end payments between random connected users: relation check, daily limit, fee, balance updates,
+ * transaction insert and revenue ledger, each payment in its own database transaction.
+ *
+ * <p>Runs on 4 threads by default so lock contention on popular accounts shows up; change it with {@code -t}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class PaymentThroughputBenchmark {
+
+    private SeededApplication application;
+    private TransactionService transactionService;
+
+    @Setup
+    public void setUp(SeededApplication application) {
+        this.application = application;
+        transactionService = application.getBean(TransactionService.class);
+    }
+
+    @Benchmark
+    public String createTransaction() {
+        int[] relation = application.randomRelation();
+        return transactionService.createTransaction(relation[0], relation[1], 10, "benchmark");
+    }
+}
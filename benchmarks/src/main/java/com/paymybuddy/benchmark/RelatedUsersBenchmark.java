@@ -0,0 +1,46 @@
+package com.paymybuddy.benchmark;
+
+import com.paymybuddy.app.dto.RelatedUserDTO;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.service.UserRelationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Friend list of a random user: relation index lookup plus the query loading the names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RelatedUsersBenchmark {
+
+    private SeededApplication application;
+    private UserRelationService userRelationService;
+
+    @Setup
+    public void setUp(SeededApplication application) {
+        this.application = application;
+        userRelationService = application.getBean(UserRelationService.class);
+    }
+
+    @Benchmark
+    public List<RelatedUserDTO> getAllRelatedUsers() {
+        User user = new User();
+        user.setId(application.randomUserId());
+        return userRelationService.getAllRelatedUsers(user);
+    }
+}
@@ -0,0 +1,124 @@
+package com.paymybuddy.benchmark;
+
+import com.paymybuddy.app.PaymybuddyApplication;
+import com.paymybuddy.app.datasource.PooledIdSeeder;
+import com.paymybuddy.app.service.RelationGraphIndex;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Application context started on an embedded H2 database (MySQL mode) and seeded with test data.
+ *
+ * <p>One context is started per trial, each on its own in-memory database, so runs with different parameters never
+ * see each other's data. The size of the data set is set with the {@code userCount}, {@code relationsPerUser} and
+ * {@code transactionsPerUser} parameters, e.g. {@code -p userCount=10000}.</p>
+ */
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    /** Number of users, each with an account. */
+    @Param("1000")
+    public int userCount;
+
+    /** Number of relations each user adds; every user ends up connected to twice as many users. */
+    @Param("10")
+    public int relationsPerUser;
+
+    /** Number of past transactions sent by each user. */
+    @Param("20")
+    public int transactionsPerUser;
+
+    private ConfigurableApplicationContext context;
+    private DataSeeder.SeededData data;
+
+    @Setup(Level.Trial)
+    public void start() {
+        String url = "jdbc:h2:mem:benchmark" + DATABASES.incrementAndGet()
+                + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false";
+
+        // Command line arguments take precedence over the application.properties of the application.
+        // The security filter chains need the servlet context, so a web server is started on a random port.
+        context = new SpringApplicationBuilder(PaymybuddyApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.jdbc.time_zone=UTC",
+                        "--spring.devtools.restart.enabled=false",
+                        "--server.port=0",
+                        "--management.server.port=-1",
+                        "--paymybuddy.api-token.allow-random-secret=true",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.paymybuddy=WARN");
+
+        data = new DataSeeder(context.getBean(JdbcTemplate.class))
+                .seed(userCount, relationsPerUser, transactionsPerUser);
+        // The seeded IDs were not taken from the generator: move it past them before Hibernate inserts anything
+        context.getBean(PooledIdSeeder.class).afterSingletonsInstantiated();
+        context.getBean(RelationGraphIndex.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    /**
+     * Gets a bean of the running application.
+     *
+     * @param type the type of the bean.
+     * @param <T>  the type of the bean.
+     * @return the bean.
+     */
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Gets the seeded data set.
+     *
+     * @return the IDs of the seeded users and relations.
+     */
+    public DataSeeder.SeededData getData() {
+        return data;
+    }
+
+    /**
+     * Picks a seeded user at random.
+     *
+     * @return the ID of the user.
+     */
+    public int randomUserId() {
+        int[] userIds = data.userIds();
+        return userIds[ThreadLocalRandom.current().nextInt(userIds.length)];
+    }
+
+    /**
+     * Picks a seeded relation at random, in a random direction.
+     *
+     * @return the IDs of the two connected users, sender first.
+     */
+    public int[] randomRelation() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[] relation = data.relations()[random.nextInt(data.relations().length)];
+        return random.nextBoolean() ? relation : new int[]{relation[1], relation[0]};
+    }
+}
@@ -0,0 +1,49 @@
+package com.paymybuddy.benchmark;
+
+import com.paymybuddy.app.dto.CursorPage;
+import com.paymybuddy.app.dto.TransactionDTO;
+import com.paymybuddy.app.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First history page of a random user, projected straight into DTOs with both usernames joined in, as the history
+ * endpoints serve it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionDtoBenchmark {
+
+    /** Number of transactions read per call. */
+    @Param({"20", "200"})
+    public int pageSize;
+
+    private SeededApplication application;
+    private TransactionService transactionService;
+
+    @Setup
+    public void setUp(SeededApplication application) {
+        this.application = application;
+        transactionService = application.getBean(TransactionService.class);
+    }
+
+    @Benchmark
+    public CursorPage<TransactionDTO> getTransactionHistoryPage() {
+        return transactionService.getTransactionHistoryPage(application.randomUserId(), null, pageSize);
+    }
+}
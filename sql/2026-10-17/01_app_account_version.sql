@@ -0,0 +1,3 @@
+-- Optimistic-locking version for balance updates (AppAccount.version).
+ALTER TABLE `app_account`
+  ADD COLUMN `version` bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,18 @@
+-- Per-user daily spend counter used by the daily limit check (DailySpend).
+CREATE TABLE `daily_spend` (
+  `user_id` int NOT NULL,
+  `spend_date` date NOT NULL,
+  `amount` bigint NOT NULL DEFAULT 0,
+  PRIMARY KEY (`user_id`, `spend_date`),
+  CONSTRAINT `daily_spend_user_fk` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- Seed today's totals from existing payments, per day of the business time zone (Europe/Paris).
+-- Transaction dates are stored in the local time of the application server (LocalDateTime.now()), not in UTC:
+-- set @server_tz to the JVM's time zone (e.g. 'Europe/Paris' or '+00:00') when it differs from this session's.
+SET @server_tz = @@session.time_zone;
+INSERT INTO `daily_spend` (`user_id`, `spend_date`, `amount`)
+SELECT `sender_id`, DATE(CONVERT_TZ(`transaction_date`, @server_tz, 'Europe/Paris')), SUM(`amount`)
+FROM `transaction`
+WHERE DATE(CONVERT_TZ(`transaction_date`, @server_tz, 'Europe/Paris')) = DATE(CONVERT_TZ(UTC_TIMESTAMP(), '+00:00', 'Europe/Paris'))
+GROUP BY `sender_id`, DATE(CONVERT_TZ(`transaction_date`, @server_tz, 'Europe/Paris'));
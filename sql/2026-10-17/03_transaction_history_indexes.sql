@@ -0,0 +1,4 @@
+-- Keyset pagination of the transaction history (TransactionRepository.findSentBefore / findReceivedBefore).
+-- InnoDB appends the primary key to secondary indexes, so (transaction_date, id) ordering is fully covered.
+CREATE INDEX `idx_transaction_sender_date` ON `transaction` (`sender_id`, `transaction_date`);
+CREATE INDEX `idx_transaction_receiver_date` ON `transaction` (`receiver_id`, `transaction_date`);
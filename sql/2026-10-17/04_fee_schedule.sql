@@ -0,0 +1,21 @@
+-- Fee resolution by effective date (TransactionFeeService fee schedule).
+CREATE INDEX `idx_transactions_fee_effective_date` ON `transactions_fee` (`effective_date`);
+
+-- Fee in effect when each payment was made (Transaction.feeId / feePercentage); fee_id is not a foreign key
+-- because fees can be deleted afterwards.
+ALTER TABLE `transaction`
+  ADD COLUMN `fee_id` int NULL,
+  ADD COLUMN `fee_percentage` bigint NULL;
+
+-- Best-effort backfill with the fee effective at each payment date. Percentages edited in place since then
+-- cannot be recovered.
+UPDATE `transaction` t
+SET t.`fee_id` = (
+  SELECT f.`fee_id` FROM `transactions_fee` f
+  WHERE f.`effective_date` <= t.`transaction_date`
+  ORDER BY f.`effective_date` DESC, f.`fee_id` DESC
+  LIMIT 1);
+
+UPDATE `transaction` t
+JOIN `transactions_fee` f ON f.`fee_id` = t.`fee_id`
+SET t.`fee_percentage` = f.`percentage`;
@@ -0,0 +1,29 @@
+-- Revenue totals kept in step with monetization (RevenueBucket, RevenueLedgerService).
+-- period is DAY, MONTH or TOTAL; each period is spread over a few slots summed on read.
+CREATE TABLE `revenue_bucket` (
+  `period` varchar(8) NOT NULL,
+  `bucket_date` date NOT NULL,
+  `slot` int NOT NULL,
+  `amount` bigint NOT NULL DEFAULT 0,
+  `entry_count` bigint NOT NULL DEFAULT 0,
+  PRIMARY KEY (`period`, `bucket_date`, `slot`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- Seed from existing monetizations, per day of the business time zone (Europe/Paris).
+-- Transaction dates are stored in the local time of the application server (LocalDateTime.now()), not in UTC:
+-- set @server_tz to the JVM's time zone (e.g. 'Europe/Paris' or '+00:00') when it differs from this session's.
+-- POST /api/monetization/rebuild recomputes the same figures.
+SET @server_tz = @@session.time_zone;
+INSERT INTO `revenue_bucket` (`period`, `bucket_date`, `slot`, `amount`, `entry_count`)
+SELECT 'DAY', DATE(CONVERT_TZ(t.`transaction_date`, @server_tz, 'Europe/Paris')), 0, SUM(m.`result`), COUNT(*)
+FROM `monetization` m JOIN `transaction` t ON t.`id` = m.`transaction_id`
+GROUP BY DATE(CONVERT_TZ(t.`transaction_date`, @server_tz, 'Europe/Paris'));
+
+INSERT INTO `revenue_bucket` (`period`, `bucket_date`, `slot`, `amount`, `entry_count`)
+SELECT 'MONTH', DATE_FORMAT(`bucket_date`, '%Y-%m-01'), 0, SUM(`amount`), SUM(`entry_count`)
+FROM `revenue_bucket` WHERE `period` = 'DAY'
+GROUP BY DATE_FORMAT(`bucket_date`, '%Y-%m-01');
+
+INSERT INTO `revenue_bucket` (`period`, `bucket_date`, `slot`, `amount`, `entry_count`)
+SELECT 'TOTAL', '1970-01-01', 0, COALESCE(SUM(`amount`), 0), COALESCE(SUM(`entry_count`), 0)
+FROM `revenue_bucket` WHERE `period` = 'DAY';
@@ -0,0 +1,13 @@
+-- Credits of hot accounts spread over bucket rows (AppAccount.creditBuckets, AccountBucket).
+-- 0 buckets credits the app_account row directly, as before.
+ALTER TABLE `app_account`
+  ADD COLUMN `credit_buckets` int NOT NULL DEFAULT 0;
+
+-- The primary key is the unique key AccountBucketRepository.addToBucket upserts on (ON DUPLICATE KEY UPDATE).
+CREATE TABLE `app_account_bucket` (
+  `user_id` int NOT NULL,
+  `slot` int NOT NULL,
+  `amount` bigint NOT NULL DEFAULT 0,
+  PRIMARY KEY (`user_id`, `slot`),
+  CONSTRAINT `app_account_bucket_user_fk` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
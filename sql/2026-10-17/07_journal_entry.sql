@@ -0,0 +1,19 @@
+-- Append-only payment journal (JournalEntry, JournalService). transaction_id, bank_account_id, user_id and
+-- reversal_of are not foreign keys: the journal outlives the rows it was posted for.
+CREATE TABLE `journal_entry` (
+  `id` bigint NOT NULL,
+  `transaction_id` int NULL,
+  `bank_account_id` int NULL,
+  `account` varchar(16) NOT NULL,
+  `user_id` int NULL,
+  `amount` bigint NOT NULL,
+  `reversal_of` bigint NULL,
+  `created_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_journal_entry_transaction` (`transaction_id`),
+  KEY `idx_journal_entry_user` (`user_id`, `id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- Canceled payments are kept and flagged; the journal holds their reversal.
+ALTER TABLE `transaction`
+  ADD COLUMN `canceled_at` datetime(6) NULL;
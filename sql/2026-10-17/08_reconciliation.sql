@@ -0,0 +1,20 @@
+-- End-of-day balance reconciliation (ReconciliationRun, ReconciliationDiscrepancy, ReconciliationService).
+CREATE TABLE `reconciliation_run` (
+  `id` int NOT NULL,
+  `started_at` datetime(6) NOT NULL,
+  `finished_at` datetime(6) NOT NULL,
+  `accounts_checked` bigint NOT NULL,
+  `discrepancy_count` int NOT NULL,
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- One row per mismatching account; run_id and user_id are not foreign keys, reports outlive deleted users.
+CREATE TABLE `reconciliation_discrepancy` (
+  `id` bigint NOT NULL,
+  `run_id` int NOT NULL,
+  `user_id` int NOT NULL,
+  `recorded_balance` bigint NOT NULL,
+  `expected_balance` bigint NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_reconciliation_discrepancy_run` (`run_id`, `user_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,29 @@
+-- Opening balances (JournalAccount.OPENING): what each account held before its payments were journaled, so the
+-- reconciliation does not report every account funded before 07_journal_entry.sql.
+-- Run once, with the application stopped: the opening line of an account is its balance plus the credits still in
+-- its buckets, minus what the journal already holds for it. Any drift present at that point becomes part of the
+-- opening balance. Does nothing once an OPENING line exists.
+-- IDs continue above the highest journal ID; PooledIdSeeder moves the generator past them on the next start.
+SET @last_id = (SELECT COALESCE(MAX(`id`), 0) FROM `journal_entry`);
+
+CREATE TEMPORARY TABLE `opening_balance` AS
+SELECT a.`user_id`,
+       COALESCE(a.`balance`, 0) + COALESCE(b.`amount`, 0) - COALESCE(j.`amount`, 0) AS `amount`,
+       ROW_NUMBER() OVER (ORDER BY a.`user_id`) AS `line`
+FROM `app_account` a
+LEFT JOIN (SELECT `user_id`, SUM(`amount`) AS `amount` FROM `app_account_bucket` GROUP BY `user_id`) b
+  ON b.`user_id` = a.`user_id`
+LEFT JOIN (SELECT `user_id`, SUM(`amount`) AS `amount` FROM `journal_entry`
+           WHERE `account` = 'USER_BALANCE' GROUP BY `user_id`) j
+  ON j.`user_id` = a.`user_id`
+WHERE COALESCE(a.`balance`, 0) + COALESCE(b.`amount`, 0) <> COALESCE(j.`amount`, 0)
+  AND NOT EXISTS (SELECT 1 FROM `journal_entry` WHERE `account` = 'OPENING');
+
+-- Posted like any other correction: a USER_BALANCE line and its opposite on OPENING.
+INSERT INTO `journal_entry` (`id`, `account`, `user_id`, `amount`, `created_at`)
+SELECT @last_id + 2 * `line` - 1, 'USER_BALANCE', `user_id`, `amount`, NOW(6) FROM `opening_balance`;
+
+INSERT INTO `journal_entry` (`id`, `account`, `user_id`, `amount`, `created_at`)
+SELECT @last_id + 2 * `line`, 'OPENING', NULL, -`amount`, NOW(6) FROM `opening_balance`;
+
+DROP TEMPORARY TABLE `opening_balance`;
@@ -0,0 +1,11 @@
+-- Idempotency keys of the payment and bank transfer endpoints (IdempotencyRecord, IdempotencyService).
+-- The primary key is what makes IdempotencyRecordRepository.claim fail for a key already held.
+CREATE TABLE `idempotency_key` (
+  `id` varchar(128) NOT NULL,
+  `request_hash` varchar(64) NOT NULL,
+  `response_body` longtext NULL,
+  `created_at` datetime(6) NOT NULL,
+  `expires_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_idempotency_key_expires_at` (`expires_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
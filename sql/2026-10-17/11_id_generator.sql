@@ -0,0 +1,8 @@
+-- Pooled entity IDs (PooledIdGenerator): one row per entity table, named after it, tracking the blocks handed out.
+-- The primary key lets two nodes creating the same row at once detect it. PooledIdSeeder moves each row past the
+-- highest ID of its table at startup, so the tables filled under AUTO_INCREMENT need no seeding here.
+CREATE TABLE `id_generator` (
+  `sequence_name` varchar(255) NOT NULL,
+  `next_val` bigint NULL,
+  PRIMARY KEY (`sequence_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
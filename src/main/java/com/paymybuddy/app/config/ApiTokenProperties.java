@@ -0,0 +1,39 @@
+package com.paymybuddy.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Signed tokens accepted on {@code /api/**}, bound from {@code paymybuddy.api-token.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "paymybuddy.api-token")
+public class ApiTokenProperties {
+
+    /**
+     * Base64 HMAC-SHA256 key of at least 32 bytes, shared by every node. Required unless
+     * {@link #allowRandomSecret} is set.
+     */
+    private String secret = "";
+
+    /**
+     * Generates a random key at startup when {@link #secret} is empty, for development and tests only: tokens are then
+     * only accepted by the node that issued them, until it restarts. Set by the {@code dev} profile.
+     */
+    private boolean allowRandomSecret = false;
+
+    /**
+     * Issuer written in tokens and required of the tokens received.
+     */
+    private String issuer = "paymybuddy";
+
+    /**
+     * How long a token is accepted after being issued. Role changes and deletions only take effect on the API once
+     * the tokens issued before them expire.
+     */
+    private Duration ttl = Duration.ofMinutes(15);
+}
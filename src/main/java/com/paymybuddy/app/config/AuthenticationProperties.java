@@ -0,0 +1,37 @@
+package com.paymybuddy.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the authentication fast path, bound from {@code paymybuddy.auth.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "paymybuddy.auth")
+public class AuthenticationProperties {
+
+    /**
+     * Maximum number of signed-in users whose details are kept in memory.
+     */
+    private long userCacheMaxSize = 10_000;
+
+    /**
+     * How long the details of a user are kept after being loaded. Changes made on other nodes, such as a new
+     * password or role, are only seen once they expire.
+     */
+    private Duration userCacheTtl = Duration.ofMinutes(5);
+
+    /**
+     * Number of threads hashing and checking passwords, which is also the number of hashes computed at the same time.
+     */
+    private int hashingThreads = 4;
+
+    /**
+     * Number of hashes that may wait for a thread; beyond it, sign-ins fail at once instead of waiting.
+     */
+    private int hashingQueueCapacity = 64;
+}
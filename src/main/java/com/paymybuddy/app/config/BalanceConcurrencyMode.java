@@ -0,0 +1,22 @@
+package com.paymybuddy.app.config;
+
+/**
+ * Strategy used to keep account balances consistent when several payments touch the same account at once.
+ */
+public enum BalanceConcurrencyMode {
+
+    /**
+     * Balances are changed with guarded {@code UPDATE ... SET balance = balance + ?} statements.
+     */
+    CONDITIONAL,
+
+    /**
+     * Accounts are read, changed in Java and written back with a {@code @Version} check; conflicts are retried.
+     */
+    OPTIMISTIC,
+
+    /**
+     * Account rows are locked with {@code SELECT ... FOR UPDATE} in ascending user-id order before being changed.
+     */
+    PESSIMISTIC
+}
@@ -0,0 +1,39 @@
+package com.paymybuddy.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for concurrent balance updates, bound from {@code paymybuddy.balance.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "paymybuddy.balance")
+public class BalanceConcurrencyProperties {
+
+    /**
+     * How balance mutations are protected against lost updates.
+     */
+    private BalanceConcurrencyMode concurrencyMode = BalanceConcurrencyMode.CONDITIONAL;
+
+    /**
+     * Maximum number of attempts for a payment that hits a version conflict, deadlock or lock timeout.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Base pause between two attempts, multiplied by the attempt number.
+     */
+    private long retryBackoffMillis = 5;
+
+    /**
+     * Number of in-JVM lock stripes (rounded up to a power of two); 0 disables the lock table.
+     */
+    private int lockStripes = 256;
+
+    /**
+     * How long a payment waits for its in-JVM stripes before giving up.
+     */
+    private long lockTimeoutMillis = 2000;
+}
@@ -0,0 +1,35 @@
+package com.paymybuddy.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Business calendar settings, bound from {@code paymybuddy.business.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "paymybuddy.business")
+public class BusinessTimeProperties {
+
+    /**
+     * Time zone in which business days (daily limits, daily figures) start at midnight.
+     */
+    private ZoneId timeZone = ZoneId.of("Europe/Paris");
+
+    /**
+     * Gets the business day of a timestamp recorded in server local time, such as a transaction date.
+     *
+     * @param serverTime the timestamp in the server's default time zone.
+     * @return the date of that instant in the business time zone.
+     */
+    public LocalDate toBusinessDay(LocalDateTime serverTime) {
+        return serverTime.atZone(ZoneId.systemDefault())
+                .withZoneSameInstant(timeZone)
+                .toLocalDate();
+    }
+}
@@ -0,0 +1,186 @@
+package com.paymybuddy.app.config;
+
+import com.paymybuddy.app.datasource.ConnectionLimitingDataSource;
+import com.paymybuddy.app.datasource.PrimaryPinGuard;
+import com.paymybuddy.app.datasource.QueryTimeoutDataSource;
+import com.paymybuddy.app.datasource.ReadWriteRoutingDataSource;
+import com.paymybuddy.app.datasource.Workload;
+import com.paymybuddy.app.datasource.WorkloadPoolAspect;
+import com.paymybuddy.app.entity.id.PooledIdGenerator;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data source of the application: the primary from {@code spring.datasource.*}, plus the read replicas of
+ * {@link ReplicaRoutingProperties} serving {@code @Transactional(readOnly = true)} methods. With
+ * {@link JdbcLimiterProperties#isEnabled()}, threads queue for each pool behind a {@link ConnectionLimitingDataSource}.
+ *
+ * <p>The primary has one pool per {@link Workload}, sized in {@link WorkloadPoolProperties}, so a slow report cannot
+ * take the connections payments need. Every pool publishes its {@code hikaricp.connections.*} meters, tagged with
+ * its name: among them the time spent waiting for a connection ({@code acquire}), and the connections in use
+ * ({@code active}) and waited for ({@code pending}).</p>
+ */
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * Connections of the ID generator pool; one is held only while a block of IDs is taken.
+     */
+    static final int ID_GENERATOR_POOL_SIZE = 2;
+
+    /**
+     * Pool of the primary for {@link Workload#PAYMENTS}, tuned with the usual {@code spring.datasource.hikari.*}
+     * properties. Only reached through the routing data source, as are the other pools of the primary.
+     */
+    @Bean(autowireCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource paymentsDataSource(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(Workload.PAYMENTS.getPoolName());
+        dataSource.setMetricRegistry(meterRegistry);
+        return dataSource;
+    }
+
+    @Bean(autowireCandidate = false)
+    public HikariDataSource userReadsDataSource(DataSourceProperties properties, WorkloadPoolProperties pools,
+                                                MeterRegistry meterRegistry) {
+        return workloadPool(properties, Workload.USER_READS, pools.getUserReads(), meterRegistry);
+    }
+
+    @Bean(autowireCandidate = false)
+    public HikariDataSource reportingDataSource(DataSourceProperties properties, WorkloadPoolProperties pools,
+                                                MeterRegistry meterRegistry) {
+        return workloadPool(properties, Workload.REPORTING, pools.getReporting(), meterRegistry);
+    }
+
+    @Bean
+    public WorkloadPoolAspect workloadPoolAspect() {
+        return new WorkloadPoolAspect();
+    }
+
+    /**
+     * Small pool of the primary used by {@link PooledIdGenerator} to take blocks of IDs, so that taking one never
+     * waits for a connection of the primary pool held by the transaction needing it.
+     */
+    @Bean(autowireCandidate = false)
+    public HikariDataSource idGeneratorDataSource(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("id-generator");
+        dataSource.setMetricRegistry(meterRegistry);
+        dataSource.setMaximumPoolSize(ID_GENERATOR_POOL_SIZE);
+        dataSource.setMinimumIdle(0);
+        return dataSource;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer idGeneratorDataSourceCustomizer(DataSourceProperties properties,
+                                                                         MeterRegistry meterRegistry) {
+        return hibernateProperties -> hibernateProperties.put(PooledIdGenerator.DATA_SOURCE_SETTING,
+                idGeneratorDataSource(properties, meterRegistry));
+    }
+
+    @Bean
+    public PrimaryPinGuard primaryPinGuard(ReplicaRoutingProperties properties) {
+        return new PrimaryPinGuard(properties.getPrimaryPinWindow());
+    }
+
+    /**
+     * Routes each connection to a pool of the primary or to a replica. Closes the replica pools it owns on shutdown.
+     */
+    @Bean(autowireCandidate = false)
+    public ReadWriteRoutingDataSource routingDataSource(DataSourceProperties dataSourceProperties,
+                                                        ReplicaRoutingProperties properties,
+                                                        WorkloadPoolProperties pools,
+                                                        PrimaryPinGuard primaryPinGuard,
+                                                        JdbcLimiterProperties limiterProperties,
+                                                        MeterRegistry meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReplicaRoutingProperties.Replica replica : properties.getReplicas()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            dataSource.setPoolName("replica-" + replicas.size());
+            dataSource.setMaximumPoolSize(properties.getReplicaPoolSize());
+            dataSource.setReadOnly(true);
+            dataSource.setMetricRegistry(meterRegistry);
+            replicas.add(limit(dataSource, dataSource, limiterProperties, meterRegistry));
+        }
+
+        Map<Workload, DataSource> primaryPools = new EnumMap<>(Workload.class);
+        primaryPools.put(Workload.PAYMENTS, timed(paymentsDataSource(dataSourceProperties, meterRegistry),
+                pools.getPayments().getQueryTimeout(), limiterProperties, meterRegistry));
+        primaryPools.put(Workload.USER_READS, timed(userReadsDataSource(dataSourceProperties, pools, meterRegistry),
+                pools.getUserReads().getQueryTimeout(), limiterProperties, meterRegistry));
+        primaryPools.put(Workload.REPORTING, timed(reportingDataSource(dataSourceProperties, pools, meterRegistry),
+                pools.getReporting().getQueryTimeout(), limiterProperties, meterRegistry));
+        return new ReadWriteRoutingDataSource(primaryPools, replicas, primaryPinGuard);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, ReplicaRoutingProperties properties,
+                                 WorkloadPoolProperties pools, PrimaryPinGuard primaryPinGuard,
+                                 JdbcLimiterProperties limiterProperties, MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(routingDataSource(dataSourceProperties, properties, pools,
+                primaryPinGuard, limiterProperties, meterRegistry));
+    }
+
+    private static HikariDataSource workloadPool(DataSourceProperties properties, Workload workload,
+                                                 WorkloadPoolProperties.Pool pool, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(workload.getPoolName());
+        dataSource.setMaximumPoolSize(pool.getMaximumPoolSize());
+        dataSource.setMinimumIdle(0);
+        dataSource.setConnectionTimeout(pool.getConnectionTimeout().toMillis());
+        dataSource.setMetricRegistry(meterRegistry);
+        return dataSource;
+    }
+
+    /**
+     * Bounds the statements of a pool of the primary by its query timeout, then limits the pool.
+     */
+    private static DataSource timed(HikariDataSource pool, Duration queryTimeout, JdbcLimiterProperties properties,
+                                    MeterRegistry meterRegistry) {
+        return limit(new QueryTimeoutDataSource(pool, queryTimeout), pool, properties, meterRegistry);
+    }
+
+    /**
+     * Puts a pool, or a data source wrapping it, behind a limiter with one permit per connection, publishing the
+     * threads holding and waiting for one as {@code jdbc.limiter.active} and {@code jdbc.limiter.waiting}.
+     */
+    private static DataSource limit(DataSource target, HikariDataSource pool, JdbcLimiterProperties properties,
+                                    MeterRegistry meterRegistry) {
+        if (!properties.isEnabled()) {
+            return target;
+        }
+        ConnectionLimitingDataSource limited = new ConnectionLimitingDataSource(target, pool.getMaximumPoolSize(),
+                properties.getAcquireTimeout(), properties.getMaxWaiting());
+        Gauge.builder("jdbc.limiter.active", limited, ConnectionLimitingDataSource::getActive)
+                .tag("pool", pool.getPoolName())
+                .register(meterRegistry);
+        Gauge.builder("jdbc.limiter.waiting", limited, ConnectionLimitingDataSource::getWaiting)
+                .tag("pool", pool.getPoolName())
+                .register(meterRegistry);
+        return limited;
+    }
+}
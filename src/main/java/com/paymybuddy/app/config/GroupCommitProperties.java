@@ -0,0 +1,31 @@
+package com.paymybuddy.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the group commit of payments, bound from {@code paymybuddy.payments.group-commit.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "paymybuddy.payments.group-commit")
+public class GroupCommitProperties {
+
+    /**
+     * Whether concurrent payments are queued and committed together instead of one transaction each.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum number of payments committed in one database transaction.
+     */
+    private int maxBatchSize = 32;
+
+    /**
+     * How long the first payment of a batch waits for others to join it.
+     */
+    private Duration maxLinger = Duration.ofNanos(500_000);
+}
@@ -0,0 +1,31 @@
+package com.paymybuddy.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for idempotency keys on money movement endpoints, bound from {@code paymybuddy.idempotency.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "paymybuddy.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * How long a key and its response are kept; a retry after that runs again.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Maximum number of responses kept in memory, least recently used first out.
+     */
+    private int cacheSize = 10_000;
+
+    /**
+     * How long a retry waits for the first request with the same key to finish before being rejected.
+     */
+    private Duration inProgressWait = Duration.ofSeconds(5);
+}
@@ -0,0 +1,32 @@
+package com.paymybuddy.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Limits on the threads waiting for a database connection, bound from {@code paymybuddy.jdbc-limiter.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "paymybuddy.jdbc-limiter")
+public class JdbcLimiterProperties {
+
+    /**
+     * Whether threads queue for the connections of the primary and replica pools before reaching them, one permit
+     * per pooled connection. Meant for virtual threads, which can be far more numerous than connections.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How long a thread waits for a connection before its request fails.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Number of threads that may wait for a connection of one pool; beyond it, requests fail at once.
+     */
+    private int maxWaiting = 10_000;
+}
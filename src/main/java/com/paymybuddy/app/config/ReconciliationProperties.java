@@ -0,0 +1,29 @@
+package com.paymybuddy.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the balance reconciliation job, bound from {@code paymybuddy.reconciliation.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "paymybuddy.reconciliation")
+public class ReconciliationProperties {
+
+    /**
+     * Width of the user ID range checked by one chunk of queries.
+     */
+    private int chunkSize = 10_000;
+
+    /**
+     * Number of chunks checked at the same time, which is also the number of connections the job holds.
+     */
+    private int parallelism = 4;
+
+    /**
+     * Upper bound on chunks started per second across all workers; 0 means no limit.
+     */
+    private int maxChunksPerSecond = 0;
+}
@@ -0,0 +1,46 @@
+package com.paymybuddy.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas serving read-only transactions, bound from {@code paymybuddy.datasource.*}.
+ *
+ * <p>With no replica configured, every transaction runs on the primary in {@code spring.datasource.*}.</p>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "paymybuddy.datasource")
+public class ReplicaRoutingProperties {
+
+    /**
+     * Replicas taking read-only transactions in turn.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * How long the reads of a user stay on the primary after that user committed a write, so they see it even when
+     * the replicas lag behind.
+     */
+    private Duration primaryPinWindow = Duration.ofSeconds(5);
+
+    /**
+     * Maximum size of the connection pool of each replica.
+     */
+    private int replicaPoolSize = 10;
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,82 @@
+package com.paymybuddy.app.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.paymybuddy.app.entity.Role;
+import com.paymybuddy.app.entity.TransactionFee;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.repository.RoleRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level and query caches, in local Caffeine caches sized and timed per region by
+ * {@link SecondLevelCacheProperties}. Hits, misses and evictions of each region are published as the Micrometer
+ * {@code cache.*} meters, tagged with the region name.
+ *
+ * <p>Only rarely written data is cached. Accounts are not: their balances change through bulk updates, each of
+ * which empties the whole region. Queries fetching an account along with the user are not cached either.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "paymybuddy.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheConfig {
+
+    static final List<String> REGIONS = List.of(
+            User.CACHE_REGION,
+            Role.CACHE_REGION,
+            TransactionFee.CACHE_REGION,
+            UserRepository.REF_CACHE_REGION,
+            RoleRepository.BY_NAME_CACHE_REGION);
+
+    /**
+     * Cache manager of the regions. Each application context gets its own, so two contexts on different databases
+     * never share entries.
+     */
+    @Bean(destroyMethod = "close", autowireCandidate = false)
+    public CacheManager hibernateCacheManager(SecondLevelCacheProperties properties, MeterRegistry meterRegistry) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(URI.create("paymybuddy:hibernate-" + UUID.randomUUID()),
+                getClass().getClassLoader());
+        for (String name : REGIONS) {
+            SecondLevelCacheProperties.Region region = properties.getRegion(name);
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(region.getMaxSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+            configuration.setNativeStatisticsEnabled(true);
+            Cache<Object, Object> cache = cacheManager.createCache(name, configuration);
+            CaffeineCacheMetrics.monitor(meterRegistry,
+                    cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class), name);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(SecondLevelCacheProperties properties,
+                                                                    MeterRegistry meterRegistry) {
+        CacheManager cacheManager = hibernateCacheManager(properties, meterRegistry);
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            // Hibernate's own regions, such as the table update timestamps, are created unbounded and never expire
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create");
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.paymybuddy.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hibernate second-level and query cache regions, bound from {@code paymybuddy.cache.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "paymybuddy.cache")
+public class SecondLevelCacheProperties {
+
+    /**
+     * Whether entities and lookups marked cacheable are kept in local caches.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Settings of the regions without an entry in {@link #regions}.
+     */
+    private Region defaults = new Region();
+
+    /**
+     * Settings per region name.
+     */
+    private Map<String, Region> regions = new HashMap<>();
+
+    /**
+     * The settings of a region, its own or the defaults.
+     *
+     * @param name the region name.
+     * @return the settings to apply.
+     */
+    public Region getRegion(String name) {
+        return regions.getOrDefault(name, defaults);
+    }
+
+    @Getter
+    @Setter
+    public static class Region {
+
+        /**
+         * Maximum number of entries; the least useful are evicted first.
+         */
+        private long maxSize = 1_000;
+
+        /**
+         * How long an entry is kept after being written. Other nodes' writes are only seen once it expires.
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+}
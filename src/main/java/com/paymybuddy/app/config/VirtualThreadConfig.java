@@ -0,0 +1,23 @@
+package com.paymybuddy.app.config;
+
+import com.paymybuddy.app.metrics.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans active when requests, {@code @Async} methods and scheduled tasks run on virtual threads, that is with
+ * {@code spring.threads.virtual.enabled=true} on Java 21 or later.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "close")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(VirtualThreadProperties properties,
+                                                                   MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(meterRegistry, properties.getPinnedThreshold());
+    }
+}
@@ -0,0 +1,22 @@
+package com.paymybuddy.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Monitoring of virtual threads, bound from {@code paymybuddy.virtual-threads.*}. Virtual threads themselves are
+ * turned on with {@code spring.threads.virtual.enabled}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "paymybuddy.virtual-threads")
+public class VirtualThreadProperties {
+
+    /**
+     * How long a virtual thread must stay pinned to its carrier thread before it is reported.
+     */
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+}
@@ -0,0 +1,71 @@
+package com.paymybuddy.app.config;
+
+import com.paymybuddy.app.datasource.Workload;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection pools of the primary per {@link Workload}, bound from {@code paymybuddy.datasource.pools.*}.
+ *
+ * <p>The payments pool is the one of {@code spring.datasource.hikari.*}, which sets its size and connection timeout:
+ * only its query timeout is set here.</p>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "paymybuddy.datasource.pools")
+public class WorkloadPoolProperties {
+
+    /**
+     * Pool of payments and every other write.
+     */
+    private PaymentsPool payments = new PaymentsPool(Duration.ofSeconds(5));
+
+    /**
+     * Pool of the reads made for a user's pages.
+     */
+    private Pool userReads = new Pool(5, Duration.ofSeconds(2), Duration.ofSeconds(5));
+
+    /**
+     * Pool of admin listings, reports and reconciliation; as large as the reconciliation parallelism.
+     */
+    private Pool reporting = new Pool(4, Duration.ofSeconds(30), Duration.ofSeconds(120));
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pool {
+
+        /**
+         * Maximum number of connections of the pool.
+         */
+        private int maximumPoolSize;
+
+        /**
+         * How long a thread waits for a connection of the pool before failing.
+         */
+        private Duration connectionTimeout;
+
+        /**
+         * Longest a statement run on a connection of the pool may run.
+         */
+        private Duration queryTimeout;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PaymentsPool {
+
+        /**
+         * Longest a statement run on a connection of the pool may run.
+         */
+        private Duration queryTimeout;
+    }
+}
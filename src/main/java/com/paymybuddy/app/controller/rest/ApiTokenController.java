@@ -0,0 +1,37 @@
+package com.paymybuddy.app.controller.rest;
+
+import com.paymybuddy.app.dto.ApiTokenDTO;
+import com.paymybuddy.app.security.ApiTokenService;
+import com.paymybuddy.app.security.CustomUserDetails;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller issuing the signed tokens of the API.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class ApiTokenController {
+
+    public static final String TOKEN_PATH = "/api/auth/token";
+
+    private final ApiTokenService apiTokenService;
+
+    /**
+     * Endpoint to exchange the email and password of a user, sent with HTTP Basic, for a token to use on the other
+     * API endpoints.
+     *
+     * @param userDetails The user authenticated by the request
+     * @return The token and its lifetime in seconds
+     */
+    @PostMapping(TOKEN_PATH)
+    public ResponseEntity<ApiTokenDTO> issueToken(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        log.info("Issuing API token for user ID: {}", userDetails.getId());
+        return ResponseEntity.ok(apiTokenService.issue(userDetails));
+    }
+}
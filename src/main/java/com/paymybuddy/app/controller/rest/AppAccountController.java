@@ -2,6 +2,7 @@ package com.paymybuddy.app.controller.rest;
 
 import com.paymybuddy.app.dto.AppAccountDTO;
 import com.paymybuddy.app.entity.AppAccount;
+import com.paymybuddy.app.service.AccountBucketService;
 import com.paymybuddy.app.service.AppAccountService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -23,15 +24,18 @@ import java.math.BigDecimal;
 public class AppAccountController {
 
     private final AppAccountService appAccountService;
+    private final AccountBucketService accountBucketService;
 
 
     /**
      * Constructs an instance of the AppAccountController.
      *
      * @param appAccountService Service to manage AppAccount operations
+     * @param accountBucketService Service spreading the credits of hot accounts over buckets
      */
-    public AppAccountController(AppAccountService appAccountService) {
+    public AppAccountController(AppAccountService appAccountService, AccountBucketService accountBucketService) {
         this.appAccountService = appAccountService;
+        this.accountBucketService = accountBucketService;
     }
 
     /**
@@ -102,6 +106,23 @@ public class AppAccountController {
     }
 
 
+    /**
+     * Spreads the credits of an account over a number of buckets, for accounts receiving many payments.
+     * This method is only accessible by users with the "ROLE_ADMIN" authority.
+     *
+     * @param userId  The ID of the user owning the account
+     * @param buckets The number of buckets, 0 to credit the account directly again
+     * @return A confirmation message, a 400 (BAD REQUEST) if the number is out of range
+     * or a 404 (NOT FOUND) if the account does not exist
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PutMapping("/{userId}/creditBuckets/{buckets}")
+    public ResponseEntity<String> updateCreditBuckets(@PathVariable int userId, @PathVariable int buckets) {
+        log.info("Setting {} credit buckets for account of user {}", buckets, userId);
+        accountBucketService.setCreditBuckets(userId, buckets);
+        return ResponseEntity.ok("Credit buckets updated successfully");
+    }
+
     /**
      * Creates an account for a specific user identified by their user ID.
      * This operation fails if the user already has an existing account.
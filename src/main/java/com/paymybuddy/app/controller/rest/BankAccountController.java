@@ -3,6 +3,7 @@ package com.paymybuddy.app.controller.rest;
 import com.paymybuddy.app.entity.BankAccount;
 import com.paymybuddy.app.entity.User;
 import com.paymybuddy.app.service.BankAccountService;
+import com.paymybuddy.app.service.IdempotencyService;
 import com.paymybuddy.app.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -22,16 +23,20 @@ public class BankAccountController {
 
     private final BankAccountService bankAccountService;
     private final UserService userService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Constructs an instance of the BankAccountController.
      *
      * @param bankAccountService Service to manage BankAccount operations
      * @param userService        Service to manage User operations
+     * @param idempotencyService Service answering retried requests
      */
-    public BankAccountController(BankAccountService bankAccountService, UserService userService) {
+    public BankAccountController(BankAccountService bankAccountService, UserService userService,
+                                 IdempotencyService idempotencyService) {
         this.bankAccountService = bankAccountService;
         this.userService = userService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
@@ -108,34 +113,46 @@ public class BankAccountController {
 
     /**
      * Transfer funds between an AppAccount and a BankAccount.
+     * A request sent again with the same {@value IdempotencyService#HEADER} header gets the first response back.
      *
      * @param appAccountId The ID of the AppAccount
      * @param bankAccountId The ID of the BankAccount
      * @param amount The amount to transfer
+     * @param idempotencyKey A key unique to this transfer, chosen by the client (optional)
      * @return The updated BankAccount or AppAccount with a 200 (OK) status
      */
     @PostMapping("/transferToBankAccount")
     public ResponseEntity<Object> transferToBankAccount(@RequestParam int appAccountId, @RequestParam int bankAccountId,
-                                                        @RequestParam long amount) {
+                                                        @RequestParam long amount,
+                                                        @RequestHeader(value = IdempotencyService.HEADER, required = false)
+                                                        String idempotencyKey) {
         log.info("Transferring {} from AppAccount ID: {} to BankAccount ID: {}", amount, appAccountId, bankAccountId);
-        Object result = bankAccountService.transferToBankAccount(appAccountId, bankAccountId, amount);
+        Object result = idempotencyService.execute("bank-withdrawal:" + appAccountId, idempotencyKey,
+                bankAccountId + "|" + amount, Object.class,
+                () -> bankAccountService.transferToBankAccount(appAccountId, bankAccountId, amount));
         log.info("Transfer successful. New balance for BankAccount ID: {} is {}", bankAccountId, result);
         return ResponseEntity.ok(result);
     }
 
     /**
      * Transfer funds from a BankAccount to an AppAccount.
+     * A request sent again with the same {@value IdempotencyService#HEADER} header gets the first response back.
      *
      * @param appAccountId The ID of the AppAccount
      * @param bankAccountId The ID of the BankAccount
      * @param amount The amount to transfer
+     * @param idempotencyKey A key unique to this transfer, chosen by the client (optional)
      * @return The updated BankAccount or AppAccount with a 200 (OK) status
      */
     @PostMapping("/transferFromBankAccount")
     public ResponseEntity<Object> transferFromBankAccount(@RequestParam int appAccountId, @RequestParam int bankAccountId,
-                                                          @RequestParam long amount) {
+                                                          @RequestParam long amount,
+                                                          @RequestHeader(value = IdempotencyService.HEADER, required = false)
+                                                          String idempotencyKey) {
         log.info("Transferring {} from BankAccount ID: {} to AppAccount ID: {}", amount, bankAccountId, appAccountId);
-        Object result = bankAccountService.transferFromBankAccount(appAccountId, bankAccountId, amount);
+        Object result = idempotencyService.execute("bank-deposit:" + appAccountId, idempotencyKey,
+                bankAccountId + "|" + amount, Object.class,
+                () -> bankAccountService.transferFromBankAccount(appAccountId, bankAccountId, amount));
         log.info("Transfer successful. New balance for AppAccount ID: {} is {}", appAccountId, result);
         return ResponseEntity.ok(result);
     }
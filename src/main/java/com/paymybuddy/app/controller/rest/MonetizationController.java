@@ -4,13 +4,18 @@ import com.paymybuddy.app.dto.MonetizationDTO;
 import com.paymybuddy.app.service.MonetizationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+
 /**
  * Controller for handling monetization-related operations.
  * Provides endpoints to retrieve monetization data for transactions and total monetization.
@@ -55,4 +60,51 @@ public class MonetizationController {
         log.info("Total monetization value: {}", formattedResult);
         return ResponseEntity.ok(formattedResult);
     }
+
+    /**
+     * Endpoint to retrieve the monetization collected on a business day.
+     * This method is secured to allow access only for users with "ROLE_ADMIN".
+     *
+     * @param date The business day, as yyyy-MM-dd
+     * @return The day's monetization formatted as a string with two decimal places
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/daily/{date}")
+    public ResponseEntity<String> getDailyMonetization(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        log.info("Fetching monetization value for day {}", date);
+        return ResponseEntity.ok(formatCents(monetizationService.getDailyResult(date)));
+    }
+
+    /**
+     * Endpoint to retrieve the monetization collected during a month.
+     * This method is secured to allow access only for users with "ROLE_ADMIN".
+     *
+     * @param month The month, as yyyy-MM
+     * @return The month's monetization formatted as a string with two decimal places
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/monthly/{month}")
+    public ResponseEntity<String> getMonthlyMonetization(@PathVariable YearMonth month) {
+        log.info("Fetching monetization value for month {}", month);
+        return ResponseEntity.ok(formatCents(monetizationService.getMonthlyResult(month)));
+    }
+
+    /**
+     * Endpoint to recompute the revenue ledger from the monetization records.
+     * This method is secured to allow access only for users with "ROLE_ADMIN".
+     *
+     * @return The rebuilt total monetization formatted as a string with two decimal places
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/rebuild")
+    public ResponseEntity<String> rebuildRevenueLedger() {
+        log.info("Rebuilding revenue ledger");
+        String formattedResult = formatCents(monetizationService.rebuildRevenueLedger());
+        log.info("Revenue ledger rebuilt, total monetization value: {}", formattedResult);
+        return ResponseEntity.ok(formattedResult);
+    }
+
+    private String formatCents(long cents) {
+        return String.format("%.2f", cents / 100.0);
+    }
 }
@@ -0,0 +1,66 @@
+package com.paymybuddy.app.controller.rest;
+
+import com.paymybuddy.app.entity.ReconciliationDiscrepancy;
+import com.paymybuddy.app.entity.ReconciliationRun;
+import com.paymybuddy.app.service.ReconciliationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller for the balance reconciliation reports.
+ * All endpoints are restricted to users with "ROLE_ADMIN".
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/reconciliation")
+@RequiredArgsConstructor
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    /**
+     * Endpoint to run a reconciliation now instead of waiting for the scheduled one.
+     *
+     * @return The summary of the run
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/run")
+    public ResponseEntity<ReconciliationRun> runReconciliation() {
+        log.info("Running balance reconciliation on request");
+        return ResponseEntity.ok(reconciliationService.reconcile());
+    }
+
+    /**
+     * Endpoint to retrieve the summary of the latest reconciliation.
+     *
+     * @return The latest run
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/latest")
+    public ResponseEntity<ReconciliationRun> getLatestRun() {
+        log.info("Fetching latest reconciliation run");
+        return ResponseEntity.ok(reconciliationService.getLatestRun());
+    }
+
+    /**
+     * Endpoint to retrieve the accounts reported by a reconciliation run.
+     *
+     * @param runId The ID of the run
+     * @return The discrepancies of the run
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/{runId}/discrepancies")
+    public ResponseEntity<List<ReconciliationDiscrepancy>> getDiscrepancies(@PathVariable int runId) {
+        log.info("Fetching discrepancies of reconciliation run {}", runId);
+        return ResponseEntity.ok(reconciliationService.getDiscrepancies(runId));
+    }
+}
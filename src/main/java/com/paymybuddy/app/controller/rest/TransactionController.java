@@ -1,7 +1,10 @@
 package com.paymybuddy.app.controller.rest;
 
+import com.paymybuddy.app.dto.BatchPaymentRequestDTO;
+import com.paymybuddy.app.dto.BatchPaymentResultDTO;
+import com.paymybuddy.app.dto.CursorPage;
 import com.paymybuddy.app.dto.TransactionDTO;
-import com.paymybuddy.app.entity.Transaction;
+import com.paymybuddy.app.service.IdempotencyService;
 import com.paymybuddy.app.service.TransactionService;
 import com.paymybuddy.app.service.UserService;
 import lombok.extern.slf4j.Slf4j;
@@ -22,67 +25,117 @@ import java.util.Map;
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final TransactionService transactionService;
     private final UserService userService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Constructs an instance of TransactionController.
      *
      * @param transactionService Service to manage Transaction operations
      * @param userService        Service to manage User operations
+     * @param idempotencyService Service answering retried requests
      */
-    public TransactionController(TransactionService transactionService, UserService userService) {
+    public TransactionController(TransactionService transactionService, UserService userService,
+                                 IdempotencyService idempotencyService) {
         this.transactionService = transactionService;
         this.userService = userService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
      * Endpoint to create a new transaction between two users.
      * This method processes the transaction and returns a success message with the result.
+     * A request sent again with the same {@value IdempotencyService#HEADER} header gets the first response back
+     * and does not move money twice.
      *
-     * @param senderId    The ID of the sender user
-     * @param receiverId  The ID of the receiver user
-     * @param amount      The transaction amount
-     * @param description The description of the transaction
+     * @param senderId       The ID of the sender user
+     * @param receiverId     The ID of the receiver user
+     * @param amount         The transaction amount
+     * @param description    The description of the transaction
+     * @param idempotencyKey A key unique to this payment, chosen by the client (optional)
      * @return A response message indicating the transaction status
      */
     @PostMapping("/create")
+    @SuppressWarnings("unchecked")
     public ResponseEntity<Map<String, Object>> createTransaction(@RequestParam int senderId,
                                                                  @RequestParam int receiverId,
                                                                  @RequestParam long amount,
-                                                                 @RequestParam String description) {
+                                                                 @RequestParam String description,
+                                                                 @RequestHeader(value = IdempotencyService.HEADER, required = false)
+                                                                 String idempotencyKey) {
         log.info("Creating transaction from user {} to user {} for amount {} with description: {}",
                 senderId, receiverId, amount, description);
 
-        String transactionResult = transactionService.createTransaction(senderId, receiverId, amount, description);
+        String request = receiverId + "|" + amount + "|" + description;
+        Map<String, Object> response = idempotencyService.execute("payment:" + senderId, idempotencyKey, request,
+                Map.class, () -> {
+                    String transactionResult = transactionService.createTransaction(senderId, receiverId, amount, description);
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", transactionResult);
-        response.put("status", "success");
-        response.put("timestamp", System.currentTimeMillis());
+                    Map<String, Object> body = new HashMap<>();
+                    body.put("message", transactionResult);
+                    body.put("status", "success");
+                    body.put("timestamp", System.currentTimeMillis());
 
-        log.info("Transaction created successfully: {}", transactionResult);
+                    log.info("Transaction created successfully: {}", transactionResult);
+                    return body;
+                });
 
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     /**
-     * Endpoint to retrieve the transaction history of a user.
-     * This method returns a list of transactions sent and received by the user.
+     * Endpoint to pay several receivers from one sender at once, in all-or-nothing or best-effort mode.
+     * The outcome of each payment is returned in the order the payments were sent. A request sent again with the
+     * same {@value IdempotencyService#HEADER} header gets the first response back.
+     *
+     * @param request        The sender, the mode and the payments
+     * @param idempotencyKey A key unique to this batch, chosen by the client (optional)
+     * @return The batch outcome, with a 201 (Created) status if at least one payment was made, 400 otherwise
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchPaymentResultDTO> createBatchTransaction(@RequestBody BatchPaymentRequestDTO request,
+                                                                        @RequestHeader(value = IdempotencyService.HEADER, required = false)
+                                                                        String idempotencyKey) {
+        log.info("Creating batch of payments from user {}", request.getSenderId());
+
+        String requestFingerprint = request.getMode() + "|" + request.getPayments();
+        BatchPaymentResultDTO result = idempotencyService.execute("payment-batch:" + request.getSenderId(),
+                idempotencyKey, requestFingerprint, BatchPaymentResultDTO.class,
+                () -> transactionService.createBatchTransaction(request));
+
+        log.info("Batch from user {}: {} paid, {} failed", request.getSenderId(), result.getPaid(), result.getFailed());
+        return ResponseEntity.status(result.getPaid() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST).body(result);
+    }
+
+    /**
+     * Endpoint to retrieve the transaction history of a user, newest first, one page at a time.
+     * When more transactions are available, the cursor of the next page is returned in the
+     * {@value #NEXT_CURSOR_HEADER} response header.
      *
      * @param userId The ID of the user
-     * @return A list of transaction history for the user
+     * @param cursor The cursor of the page to load, as returned with the previous page (omit for the first page)
+     * @param size   The maximum number of transactions to return
+     * @return A page of the transaction history for the user
      */
     @GetMapping("/allByUser/{userId}")
-    public ResponseEntity<List<TransactionDTO>> getTransactionHistory(@PathVariable int userId) {
+    public ResponseEntity<List<TransactionDTO>> getTransactionHistory(@PathVariable int userId,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "" + TransactionService.DEFAULT_HISTORY_PAGE_SIZE) int size) {
         log.info("Fetching transaction history for user with ID: {}", userId);
 
-        List<Transaction> transactionList = transactionService.getTransactionHistoryByUserId(userId);
-        List<TransactionDTO> transactionDTOs = transactionService.convertToDTOList(transactionList);
+        CursorPage<TransactionDTO> page = transactionService.getTransactionHistoryPage(userId, cursor, size);
+        List<TransactionDTO> transactionDTOs = page.getItems();
 
         log.info("Found {} transactions for user {}", transactionDTOs.size(), userId);
 
-        return ResponseEntity.ok(transactionDTOs);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(transactionDTOs);
     }
 
     /**
@@ -1,10 +1,11 @@
 package com.paymybuddy.app.controller.web;
 
 
+import com.paymybuddy.app.dto.CursorPage;
 import com.paymybuddy.app.dto.RelatedUserDTO;
 import com.paymybuddy.app.dto.TransactionDTO;
-import com.paymybuddy.app.entity.Transaction;
 import com.paymybuddy.app.security.CustomUserDetails;
+import com.paymybuddy.app.service.IdempotencyService;
 import com.paymybuddy.app.service.TransactionService;
 import com.paymybuddy.app.service.UserRelationService;
 import com.paymybuddy.app.service.UserService;
@@ -18,6 +19,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
+import java.util.UUID;
 
 @Slf4j
 @Controller
@@ -25,14 +27,18 @@ public class TransactionWebController {
 
     private final UserRelationService userRelationService;
     private final TransactionService transactionService;
+    private final IdempotencyService idempotencyService;
 
-    public TransactionWebController(UserRelationService userRelationService, TransactionService transactionService) {
+    public TransactionWebController(UserRelationService userRelationService, TransactionService transactionService,
+                                    IdempotencyService idempotencyService) {
         this.userRelationService=userRelationService;
         this.transactionService = transactionService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping("/transaction")
-    public String showTransactionPage(Model model, @AuthenticationPrincipal CustomUserDetails userDetails) {
+    public String showTransactionPage(Model model, @AuthenticationPrincipal CustomUserDetails userDetails,
+                                      @RequestParam(required = false) String cursor) {
         if (userDetails == null) {
             log.warn("Tentative d'accès à sans utilisateur connecté.");
             return "redirect:/login";
@@ -42,12 +48,16 @@ public class TransactionWebController {
         String userName=userDetails.getNameUser();
 
         List<RelatedUserDTO> relatedUsers = userRelationService.findRelatedUsers(userId);
-        List<Transaction> transactionList=transactionService.getTransactionHistoryByUserId(userId);
-        List<TransactionDTO> transactionDTOs = transactionService.convertToDTOList(transactionList);
+        CursorPage<TransactionDTO> transactionPage = transactionService.getTransactionHistoryPage(userId, cursor, TransactionService.DEFAULT_HISTORY_PAGE_SIZE);
+        List<TransactionDTO> transactionDTOs = transactionPage.getItems();
         model.addAttribute("relationUserList",relatedUsers);
         model.addAttribute("transactionList",transactionDTOs);
+        model.addAttribute("nextCursor", transactionPage.getNextCursor());
+        model.addAttribute("firstPage", cursor == null || cursor.isBlank());
         model.addAttribute("userId", userId);
         model.addAttribute("currentUsername",userName);
+        // A fresh key per rendered form: submitting the same form twice pays once
+        model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
         return "transactionPage"; // Va chercher "loginPage.html" dans "templates"
     }
 
@@ -56,13 +66,16 @@ public class TransactionWebController {
                                     @RequestParam int receiverId,
                                     @RequestParam long amount,
                                     @RequestParam String description,
+                                    @RequestParam(required = false) String idempotencyKey,
                                     RedirectAttributes redirectAttributes) {
 
         log.info("Creating transaction from user {} to user {} for amount {} with description: {}",
                 senderId, receiverId, amount, description);
 
         try {
-            String transactionResult = transactionService.createTransaction(senderId, receiverId, amount, description);
+            String transactionResult = idempotencyService.execute("payment:" + senderId, idempotencyKey,
+                    receiverId + "|" + amount + "|" + description, String.class,
+                    () -> transactionService.createTransaction(senderId, receiverId, amount, description));
             redirectAttributes.addFlashAttribute("successMessage", transactionResult);
             log.info("Transaction created successfully: {}", transactionResult);
         } catch (Exception e) {
@@ -0,0 +1,74 @@
+package com.paymybuddy.app.datasource;
+
+import com.paymybuddy.app.entity.id.PooledIdGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves the {@value PooledIdGenerator#TABLE} rows past the IDs already in use, once at startup, before requests are
+ * served.
+ *
+ * <p>Tables filled while IDs came from {@code IDENTITY} columns start with no generator row, and would otherwise be
+ * handed IDs from 1 again. A changed allocation size could also make the next block overlap IDs already handed out.
+ * Each row is therefore set to the larger of its value and the highest ID of its table, plus one block: the next
+ * block starts above anything any node has been given. This skips at most one block per table and restart.</p>
+ */
+@Slf4j
+@Component
+public class PooledIdSeeder implements SmartInitializingSingleton {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public PooledIdSeeder(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .forEachEntityDescriptor(persister -> {
+                    if (persister.getGenerator() instanceof PooledIdGenerator generator
+                            && persister instanceof AbstractEntityPersister entityPersister) {
+                        seed(generator, entityPersister.getRootTableName(), persister.getIdentifierColumnNames()[0]);
+                    }
+                });
+    }
+
+    private void seed(PooledIdGenerator generator, String table, String idColumn) {
+        String segment = generator.getSegmentValue();
+        int allocationSize = generator.getIncrementSize();
+        transactionTemplate.executeWithoutResult(status -> {
+            Long stored = jdbcTemplate.query("SELECT " + generator.getValueColumnName() + " FROM " + generator.getTableName()
+                            + " WHERE " + generator.getSegmentColumnName() + " = ? FOR UPDATE",
+                    rs -> rs.next() ? rs.getLong(1) : null, segment);
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table, Long.class);
+            long highest = Math.max(stored == null ? 0 : stored, maxId == null ? 0 : maxId);
+            if (stored == null && highest == 0) {
+                // Empty table: the generator creates its own row on first use
+                return;
+            }
+
+            long next = highest + allocationSize;
+            if (stored == null) {
+                jdbcTemplate.update("INSERT INTO " + generator.getTableName() + " (" + generator.getSegmentColumnName()
+                        + ", " + generator.getValueColumnName() + ") VALUES (?, ?)", segment, next);
+            } else {
+                jdbcTemplate.update("UPDATE " + generator.getTableName() + " SET " + generator.getValueColumnName()
+                        + " = ? WHERE " + generator.getSegmentColumnName() + " = ?", next, segment);
+            }
+            log.info("IDs of {} continue above {} (blocks of {})", table, highest, allocationSize);
+        });
+    }
+}
@@ -0,0 +1,72 @@
+package com.paymybuddy.app.datasource;
+
+import com.paymybuddy.app.security.CustomUserDetails;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers which users wrote recently, so their reads stay on the primary until the replicas have caught up.
+ *
+ * <p>Users are identified by the authenticated principal of the current thread. Work done without an authenticated
+ * user, such as scheduled jobs, is never pinned.</p>
+ */
+public class PrimaryPinGuard {
+
+    private final Map<Integer, Long> pinnedUntil = new ConcurrentHashMap<>();
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+
+    public PrimaryPinGuard(Duration window) {
+        this(window, System::nanoTime);
+    }
+
+    PrimaryPinGuard(Duration window, LongSupplier nanoClock) {
+        this.windowNanos = window.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Pins the reads of a user to the primary for the configured window, starting now.
+     *
+     * @param userId the ID of the user who just wrote.
+     */
+    public void pin(int userId) {
+        pinnedUntil.put(userId, nanoClock.getAsLong() + windowNanos);
+    }
+
+    /**
+     * Tells whether the reads of a user must still go to the primary. Expired pins are dropped on the way.
+     *
+     * @param userId the ID of the user reading.
+     * @return true if the user wrote less than one window ago.
+     */
+    public boolean isPinned(int userId) {
+        Long until = pinnedUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until - nanoClock.getAsLong() > 0) {
+            return true;
+        }
+        pinnedUntil.remove(userId, until);
+        return false;
+    }
+
+    /**
+     * Returns the ID of the authenticated user of the current thread.
+     *
+     * @return the user ID, or null if no application user is authenticated.
+     */
+    public static Integer currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails userDetails) {
+            return userDetails.getId();
+        }
+        return null;
+    }
+}
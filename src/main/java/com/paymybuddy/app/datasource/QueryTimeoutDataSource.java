@@ -0,0 +1,94 @@
+package com.paymybuddy.app.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Gives every statement created on its connections a query timeout, after which the driver cancels it. A timeout
+ * set on the statement afterwards, such as a query hint, replaces it.
+ *
+ * <p>JDBC counts timeouts in whole seconds, so the timeout is rounded up; zero leaves statements unbounded.</p>
+ */
+public class QueryTimeoutDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final int queryTimeoutSeconds;
+
+    public QueryTimeoutDataSource(DataSource target, Duration queryTimeout) {
+        super(target);
+        this.queryTimeoutSeconds = (int) Math.ceil(queryTimeout.toMillis() / 1000.0);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * @return the query timeout given to statements, in seconds.
+     */
+    public int getQueryTimeoutSeconds() {
+        return queryTimeoutSeconds;
+    }
+
+    /**
+     * Closes the target data source if it can be closed.
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection timed(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(QueryTimeoutDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new TimeoutHandler(connection));
+    }
+
+    /**
+     * Sets the timeout on the statements the connection creates.
+     */
+    private class TimeoutHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        TimeoutHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "Timed connection [" + target + "]";
+                default -> {
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                    if (result instanceof Statement statement) {
+                        statement.setQueryTimeout(queryTimeoutSeconds);
+                    }
+                    yield result;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.paymybuddy.app.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the replicas, in turn, and everything else to the pool of the primary matching the
+ * {@link WorkloadContext workload} of the thread.
+ *
+ * <p>The routing key is read when the connection is first used, so this data source must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager opens the
+ * connection before it publishes the read-only flag of the transaction.</p>
+ *
+ * <p>A read-write transaction run for an authenticated user pins that user's reads to the primary once it commits,
+ * see {@link PrimaryPinGuard}.</p>
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<DataSource> replicas;
+    private final int replicaCount;
+    private final PrimaryPinGuard pinGuard;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(Map<Workload, ? extends DataSource> primaryPools, List<? extends DataSource> replicas,
+                                      PrimaryPinGuard pinGuard) {
+        Map<Object, Object> targets = new HashMap<>(primaryPools);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primaryPools.get(Workload.PAYMENTS));
+        setLenientFallback(false);
+        afterPropertiesSet();
+        this.replicas = List.copyOf(replicas);
+        this.replicaCount = replicas.size();
+        this.pinGuard = pinGuard;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Workload workload = WorkloadContext.current();
+        if (replicaCount == 0) {
+            return workload;
+        }
+
+        Integer userId = PrimaryPinGuard.currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pinAfterCommit(userId);
+            return workload;
+        }
+        if (userId != null && pinGuard.isPinned(userId)) {
+            log.debug("Reads of user {} pinned to the primary", userId);
+            return workload;
+        }
+        return Math.floorMod(nextReplica.getAndIncrement(), replicaCount);
+    }
+
+    /**
+     * Closes the replica pools. The pools of the primary are beans of their own and are closed by the container.
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private void pinAfterCommit(Integer userId) {
+        if (userId == null || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pinGuard.pin(userId);
+            }
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.paymybuddy.app.datasource;
+
+/**
+ * Kinds of database work, each given a connection pool of its own on the primary so that one cannot use up the
+ * connections of another.
+ */
+public enum Workload {
+
+    /**
+     * Payments and every other write; the default of any work not marked otherwise.
+     */
+    PAYMENTS("payments"),
+
+    /**
+     * Reads made for a user's pages: history, contacts, balance.
+     */
+    USER_READS("user-reads"),
+
+    /**
+     * Admin listings, revenue reports and reconciliation, which may read many rows.
+     */
+    REPORTING("reporting");
+
+    private final String poolName;
+
+    Workload(String poolName) {
+        this.poolName = poolName;
+    }
+
+    /**
+     * @return the name of the pool of this workload, as tagged on its metrics.
+     */
+    public String getPoolName() {
+        return poolName;
+    }
+}
@@ -0,0 +1,63 @@
+package com.paymybuddy.app.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Workload of the current thread, read by {@link ReadWriteRoutingDataSource} when a connection is first used.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    /**
+     * @return the workload of the current thread, {@link Workload#PAYMENTS} when none was set.
+     */
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload == null ? Workload.PAYMENTS : workload;
+    }
+
+    /**
+     * Runs a task under a workload, for work handed to threads that {@link WorkloadPool} does not reach.
+     *
+     * @param workload the workload of the task.
+     * @param task     the task.
+     * @return the result of the task.
+     */
+    public static <T> T call(Workload workload, Supplier<T> task) {
+        Workload previous = enter(workload);
+        try {
+            return task.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Sets the workload of the current thread.
+     *
+     * @param workload the workload to run under.
+     * @return the workload it replaces, to give back to {@link #restore(Workload)}; null when none was set.
+     */
+    static Workload enter(Workload workload) {
+        Workload previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    /**
+     * Puts back the workload replaced by {@link #enter(Workload)}.
+     *
+     * @param previous the workload returned by {@code enter}.
+     */
+    static void restore(Workload previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.paymybuddy.app.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the database work of a method, or of every method of a class, on the pool of a workload. A method's
+ * annotation wins over its class's.
+ *
+ * <p>Only the first connection of a transaction is routed: a method called from a transaction already holding one
+ * uses it, whatever its workload.</p>
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface WorkloadPool {
+
+    Workload value();
+}
@@ -0,0 +1,38 @@
+package com.paymybuddy.app.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Sets the workload of the methods marked with {@link WorkloadPool} for as long as they run. Runs before the
+ * transaction interceptor, so the transaction's first connection is taken under the workload.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class WorkloadPoolAspect {
+
+    @Around("@within(com.paymybuddy.app.datasource.WorkloadPool) "
+            + "|| @annotation(com.paymybuddy.app.datasource.WorkloadPool)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        Workload previous = WorkloadContext.enter(workload(joinPoint));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    private static Workload workload(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        WorkloadPool pool = AnnotatedElementUtils.findMergedAnnotation(signature.getMethod(), WorkloadPool.class);
+        if (pool == null) {
+            pool = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), WorkloadPool.class);
+        }
+        return pool.value();
+    }
+}
@@ -0,0 +1,16 @@
+package com.paymybuddy.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A signed token for the {@code /api/**} endpoints, to send as {@code Authorization: Bearer <accessToken>}.
+ */
+@Getter
+@AllArgsConstructor
+public class ApiTokenDTO {
+
+    private String accessToken;
+    private String tokenType;
+    private long expiresIn;
+}
@@ -0,0 +1,18 @@
+package com.paymybuddy.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One payment of a batch. The amount is in euros, like the single payment endpoint.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPaymentItemDTO {
+
+    private int receiverId;
+    private long amount;
+    private String description;
+}
@@ -0,0 +1,30 @@
+package com.paymybuddy.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one payment of a batch, in the order the payments were sent.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPaymentItemResultDTO {
+
+    public enum Status {
+        /** The payment was made. */
+        PAID,
+        /** The payment cannot be made; see the message. */
+        FAILED,
+        /** The payment is valid but was not made because another payment of the batch failed. */
+        NOT_PAID
+    }
+
+    private int index;
+    private int receiverId;
+    private long amount;
+    private Status status;
+    private Integer transactionId;
+    private String message;
+}
@@ -0,0 +1,31 @@
+package com.paymybuddy.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One sender paying several receivers in a single request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPaymentRequestDTO {
+
+    /**
+     * How a batch reacts to a payment that cannot be made.
+     */
+    public enum Mode {
+        /** One failing payment fails the whole batch: nothing is paid. */
+        ALL_OR_NOTHING,
+        /** Failing payments are left out and the others are paid. */
+        BEST_EFFORT
+    }
+
+    private int senderId;
+    private Mode mode = Mode.ALL_OR_NOTHING;
+    private List<BatchPaymentItemDTO> payments = new ArrayList<>();
+}
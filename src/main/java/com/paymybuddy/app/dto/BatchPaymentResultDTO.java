@@ -0,0 +1,22 @@
+package com.paymybuddy.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch of payments: what was debited from the sender and the result of each payment.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPaymentResultDTO {
+
+    private BatchPaymentRequestDTO.Mode mode;
+    private int paid;
+    private int failed;
+    private long totalDebited;
+    private List<BatchPaymentItemResultDTO> results;
+}
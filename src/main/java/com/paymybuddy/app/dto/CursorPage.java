@@ -0,0 +1,30 @@
+package com.paymybuddy.app.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated list.
+ *
+ * @param <T> the type of the items.
+ */
+@Getter
+public class CursorPage<T> {
+
+    private final List<T> items;
+
+    /**
+     * Opaque cursor pointing after the last item, or {@code null} when there is nothing more to load.
+     */
+    private final String nextCursor;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.paymybuddy.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * What authentication needs to know about a user: its ID, email, password hash, role name, name and soft delete
+ * flag, read in one query without loading the {@link com.paymybuddy.app.entity.User} entity or its account.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class LoginPrincipal {
+
+    private int id;
+    private String email;
+    private String password;
+    private String roleName;
+    private String userName;
+    private boolean deleted;
+}
@@ -0,0 +1,18 @@
+package com.paymybuddy.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One monetization row with the date of its transaction, as read when rebuilding the revenue ledger.
+ */
+@Getter
+@AllArgsConstructor
+public class RevenueEntryDTO {
+
+    private int monetizationId;
+    private long result;
+    private LocalDateTime transactionDate;
+}
@@ -0,0 +1,15 @@
+package com.paymybuddy.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Revenue of a period: the fees collected (in cents) and the number of monetized transactions.
+ */
+@Getter
+@AllArgsConstructor
+public class RevenueSummaryDTO {
+
+    private long amount;
+    private long entryCount;
+}
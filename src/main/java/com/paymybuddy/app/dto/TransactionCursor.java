@@ -0,0 +1,63 @@
+package com.paymybuddy.app.dto;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a transaction history ordered by date then ID, both descending.
+ * Exchanged with clients as an opaque URL-safe string.
+ */
+@Getter
+public class TransactionCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime transactionDate;
+    private final int id;
+
+    public TransactionCursor(LocalDateTime transactionDate, int id) {
+        this.transactionDate = transactionDate;
+        this.id = id;
+    }
+
+    /**
+     * Cursor placed before the newest transaction.
+     */
+    public static TransactionCursor first() {
+        return new TransactionCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Integer.MAX_VALUE);
+    }
+
+    public static TransactionCursor after(TransactionDTO transaction) {
+        return new TransactionCursor(transaction.getTransactionDate(), transaction.getId());
+    }
+
+    /**
+     * Decodes a cursor received from a client.
+     *
+     * @param encoded the cursor string, or {@code null}/blank for the first page.
+     * @return the decoded cursor.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public static TransactionCursor decode(String encoded) {
+        if (encoded == null || encoded.isBlank()) {
+            return first();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new TransactionCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Integer.parseInt(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor.", e);
+        }
+    }
+
+    public String encode() {
+        String raw = transactionDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,13 +1,18 @@
 package com.paymybuddy.app.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class TransactionDTO {
 
+    private int id;
     private int senderId;
     private String senderName;
     private int receiverId;
@@ -0,0 +1,15 @@
+package com.paymybuddy.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * An amount (in cents) attached to a user, as read by grouped reconciliation queries.
+ */
+@Getter
+@AllArgsConstructor
+public class UserAmountDTO {
+
+    private int userId;
+    private long amount;
+}
@@ -0,0 +1,21 @@
+package com.paymybuddy.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Lightweight reference to a user: its ID, name and soft delete flag, read in one query without loading the
+ * {@link com.paymybuddy.app.entity.User} entity or any of its associations.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class UserRef {
+
+    private int id;
+    private String userName;
+    private boolean deleted;
+}
@@ -0,0 +1,31 @@
+package com.paymybuddy.app.entity;
+
+import com.paymybuddy.app.entity.id.AccountBucketId;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Credits received by a bucketed account and not yet folded into its {@code app_account} row.
+ *
+ * <p>The balance of the account is its {@code app_account} balance plus the amounts of all its buckets. Spreading
+ * credits over several rows lets payments to the same receiver commit without waiting for each other.</p>
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "app_account_bucket")
+@IdClass(AccountBucketId.class)
+public class AccountBucket {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private int userId;
+
+    @Id
+    @Column(name = "slot", nullable = false)
+    private int slot;
+
+    @Column(name = "amount", nullable = false)
+    private long amount;
+}
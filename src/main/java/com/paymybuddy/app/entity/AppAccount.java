@@ -1,9 +1,12 @@
 package com.paymybuddy.app.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.paymybuddy.app.entity.id.PooledId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -16,11 +19,13 @@ import java.time.LocalDateTime;
 public class AppAccount {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId
     @Column(name = "account_id")
     private int id;
 
-    @OneToOne
+    // Lazy proxy, not serialized: callers already know whose account it is.
+    @JsonIgnore
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id",nullable = false)
     private User user;
 
@@ -39,4 +44,13 @@ public class AppAccount {
     @Column(name = "daily_limit",nullable = false)
     private long dailyLimit;
 
+    // Number of app_account_bucket rows credits are spread over; 0 credits this row directly
+    @ColumnDefault("0")
+    @Column(name = "credit_buckets", nullable = false)
+    private int creditBuckets;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
 }
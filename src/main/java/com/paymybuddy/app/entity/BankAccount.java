@@ -1,5 +1,6 @@
 package com.paymybuddy.app.entity;
 
+import com.paymybuddy.app.entity.id.PooledId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import lombok.Getter;
@@ -13,7 +14,7 @@ import java.time.LocalDateTime;
 public class BankAccount {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId
     @Column(name = "transfer_id")
     private int id;
 
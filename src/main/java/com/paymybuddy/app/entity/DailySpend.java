@@ -0,0 +1,30 @@
+package com.paymybuddy.app.entity;
+
+import com.paymybuddy.app.entity.id.DailySpendId;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Running total of what the owner of an account sent on a given business day.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "daily_spend")
+@IdClass(DailySpendId.class)
+public class DailySpend {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private int userId;
+
+    @Id
+    @Column(name = "spend_date", nullable = false)
+    private LocalDate spendDate;
+
+    @Column(name = "amount", nullable = false)
+    private long amount;
+}
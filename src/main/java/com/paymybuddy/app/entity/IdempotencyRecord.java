@@ -0,0 +1,39 @@
+package com.paymybuddy.app.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A request made with an idempotency key, and its response once it has completed.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "idempotency_key", indexes = {
+        @Index(name = "idx_idempotency_key_expires_at", columnList = "expires_at")
+})
+public class IdempotencyRecord {
+
+    // Scope of the request (operation and owner) followed by the key sent by the client.
+    @Id
+    @Column(name = "id", length = 128)
+    private String id;
+
+    // SHA-256 of the request parameters, to refuse a key reused for another request.
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    // JSON of the response; null while the first request is still running.
+    @Lob
+    @Column(name = "response_body")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
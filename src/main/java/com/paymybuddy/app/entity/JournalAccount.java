@@ -0,0 +1,17 @@
+package com.paymybuddy.app.entity;
+
+/**
+ * The side of the books a {@link JournalEntry} is posted to.
+ */
+public enum JournalAccount {
+    /** The app account balance of a user. */
+    USER_BALANCE,
+    /** The fees collected by the platform. */
+    FEE_REVENUE,
+    /** Money moved to or from the users' external bank accounts. */
+    BANK,
+    /** Manual balance corrections made by an administrator. */
+    ADJUSTMENT,
+    /** Balances held before the journal was started, posted once by {@code 09_journal_opening_balance.sql}. */
+    OPENING
+}
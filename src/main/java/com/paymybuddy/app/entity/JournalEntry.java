@@ -0,0 +1,58 @@
+package com.paymybuddy.app.entity;
+
+import com.paymybuddy.app.entity.id.PooledId;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of the append-only payment journal.
+ *
+ * <p>A payment is posted as a debit of the sender, a credit of the receiver and a credit of the fee revenue, whose
+ * amounts add up to zero. Bank transfers and manual corrections are posted the same way against the {@code BANK} and
+ * {@code ADJUSTMENT} accounts, and balances that predate the journal once against {@code OPENING}, so the lines of a
+ * user always add up to their balance. Rows are never updated or deleted: a cancellation posts the opposite of each
+ * line, pointing back at it through {@code reversal_of}.</p>
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "journal_entry", indexes = {
+        @Index(name = "idx_journal_entry_transaction", columnList = "transaction_id"),
+        @Index(name = "idx_journal_entry_user", columnList = "user_id, id")
+})
+public class JournalEntry {
+
+    @Id
+    @PooledId
+    @Column(name = "id")
+    private long id;
+
+    // Set on payment lines. Not a foreign key, the journal outlives the rows it was posted for.
+    @Column(name = "transaction_id", updatable = false)
+    private Integer transactionId;
+
+    // Set on bank transfer lines.
+    @Column(name = "bank_account_id", updatable = false)
+    private Integer bankAccountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "account", nullable = false, updatable = false, length = 16)
+    private JournalAccount account;
+
+    // Set on USER_BALANCE lines only.
+    @Column(name = "user_id", updatable = false)
+    private Integer userId;
+
+    // In cents; positive for a credit, negative for a debit.
+    @Column(name = "amount", nullable = false, updatable = false)
+    private long amount;
+
+    @Column(name = "reversal_of", updatable = false)
+    private Long reversalOf;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
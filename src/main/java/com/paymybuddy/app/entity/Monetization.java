@@ -1,5 +1,6 @@
 package com.paymybuddy.app.entity;
 
+import com.paymybuddy.app.entity.id.PooledId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -11,7 +12,7 @@ import lombok.Setter;
 public class Monetization {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId
     @Column(name="id")
     int id;
 
@@ -0,0 +1,37 @@
+package com.paymybuddy.app.entity;
+
+import com.paymybuddy.app.entity.id.PooledId;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * An account whose recorded balance did not match the net of its journal lines during a reconciliation run.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "reconciliation_discrepancy", indexes = {
+        @Index(name = "idx_reconciliation_discrepancy_run", columnList = "run_id, user_id")
+})
+public class ReconciliationDiscrepancy {
+
+    @Id
+    @PooledId
+    @Column(name = "id")
+    private long id;
+
+    @Column(name = "run_id", nullable = false)
+    private int runId;
+
+    @Column(name = "user_id", nullable = false)
+    private int userId;
+
+    // Balance of the app_account row plus credits still in its buckets, in cents.
+    @Column(name = "recorded_balance", nullable = false)
+    private long recordedBalance;
+
+    // Net of the user's journal lines, in cents.
+    @Column(name = "expected_balance", nullable = false)
+    private long expectedBalance;
+}
@@ -0,0 +1,35 @@
+package com.paymybuddy.app.entity;
+
+import com.paymybuddy.app.entity.id.PooledId;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Summary of one balance reconciliation; its mismatches are stored as {@link ReconciliationDiscrepancy} rows.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "reconciliation_run")
+public class ReconciliationRun {
+
+    @Id
+    @PooledId
+    @Column(name = "id")
+    private int id;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at", nullable = false)
+    private LocalDateTime finishedAt;
+
+    @Column(name = "accounts_checked", nullable = false)
+    private long accountsChecked;
+
+    @Column(name = "discrepancy_count", nullable = false)
+    private int discrepancyCount;
+}
@@ -0,0 +1,41 @@
+package com.paymybuddy.app.entity;
+
+import com.paymybuddy.app.entity.id.RevenueBucketId;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Running revenue total of one period, kept in step with the {@code monetization} table.
+ *
+ * <p>Each period is split over a few slots so concurrent payments do not all update the same row; the revenue of a
+ * period is the sum of its slots.</p>
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "revenue_bucket")
+@IdClass(RevenueBucketId.class)
+public class RevenueBucket {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "period", length = 8, nullable = false)
+    private RevenuePeriod period;
+
+    @Id
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Id
+    @Column(name = "slot", nullable = false)
+    private int slot;
+
+    @Column(name = "amount", nullable = false)
+    private long amount;
+
+    @Column(name = "entry_count", nullable = false)
+    private long entryCount;
+}
@@ -0,0 +1,13 @@
+package com.paymybuddy.app.entity;
+
+/**
+ * Granularity of a {@link RevenueBucket}.
+ */
+public enum RevenuePeriod {
+    /** All-time revenue; the bucket date is always {@link java.time.LocalDate#EPOCH}. */
+    TOTAL,
+    /** Revenue of one business day. */
+    DAY,
+    /** Revenue of one month; the bucket date is the first day of the month. */
+    MONTH
+}
@@ -1,8 +1,11 @@
 package com.paymybuddy.app.entity;
 
+import com.paymybuddy.app.entity.id.PooledId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
@@ -10,10 +13,14 @@ import java.math.BigDecimal;
 @Getter
 @Entity
 @Table(name = "roles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Role.CACHE_REGION)
 public class Role {
 
+    public static final String CACHE_REGION = "role";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId
     @Column(name = "role_id")
     private int id;
 
@@ -1,5 +1,6 @@
 package com.paymybuddy.app.entity;
 
+import com.paymybuddy.app.entity.id.PooledId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -11,13 +12,16 @@ import java.time.LocalDateTime;
 @Entity
 @Setter
 @Getter
-@Table(name = "transaction")
+@Table(name = "transaction", indexes = {
+        @Index(name = "idx_transaction_sender_date", columnList = "sender_id, transaction_date"),
+        @Index(name = "idx_transaction_receiver_date", columnList = "receiver_id, transaction_date")
+})
 public class Transaction {
 
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId
     private int id;
 
     @ManyToOne
@@ -40,5 +44,16 @@ public class Transaction {
     @Column(name = "transaction_date", nullable = false, updatable = false)
     private LocalDateTime transactionDate;
 
+    // Fee in effect when the payment was made; not a foreign key, fees can be deleted later.
+    @Column(name = "fee_id", updatable = false)
+    private Integer feeId;
+
+    @Column(name = "fee_percentage", updatable = false)
+    private Long feePercentage;
+
+    // Set when the payment is canceled; the row is kept and the journal holds the reversal.
+    @Column(name = "canceled_at")
+    private LocalDateTime canceledAt;
+
 
 }
@@ -1,20 +1,29 @@
 package com.paymybuddy.app.entity;
 
+import com.paymybuddy.app.entity.id.PooledId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "transactions_fee")
+@Table(name = "transactions_fee", indexes = {
+        @Index(name = "idx_transactions_fee_effective_date", columnList = "effective_date")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = TransactionFee.CACHE_REGION)
 public class TransactionFee {
 
+    public static final String CACHE_REGION = "transaction-fee";
+
     @Id
     @Column(name = "fee_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId
     private int id;
 
     @Column(name = "percentage",nullable = false)
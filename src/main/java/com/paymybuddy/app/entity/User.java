@@ -1,24 +1,52 @@
 package com.paymybuddy.app.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.paymybuddy.app.entity.id.PooledId;
 import jakarta.persistence.*;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * A user of the application.
+ *
+ * <p>Equality is based on the database identity only and {@link #toString()} prints scalar fields only, so comparing,
+ * hashing or logging a user never loads its relations or transactions. Those lists are not serialized to JSON either.
+ * The {@value #WITH_ROLE_AND_ACCOUNT} graph fetches the role and account in the same query as the user.</p>
+ *
+ * <p>Users are kept in the {@value #CACHE_REGION} second-level cache region; their relations and transactions are
+ * not.</p>
+ */
 @Entity
 @Table(name = "users")
-@Data
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NamedEntityGraph(name = User.WITH_ROLE_AND_ACCOUNT, attributeNodes = {
+        @NamedAttributeNode("role"),
+        @NamedAttributeNode("appAccount")
+})
+@Getter
+@Setter
+@ToString(onlyExplicitlyIncluded = true)
 public class User {
 
+    public static final String WITH_ROLE_AND_ACCOUNT = "User.withRoleAndAccount";
+    public static final String CACHE_REGION = "user";
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId
     @Column(name = "id")
+    @ToString.Include
     private int id;
 
     @Column(name = "username", nullable = false)
+    @ToString.Include
     private String userName;
 
     @Column(name = "email", nullable = false, unique = true)
@@ -35,6 +63,7 @@ public class User {
     private LocalDateTime createdAt;
 
     @Column(name = "is_deleted", nullable = false)
+    @ToString.Include
     private boolean isDeleted = false;
 
     @PrePersist
@@ -42,6 +71,7 @@ public class User {
         this.createdAt = LocalDateTime.now();
     }
 
+    @JsonIgnore
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private AppAccount appAccount;
 
@@ -53,16 +83,20 @@ public class User {
     }
 
 
+    @JsonIgnore
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<UserRelation> userRelations = new ArrayList<>();
 
+    @JsonIgnore
     @OneToMany(mappedBy = "relatedUser", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<UserRelation> relatedUserRelations = new ArrayList<>();
 
 
+    @JsonIgnore
     @OneToMany(mappedBy = "userSender",cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Transaction> senderTransactions = new ArrayList<>();
 
+    @JsonIgnore
     @OneToMany(mappedBy = "userReceiver",cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Transaction> receiverTransactions = new ArrayList<>();
 
@@ -93,4 +127,20 @@ public class User {
         userRelation.setUser(this);
     }
 
-}
\ No newline at end of file
+    /**
+     * Two users are equal when they have the same ID; a user not saved yet is only equal to itself.
+     * Works with Hibernate proxies, whose ID is read without loading them.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof User other)) return false;
+        return id != 0 && id == other.getId();
+    }
+
+    @Override
+    public int hashCode() {
+        // Constant, so a user keeps its hash when it gets its ID on save.
+        return User.class.hashCode();
+    }
+}
@@ -2,11 +2,20 @@ package com.paymybuddy.app.entity;
 
 import com.paymybuddy.app.entity.id.UserRelationId;
 import jakarta.persistence.*;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
-import java.util.Date;
-@Data
+import java.util.Objects;
+
+/**
+ * A relation added by a user to another one. Equality only uses the two user IDs and {@link #toString()} the scalar
+ * fields, so neither loads the {@link User} entities.
+ */
+@Getter
+@Setter
+@ToString(exclude = {"user", "relatedUser"})
 @Entity
 @Table(name = "user_relation")
 @IdClass(UserRelationId.class)
@@ -34,6 +43,16 @@ public class UserRelation {
 
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
-}
-
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UserRelation other)) return false;
+        return userId == other.getUserId() && userRelationId == other.getUserRelationId();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, userRelationId);
+    }
+}
@@ -0,0 +1,34 @@
+package com.paymybuddy.app.entity.id;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Setter
+@Getter
+public class AccountBucketId implements Serializable {
+    private int userId;
+    private int slot;
+
+    public AccountBucketId() {}
+
+    public AccountBucketId(int userId, int slot) {
+        this.userId = userId;
+        this.slot = slot;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AccountBucketId that = (AccountBucketId) o;
+        return userId == that.userId && slot == that.slot;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, slot);
+    }
+}
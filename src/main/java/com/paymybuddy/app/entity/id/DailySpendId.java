@@ -0,0 +1,35 @@
+package com.paymybuddy.app.entity.id;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Setter
+@Getter
+public class DailySpendId implements Serializable {
+    private int userId;
+    private LocalDate spendDate;
+
+    public DailySpendId() {}
+
+    public DailySpendId(int userId, LocalDate spendDate) {
+        this.userId = userId;
+        this.spendDate = spendDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DailySpendId that = (DailySpendId) o;
+        return userId == that.userId && Objects.equals(spendDate, that.spendDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, spendDate);
+    }
+}
@@ -0,0 +1,20 @@
+package com.paymybuddy.app.entity.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Marks an entity ID taken from the {@value PooledIdGenerator#TABLE} table by blocks, see {@link PooledIdGenerator}.
+ * Replaces {@code @GeneratedValue(strategy = GenerationType.IDENTITY)}, which keeps Hibernate from batching inserts.
+ */
+@IdGeneratorType(PooledIdGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface PooledId {
+}
@@ -0,0 +1,148 @@
+package com.paymybuddy.app.entity.id;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.Properties;
+
+/**
+ * Hands out entity IDs by blocks from one row per entity table in {@value #TABLE}, with Hibernate's pooled
+ * optimizer.
+ *
+ * <p>Unlike {@code IDENTITY} columns, the ID is known before the insert, so Hibernate can send the inserts of a
+ * flush as JDBC batches. One round trip to {@value #TABLE} is made every {@value #ALLOCATION_SIZE_SETTING} IDs (50 by
+ * default); IDs left unused in a block when the application stops are skipped, so IDs are increasing but not
+ * contiguous. The size is read from the Hibernate settings, i.e. {@code spring.jpa.properties.}{@value
+ * #ALLOCATION_SIZE_SETTING}.</p>
+ *
+ * <p>A block is taken in its own transaction, outside the one of the insert. When the Hibernate settings hold a
+ * {@link DataSource} under {@value #DATA_SOURCE_SETTING}, its connections are used for this: taking them from the
+ * application pool could wait forever once every connection of that pool is held by a transaction needing a block.
+ * Without it, Hibernate's own {@link TableGenerator} access is used.</p>
+ */
+public class PooledIdGenerator extends TableGenerator {
+
+    public static final String TABLE = "id_generator";
+    public static final String ALLOCATION_SIZE_SETTING = "paymybuddy.id.allocation-size";
+    public static final String DATA_SOURCE_SETTING = "paymybuddy.id.data-source";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    private DataSource dataSource;
+    private boolean storeLastUsedValue;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        ConfigurationService configurationService = serviceRegistry.requireService(ConfigurationService.class);
+        int allocationSize = configurationService.getSetting(ALLOCATION_SIZE_SETTING, StandardConverters.INTEGER,
+                DEFAULT_ALLOCATION_SIZE);
+        if (allocationSize < 1) {
+            throw new MappingException(ALLOCATION_SIZE_SETTING + " must be at least 1, was " + allocationSize);
+        }
+        params.setProperty(TABLE_PARAM, TABLE);
+        params.setProperty(CONFIG_PREFER_SEGMENT_PER_ENTITY, "true");
+        params.setProperty(OptimizableGenerator.INCREMENT_PARAM, String.valueOf(allocationSize));
+        params.setProperty(OptimizableGenerator.OPT_PARAM, "pooled");
+        super.configure(type, params, serviceRegistry);
+
+        // Same row format as TableGenerator, so both ways of taking a block can share the table
+        storeLastUsedValue = configurationService.getSetting(AvailableSettings.TABLE_GENERATOR_STORE_LAST_USED,
+                StandardConverters.BOOLEAN, true);
+        Object configured = configurationService.getSettings().get(DATA_SOURCE_SETTING);
+        if (configured instanceof DataSource configuredDataSource) {
+            dataSource = configuredDataSource;
+        }
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        if (dataSource == null) {
+            return super.generate(session, object);
+        }
+        return getOptimizer().generate(new AccessCallback() {
+            @Override
+            public IntegralDataTypeHolder getNextValue() {
+                return nextBlock();
+            }
+
+            @Override
+            public String getTenantIdentifier() {
+                return session.getTenantIdentifier();
+            }
+        });
+    }
+
+    private IntegralDataTypeHolder nextBlock() {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                long stored = lockRow(connection);
+                try (PreparedStatement update = connection.prepareStatement("UPDATE " + getTableName() + " SET "
+                        + getValueColumnName() + " = ? WHERE " + getSegmentColumnName() + " = ?")) {
+                    update.setLong(1, stored + getIncrementSize());
+                    update.setString(2, getSegmentValue());
+                    update.executeUpdate();
+                }
+                connection.commit();
+                IntegralDataTypeHolder value = IdentifierGeneratorHelper.getIntegralDataTypeHolder(
+                        getIdentifierType().getReturnedClass());
+                value.initialize(storeLastUsedValue ? stored + 1 : stored);
+                return value;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new HibernateException("Could not take a block of IDs for " + getSegmentValue(), e);
+        }
+    }
+
+    /**
+     * Locks the row of this entity table until the end of the transaction, creating it on first use.
+     *
+     * @param connection the connection to use, outside auto-commit.
+     * @return the value of the row.
+     * @throws SQLException if the row cannot be read or created.
+     */
+    private long lockRow(Connection connection) throws SQLException {
+        while (true) {
+            try (PreparedStatement select = connection.prepareStatement("SELECT " + getValueColumnName() + " FROM "
+                    + getTableName() + " WHERE " + getSegmentColumnName() + " = ? FOR UPDATE")) {
+                select.setString(1, getSegmentValue());
+                try (ResultSet resultSet = select.executeQuery()) {
+                    if (resultSet.next()) {
+                        return resultSet.getLong(1);
+                    }
+                }
+            }
+
+            long initial = storeLastUsedValue ? getInitialValue() - 1 : getInitialValue();
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + getTableName() + " ("
+                    + getSegmentColumnName() + ", " + getValueColumnName() + ") VALUES (?, ?)")) {
+                insert.setString(1, getSegmentValue());
+                insert.setLong(2, initial);
+                insert.executeUpdate();
+                return initial;
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // Another node created the row first: lock that one
+                connection.rollback();
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.paymybuddy.app.entity.id;
+
+import com.paymybuddy.app.entity.RevenuePeriod;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Setter
+@Getter
+public class RevenueBucketId implements Serializable {
+    private RevenuePeriod period;
+    private LocalDate bucketDate;
+    private int slot;
+
+    public RevenueBucketId() {}
+
+    public RevenueBucketId(RevenuePeriod period, LocalDate bucketDate, int slot) {
+        this.period = period;
+        this.bucketDate = bucketDate;
+        this.slot = slot;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RevenueBucketId that = (RevenueBucketId) o;
+        return slot == that.slot && period == that.period && Objects.equals(bucketDate, that.bucketDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(period, bucketDate, slot);
+    }
+}
@@ -0,0 +1,11 @@
+package com.paymybuddy.app.exception;
+
+public class BalanceConflictException extends RuntimeException {
+    public BalanceConflictException(String message) {
+        super(message);
+    }
+
+    public BalanceConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -92,6 +92,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    @ExceptionHandler(BalanceConflictException.class)
+    public ResponseEntity<Map<String, String>> handleBalanceConflictException(BalanceConflictException ex) {
+        Map<String, String> response = new HashMap<>();
+        response.put("details", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<Map<String, String>> handleIdempotencyKeyConflictException(IdempotencyKeyConflictException ex) {
+        Map<String, String> response = new HashMap<>();
+        response.put("details", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
     @ExceptionHandler(EntityAlreadyExistsException.class)
     public ResponseEntity<Map<String, String>> handleEntityAlreadyExistsException(EntityAlreadyExistsException ex) {
         Map<String, String> response = new HashMap<>();
@@ -0,0 +1,12 @@
+package com.paymybuddy.app.exception;
+
+/**
+ * Thrown when a payment would exceed the sender's daily transaction limit.
+ *
+ * <p>Extends {@link IllegalStateException}, which was thrown before, so existing handlers still apply.</p>
+ */
+public class TransactionLimitExceededException extends IllegalStateException {
+    public TransactionLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,26 @@
+package com.paymybuddy.app.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the parameter of a service method holding the amount of money it moves.
+ *
+ * <p>When the method returns normally, {@link ServiceMetricsAspect} records the amount in the
+ * {@value ServiceMetricsAspect#AMOUNT_METRIC} distribution summary, tagged with the operation.</p>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface MovedAmount {
+
+    /**
+     * The operation the amount is recorded under, e.g. {@code payment}.
+     *
+     * @return the operation tag.
+     */
+    String value();
+}
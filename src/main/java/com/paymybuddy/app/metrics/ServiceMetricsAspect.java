@@ -0,0 +1,122 @@
+package com.paymybuddy.app.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method of the services on the payment path and counts their failures.
+ *
+ * <ul>
+ *     <li>{@value #LATENCY_METRIC}: latency per service and method, tagged with the exception thrown
+ *     ({@code none} on success).</li>
+ *     <li>{@value #FAILURE_METRIC}: failures per service, method and exception type, e.g.
+ *     {@code InsufficientBalanceException} or {@code TransactionLimitExceededException}.</li>
+ *     <li>{@value #AMOUNT_METRIC}: amounts moved by successful calls, for parameters marked with
+ *     {@link MovedAmount}.</li>
+ * </ul>
+ */
+@Aspect
+public class ServiceMetricsAspect {
+
+    static final String LATENCY_METRIC = "paymybuddy.service.latency";
+    static final String FAILURE_METRIC = "paymybuddy.service.failures";
+    static final String AMOUNT_METRIC = "paymybuddy.amount.moved";
+
+    private static final String NO_EXCEPTION = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * *(..)) && ("
+            + "within(com.paymybuddy.app.service.TransactionService) || "
+            + "within(com.paymybuddy.app.service.AppAccountService) || "
+            + "within(com.paymybuddy.app.service.BankAccountService) || "
+            + "within(com.paymybuddy.app.service.UserRelationService) || "
+            + "within(com.paymybuddy.app.service.MonetizationService))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        Meters methodMeters = meters.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                this::createMeters);
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            long elapsed = System.nanoTime() - start;
+            String exception = e.getClass().getSimpleName();
+            methodMeters.timer(meterRegistry, exception).record(elapsed, TimeUnit.NANOSECONDS);
+            Counter.builder(FAILURE_METRIC)
+                    .description("Failed service calls on the payment path")
+                    .tag("service", methodMeters.service())
+                    .tag("method", methodMeters.method())
+                    .tag("exception", exception)
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        }
+
+        methodMeters.success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (methodMeters.amount() != null) {
+            Object amount = joinPoint.getArgs()[methodMeters.amountIndex()];
+            if (amount instanceof Number number) {
+                methodMeters.amount().record(number.doubleValue());
+            }
+        }
+        return result;
+    }
+
+    private Meters createMeters(Method method) {
+        String service = method.getDeclaringClass().getSimpleName();
+        String name = method.getName();
+
+        int amountIndex = -1;
+        DistributionSummary amount = null;
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int i = 0; i < parameterAnnotations.length && amount == null; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof MovedAmount movedAmount) {
+                    amountIndex = i;
+                    amount = DistributionSummary.builder(AMOUNT_METRIC)
+                            .description("Amounts moved by successful operations")
+                            .baseUnit("euros")
+                            .tag("operation", movedAmount.value())
+                            .register(meterRegistry);
+                    break;
+                }
+            }
+        }
+
+        return new Meters(service, name, timer(meterRegistry, service, name, NO_EXCEPTION), amount, amountIndex);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String service, String method, String exception) {
+        return Timer.builder(LATENCY_METRIC)
+                .description("Latency of service calls on the payment path")
+                .tag("service", service)
+                .tag("method", method)
+                .tag("exception", exception)
+                .register(meterRegistry);
+    }
+
+    private record Meters(String service, String method, Timer success, DistributionSummary amount, int amountIndex) {
+
+        Timer timer(MeterRegistry meterRegistry, String exception) {
+            return ServiceMetricsAspect.timer(meterRegistry, service, method, exception);
+        }
+    }
+}
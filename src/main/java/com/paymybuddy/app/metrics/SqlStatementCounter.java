@@ -0,0 +1,53 @@
+package com.paymybuddy.app.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares, in total and for the request running on the current thread.
+ *
+ * <p>Registered as Hibernate's statement inspector; it returns every statement unchanged. The per-request count is
+ * only kept between {@link #begin()} and {@link #end()}, which {@link SqlStatementMetricsFilter} calls around each
+ * HTTP request.</p>
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    private final Counter statements;
+
+    public SqlStatementCounter(MeterRegistry meterRegistry) {
+        this.statements = Counter.builder("paymybuddy.sql.statements")
+                .description("SQL statements prepared by Hibernate")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        statements.increment();
+        int[] current = CURRENT.get();
+        if (current != null) {
+            current[0]++;
+        }
+        return sql;
+    }
+
+    /**
+     * Starts counting the statements of the current thread from zero.
+     */
+    public void begin() {
+        CURRENT.set(new int[1]);
+    }
+
+    /**
+     * Stops counting the statements of the current thread.
+     *
+     * @return the number of statements prepared since {@link #begin()}, or 0 if counting was not started.
+     */
+    public int end() {
+        int[] current = CURRENT.get();
+        CURRENT.remove();
+        return current != null ? current[0] : 0;
+    }
+}
@@ -0,0 +1,54 @@
+package com.paymybuddy.app.repository;
+
+import com.paymybuddy.app.dto.UserAmountDTO;
+import com.paymybuddy.app.entity.AccountBucket;
+import com.paymybuddy.app.entity.id.AccountBucketId;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccountBucketRepository extends JpaRepository<AccountBucket, AccountBucketId> {
+
+    /**
+     * Adds an amount to a bucket of the account, creating the row if needed.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "app_account_bucket"))
+    @Query(value = "INSERT INTO app_account_bucket (user_id, slot, amount) VALUES (:userId, :slot, :amount) " +
+            "ON DUPLICATE KEY UPDATE amount = amount + :amount",
+            nativeQuery = true)
+    int addToBucket(@Param("userId") int userId, @Param("slot") int slot, @Param("amount") long amount);
+
+    /**
+     * Loads the buckets of the account in slot order and locks them until the end of the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM AccountBucket b WHERE b.userId = :userId ORDER BY b.slot")
+    List<AccountBucket> findByUserIdForUpdate(@Param("userId") int userId);
+
+    @Query("SELECT COALESCE(SUM(b.amount), 0L) FROM AccountBucket b WHERE b.userId = :userId")
+    long sumByUserId(@Param("userId") int userId);
+
+    /**
+     * Lists the accounts having credits still to fold into their main row.
+     */
+    @Query("SELECT DISTINCT b.userId FROM AccountBucket b WHERE b.amount <> 0")
+    List<Integer> findUserIdsWithPendingCredits();
+
+    /**
+     * Sums the buckets of each account whose user ID is in the range, for reconciliation.
+     */
+    @Query("SELECT new com.paymybuddy.app.dto.UserAmountDTO(b.userId, SUM(b.amount)) FROM AccountBucket b " +
+            "WHERE b.userId BETWEEN :fromUserId AND :toUserId GROUP BY b.userId")
+    List<UserAmountDTO> sumByUserIdBetween(@Param("fromUserId") int fromUserId, @Param("toUserId") int toUserId);
+}
@@ -1,12 +1,64 @@
 package com.paymybuddy.app.repository;
 
+import com.paymybuddy.app.dto.UserAmountDTO;
 import com.paymybuddy.app.entity.AppAccount;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AppAccountRepository extends JpaRepository<AppAccount, Integer> {
     Optional<AppAccount> findByUserId(int userId);
+
+    /**
+     * Loads the account of the user and locks its row until the end of the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM AppAccount a WHERE a.user.id = :userId")
+    Optional<AppAccount> findByUserIdForUpdate(@Param("userId") int userId);
+
+    /**
+     * Adds {@code delta} to the balance in a single statement, only if the current balance is at least {@code minBalance}.
+     *
+     * @return the number of updated rows (0 when the account is missing or the guard failed).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AppAccount a SET a.balance = a.balance + :delta, a.lastUpdate = :now, a.version = a.version + 1 " +
+            "WHERE a.user.id = :userId AND a.balance >= :minBalance")
+    int applyBalanceDelta(@Param("userId") int userId,
+                          @Param("delta") long delta,
+                          @Param("minBalance") long minBalance,
+                          @Param("now") LocalDateTime now);
+
+    /**
+     * Lists the accounts whose credits are spread over buckets.
+     */
+    @Query("SELECT a FROM AppAccount a WHERE a.creditBuckets > 0")
+    List<AppAccount> findBucketedAccounts();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AppAccount a SET a.creditBuckets = :creditBuckets WHERE a.user.id = :userId")
+    int updateCreditBuckets(@Param("userId") int userId, @Param("creditBuckets") int creditBuckets);
+
+    /**
+     * Reads the balances of the accounts whose user ID is in the range, for reconciliation.
+     */
+    @Query("SELECT new com.paymybuddy.app.dto.UserAmountDTO(a.user.id, a.balance) FROM AppAccount a " +
+            "WHERE a.user.id BETWEEN :fromUserId AND :toUserId")
+    List<UserAmountDTO> findBalancesByUserIdBetween(@Param("fromUserId") int fromUserId,
+                                                    @Param("toUserId") int toUserId);
+
+    @Query("SELECT MIN(a.user.id) FROM AppAccount a")
+    Integer findMinUserId();
+
+    @Query("SELECT MAX(a.user.id) FROM AppAccount a")
+    Integer findMaxUserId();
 }
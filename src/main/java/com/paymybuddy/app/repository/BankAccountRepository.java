@@ -2,6 +2,7 @@ package com.paymybuddy.app.repository;
 
 import com.paymybuddy.app.entity.BankAccount;
 import com.paymybuddy.app.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,5 +11,9 @@ import java.util.Optional;
 
 @Repository
 public interface BankAccountRepository extends CrudRepository<BankAccount,Integer> {
+   /**
+    * Bank accounts of a user, fetched with the user, its role and its account in a single query.
+    */
+   @EntityGraph(attributePaths = {"user", "user.role", "user.appAccount"})
    Optional< List<BankAccount>>findAllBankAccountByUser (User user);
 }
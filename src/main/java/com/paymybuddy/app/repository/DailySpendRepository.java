@@ -0,0 +1,50 @@
+package com.paymybuddy.app.repository;
+
+import com.paymybuddy.app.entity.DailySpend;
+import com.paymybuddy.app.entity.id.DailySpendId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface DailySpendRepository extends JpaRepository<DailySpend, DailySpendId> {
+
+    /**
+     * Creates the counter row of the day with a zero amount if it does not exist yet.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_spend"))
+    @Query(value = "INSERT INTO daily_spend (user_id, spend_date, amount) VALUES (:userId, :day, 0) " +
+            "ON DUPLICATE KEY UPDATE amount = amount", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") int userId, @Param("day") LocalDate day);
+
+    /**
+     * Adds {@code amount} to the counter of the day, only if the result stays within the daily limit of the account.
+     *
+     * @return the number of updated rows (0 when the limit would be exceeded).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE DailySpend d SET d.amount = d.amount + :amount " +
+            "WHERE d.userId = :userId AND d.spendDate = :day " +
+            "AND d.amount + :amount <= (SELECT a.dailyLimit FROM AppAccount a WHERE a.user.id = :userId)")
+    int incrementWithinLimit(@Param("userId") int userId, @Param("day") LocalDate day, @Param("amount") long amount);
+
+    /**
+     * Subtracts {@code amount} from the counter of the day, never going below zero.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE DailySpend d SET d.amount = CASE WHEN d.amount > :amount THEN d.amount - :amount ELSE 0 END " +
+            "WHERE d.userId = :userId AND d.spendDate = :day")
+    int decrement(@Param("userId") int userId, @Param("day") LocalDate day, @Param("amount") long amount);
+
+    @Query("SELECT d.amount FROM DailySpend d WHERE d.userId = :userId AND d.spendDate = :day")
+    Optional<Long> findAmount(@Param("userId") int userId, @Param("day") LocalDate day);
+}
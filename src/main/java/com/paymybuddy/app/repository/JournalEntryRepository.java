@@ -0,0 +1,37 @@
+package com.paymybuddy.app.repository;
+
+import com.paymybuddy.app.dto.UserAmountDTO;
+import com.paymybuddy.app.entity.JournalAccount;
+import com.paymybuddy.app.entity.JournalEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JournalEntryRepository extends JpaRepository<JournalEntry, Long> {
+
+    List<JournalEntry> findByTransactionIdOrderById(int transactionId);
+
+    /**
+     * Sums the lines posted to the balance of a user, reversals included.
+     */
+    @Query("SELECT COALESCE(SUM(j.amount), 0L) FROM JournalEntry j " +
+            "WHERE j.account = com.paymybuddy.app.entity.JournalAccount.USER_BALANCE AND j.userId = :userId")
+    long sumBalanceByUserId(@Param("userId") int userId);
+
+    @Query("SELECT COALESCE(SUM(j.amount), 0L) FROM JournalEntry j WHERE j.account = :account")
+    long sumByAccount(@Param("account") JournalAccount account);
+
+    /**
+     * Sums the balance lines of each user whose ID is in the range, for reconciliation.
+     * Served by the (user_id, id) index.
+     */
+    @Query("SELECT new com.paymybuddy.app.dto.UserAmountDTO(j.userId, SUM(j.amount)) FROM JournalEntry j " +
+            "WHERE j.userId BETWEEN :fromUserId AND :toUserId " +
+            "AND j.account = com.paymybuddy.app.entity.JournalAccount.USER_BALANCE GROUP BY j.userId")
+    List<UserAmountDTO> sumBalancesByUserIdBetween(@Param("fromUserId") int fromUserId,
+                                                   @Param("toUserId") int toUserId);
+}
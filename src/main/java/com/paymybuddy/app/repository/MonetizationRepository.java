@@ -1,16 +1,25 @@
 package com.paymybuddy.app.repository;
 
+import com.paymybuddy.app.dto.RevenueEntryDTO;
 import com.paymybuddy.app.entity.Monetization;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface MonetizationRepository extends JpaRepository<Monetization,Integer> {
 
     Optional<Monetization> findByTransactionId(int transactionID);
 
-    @Query("SELECT SUM(m.result) FROM Monetization m")
-    Optional<Long> calculateTotalResult();
+    /**
+     * Reads the monetization rows of payments that were not canceled, with the date of their transaction, in ID
+     * order, for rebuilding the revenue ledger.
+     */
+    @Query("SELECT new com.paymybuddy.app.dto.RevenueEntryDTO(m.id, m.result, t.transactionDate) " +
+            "FROM Monetization m JOIN m.transaction t WHERE m.id > :afterId AND t.canceledAt IS NULL ORDER BY m.id")
+    List<RevenueEntryDTO> findRevenueEntriesAfter(@Param("afterId") int afterId, Pageable pageable);
 
 }
@@ -0,0 +1,13 @@
+package com.paymybuddy.app.repository;
+
+import com.paymybuddy.app.entity.ReconciliationDiscrepancy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ReconciliationDiscrepancyRepository extends JpaRepository<ReconciliationDiscrepancy, Long> {
+
+    List<ReconciliationDiscrepancy> findByRunIdOrderByUserId(int runId);
+}
@@ -0,0 +1,13 @@
+package com.paymybuddy.app.repository;
+
+import com.paymybuddy.app.entity.ReconciliationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, Integer> {
+
+    Optional<ReconciliationRun> findTopByOrderByIdDesc();
+}
@@ -0,0 +1,36 @@
+package com.paymybuddy.app.repository;
+
+import com.paymybuddy.app.dto.RevenueSummaryDTO;
+import com.paymybuddy.app.entity.RevenueBucket;
+import com.paymybuddy.app.entity.RevenuePeriod;
+import com.paymybuddy.app.entity.id.RevenueBucketId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface RevenueBucketRepository extends JpaRepository<RevenueBucket, RevenueBucketId> {
+
+    /**
+     * Adds an amount and an entry count to a bucket slot, creating the row if needed.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "revenue_bucket"))
+    @Query(value = "INSERT INTO revenue_bucket (period, bucket_date, slot, amount, entry_count) " +
+            "VALUES (:period, :bucketDate, :slot, :amount, :entries) " +
+            "ON DUPLICATE KEY UPDATE amount = amount + :amount, entry_count = entry_count + :entries",
+            nativeQuery = true)
+    int addToBucket(@Param("period") String period, @Param("bucketDate") LocalDate bucketDate, @Param("slot") int slot,
+                    @Param("amount") long amount, @Param("entries") long entries);
+
+    @Query("SELECT new com.paymybuddy.app.dto.RevenueSummaryDTO(COALESCE(SUM(b.amount), 0L), COALESCE(SUM(b.entryCount), 0L)) " +
+            "FROM RevenueBucket b WHERE b.period = :period AND b.bucketDate = :bucketDate")
+    RevenueSummaryDTO summarize(@Param("period") RevenuePeriod period, @Param("bucketDate") LocalDate bucketDate);
+}
@@ -1,12 +1,26 @@
 package com.paymybuddy.app.repository;
 
 import com.paymybuddy.app.entity.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Integer> {
-     Optional<Role> findByRoleName(String roleName);
+
+    String BY_NAME_CACHE_REGION = "role-by-name";
+
+    /**
+     * Finds a role by name. Results are kept in the {@value #BY_NAME_CACHE_REGION} query cache region until the roles
+     * table changes.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = BY_NAME_CACHE_REGION)
+    })
+    Optional<Role> findByRoleName(String roleName);
 }
@@ -1,8 +1,11 @@
 package com.paymybuddy.app.repository;
 
+import com.paymybuddy.app.dto.TransactionDTO;
 import com.paymybuddy.app.entity.Transaction;
 import com.paymybuddy.app.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,10 +16,48 @@ import java.util.List;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Integer> {
-    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.userSender = :user AND t.transactionDate BETWEEN :startDate AND :endDate")
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.userSender = :user AND t.canceledAt IS NULL AND t.transactionDate BETWEEN :startDate AND :endDate")
     Long calculateTotalSentByUserAndDateRange(@Param("user") User user,
                                                     @Param("startDate") LocalDateTime startDate,
                                                     @Param("endDate") LocalDateTime endDate);
 
+    /**
+     * Payments sent by the user and not canceled, strictly before the cursor, newest first, projected with both usernames.
+     * Served by the (sender_id, transaction_date) index.
+     */
+    @Query("SELECT new com.paymybuddy.app.dto.TransactionDTO(t.id, s.id, s.userName, r.id, r.userName, " +
+            "t.amount, t.amountWithFee, t.description, t.transactionDate) " +
+            "FROM Transaction t JOIN t.userSender s JOIN t.userReceiver r " +
+            "WHERE s.id = :userId AND t.canceledAt IS NULL " +
+            "AND (t.transactionDate < :date OR (t.transactionDate = :date AND t.id < :id)) " +
+            "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionDTO> findSentBefore(@Param("userId") int userId,
+                                        @Param("date") LocalDateTime date,
+                                        @Param("id") int id,
+                                        Pageable pageable);
 
+    /**
+     * Payments received by the user and not canceled, strictly before the cursor, newest first, projected with both usernames.
+     * Served by the (receiver_id, transaction_date) index.
+     */
+    @Query("SELECT new com.paymybuddy.app.dto.TransactionDTO(t.id, s.id, s.userName, r.id, r.userName, " +
+            "t.amount, t.amountWithFee, t.description, t.transactionDate) " +
+            "FROM Transaction t JOIN t.userSender s JOIN t.userReceiver r " +
+            "WHERE r.id = :userId AND t.canceledAt IS NULL " +
+            "AND (t.transactionDate < :date OR (t.transactionDate = :date AND t.id < :id)) " +
+            "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionDTO> findReceivedBefore(@Param("userId") int userId,
+                                            @Param("date") LocalDateTime date,
+                                            @Param("id") int id,
+                                            Pageable pageable);
+
+    /**
+     * Marks the transaction canceled unless it already is. The row lock taken by the update makes a concurrent
+     * cancellation, on this node or another, wait and then update nothing.
+     *
+     * @return 1 if this call canceled the transaction, 0 if it was already canceled.
+     */
+    @Modifying
+    @Query("UPDATE Transaction t SET t.canceledAt = :canceledAt WHERE t.id = :id AND t.canceledAt IS NULL")
+    int markCanceled(@Param("id") int id, @Param("canceledAt") LocalDateTime canceledAt);
 }
@@ -3,11 +3,22 @@ package com.paymybuddy.app.repository;
 import com.paymybuddy.app.entity.UserRelation;
 import com.paymybuddy.app.entity.id.UserRelationId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRelationRepository extends JpaRepository<UserRelation, UserRelationId> {
     Optional<UserRelation> findByUserIdAndUserRelationId(int userId,int userRelationId);
+
+    @Query("SELECT new com.paymybuddy.app.entity.id.UserRelationId(r.userId, r.userRelationId) FROM UserRelation r")
+    List<UserRelationId> findAllRelationIds();
+
+    @Query("SELECT COUNT(r) > 0 FROM UserRelation r " +
+            "WHERE (r.userId = :userId AND r.userRelationId = :otherUserId) " +
+            "OR (r.userId = :otherUserId AND r.userRelationId = :userId)")
+    boolean existsBetween(@Param("userId") int userId, @Param("otherUserId") int otherUserId);
 }
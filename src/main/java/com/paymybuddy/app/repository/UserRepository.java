@@ -1,16 +1,63 @@
 package com.paymybuddy.app.repository;
 
+import com.paymybuddy.app.dto.LoginPrincipal;
+import com.paymybuddy.app.dto.RelatedUserDTO;
+import com.paymybuddy.app.dto.UserRef;
 import com.paymybuddy.app.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 
 import org.springframework.stereotype.Repository;
 
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User,Integer> {
+
+    String REF_CACHE_REGION = "user-ref";
+
+    @EntityGraph(User.WITH_ROLE_AND_ACCOUNT)
     Optional<User> findByEmail(String email);
     Optional<User> findUserById(int userId);
+
+    /**
+     * Reads the name and status of a user. Results are kept in the {@value #REF_CACHE_REGION} query cache region until
+     * the users table changes.
+     */
+    @Query("SELECT new com.paymybuddy.app.dto.UserRef(u.id, u.userName, u.isDeleted) FROM User u WHERE u.id = :userId")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = REF_CACHE_REGION)
+    })
+    Optional<UserRef> findRefById(@Param("userId") int userId);
+
+    /**
+     * Reads what authentication needs about a user, in one query joining the role only.
+     */
+    @Query("SELECT new com.paymybuddy.app.dto.LoginPrincipal(u.id, u.email, u.password, r.roleName, u.userName, u.isDeleted) "
+            + "FROM User u JOIN u.role r WHERE u.email = :email")
+    Optional<LoginPrincipal> findLoginPrincipalByEmail(@Param("email") String email);
+
+    @Query("SELECT u.id FROM User u WHERE u.isDeleted = true")
+    List<Integer> findDeletedUserIds();
+
+    @Query("SELECT new com.paymybuddy.app.dto.RelatedUserDTO(u.id, u.userName) FROM User u " +
+            "WHERE u.id IN :ids AND u.isDeleted = false ORDER BY u.id")
+    List<RelatedUserDTO> findRelatedUsersByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * All users with their role and account, in a single query.
+     */
+    @EntityGraph(User.WITH_ROLE_AND_ACCOUNT)
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    List<User> findAllWithRoleAndAccount();
 }
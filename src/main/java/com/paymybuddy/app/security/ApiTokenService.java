@@ -0,0 +1,131 @@
+package com.paymybuddy.app.security;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.paymybuddy.app.config.ApiTokenProperties;
+import com.paymybuddy.app.dto.ApiTokenDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Issues and reads the signed tokens of the {@code /api/**} endpoints: JWTs signed with HMAC-SHA256 and a local
+ * key, with no identity provider involved.
+ *
+ * <p>A token carries what a request needs about its user: email, ID, name and roles. Checking one is a signature and
+ * expiry check, with no session and no database query, so any node holding the key can serve any request. A token
+ * stays valid until it expires, even if the user is changed or deleted meanwhile.</p>
+ */
+@Slf4j
+@Service
+public class ApiTokenService {
+
+    static final String USER_ID_CLAIM = "uid";
+    static final String NAME_CLAIM = "name";
+    static final String ROLES_CLAIM = "roles";
+    private static final int MIN_KEY_BYTES = 32;
+
+    private final ApiTokenProperties properties;
+    private final JwtEncoder encoder;
+    private final JwtDecoder decoder;
+
+    public ApiTokenService(ApiTokenProperties properties) {
+        this.properties = properties;
+        SecretKey key = new SecretKeySpec(keyBytes(properties), "HmacSHA256");
+        this.encoder = new NimbusJwtEncoder(new ImmutableSecret<>(key));
+        NimbusJwtDecoder nimbusDecoder = NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build();
+        nimbusDecoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                JwtValidators.createDefaultWithIssuer(properties.getIssuer())));
+        this.decoder = nimbusDecoder;
+    }
+
+    /**
+     * Issues a token for an authenticated user.
+     *
+     * @param user the user, as authenticated by a password check.
+     * @return the token and how long it is accepted, in seconds.
+     */
+    public ApiTokenDTO issue(CustomUserDetails user) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(properties.getIssuer())
+                .subject(user.getUsername())
+                .issuedAt(now)
+                .expiresAt(now.plus(properties.getTtl()))
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(NAME_CLAIM, user.getNameUser())
+                .claim(ROLES_CLAIM, user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
+                .build();
+        String token = encoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+        log.info("Issued an API token for user ID: {}", user.getId());
+        return new ApiTokenDTO(token, "Bearer", properties.getTtl().toSeconds());
+    }
+
+    /**
+     * The decoder checking the signature, issuer and expiry of received tokens.
+     *
+     * @return the decoder.
+     */
+    public JwtDecoder getDecoder() {
+        return decoder;
+    }
+
+    /**
+     * Turns a checked token into the same kind of principal a password sign-in gives, without any query.
+     *
+     * @param jwt the decoded token.
+     * @return the authentication of the request.
+     */
+    public AbstractAuthenticationToken toAuthentication(Jwt jwt) {
+        List<GrantedAuthority> authorities = jwt.getClaimAsStringList(ROLES_CLAIM).stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+        Number userId = jwt.getClaim(USER_ID_CLAIM);
+        CustomUserDetails principal = new CustomUserDetails(jwt.getSubject(), "", authorities, userId.intValue(),
+                jwt.getClaimAsString(NAME_CLAIM));
+        return UsernamePasswordAuthenticationToken.authenticated(principal, jwt, authorities);
+    }
+
+    private static byte[] keyBytes(ApiTokenProperties properties) {
+        String secret = properties.getSecret();
+        if (secret == null || secret.isBlank()) {
+            if (!properties.isAllowRandomSecret()) {
+                // A random key per node would reject every token issued by the other nodes
+                throw new IllegalStateException("paymybuddy.api-token.secret must be set; a random key is only allowed "
+                        + "with paymybuddy.api-token.allow-random-secret=true (dev profile)");
+            }
+            log.warn("No API token secret configured: using a random key, tokens will not be accepted by other nodes "
+                    + "or after a restart");
+            byte[] key = new byte[MIN_KEY_BYTES];
+            new SecureRandom().nextBytes(key);
+            return key;
+        }
+        byte[] key = Base64.getDecoder().decode(secret);
+        if (key.length < MIN_KEY_BYTES) {
+            throw new IllegalStateException("paymybuddy.api-token.secret must be at least " + MIN_KEY_BYTES
+                    + " bytes, was " + key.length);
+        }
+        return key;
+    }
+}
@@ -1,6 +1,6 @@
 package com.paymybuddy.app.security;
 
-import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.dto.LoginPrincipal;
 import com.paymybuddy.app.repository.UserRepository;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -25,14 +25,14 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        LoginPrincipal user = userRepository.findLoginPrincipalByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
         if(user.isDeleted()){
             throw new UsernameNotFoundException("This account has been deleted.");
         }
 
-        GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.getRole().getRoleName());
+        GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.getRoleName());
         return new CustomUserDetails(
                 user.getEmail(),
                 user.getPassword(),
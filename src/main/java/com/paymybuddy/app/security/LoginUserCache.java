@@ -0,0 +1,80 @@
+package com.paymybuddy.app.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymybuddy.app.config.AuthenticationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps the details of signed-in users, so authenticating again does not query the database. The password is still
+ * checked against the cached hash on every sign-in; when it does not match, the details are loaded again, so a
+ * password changed on another node is accepted at once.
+ *
+ * <p>Entries are removed when the user changes, both at once and after the transaction making the change commits,
+ * so a sign-in running meanwhile cannot put the old details back. They also expire after
+ * {@link AuthenticationProperties#getUserCacheTtl()}, which bounds how long changes made on other nodes go unseen.</p>
+ *
+ * <p>Authentication erases the password of the details it returns, so the cache keeps its own copy and hands out a
+ * new one on each read.</p>
+ */
+@Component
+public class LoginUserCache implements UserCache {
+
+    public static final String CACHE_NAME = "login-user";
+
+    private final Cache<String, Entry> cache;
+
+    public LoginUserCache(AuthenticationProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getUserCacheMaxSize())
+                .expireAfterWrite(properties.getUserCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        Entry entry = cache.getIfPresent(username);
+        return entry == null ? null : entry.toUserDetails();
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        if (user instanceof CustomUserDetails details && details.getPassword() != null) {
+            cache.put(details.getUsername(), new Entry(details.getUsername(), details.getPassword(),
+                    List.copyOf(details.getAuthorities()), details.getId(), details.getNameUser()));
+        }
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        cache.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+
+    private record Entry(String username, String password, Collection<GrantedAuthority> authorities, int id,
+                         String nameUser) {
+
+        CustomUserDetails toUserDetails() {
+            return new CustomUserDetails(username, password, authorities, id, nameUser);
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.paymybuddy.app.security;
 
+import com.paymybuddy.app.config.AuthenticationProperties;
+import com.paymybuddy.app.controller.rest.ApiTokenController;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -12,8 +16,10 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 
 
@@ -24,19 +30,70 @@ public class SecurityConfig {
 
 
     private final CustomUserDetailsService customUserDetailsService;
+    private final LoginUserCache loginUserCache;
+    private final AuthenticationProperties authenticationProperties;
+    private final MeterRegistry meterRegistry;
+    private final ApiTokenService apiTokenService;
 
 
-    public SecurityConfig(CustomUserDetailsService customUserDetailsService) {
+    public SecurityConfig(CustomUserDetailsService customUserDetailsService, LoginUserCache loginUserCache,
+                          AuthenticationProperties authenticationProperties, MeterRegistry meterRegistry,
+                          ApiTokenService apiTokenService) {
         this.customUserDetailsService = customUserDetailsService;
+        this.loginUserCache = loginUserCache;
+        this.authenticationProperties = authenticationProperties;
+        this.meterRegistry = meterRegistry;
+        this.apiTokenService = apiTokenService;
 
     }
 
+    /**
+     * The token endpoint, the only API endpoint taking a password, sent with HTTP Basic. No session is created.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain apiTokenSecurityFilterChain(HttpSecurity http) throws Exception {
+        return http
+                .securityMatcher(ApiTokenController.TOKEN_PATH)
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth.anyRequest().authenticated())
+                .httpBasic(Customizer.withDefaults())
+                .build();
+    }
+
+    /**
+     * The rest of {@code /api/**}, authenticated by the signed token of each request alone: no session, no login
+     * form and no database query, so requests can go to any node.
+     */
+    @Bean
+    @Order(2)
+    public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http) throws Exception {
+        return http
+                .securityMatcher("/api/**")
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/api/register").permitAll()
+                        .anyRequest().authenticated()
+                )
+                .oauth2ResourceServer(resourceServer -> resourceServer
+                        .jwt(jwt -> jwt.jwtAuthenticationConverter(apiTokenService::toAuthentication))
+                )
+                .build();
+    }
+
+    /**
+     * The web pages, with form login and an HTTP session.
+     */
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/login", "/register","/api/register", "/css/**", "/image/**","/js/registerPage.js").permitAll()
+                        // Only served on the management port, bound to localhost
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         .anyRequest().authenticated()
                 )
                 .formLogin(form -> form
@@ -54,6 +111,11 @@ public class SecurityConfig {
                 .build();
     }
 
+    @Bean
+    public JwtDecoder jwtDecoder() {
+        return apiTokenService.getDecoder();
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authenticationConfiguration) throws Exception {
         return authenticationConfiguration.getAuthenticationManager();
@@ -63,13 +125,18 @@ public class SecurityConfig {
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(customUserDetailsService);
+        provider.setUserCache(loginUserCache);
         provider.setPasswordEncoder(passwordEncoder());
         return provider;
     }
 
+    /**
+     * BCrypt, run on its own bounded pool so that sign-ins cannot take every request thread.
+     */
     @Bean
     public PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), authenticationProperties.getHashingThreads(),
+                authenticationProperties.getHashingQueueCapacity(), meterRegistry);
     }
 
 }
@@ -0,0 +1,202 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.entity.AccountBucket;
+import com.paymybuddy.app.exception.EntityNotFoundException;
+import com.paymybuddy.app.repository.AccountBucketRepository;
+import com.paymybuddy.app.repository.AppAccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spreads the credits of hot accounts, such as merchants receiving many payments, over several bucket rows.
+ *
+ * <p>An account opts in by getting a number of credit buckets. Each credit then goes to one
+ * {@code app_account_bucket} row picked by hashing the payer, so concurrent payments to that account update different
+ * rows instead of queuing on its {@code app_account} row. The balance of the account is its main row plus its
+ * buckets: a debit the main row cannot cover folds the buckets in first, and {@link #consolidate()} folds them
+ * periodically.</p>
+ *
+ * <p>Which accounts are bucketed is kept in memory, so plain accounts pay nothing for it. Folding and balance reads
+ * look at the bucket rows themselves, so money is never missed when this view is briefly out of date.</p>
+ */
+@Slf4j
+@Service
+public class AccountBucketService {
+
+    public static final int MAX_CREDIT_BUCKETS = 64;
+
+    private final AccountBucketRepository accountBucketRepository;
+    private final AppAccountRepository appAccountRepository;
+    private final BalanceMutationExecutor balanceMutationExecutor;
+    private volatile Map<Integer, Integer> creditBuckets = new ConcurrentHashMap<>();
+
+    public AccountBucketService(AccountBucketRepository accountBucketRepository,
+                                AppAccountRepository appAccountRepository,
+                                BalanceMutationExecutor balanceMutationExecutor) {
+        this.accountBucketRepository = accountBucketRepository;
+        this.appAccountRepository = appAccountRepository;
+        this.balanceMutationExecutor = balanceMutationExecutor;
+    }
+
+    /**
+     * Loads the bucketed accounts once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Map<Integer, Integer> loaded = new ConcurrentHashMap<>();
+        appAccountRepository.findBucketedAccounts()
+                .forEach(account -> loaded.put(account.getUser().getId(), account.getCreditBuckets()));
+        creditBuckets = loaded;
+        log.info("{} accounts receive credits in buckets", loaded.size());
+    }
+
+    /**
+     * Tells whether the credits of the account are spread over buckets.
+     *
+     * @param userId the ID of the account's user.
+     * @return true if the account is bucketed.
+     */
+    public boolean isBucketed(int userId) {
+        return creditBuckets.containsKey(userId);
+    }
+
+    /**
+     * Credits a bucket of the account, if it is bucketed.
+     *
+     * @param userId  the ID of the user being credited.
+     * @param amount  the amount to credit (in cents).
+     * @param slotKey the value hashed to pick the bucket, typically the ID of the payer.
+     * @return true if a bucket was credited, false if the account is not bucketed and its main row must be.
+     */
+    public boolean credit(int userId, long amount, int slotKey) {
+        Integer buckets = creditBuckets.get(userId);
+        if (buckets == null) {
+            return false;
+        }
+        int slot = Math.floorMod(slotKey * 0x9E3779B9, buckets);
+        accountBucketRepository.addToBucket(userId, slot, amount);
+        return true;
+    }
+
+    /**
+     * Gets the credits of the account still waiting in its buckets.
+     *
+     * @param userId the ID of the account's user.
+     * @return the sum of the buckets (in cents).
+     */
+    public long getPendingCredits(int userId) {
+        return accountBucketRepository.sumByUserId(userId);
+    }
+
+    /**
+     * Empties the buckets of the account, locking them until the end of the current transaction. The caller adds the
+     * returned amount to the main row in the same transaction.
+     *
+     * @param userId the ID of the account's user.
+     * @return the amount taken out of the buckets (in cents).
+     */
+    public long drain(int userId) {
+        List<AccountBucket> buckets = accountBucketRepository.findByUserIdForUpdate(userId).stream()
+                .filter(bucket -> bucket.getAmount() != 0)
+                .toList();
+        long amount = 0;
+        for (AccountBucket bucket : buckets) {
+            amount += bucket.getAmount();
+            bucket.setAmount(0);
+        }
+        // Written now, before any later credit of this transaction adds to the same rows
+        accountBucketRepository.saveAllAndFlush(buckets);
+        return amount;
+    }
+
+    /**
+     * Moves the credits waiting in the buckets of the account to its main row, in the current transaction.
+     *
+     * @param userId the ID of the account's user.
+     * @return the amount moved (in cents).
+     */
+    public long foldIntoAccount(int userId) {
+        long amount = drain(userId);
+        if (amount != 0) {
+            appAccountRepository.applyBalanceDelta(userId, amount, 0, LocalDateTime.now());
+            log.info("Folded {} cents of bucketed credits into the account of user {}", amount, userId);
+        }
+        return amount;
+    }
+
+    /**
+     * Changes the number of buckets the credits of the account are spread over. Credits already in buckets are
+     * folded into the main row first.
+     *
+     * @param userId  the ID of the account's user.
+     * @param buckets the number of buckets, 0 to credit the main row directly again.
+     * @throws IllegalArgumentException if the number of buckets is out of range.
+     * @throws EntityNotFoundException if the user has no account.
+     */
+    @Transactional
+    public void setCreditBuckets(int userId, int buckets) {
+        if (buckets < 0 || buckets > MAX_CREDIT_BUCKETS) {
+            log.error("Invalid number of credit buckets: {}", buckets);
+            throw new IllegalArgumentException("Credit buckets must be between 0 and " + MAX_CREDIT_BUCKETS + ".");
+        }
+        log.info("Spreading credits of user {} over {} buckets", userId, buckets);
+
+        if (appAccountRepository.updateCreditBuckets(userId, buckets) == 0) {
+            log.error("Account not found for user ID: {}", userId);
+            throw new EntityNotFoundException("Account not found for user with ID: " + userId);
+        }
+        foldIntoAccount(userId);
+
+        afterCommit(() -> {
+            if (buckets == 0) {
+                creditBuckets.remove(userId);
+            } else {
+                creditBuckets.put(userId, buckets);
+            }
+        });
+    }
+
+    /**
+     * Folds the credits waiting in buckets into their accounts, one account per transaction, and picks up bucket
+     * changes made by other instances.
+     *
+     * @return the number of accounts folded.
+     */
+    @Scheduled(fixedDelayString = "${paymybuddy.balance.bucket-consolidation-interval:PT1M}",
+            initialDelayString = "${paymybuddy.balance.bucket-consolidation-interval:PT1M}")
+    public int consolidate() {
+        load();
+        List<Integer> userIds = accountBucketRepository.findUserIdsWithPendingCredits();
+        for (int userId : userIds) {
+            balanceMutationExecutor.execute(List.of(userId), () -> foldIntoAccount(userId));
+        }
+        if (!userIds.isEmpty()) {
+            log.info("Consolidated bucketed credits of {} accounts", userIds.size());
+        }
+        return userIds.size();
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.config.BalanceConcurrencyProperties;
+import com.paymybuddy.app.exception.BalanceConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed table of in-JVM locks, each account user ID hashing to one stripe.
+ *
+ * <p>Payments touching the same accounts queue here instead of piling up on MySQL row locks or version conflicts.
+ * Stripes are always taken in ascending index order, so two payments in opposite directions cannot deadlock.</p>
+ */
+@Slf4j
+@Component
+public class AccountLockTable {
+
+    private final ReentrantLock[] stripes;
+    private final long lockTimeoutMillis;
+
+    public AccountLockTable(BalanceConcurrencyProperties properties) {
+        int requested = properties.getLockStripes();
+        int size = requested <= 1 ? Math.max(requested, 0) : Integer.highestOneBit(requested - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.lockTimeoutMillis = properties.getLockTimeoutMillis();
+    }
+
+    /**
+     * Locks the stripes of all given accounts.
+     *
+     * @param userIds the IDs of the users whose accounts are about to change.
+     * @return a handle releasing the stripes when closed.
+     * @throws BalanceConflictException if a stripe cannot be acquired in time.
+     */
+    public Held lock(Collection<Integer> userIds) {
+        if (stripes.length == 0) {
+            return () -> { };
+        }
+
+        int[] indexes = userIds.stream().mapToInt(this::stripeFor).distinct().sorted().toArray();
+        List<ReentrantLock> held = new ArrayList<>(indexes.length);
+        try {
+            for (int index : indexes) {
+                ReentrantLock stripe = stripes[index];
+                if (!stripe.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    log.error("Timed out waiting for account lock stripe {} for users {}", index, userIds);
+                    throw new BalanceConflictException("Accounts are busy, please retry.");
+                }
+                held.add(stripe);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            release(held);
+            throw new BalanceConflictException("Interrupted while waiting for account lock.", e);
+        } catch (RuntimeException e) {
+            release(held);
+            throw e;
+        }
+        return () -> release(held);
+    }
+
+    int stripeFor(int userId) {
+        int hash = userId * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    private static void release(List<ReentrantLock> held) {
+        for (int i = held.size() - 1; i >= 0; i--) {
+            held.get(i).unlock();
+        }
+    }
+
+    /**
+     * Stripes held by the current thread; closing releases them.
+     */
+    @FunctionalInterface
+    public interface Held extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
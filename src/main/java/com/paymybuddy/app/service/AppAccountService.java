@@ -1,5 +1,9 @@
 package com.paymybuddy.app.service;
 
+import com.paymybuddy.app.config.BalanceConcurrencyMode;
+import com.paymybuddy.app.config.BalanceConcurrencyProperties;
+import com.paymybuddy.app.datasource.Workload;
+import com.paymybuddy.app.datasource.WorkloadPool;
 import com.paymybuddy.app.dto.AppAccountDTO;
 import com.paymybuddy.app.entity.AppAccount;
 import com.paymybuddy.app.entity.Role;
@@ -8,10 +12,16 @@ import com.paymybuddy.app.exception.*;
 import com.paymybuddy.app.repository.AppAccountRepository;
 import com.paymybuddy.app.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Service for managing application accounts linked to users.
@@ -22,10 +32,21 @@ public class AppAccountService {
 
     private final AppAccountRepository appAccountRepository;
     private final UserRepository userRepository;
-
-    public AppAccountService(AppAccountRepository appAccountRepository, UserRepository userRepository) {
+    private final BalanceConcurrencyProperties balanceConcurrencyProperties;
+    private final BalanceMutationExecutor balanceMutationExecutor;
+    private final AccountBucketService accountBucketService;
+    private final JournalService journalService;
+
+    public AppAccountService(AppAccountRepository appAccountRepository, UserRepository userRepository,
+                             BalanceConcurrencyProperties balanceConcurrencyProperties,
+                             BalanceMutationExecutor balanceMutationExecutor,
+                             AccountBucketService accountBucketService, JournalService journalService) {
         this.appAccountRepository = appAccountRepository;
         this.userRepository = userRepository;
+        this.balanceConcurrencyProperties = balanceConcurrencyProperties;
+        this.balanceMutationExecutor = balanceMutationExecutor;
+        this.accountBucketService = accountBucketService;
+        this.journalService = journalService;
     }
 
 
@@ -46,29 +67,66 @@ public class AppAccountService {
     }
 
     /**
-     * Gets the balance of the account associated with the user ID.
+     * Gets the balance of the account associated with the user ID, including credits still in its buckets.
      *
      * @param userId the ID of the user.
      * @return the account balance in cents.
      */
     public long getBalanceByUserId(int userId) {
         log.info("Fetching balance for user ID: {}", userId);
-        return findAccountByUserId(userId).getBalance();
+        return totalBalance(findAccountByUserId(userId));
+    }
+
+    private long totalBalance(AppAccount account) {
+        if (account.getCreditBuckets() == 0) {
+            return account.getBalance();
+        }
+        return account.getBalance() + accountBucketService.getPendingCredits(account.getUser().getId());
     }
 
     /**
      * Updates the balance of the account associated with the user ID.
+     * The change is applied according to the configured {@link com.paymybuddy.app.config.BalanceConcurrencyMode}.
      *
      * @param userId the ID of the user.
      * @param newBalance the amount to update (positive or negative).
      * @return the updated balance in cents.
      * @throws InvalidBalanceException if the resulting balance is negative.
+     * @throws BalanceConflictException if the account keeps changing concurrently.
      */
     public long updateBalanceByUserId(int userId, long newBalance) {
         log.info("Updating balance for user ID: {}, with change: {}", userId, newBalance);
-        AppAccount account = findAccountByUserId(userId);
+        return balanceMutationExecutor.execute(List.of(userId), () -> {
+            long updatedBalance = applyBalanceChange(userId, newBalance);
+            journalService.recordAdjustment(userId, newBalance);
+            return updatedBalance;
+        });
+    }
 
-        long updatedBalance = account.getBalance() + newBalance;
+    private long applyBalanceChange(int userId, long delta) {
+        if (accountBucketService.isBucketed(userId)) {
+            accountBucketService.foldIntoAccount(userId);
+        }
+        switch (balanceConcurrencyProperties.getConcurrencyMode()) {
+            case OPTIMISTIC:
+                return applyBalanceChange(findAccountByUserId(userId), delta);
+            case PESSIMISTIC:
+                return applyBalanceChange(findAccountByUserIdForUpdate(userId), delta);
+            default:
+                int updatedRows = appAccountRepository.applyBalanceDelta(userId, delta, Math.max(0, -delta), LocalDateTime.now());
+                long currentBalance = findAccountByUserId(userId).getBalance();
+                if (updatedRows == 0) {
+                    log.error("Balance update failed. Negative balance for user ID: {}", userId);
+                    throw new InvalidBalanceException("Balance can't be negative. Current balance: " + currentBalance);
+                }
+                log.info("Balance updated successfully for user ID: {}, new balance: {}", userId, currentBalance);
+                return currentBalance;
+        }
+    }
+
+    private long applyBalanceChange(AppAccount account, long delta) {
+        int userId = account.getUser().getId();
+        long updatedBalance = account.getBalance() + delta;
         if (updatedBalance < 0) {
             log.error("Balance update failed. Negative balance for user ID: {}", userId);
             throw new InvalidBalanceException("Balance can't be negative. Current balance: " + account.getBalance());
@@ -76,8 +134,10 @@ public class AppAccountService {
 
         account.setBalance(updatedBalance);
         try {
-            appAccountRepository.save(account);
+            appAccountRepository.saveAndFlush(account);
             log.info("Balance updated successfully for user ID: {}, new balance: {}", userId, updatedBalance);
+        } catch (ConcurrencyFailureException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to save updated balance for user ID: {}", userId, e);
             throw new EntitySaveException("Failed to save updated balance.", e);
@@ -86,6 +146,148 @@ public class AppAccountService {
         return updatedBalance;
     }
 
+    /**
+     * Moves money between two accounts: debits one and credits the other.
+     * Rows are always touched in ascending user-id order so two opposing moves cannot deadlock.
+     * Must run inside a transaction, typically through {@link BalanceMutationExecutor}.
+     *
+     * <p>When the receiver is bucketed, only the payer's row is debited under the concurrency mode, with a
+     * conditional update, and the credit goes to one of the receiver's buckets: see {@link AccountBucketService}.</p>
+     *
+     * @param fromUserId   the ID of the user being debited.
+     * @param debitAmount  the amount to debit (in cents).
+     * @param toUserId     the ID of the user being credited.
+     * @param creditAmount the amount to credit (in cents).
+     * @throws InsufficientBalanceException if the debited balance does not cover the amount.
+     * @throws EntityNotFoundException if one of the accounts does not exist.
+     */
+    public void moveBalance(int fromUserId, long debitAmount, int toUserId, long creditAmount) {
+        log.info("Moving balance: {} cents from user {}, {} cents to user {}", debitAmount, fromUserId, creditAmount, toUserId);
+        if (fromUserId != toUserId && accountBucketService.isBucketed(toUserId)) {
+            if (balanceConcurrencyProperties.getConcurrencyMode() == BalanceConcurrencyMode.PESSIMISTIC) {
+                findAccountByUserIdForUpdate(fromUserId);
+            }
+            debitBalance(fromUserId, debitAmount);
+            if (!accountBucketService.credit(toUserId, creditAmount, fromUserId)) {
+                creditBalance(toUserId, creditAmount);
+            }
+            return;
+        }
+        switch (balanceConcurrencyProperties.getConcurrencyMode()) {
+            case OPTIMISTIC -> moveBalanceOptimistically(fromUserId, debitAmount, toUserId, creditAmount);
+            case PESSIMISTIC -> {
+                findAccountByUserIdForUpdate(Math.min(fromUserId, toUserId));
+                findAccountByUserIdForUpdate(Math.max(fromUserId, toUserId));
+                moveBalanceConditionally(fromUserId, debitAmount, toUserId, creditAmount);
+            }
+            default -> moveBalanceConditionally(fromUserId, debitAmount, toUserId, creditAmount);
+        }
+    }
+
+    /**
+     * Debits one account once and credits several, as a batch of payments from one sender does.
+     * Each row is changed with a single conditional update, whatever the concurrency mode, in ascending user-id
+     * order so the batch cannot deadlock with other moves. Must run inside a transaction.
+     *
+     * @param fromUserId  the ID of the user being debited.
+     * @param debitAmount the total amount to debit (in cents).
+     * @param credits     the amount to credit (in cents) per user ID.
+     * @throws InsufficientBalanceException if the debited balance does not cover the amount.
+     * @throws EntityNotFoundException if one of the credited accounts does not exist.
+     */
+    public void moveBalances(int fromUserId, long debitAmount, Map<Integer, Long> credits) {
+        log.info("Moving balances: {} cents from user {} to {} users", debitAmount, fromUserId, credits.size());
+        boolean debited = false;
+        for (Map.Entry<Integer, Long> credit : new TreeMap<>(credits).entrySet()) {
+            if (!debited && fromUserId <= credit.getKey()) {
+                debitBalance(fromUserId, debitAmount);
+                debited = true;
+            }
+            creditBalance(credit.getKey(), credit.getValue());
+        }
+        if (!debited) {
+            debitBalance(fromUserId, debitAmount);
+        }
+    }
+
+    private void moveBalanceConditionally(int fromUserId, long debitAmount, int toUserId, long creditAmount) {
+        if (fromUserId <= toUserId) {
+            debitBalance(fromUserId, debitAmount);
+            creditBalance(toUserId, creditAmount);
+        } else {
+            creditBalance(toUserId, creditAmount);
+            debitBalance(fromUserId, debitAmount);
+        }
+    }
+
+    private void moveBalanceOptimistically(int fromUserId, long debitAmount, int toUserId, long creditAmount) {
+        AppAccount first = findAccountByUserId(Math.min(fromUserId, toUserId));
+        AppAccount second = fromUserId == toUserId ? first : findAccountByUserId(Math.max(fromUserId, toUserId));
+        AppAccount from = fromUserId <= toUserId ? first : second;
+        AppAccount to = fromUserId <= toUserId ? second : first;
+
+        if (from.getBalance() < debitAmount && accountBucketService.isBucketed(fromUserId)) {
+            from.setBalance(from.getBalance() + accountBucketService.drain(fromUserId));
+        }
+        if (from.getBalance() < debitAmount) {
+            log.error("Debit failed. Insufficient balance for user ID: {}", fromUserId);
+            throw new InsufficientBalanceException("Insufficient balance for user ID: " + fromUserId);
+        }
+        from.setBalance(from.getBalance() - debitAmount);
+        to.setBalance(to.getBalance() + creditAmount);
+
+        // The flush issues both version-checked updates; a concurrent change surfaces as a ConcurrencyFailureException.
+        appAccountRepository.saveAllAndFlush(List.of(first, second));
+    }
+
+    private AppAccount findAccountByUserIdForUpdate(int userId) {
+        return appAccountRepository.findByUserIdForUpdate(userId)
+                .orElseThrow(() -> {
+                    log.error("Account not found for user ID: {}", userId);
+                    return new EntityNotFoundException("Account not found for user with ID: " + userId);
+                });
+    }
+
+    /**
+     * Debits the account of the user with a single conditional update.
+     * The update only applies when the balance covers the amount, so concurrent debits can never overdraw the account.
+     * When it does not, credits waiting in the account's buckets are folded in and the debit is tried once more.
+     *
+     * @param userId the ID of the user.
+     * @param amount the amount to debit (in cents).
+     * @throws InsufficientBalanceException if the balance does not cover the amount or the account does not exist.
+     */
+    public void debitBalance(int userId, long amount) {
+        log.info("Debiting {} cents from account of user ID: {}", amount, userId);
+        int updatedRows = appAccountRepository.applyBalanceDelta(userId, -amount, amount, LocalDateTime.now());
+        if (updatedRows == 0 && accountBucketService.foldIntoAccount(userId) > 0) {
+            updatedRows = appAccountRepository.applyBalanceDelta(userId, -amount, amount, LocalDateTime.now());
+        }
+        if (updatedRows == 0) {
+            log.error("Debit failed. Insufficient balance for user ID: {}", userId);
+            throw new InsufficientBalanceException("Insufficient balance for user ID: " + userId);
+        }
+    }
+
+    /**
+     * Credits the account of the user with a single update, to one of its buckets if it is bucketed.
+     *
+     * @param userId the ID of the user.
+     * @param amount the amount to credit (in cents).
+     * @throws EntityNotFoundException if no account is found for the given user ID.
+     */
+    public void creditBalance(int userId, long amount) {
+        log.info("Crediting {} cents to account of user ID: {}", amount, userId);
+        if (accountBucketService.credit(userId, amount, ThreadLocalRandom.current().nextInt())) {
+            return;
+        }
+        int updatedRows = appAccountRepository.applyBalanceDelta(userId, amount, 0, LocalDateTime.now());
+        if (updatedRows == 0) {
+            log.error("Credit failed. Account not found for user ID: {}", userId);
+            throw new EntityNotFoundException("Account not found for user with ID: " + userId);
+        }
+    }
+
     /**
      * Gets the balance of the account as an Optional.
      *
@@ -172,13 +374,15 @@ public class AppAccountService {
      * @param userId the ID of the user.
      * @return an AppAccountDTO containing account details.
      */
+    @Transactional(readOnly = true)
+    @WorkloadPool(Workload.USER_READS)
     public AppAccountDTO getInfoAppAccountByUserId(int userId) {
         log.info("Fetching account info as DTO for user ID: {}", userId);
 
         AppAccount account = findAccountByUserId(userId);
         AppAccountDTO accountDTO = new AppAccountDTO();
 
-        accountDTO.setBalance(account.getBalance());
+        accountDTO.setBalance(totalBalance(account));
         accountDTO.setLastUpdate(account.getLastUpdate());
         accountDTO.setCreatedAt(account.getCreatedAt());
 
@@ -0,0 +1,78 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.config.BalanceConcurrencyProperties;
+import com.paymybuddy.app.exception.BalanceConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work that changes account balances.
+ *
+ * <p>The work runs in its own transaction while the in-JVM stripes of the touched accounts are held, so the stripes
+ * are only released after commit. Version conflicts, deadlocks and lock timeouts reported by the database are
+ * retried a bounded number of times; the stripes are released during the pause between two attempts, so other
+ * payments on the same stripes do not wait out the backoff.</p>
+ *
+ * <p>When a transaction is already open, the work simply joins it and gets neither stripes nor retries: the
+ * outermost caller owns locking and retries.</p>
+ */
+@Slf4j
+@Component
+public class BalanceMutationExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final AccountLockTable accountLockTable;
+    private final BalanceConcurrencyProperties properties;
+
+    public BalanceMutationExecutor(PlatformTransactionManager transactionManager, AccountLockTable accountLockTable,
+                                   BalanceConcurrencyProperties properties) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.accountLockTable = accountLockTable;
+        this.properties = properties;
+    }
+
+    /**
+     * Executes the work for the given accounts.
+     *
+     * @param userIds the IDs of the users whose balances the work changes.
+     * @param work    the work to run.
+     * @return the result of the work.
+     * @throws BalanceConflictException if the work still conflicts after the last attempt.
+     */
+    public <T> T execute(Collection<Integer> userIds, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            log.debug("Balance update for users {} joins the current transaction, without stripes or retries", userIds);
+            return work.get();
+        }
+
+        int maxAttempts = Math.max(1, properties.getMaxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try (AccountLockTable.Held ignored = accountLockTable.lock(userIds)) {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Balance update for users {} still conflicting after {} attempts", userIds, attempt);
+                    throw new BalanceConflictException("Accounts are busy, please retry.", e);
+                }
+                log.warn("Balance update for users {} conflicted (attempt {}/{}): {}", userIds, attempt, maxAttempts, e.getMessage());
+            }
+            pause(attempt);
+        }
+    }
+
+    private void pause(int attempt) {
+        try {
+            Thread.sleep(properties.getRetryBackoffMillis() * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BalanceConflictException("Interrupted while retrying balance update.", e);
+        }
+    }
+}
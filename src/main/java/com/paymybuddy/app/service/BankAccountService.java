@@ -6,6 +6,7 @@ import com.paymybuddy.app.entity.User;
 import com.paymybuddy.app.exception.EntityDeleteException;
 import com.paymybuddy.app.exception.EntityNotFoundException;
 import com.paymybuddy.app.exception.EntitySaveException;
+import com.paymybuddy.app.metrics.MovedAmount;
 import com.paymybuddy.app.repository.AppAccountRepository;
 import com.paymybuddy.app.repository.BankAccountRepository;
 import jakarta.transaction.Transactional;
@@ -25,11 +26,16 @@ public class BankAccountService {
 
     private final BankAccountRepository bankAccountRepository;
     private final AppAccountRepository appAccountRepository;
+    private final AccountBucketService accountBucketService;
+    private final JournalService journalService;
 
     @Autowired
-    public BankAccountService(BankAccountRepository bankAccountRepository, AppAccountRepository appAccountRepository) {
+    public BankAccountService(BankAccountRepository bankAccountRepository, AppAccountRepository appAccountRepository,
+                              AccountBucketService accountBucketService, JournalService journalService) {
         this.bankAccountRepository = bankAccountRepository;
         this.appAccountRepository = appAccountRepository;
+        this.accountBucketService = accountBucketService;
+        this.journalService = journalService;
     }
 
     /**
@@ -141,7 +147,8 @@ public class BankAccountService {
      * @throws IllegalArgumentException if the amount is invalid or the app account balance is insufficient.
      */
     @Transactional
-    public BankAccount transferToBankAccount(int appAccountId, int bankAccountId, long amount) {
+    public BankAccount transferToBankAccount(int appAccountId, int bankAccountId,
+                                             @MovedAmount("bank_withdrawal") long amount) {
         log.info("Transferring {} (in cents) from AppAccount ID: {} to BankAccount ID: {}", amount * 100, appAccountId, bankAccountId);
         AppAccount appAccount = appAccountRepository.findById(appAccountId)
                 .orElseThrow(() -> new EntityNotFoundException("App account not found with ID: " + appAccountId));
@@ -152,12 +159,17 @@ public class BankAccountService {
             throw new IllegalArgumentException("Transfer amount must be greater than zero.");
         }
 
+        if (appAccount.getBalance() < (amount * 100) && appAccount.getCreditBuckets() > 0) {
+            appAccount.setBalance(appAccount.getBalance()
+                    + accountBucketService.drain(appAccount.getUser().getId()));
+        }
         if (appAccount.getBalance() < (amount * 100)) {
             throw new IllegalArgumentException("Insufficient balance in AppAccount with ID: " + appAccountId);
         }
 
         appAccount.setBalance(appAccount.getBalance() - (amount * 100));
         bankAccount.setAmount(bankAccount.getAmount() + (amount * 100));
+        journalService.recordBankTransfer(appAccount.getUser().getId(), bankAccountId, -(amount * 100));
 
         try {
             appAccountRepository.save(appAccount);
@@ -178,7 +190,8 @@ public class BankAccountService {
      * @throws IllegalArgumentException if the amount is invalid or the bank account balance is insufficient.
      */
     @Transactional
-    public AppAccount transferFromBankAccount(int appAccountId, int bankAccountId, long amount) {
+    public AppAccount transferFromBankAccount(int appAccountId, int bankAccountId,
+                                              @MovedAmount("bank_deposit") long amount) {
         log.info("Transferring {} cents from BankAccount ID: {} to AppAccount ID: {}", amount*100, bankAccountId, appAccountId);
         AppAccount appAccount = appAccountRepository.findById(appAccountId)
                 .orElseThrow(() -> new EntityNotFoundException("App account not found with ID: " + appAccountId));
@@ -194,6 +207,7 @@ public class BankAccountService {
 
         bankAccount.setAmount(bankAccount.getAmount() - amount*100);
         appAccount.setBalance(appAccount.getBalance() + amount*100);
+        journalService.recordBankTransfer(appAccount.getUser().getId(), bankAccountId, amount*100);
 
         try {
             bankAccountRepository.save(bankAccount);
@@ -0,0 +1,130 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.config.BusinessTimeProperties;
+import com.paymybuddy.app.exception.TransactionLimitExceededException;
+import com.paymybuddy.app.repository.DailySpendRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains how much each user sent during the current business day.
+ *
+ * <p>The total lives in the {@code daily_spend} table, one row per user and day, and is changed incrementally by
+ * payments and cancellations; the limit check is a single guarded update on that row and stays the source of truth.
+ * Committed totals of the current day are also kept in memory for reads. A user's entry is dropped when one of that
+ * user's changes commits and read again on next access, rather than adjusted: a load racing the commit may already
+ * include the change, and adding it again would count the payment twice. All entries are dropped as soon as the
+ * business day rolls over.</p>
+ */
+@Slf4j
+@Service
+public class DailySpendService {
+
+    private final DailySpendRepository dailySpendRepository;
+    private final BusinessTimeProperties businessTimeProperties;
+
+    private final Map<Integer, Long> spentToday = new ConcurrentHashMap<>();
+    private volatile LocalDate cachedDay;
+
+    public DailySpendService(DailySpendRepository dailySpendRepository, BusinessTimeProperties businessTimeProperties) {
+        this.dailySpendRepository = dailySpendRepository;
+        this.businessTimeProperties = businessTimeProperties;
+    }
+
+    /**
+     * Gets the current business day.
+     *
+     * @return today's date in the business time zone.
+     */
+    public LocalDate today() {
+        return LocalDate.now(businessTimeProperties.getTimeZone());
+    }
+
+    /**
+     * Gets the business day of a timestamp recorded in server local time, such as a transaction date.
+     *
+     * @param serverTime the timestamp in the server's default time zone.
+     * @return the date of that instant in the business time zone.
+     */
+    public LocalDate businessDayOf(LocalDateTime serverTime) {
+        return businessTimeProperties.toBusinessDay(serverTime);
+    }
+
+    /**
+     * Adds the amount to what the user sent today, if it stays within the user's daily limit.
+     *
+     * @param userId the ID of the sending user.
+     * @param amount the amount being sent (in cents).
+     * @throws TransactionLimitExceededException if the daily transaction limit would be exceeded.
+     */
+    @Transactional
+    public void reserve(int userId, long amount) {
+        LocalDate day = today();
+        log.info("Reserving {} cents of daily limit for user {} on {}", amount, userId, day);
+
+        dailySpendRepository.insertIfAbsent(userId, day);
+        if (dailySpendRepository.incrementWithinLimit(userId, day, amount) == 0) {
+            log.warn("Transaction limit exceeded for user {} on {}. Requested: {}", userId, day, amount);
+            throw new TransactionLimitExceededException("Transaction limit exceeded for the day.");
+        }
+        evictAfterCommit(userId);
+    }
+
+    /**
+     * Gives back an amount previously reserved, typically when a payment is canceled.
+     *
+     * @param userId the ID of the sending user.
+     * @param day    the business day the payment was counted on.
+     * @param amount the amount to give back (in cents).
+     */
+    @Transactional
+    public void release(int userId, LocalDate day, long amount) {
+        log.info("Releasing {} cents of daily limit for user {} on {}", amount, userId, day);
+        dailySpendRepository.decrement(userId, day, amount);
+        evictAfterCommit(userId);
+    }
+
+    /**
+     * Gets what the user already sent during the current business day.
+     *
+     * @param userId the ID of the user.
+     * @return the amount sent today (in cents).
+     */
+    public long getSpentToday(int userId) {
+        LocalDate day = today();
+        rollOver(day);
+        return spentToday.computeIfAbsent(userId, id -> dailySpendRepository.findAmount(id, day).orElse(0L));
+    }
+
+    private void evictAfterCommit(int userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    spentToday.remove(userId);
+                }
+            });
+        } else {
+            spentToday.remove(userId);
+        }
+    }
+
+    private void rollOver(LocalDate day) {
+        if (!day.equals(cachedDay)) {
+            synchronized (spentToday) {
+                if (!day.equals(cachedDay)) {
+                    spentToday.clear();
+                    cachedDay = day;
+                }
+            }
+        }
+    }
+}
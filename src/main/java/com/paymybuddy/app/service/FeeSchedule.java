@@ -0,0 +1,98 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.entity.TransactionFee;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of all transaction fees, ordered by the date they take effect.
+ *
+ * <p>A new snapshot with a higher version replaces the previous one whenever fees change; a payment resolves its fee
+ * from whichever snapshot it read, so it never sees a half-updated schedule.</p>
+ */
+public final class FeeSchedule {
+
+    private static final Comparator<Entry> EFFECTIVE_ORDER =
+            Comparator.comparing(Entry::effectiveDate).thenComparingInt(Entry::feeId);
+
+    private final long version;
+    private final List<Entry> entries;
+
+    private FeeSchedule(long version, List<Entry> entries) {
+        this.version = version;
+        this.entries = entries;
+    }
+
+    /**
+     * Builds a snapshot from fee rows.
+     *
+     * @param version the version of the snapshot.
+     * @param fees    the fee rows, in any order.
+     * @return the snapshot.
+     */
+    public static FeeSchedule of(long version, Iterable<TransactionFee> fees) {
+        List<Entry> entries = new ArrayList<>();
+        for (TransactionFee fee : fees) {
+            // A fee without a date is the oldest one, as with the previous ORDER BY effective_date DESC query.
+            LocalDateTime effectiveDate = fee.getEffectiveDate() != null ? fee.getEffectiveDate() : LocalDateTime.MIN;
+            entries.add(new Entry(fee.getId(), fee.getPercentage(), effectiveDate));
+        }
+        entries.sort(EFFECTIVE_ORDER);
+        return new FeeSchedule(version, List.copyOf(entries));
+    }
+
+    /**
+     * Gets the version of the snapshot.
+     *
+     * @return the version, increased each time the schedule is reloaded.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Resolves the fee in effect at a given instant: the one with the latest effective date not after it.
+     *
+     * @param instant the instant to resolve the fee for.
+     * @return the fee in effect, or empty if no fee had taken effect yet.
+     */
+    public Optional<Entry> resolve(LocalDateTime instant) {
+        int low = 0;
+        int high = entries.size() - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (entries.get(middle).effectiveDate().isAfter(instant)) {
+                high = middle - 1;
+            } else {
+                found = middle;
+                low = middle + 1;
+            }
+        }
+        return found < 0 ? Optional.empty() : Optional.of(entries.get(found));
+    }
+
+    /**
+     * One fee of the schedule.
+     *
+     * @param feeId         the ID of the fee row.
+     * @param percentage    the fee percentage (in thousandths, e.g., 2500 for 2.5%).
+     * @param effectiveDate the date the fee takes effect.
+     */
+    public record Entry(int feeId, long percentage, LocalDateTime effectiveDate) {
+
+        /**
+         * Calculates the fee for an amount.
+         *
+         * @param amount the amount (in cents).
+         * @return the fee (in cents).
+         */
+        public long feeFor(long amount) {
+            return (amount * percentage) / 100000;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.paymybuddy.app.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymybuddy.app.config.IdempotencyProperties;
+import com.paymybuddy.app.entity.IdempotencyRecord;
+import com.paymybuddy.app.exception.EntitySaveException;
+import com.paymybuddy.app.exception.IdempotencyKeyConflictException;
+import com.paymybuddy.app.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a money movement at most once per idempotency key and answers retries with the first response.
+ *
+ * <p>Completed responses are kept in a bounded in-memory LRU in front of the {@code idempotency_key} table, which
+ * makes keys survive restarts and work across nodes. A retry found in either place is answered without running the
+ * request again, so neither validation nor balances are touched. Concurrent requests with the same key on one node
+ * wait for the first one; on different nodes, the first to insert the key runs the request and the others poll the
+ * table. Failed requests release their key so they can be retried. Keys expire after {@code ttl}.</p>
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final int MAX_KEY_LENGTH = 64;
+    static final long POLL_MILLIS = 20;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final IdempotencyProperties idempotencyProperties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate writeTransaction;
+    private final Map<String, CachedResponse> completed;
+    private final Map<String, CompletableFuture<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              IdempotencyProperties idempotencyProperties, ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.idempotencyProperties = idempotencyProperties;
+        this.objectMapper = objectMapper;
+        // Own transactions: the key is claimed and completed whatever the caller's transaction does.
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        int cacheSize = idempotencyProperties.getCacheSize();
+        this.completed = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Runs the request once for its key, or replays the response of the first run.
+     *
+     * @param scope        the operation and the account it acts on, e.g. {@code payment:42}.
+     * @param key          the key sent by the client, or null to run the request without idempotency.
+     * @param request      the request parameters; a key reused with other parameters is refused.
+     * @param responseType the type the stored response is read back as.
+     * @param action       the request itself.
+     * @param <T>          the response type.
+     * @return the response of the first run of the request with this key.
+     * @throws IllegalArgumentException        if the key is blank or longer than {@value #MAX_KEY_LENGTH}.
+     * @throws IdempotencyKeyConflictException if the key was used for another request, or is still being processed.
+     */
+    public <T> T execute(String scope, String key, String request, Class<T> responseType, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            log.warn("Invalid idempotency key for {}", scope);
+            throw new IllegalArgumentException("Idempotency key must be 1 to " + MAX_KEY_LENGTH + " characters long.");
+        }
+
+        String id = scope + ":" + key;
+        String requestHash = hash(request);
+        CachedResponse cached = getCached(id);
+        if (cached != null) {
+            log.info("Replaying response for idempotency key {}", id);
+            return replay(cached, requestHash, responseType);
+        }
+
+        CompletableFuture<CachedResponse> mine = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            log.info("Waiting for the request already running with idempotency key {}", id);
+            return replay(await(running), requestHash, responseType);
+        }
+        try {
+            Result<T> result = runOnce(id, requestHash, action);
+            mine.complete(result.response());
+            return result.value() != null ? result.value() : replay(result.response(), requestHash, responseType);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    /**
+     * Deletes the expired keys from the table and the cache.
+     *
+     * @return the number of deleted rows.
+     */
+    @Scheduled(fixedDelayString = "${paymybuddy.idempotency.purge-interval:PT10M}",
+            initialDelayString = "${paymybuddy.idempotency.purge-interval:PT10M}")
+    public int purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (completed) {
+            completed.values().removeIf(response -> response.expiresAt().isBefore(now));
+        }
+        Integer deleted = writeTransaction.execute(status -> idempotencyRecordRepository.deleteExpired(now));
+        log.info("Purged {} expired idempotency keys", deleted);
+        return deleted == null ? 0 : deleted;
+    }
+
+    private <T> Result<T> runOnce(String id, String requestHash, Supplier<T> action) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(idempotencyProperties.getTtl());
+        while (true) {
+            IdempotencyRecord existing = writeTransaction.execute(status ->
+                    idempotencyRecordRepository.findById(id).orElse(null));
+            if (existing != null && existing.getExpiresAt().isBefore(now)) {
+                writeTransaction.executeWithoutResult(status -> idempotencyRecordRepository.deleteById(id));
+                existing = null;
+            }
+            if (existing != null) {
+                return new Result<>(null, awaitStored(existing));
+            }
+            try {
+                writeTransaction.executeWithoutResult(status ->
+                        idempotencyRecordRepository.claim(id, requestHash, now, expiresAt));
+                break;
+            } catch (DataIntegrityViolationException e) {
+                log.info("Idempotency key {} claimed concurrently", id);
+            }
+        }
+
+        T value;
+        try {
+            value = action.get();
+        } catch (RuntimeException e) {
+            log.info("Releasing idempotency key {} after a failed request", id);
+            writeTransaction.executeWithoutResult(status -> idempotencyRecordRepository.deleteById(id));
+            throw e;
+        }
+
+        String body = toJson(value);
+        writeTransaction.executeWithoutResult(status -> idempotencyRecordRepository.complete(id, body));
+        CachedResponse response = new CachedResponse(requestHash, body, expiresAt);
+        synchronized (completed) {
+            completed.put(id, response);
+        }
+        return new Result<>(value, response);
+    }
+
+    private CachedResponse awaitStored(IdempotencyRecord record) {
+        long deadline = System.nanoTime() + idempotencyProperties.getInProgressWait().toNanos();
+        IdempotencyRecord current = record;
+        while (current != null && current.getResponseBody() == null && System.nanoTime() < deadline) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            current = writeTransaction.execute(status ->
+                    idempotencyRecordRepository.findById(record.getId()).orElse(null));
+        }
+        if (current == null || current.getResponseBody() == null) {
+            log.warn("Idempotency key {} is still being processed", record.getId());
+            throw new IdempotencyKeyConflictException("A request with this idempotency key is still being processed.");
+        }
+        CachedResponse response = new CachedResponse(current.getRequestHash(), current.getResponseBody(),
+                current.getExpiresAt());
+        synchronized (completed) {
+            completed.put(current.getId(), response);
+        }
+        return response;
+    }
+
+    private CachedResponse await(CompletableFuture<CachedResponse> running) {
+        try {
+            return running.get(idempotencyProperties.getInProgressWait().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyConflictException("A request with this idempotency key is still being processed.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyConflictException("A request with this idempotency key is still being processed.");
+        }
+    }
+
+    private CachedResponse getCached(String id) {
+        synchronized (completed) {
+            CachedResponse cached = completed.get(id);
+            if (cached != null && cached.expiresAt().isBefore(LocalDateTime.now())) {
+                completed.remove(id);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private <T> T replay(CachedResponse response, String requestHash, Class<T> responseType) {
+        if (!response.requestHash().equals(requestHash)) {
+            log.warn("Idempotency key reused for a different request");
+            throw new IdempotencyKeyConflictException("The idempotency key was already used for a different request.");
+        }
+        try {
+            return objectMapper.readValue(response.body(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response cannot be read back.", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to store response for idempotency key", e);
+            throw new EntitySaveException("Failed to store the response of the request.", e);
+        }
+    }
+
+    private static String hash(String request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(String.valueOf(request).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record CachedResponse(String requestHash, String body, LocalDateTime expiresAt) {
+    }
+
+    private record Result<T>(T value, CachedResponse response) {
+    }
+}
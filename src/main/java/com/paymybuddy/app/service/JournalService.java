@@ -0,0 +1,196 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.entity.JournalAccount;
+import com.paymybuddy.app.entity.JournalEntry;
+import com.paymybuddy.app.entity.Transaction;
+import com.paymybuddy.app.repository.JournalEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Posts payments and their cancellations to the append-only {@code journal_entry} table.
+ *
+ * <p>Payments, bank transfers and manual corrections are posted in the database transaction that moves the balances,
+ * so {@code app_account.balance} always matches the net of the journal lines of the account. The journal is only ever inserted into: a cancellation posts
+ * reversal lines and leaves the original ones in place, so the history of every balance can be replayed.</p>
+ */
+@Slf4j
+@Service
+public class JournalService {
+
+    private final JournalEntryRepository journalEntryRepository;
+
+    public JournalService(JournalEntryRepository journalEntryRepository) {
+        this.journalEntryRepository = journalEntryRepository;
+    }
+
+    /**
+     * Posts a payment: the sender is debited the amount with the fee, the receiver is credited the amount and the fee
+     * goes to the fee revenue.
+     *
+     * @param transaction the saved transaction.
+     * @return the posted entries.
+     */
+    @Transactional
+    public List<JournalEntry> recordPayment(Transaction transaction) {
+        log.info("Posting journal entries for transaction {}", transaction.getId());
+
+        List<JournalEntry> entries = new ArrayList<>(3);
+        addPaymentEntries(entries, transaction, LocalDateTime.now());
+        return journalEntryRepository.saveAll(entries);
+    }
+
+    /**
+     * Posts payments made together, such as a batch of payments, in one call.
+     *
+     * @param transactions the saved transactions.
+     * @return the posted entries.
+     * @see #recordPayment(Transaction)
+     */
+    @Transactional
+    public List<JournalEntry> recordPayments(List<Transaction> transactions) {
+        log.info("Posting journal entries for {} transactions", transactions.size());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<JournalEntry> entries = new ArrayList<>(transactions.size() * 3);
+        transactions.forEach(transaction -> addPaymentEntries(entries, transaction, now));
+        return journalEntryRepository.saveAll(entries);
+    }
+
+    private void addPaymentEntries(List<JournalEntry> entries, Transaction transaction, LocalDateTime now) {
+        long fee = transaction.getAmountWithFee() - transaction.getAmount();
+        List<JournalEntry> lines = new ArrayList<>(3);
+        lines.add(entry(JournalAccount.USER_BALANCE, transaction.getUserSender().getId(),
+                -transaction.getAmountWithFee(), now));
+        lines.add(entry(JournalAccount.USER_BALANCE, transaction.getUserReceiver().getId(),
+                transaction.getAmount(), now));
+        if (fee != 0) {
+            lines.add(entry(JournalAccount.FEE_REVENUE, null, fee, now));
+        }
+        lines.forEach(entry -> entry.setTransactionId(transaction.getId()));
+        entries.addAll(lines);
+    }
+
+    /**
+     * Posts a transfer between the app account of a user and one of their bank accounts.
+     *
+     * @param userId        the ID of the user.
+     * @param bankAccountId the ID of the bank account.
+     * @param amount        the amount credited to the app account (in cents), negative for a withdrawal to the bank.
+     * @return the posted entries.
+     */
+    @Transactional
+    public List<JournalEntry> recordBankTransfer(int userId, int bankAccountId, long amount) {
+        log.info("Posting bank transfer of {} cents for user {} and bank account {}", amount, userId, bankAccountId);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<JournalEntry> entries = List.of(
+                entry(JournalAccount.USER_BALANCE, userId, amount, now),
+                entry(JournalAccount.BANK, null, -amount, now));
+        entries.forEach(entry -> entry.setBankAccountId(bankAccountId));
+        return journalEntryRepository.saveAll(entries);
+    }
+
+    /**
+     * Posts a manual correction of the balance of a user.
+     *
+     * @param userId the ID of the user.
+     * @param delta  the amount added to the balance (in cents), negative when taken out.
+     * @return the posted entries.
+     */
+    @Transactional
+    public List<JournalEntry> recordAdjustment(int userId, long delta) {
+        log.info("Posting balance adjustment of {} cents for user {}", delta, userId);
+
+        LocalDateTime now = LocalDateTime.now();
+        return journalEntryRepository.saveAll(List.of(
+                entry(JournalAccount.USER_BALANCE, userId, delta, now),
+                entry(JournalAccount.ADJUSTMENT, null, -delta, now)));
+    }
+
+    /**
+     * Posts the reversal of every entry of a payment being canceled.
+     *
+     * <p>Payments made before the journal existed have no entries: their effect is part of the opening balances, so
+     * they are reversed against the {@code OPENING} account instead.</p>
+     *
+     * @param transaction the transaction being canceled.
+     * @return the posted reversal entries.
+     * @throws IllegalStateException if the payment has already been reversed.
+     */
+    @Transactional
+    public List<JournalEntry> recordReversal(Transaction transaction) {
+        log.info("Posting journal reversal for transaction {}", transaction.getId());
+
+        List<JournalEntry> posted = journalEntryRepository.findByTransactionIdOrderById(transaction.getId());
+        if (posted.stream().anyMatch(entry -> entry.getReversalOf() != null)) {
+            log.error("Transaction {} has already been reversed in the journal", transaction.getId());
+            throw new IllegalStateException("Transaction has already been reversed.");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (posted.isEmpty()) {
+            log.info("Transaction {} predates the journal, reversing it against the opening balances",
+                    transaction.getId());
+            return journalEntryRepository.saveAll(openingReversal(transaction, now));
+        }
+
+        List<JournalEntry> reversals = new ArrayList<>(posted.size());
+        for (JournalEntry entry : posted) {
+            JournalEntry reversal = entry(entry.getAccount(), entry.getUserId(), -entry.getAmount(), now);
+            reversal.setTransactionId(entry.getTransactionId());
+            reversal.setReversalOf(entry.getId());
+            reversals.add(reversal);
+        }
+        return journalEntryRepository.saveAll(reversals);
+    }
+
+    private static List<JournalEntry> openingReversal(Transaction transaction, LocalDateTime now) {
+        long fee = transaction.getAmountWithFee() - transaction.getAmount();
+        List<JournalEntry> lines = new ArrayList<>(3);
+        lines.add(entry(JournalAccount.USER_BALANCE, transaction.getUserSender().getId(),
+                transaction.getAmountWithFee(), now));
+        lines.add(entry(JournalAccount.USER_BALANCE, transaction.getUserReceiver().getId(),
+                -transaction.getAmount(), now));
+        if (fee != 0) {
+            lines.add(entry(JournalAccount.OPENING, null, -fee, now));
+        }
+        lines.forEach(entry -> entry.setTransactionId(transaction.getId()));
+        return lines;
+    }
+
+    /**
+     * Gets all the entries posted for a transaction, reversals included, in posting order.
+     *
+     * @param transactionId the ID of the transaction.
+     * @return the entries of the transaction.
+     */
+    @Transactional(readOnly = true)
+    public List<JournalEntry> getEntries(int transactionId) {
+        return journalEntryRepository.findByTransactionIdOrderById(transactionId);
+    }
+
+    /**
+     * Gets the net amount the journal has moved in or out of the balance of a user.
+     *
+     * @param userId the ID of the user.
+     * @return the sum of the user's entries (in cents).
+     */
+    @Transactional(readOnly = true)
+    public long getBalanceMovement(int userId) {
+        return journalEntryRepository.sumBalanceByUserId(userId);
+    }
+
+    private static JournalEntry entry(JournalAccount account, Integer userId, long amount, LocalDateTime createdAt) {
+        JournalEntry entry = new JournalEntry();
+        entry.setAccount(account);
+        entry.setUserId(userId);
+        entry.setAmount(amount);
+        entry.setCreatedAt(createdAt);
+        return entry;
+    }
+}
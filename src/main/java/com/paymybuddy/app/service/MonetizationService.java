@@ -1,15 +1,24 @@
 package com.paymybuddy.app.service;
 
+import com.paymybuddy.app.datasource.Workload;
+import com.paymybuddy.app.datasource.WorkloadPool;
 import com.paymybuddy.app.dto.MonetizationDTO;
+import com.paymybuddy.app.dto.RevenueSummaryDTO;
 import com.paymybuddy.app.entity.Monetization;
 import com.paymybuddy.app.entity.Transaction;
 import com.paymybuddy.app.exception.EntityNotFoundException;
 import com.paymybuddy.app.exception.EntitySaveException;
 import com.paymybuddy.app.repository.MonetizationRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Service for managing monetization operations, including saving transaction fees and retrieving monetization data.
@@ -20,6 +29,7 @@ import org.springframework.stereotype.Service;
 public class MonetizationService {
 
     private final MonetizationRepository monetizationRepository;
+    private final RevenueLedgerService revenueLedgerService;
 
     /**
      * Saves the monetization (tax/fee) for a given transaction.
@@ -42,26 +52,117 @@ public class MonetizationService {
         try {
             monetizationRepository.save(monetization);
             log.info("Monetization saved successfully for transaction ID: {}, tax: {}", transaction.getId(), tax);
+        } catch (ConcurrencyFailureException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to save monetization for transaction ID: {}", transaction.getId(), e);
             throw new EntitySaveException("Failed to save tax monetization.", e);
         }
+
+        revenueLedgerService.recordRevenue(transaction.getId(), transaction.getTransactionDate(), tax);
+    }
+
+    /**
+     * Saves the monetization of transactions made together, such as a batch of payments, in one call.
+     *
+     * @param transactions the saved transactions, all made at the same date.
+     * @throws EntitySaveException if saving the monetizations fails.
+     */
+    @Transactional
+    public void saveMonetizations(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        log.info("Saving monetization for {} transactions", transactions.size());
+
+        long totalTax = 0;
+        List<Monetization> monetizations = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            Monetization monetization = new Monetization();
+            monetization.setTransaction(transaction);
+            monetization.setResult(transaction.getAmountWithFee() - transaction.getAmount());
+            monetizations.add(monetization);
+            totalTax += monetization.getResult();
+        }
+
+        try {
+            monetizationRepository.saveAll(monetizations);
+            log.info("Monetizations saved successfully for {} transactions, tax: {}", transactions.size(), totalTax);
+        } catch (ConcurrencyFailureException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to save monetizations for {} transactions", transactions.size(), e);
+            throw new EntitySaveException("Failed to save tax monetization.", e);
+        }
+
+        Transaction first = transactions.get(0);
+        revenueLedgerService.recordRevenue(first.getId(), first.getTransactionDate(), totalTax, transactions.size());
     }
 
     /**
-     * Calculates the total result of all monetizations (sum of fees collected).
+     * Takes the fee of a transaction being canceled out of the revenue totals. The monetization row is kept, like
+     * the canceled transaction it belongs to.
+     *
+     * @param transaction the transaction being canceled.
+     */
+    @Transactional
+    public void cancelMonetization(Transaction transaction) {
+        monetizationRepository.findByTransactionId(transaction.getId()).ifPresent(monetization -> {
+            log.info("Canceling monetization for transaction ID: {}", transaction.getId());
+            revenueLedgerService.reverseRevenue(transaction.getId(), transaction.getTransactionDate(), monetization.getResult());
+        });
+    }
+
+    /**
+     * Gets the total result of all monetizations (sum of fees collected) from the revenue ledger.
      *
      * @return the total monetization result.
      * @throws EntityNotFoundException if no monetization records are found.
      */
-    @Transactional
+    @WorkloadPool(Workload.REPORTING)
     public long getTotalResult() {
         log.info("Calculating total monetization result.");
-        return monetizationRepository.calculateTotalResult()
-                .orElseThrow(() -> {
-                    log.error("No monetization records found.");
-                    return new EntityNotFoundException("No monetization records found.");
-                });
+        RevenueSummaryDTO total = revenueLedgerService.getTotalRevenue();
+        if (total.getEntryCount() == 0) {
+            log.error("No monetization records found.");
+            throw new EntityNotFoundException("No monetization records found.");
+        }
+        return total.getAmount();
+    }
+
+    /**
+     * Gets the fees collected on a business day, from the revenue ledger.
+     *
+     * @param day the business day.
+     * @return the fees collected that day (in cents).
+     */
+    @WorkloadPool(Workload.REPORTING)
+    public long getDailyResult(LocalDate day) {
+        log.info("Fetching monetization result for day {}", day);
+        return revenueLedgerService.getDailyRevenue(day).getAmount();
+    }
+
+    /**
+     * Gets the fees collected during a month, from the revenue ledger.
+     *
+     * @param month the month.
+     * @return the fees collected that month (in cents).
+     */
+    @WorkloadPool(Workload.REPORTING)
+    public long getMonthlyResult(YearMonth month) {
+        log.info("Fetching monetization result for month {}", month);
+        return revenueLedgerService.getMonthlyRevenue(month).getAmount();
+    }
+
+    /**
+     * Recomputes the revenue ledger from the monetization rows.
+     *
+     * @return the rebuilt total result (in cents).
+     */
+    @WorkloadPool(Workload.REPORTING)
+    public long rebuildRevenueLedger() {
+        log.info("Rebuilding revenue ledger on request");
+        return revenueLedgerService.rebuild().getAmount();
     }
 
     /**
@@ -88,7 +189,7 @@ public class MonetizationService {
      * @return the MonetizationDTO containing the monetization details.
      * @throws EntityNotFoundException if no monetization is found for the given transaction ID.
      */
-    @Transactional
+    @Transactional(readOnly = true)
     public MonetizationDTO findMonetizationByTransactionIdWithDTO(int transactionId) {
         log.info("Finding monetization for transaction ID: {}", transactionId);
 
@@ -0,0 +1,321 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.config.GroupCommitProperties;
+import com.paymybuddy.app.datasource.PrimaryPinGuard;
+import com.paymybuddy.app.entity.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Commits concurrent payments together, so a burst of small payments pays for one commit instead of one each.
+ *
+ * <p>Callers queue their payment and wait. A single committer thread takes the first waiting payment, lets others
+ * join it for at most {@code max-linger}, then applies up to {@code max-batch-size} of them in order, in one
+ * database transaction opened by {@link BalanceMutationExecutor} with the stripes of every account involved.
+ * Each payment still goes through {@link TransferEngine} and its usual checks.</p>
+ *
+ * <p>When a payment of the batch fails, the whole transaction rolls back and the batch is split around it: the
+ * payments before it are committed together again, the failing one is retried on its own so its caller gets the
+ * genuine outcome, and the payments after it form a new batch. Each caller therefore sees the same result as if the
+ * payments had run one after the other.</p>
+ *
+ * <ul>
+ *     <li>{@value #BATCH_SIZE_METRIC}: number of payments per committed batch.</li>
+ *     <li>{@value #BATCH_SPLIT_METRIC}: batches rolled back and split because one of their payments failed.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class PaymentGroupCommitter {
+
+    static final String BATCH_SIZE_METRIC = "paymybuddy.payments.batch.size";
+    static final String BATCH_SPLIT_METRIC = "paymybuddy.payments.batch.splits";
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final TransferEngine transferEngine;
+    private final BalanceMutationExecutor balanceMutationExecutor;
+    private final PrimaryPinGuard primaryPinGuard;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+    private final BlockingQueue<PendingPayment> queue;
+    private final DistributionSummary batchSize;
+    private final Counter batchSplits;
+    private final Thread committer;
+    private volatile boolean running;
+
+    @Autowired
+    public PaymentGroupCommitter(TransferEngine transferEngine, BalanceMutationExecutor balanceMutationExecutor,
+                                 PrimaryPinGuard primaryPinGuard, GroupCommitProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this(transferEngine, balanceMutationExecutor, primaryPinGuard, properties, meterRegistry,
+                new LinkedBlockingQueue<>());
+    }
+
+    PaymentGroupCommitter(TransferEngine transferEngine, BalanceMutationExecutor balanceMutationExecutor,
+                          PrimaryPinGuard primaryPinGuard, GroupCommitProperties properties,
+                          MeterRegistry meterRegistry, BlockingQueue<PendingPayment> queue) {
+        this.queue = queue;
+        this.transferEngine = transferEngine;
+        this.balanceMutationExecutor = balanceMutationExecutor;
+        this.primaryPinGuard = primaryPinGuard;
+        this.enabled = properties.isEnabled();
+        this.maxBatchSize = Math.max(1, properties.getMaxBatchSize());
+        this.maxLingerNanos = Math.max(0, properties.getMaxLinger().toNanos());
+        this.batchSize = DistributionSummary.builder(BATCH_SIZE_METRIC)
+                .description("Payments committed per group commit")
+                .register(meterRegistry);
+        this.batchSplits = Counter.builder(BATCH_SPLIT_METRIC)
+                .description("Group commits split because one of their payments failed")
+                .register(meterRegistry);
+
+        if (enabled) {
+            running = true;
+            committer = new Thread(this::run, "payment-group-commit");
+            committer.setDaemon(true);
+            committer.start();
+            log.info("Payment group commit enabled (max batch size: {}, max linger: {} µs)",
+                    maxBatchSize, TimeUnit.NANOSECONDS.toMicros(maxLingerNanos));
+        } else {
+            committer = null;
+        }
+    }
+
+    /**
+     * Tells whether payments go through the group commit.
+     *
+     * @return true if the group commit is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a payment and waits until the batch it joined is committed.
+     *
+     * @param senderId      The ID of the user sending the money.
+     * @param receiverId    The ID of the user receiving the money.
+     * @param amountInCents The amount being transferred (in cents).
+     * @param description   A description of the transaction.
+     * @return The saved transaction.
+     * @throws IllegalStateException if the group commit is disabled or shutting down.
+     * @see TransferEngine#transfer(int, int, long, String) for the exceptions of a failed payment.
+     */
+    public Transaction transfer(int senderId, int receiverId, long amountInCents, String description) {
+        if (!running) {
+            throw new IllegalStateException("Payment group commit is not running.");
+        }
+
+        PendingPayment payment = new PendingPayment(senderId, receiverId, amountInCents, description);
+        queue.add(payment);
+        // Shut down since the check above: nobody may be left to take the payment. Whoever removes it answers it.
+        if (!running && queue.remove(payment)) {
+            throw new IllegalStateException("Payment group commit is not running.");
+        }
+        Transaction transaction = await(payment.result);
+
+        // The commit happened on the committer thread: keep this user's reads on the primary, as it would have
+        Integer userId = PrimaryPinGuard.currentUserId();
+        if (userId != null) {
+            primaryPinGuard.pin(userId);
+        }
+        return transaction;
+    }
+
+    /**
+     * Stops taking payments and commits the ones already queued.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (committer == null) {
+            return;
+        }
+        running = false;
+        committer.join(TimeUnit.SECONDS.toMillis(10));
+
+        // Payments queued while the committer was stopping
+        PendingPayment payment;
+        while ((payment = queue.poll()) != null) {
+            payment.result.completeExceptionally(new IllegalStateException("Payment group commit is not running."));
+        }
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            List<PendingPayment> batch;
+            try {
+                batch = nextBatch();
+            } catch (InterruptedException e) {
+                log.warn("Payment group commit interrupted, stopping");
+                running = false;
+                continue;
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                commit(batch);
+            } catch (RuntimeException e) {
+                log.error("Group commit of {} payments failed unexpectedly", batch.size(), e);
+                batch.forEach(payment -> payment.result.completeExceptionally(e));
+            }
+        }
+    }
+
+    private List<PendingPayment> nextBatch() throws InterruptedException {
+        List<PendingPayment> batch = new ArrayList<>(maxBatchSize);
+        PendingPayment first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + maxLingerNanos;
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            PendingPayment next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    /**
+     * Commits the payments together, splitting the batch around the first one that fails.
+     */
+    private void commit(List<PendingPayment> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (batch.size() == 1) {
+            commitAlone(batch.get(0));
+            return;
+        }
+
+        Set<Integer> userIds = new LinkedHashSet<>();
+        batch.forEach(payment -> {
+            userIds.add(payment.senderId);
+            userIds.add(payment.receiverId);
+        });
+
+        List<Transaction> transactions;
+        try {
+            transactions = balanceMutationExecutor.execute(userIds, () -> applyAll(batch));
+        } catch (FailedPayment e) {
+            log.info("Payment {} of a batch of {} failed, splitting the batch: {}", e.index + 1, batch.size(),
+                    e.getCause().getMessage());
+            batchSplits.increment();
+            commit(batch.subList(0, e.index));
+            commitAlone(batch.get(e.index));
+            commit(batch.subList(e.index + 1, batch.size()));
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} payments could not be committed, committing them one by one: {}",
+                    batch.size(), e.getMessage());
+            batchSplits.increment();
+            batch.forEach(this::commitAlone);
+            return;
+        }
+
+        batchSize.record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result.complete(transactions.get(i));
+        }
+    }
+
+    private List<Transaction> applyAll(List<PendingPayment> batch) {
+        List<Transaction> transactions = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            PendingPayment payment = batch.get(i);
+            try {
+                transactions.add(transferEngine.transfer(payment.senderId, payment.receiverId,
+                        payment.amountInCents, payment.description));
+            } catch (ConcurrencyFailureException e) {
+                // Left to BalanceMutationExecutor, which retries the whole batch
+                throw e;
+            } catch (RuntimeException e) {
+                throw new FailedPayment(i, e);
+            }
+        }
+        return transactions;
+    }
+
+    private void commitAlone(PendingPayment payment) {
+        try {
+            Transaction transaction = transferEngine.transfer(payment.senderId, payment.receiverId,
+                    payment.amountInCents, payment.description);
+            batchSize.record(1);
+            payment.result.complete(transaction);
+        } catch (RuntimeException e) {
+            payment.result.completeExceptionally(e);
+        }
+    }
+
+    private static Transaction await(CompletableFuture<Transaction> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the payment to be committed.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Payment failed.", e.getCause());
+        }
+    }
+
+    static final class PendingPayment {
+
+        private final int senderId;
+        private final int receiverId;
+        private final long amountInCents;
+        private final String description;
+        private final CompletableFuture<Transaction> result = new CompletableFuture<>();
+
+        private PendingPayment(int senderId, int receiverId, long amountInCents, String description) {
+            this.senderId = senderId;
+            this.receiverId = receiverId;
+            this.amountInCents = amountInCents;
+            this.description = description;
+        }
+    }
+
+    /**
+     * Carries the failure of one payment out of the batch transaction, so the transaction rolls back.
+     */
+    private static final class FailedPayment extends RuntimeException {
+
+        private final int index;
+
+        private FailedPayment(int index, RuntimeException cause) {
+            super(cause);
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.config.ReconciliationProperties;
+import com.paymybuddy.app.datasource.Workload;
+import com.paymybuddy.app.datasource.WorkloadContext;
+import com.paymybuddy.app.datasource.WorkloadPool;
+import com.paymybuddy.app.dto.UserAmountDTO;
+import com.paymybuddy.app.entity.ReconciliationDiscrepancy;
+import com.paymybuddy.app.entity.ReconciliationRun;
+import com.paymybuddy.app.exception.EntityNotFoundException;
+import com.paymybuddy.app.repository.AccountBucketRepository;
+import com.paymybuddy.app.repository.AppAccountRepository;
+import com.paymybuddy.app.repository.JournalEntryRepository;
+import com.paymybuddy.app.repository.ReconciliationDiscrepancyRepository;
+import com.paymybuddy.app.repository.ReconciliationRunRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Checks that every {@code app_account} balance matches the net of the user's journal lines.
+ *
+ * <p>The user ID range of the accounts is split in chunks of {@code chunk-size} IDs, checked in parallel on a
+ * dedicated fork-join pool of {@code parallelism} workers. A chunk costs three grouped queries (balances, pending
+ * bucket credits, journal sums) in one read-only transaction, which goes to a read replica when one is configured and
+ * to the reporting pool of the primary otherwise.
+ * The number of workers caps the connections held by the job and {@code max-chunks-per-second} caps its query rate.
+ * Mismatches are read again on their own before being reported, so a payment committing between two queries of a
+ * chunk is not reported as drift. Each run writes a {@link ReconciliationRun} and its
+ * {@link ReconciliationDiscrepancy} rows.</p>
+ */
+@Slf4j
+@Service
+@WorkloadPool(Workload.REPORTING)
+public class ReconciliationService {
+
+    private final AppAccountRepository appAccountRepository;
+    private final AccountBucketRepository accountBucketRepository;
+    private final JournalEntryRepository journalEntryRepository;
+    private final ReconciliationRunRepository reconciliationRunRepository;
+    private final ReconciliationDiscrepancyRepository reconciliationDiscrepancyRepository;
+    private final ReconciliationProperties reconciliationProperties;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private long nextChunkAt;
+
+    public ReconciliationService(AppAccountRepository appAccountRepository,
+                                 AccountBucketRepository accountBucketRepository,
+                                 JournalEntryRepository journalEntryRepository,
+                                 ReconciliationRunRepository reconciliationRunRepository,
+                                 ReconciliationDiscrepancyRepository reconciliationDiscrepancyRepository,
+                                 ReconciliationProperties reconciliationProperties,
+                                 PlatformTransactionManager transactionManager) {
+        this.appAccountRepository = appAccountRepository;
+        this.accountBucketRepository = accountBucketRepository;
+        this.journalEntryRepository = journalEntryRepository;
+        this.reconciliationRunRepository = reconciliationRunRepository;
+        this.reconciliationDiscrepancyRepository = reconciliationDiscrepancyRepository;
+        this.reconciliationProperties = reconciliationProperties;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reconciles all accounts and stores the report.
+     *
+     * @return the stored run summary.
+     * @throws IllegalStateException if a reconciliation is already running.
+     */
+    @Scheduled(cron = "${paymybuddy.reconciliation.cron:0 30 0 * * *}",
+            zone = "${paymybuddy.business.time-zone:Europe/Paris}")
+    public ReconciliationRun reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Reconciliation requested while another one is running");
+            throw new IllegalStateException("A reconciliation is already running.");
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            long start = System.nanoTime();
+            log.info("Starting balance reconciliation");
+
+            Integer minUserId = readTransaction.execute(status -> appAccountRepository.findMinUserId());
+            Integer maxUserId = readTransaction.execute(status -> appAccountRepository.findMaxUserId());
+            ChunkResult result = new ChunkResult(0, new ArrayList<>());
+            if (minUserId != null && maxUserId != null) {
+                ForkJoinPool pool = new ForkJoinPool(Math.max(1, reconciliationProperties.getParallelism()));
+                try {
+                    result = pool.invoke(new RangeTask(minUserId, maxUserId));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+
+            List<ReconciliationDiscrepancy> confirmed = new ArrayList<>();
+            for (ReconciliationDiscrepancy suspect : result.discrepancies()) {
+                confirmed.addAll(checkRange(suspect.getUserId(), suspect.getUserId()).discrepancies());
+            }
+
+            ReconciliationRun run = new ReconciliationRun();
+            run.setStartedAt(startedAt);
+            run.setFinishedAt(LocalDateTime.now());
+            run.setAccountsChecked(result.accountsChecked());
+            run.setDiscrepancyCount(confirmed.size());
+            writeTransaction.executeWithoutResult(status -> {
+                reconciliationRunRepository.save(run);
+                confirmed.forEach(discrepancy -> discrepancy.setRunId(run.getId()));
+                reconciliationDiscrepancyRepository.saveAll(confirmed);
+            });
+
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (confirmed.isEmpty()) {
+                log.info("Reconciliation {} checked {} accounts in {} ms, no discrepancy",
+                        run.getId(), run.getAccountsChecked(), elapsedMillis);
+            } else {
+                log.warn("Reconciliation {} checked {} accounts in {} ms, {} discrepancies",
+                        run.getId(), run.getAccountsChecked(), elapsedMillis, confirmed.size());
+            }
+            return run;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Gets the summary of the latest reconciliation.
+     *
+     * @return the latest run.
+     * @throws EntityNotFoundException if no reconciliation has run yet.
+     */
+    public ReconciliationRun getLatestRun() {
+        return reconciliationRunRepository.findTopByOrderByIdDesc()
+                .orElseThrow(() -> {
+                    log.error("No reconciliation run found");
+                    return new EntityNotFoundException("No reconciliation run found.");
+                });
+    }
+
+    /**
+     * Gets the accounts reported by a reconciliation run.
+     *
+     * @param runId the ID of the run.
+     * @return the discrepancies of the run, by user ID.
+     */
+    public List<ReconciliationDiscrepancy> getDiscrepancies(int runId) {
+        return reconciliationDiscrepancyRepository.findByRunIdOrderByUserId(runId);
+    }
+
+    private ChunkResult checkRange(int fromUserId, int toUserId) {
+        return readTransaction.execute(status -> {
+            List<UserAmountDTO> balances = appAccountRepository.findBalancesByUserIdBetween(fromUserId, toUserId);
+            Map<Integer, Long> pendingCredits = toMap(accountBucketRepository.sumByUserIdBetween(fromUserId, toUserId));
+            Map<Integer, Long> journal = toMap(journalEntryRepository.sumBalancesByUserIdBetween(fromUserId, toUserId));
+
+            List<ReconciliationDiscrepancy> discrepancies = new ArrayList<>();
+            for (UserAmountDTO balance : balances) {
+                long recorded = balance.getAmount() + pendingCredits.getOrDefault(balance.getUserId(), 0L);
+                long expected = journal.getOrDefault(balance.getUserId(), 0L);
+                if (recorded != expected) {
+                    ReconciliationDiscrepancy discrepancy = new ReconciliationDiscrepancy();
+                    discrepancy.setUserId(balance.getUserId());
+                    discrepancy.setRecordedBalance(recorded);
+                    discrepancy.setExpectedBalance(expected);
+                    discrepancies.add(discrepancy);
+                }
+            }
+            return new ChunkResult(balances.size(), discrepancies);
+        });
+    }
+
+    private static Map<Integer, Long> toMap(List<UserAmountDTO> amounts) {
+        Map<Integer, Long> byUserId = new HashMap<>(amounts.size() * 2);
+        for (UserAmountDTO amount : amounts) {
+            byUserId.put(amount.getUserId(), amount.getAmount());
+        }
+        return byUserId;
+    }
+
+    private void awaitChunkPermit() {
+        int maxChunksPerSecond = reconciliationProperties.getMaxChunksPerSecond();
+        if (maxChunksPerSecond <= 0) {
+            return;
+        }
+        long interval = TimeUnit.SECONDS.toNanos(1) / maxChunksPerSecond;
+        long slot;
+        synchronized (this) {
+            slot = Math.max(nextChunkAt, System.nanoTime());
+            nextChunkAt = slot + interval;
+        }
+        long wait = slot - System.nanoTime();
+        if (wait > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    private record ChunkResult(long accountsChecked, List<ReconciliationDiscrepancy> discrepancies) {
+
+        ChunkResult merge(ChunkResult other) {
+            List<ReconciliationDiscrepancy> merged = new ArrayList<>(discrepancies.size() + other.discrepancies.size());
+            merged.addAll(discrepancies);
+            merged.addAll(other.discrepancies);
+            return new ChunkResult(accountsChecked + other.accountsChecked, merged);
+        }
+    }
+
+    /**
+     * Splits a user ID range in halves until it fits in one chunk.
+     */
+    private class RangeTask extends RecursiveTask<ChunkResult> {
+
+        private final int fromUserId;
+        private final int toUserId;
+
+        RangeTask(int fromUserId, int toUserId) {
+            this.fromUserId = fromUserId;
+            this.toUserId = toUserId;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+            if ((long) toUserId - fromUserId < Math.max(1, reconciliationProperties.getChunkSize())) {
+                awaitChunkPermit();
+                // Workers do not inherit the workload of the thread starting the run
+                return WorkloadContext.call(Workload.REPORTING, () -> checkRange(fromUserId, toUserId));
+            }
+            int middle = (int) (((long) fromUserId + toUserId) / 2);
+            RangeTask lower = new RangeTask(fromUserId, middle);
+            lower.fork();
+            ChunkResult upper = new RangeTask(middle + 1, toUserId).compute();
+            return lower.join().merge(upper);
+        }
+    }
+}
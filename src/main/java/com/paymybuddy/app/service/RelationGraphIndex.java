@@ -0,0 +1,337 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.datasource.Workload;
+import com.paymybuddy.app.datasource.WorkloadPool;
+import com.paymybuddy.app.entity.id.UserRelationId;
+import com.paymybuddy.app.repository.UserRelationRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory index of who is connected to whom, kept next to the {@code user_relation} table.
+ *
+ * <p>Relations are stored symmetrically: each user id maps to the sorted array of the ids it is connected to, in
+ * either direction. Reads never touch the database and never lock; a relation check is a binary search in a small
+ * array and a friend list is the array itself. Writes replace the arrays of the two users involved and are applied
+ * once the surrounding transaction commits, so a rolled back change never reaches the index. Soft deleted users are
+ * tracked as well so friend lists can skip them.</p>
+ *
+ * <p>The index is loaded when the application is ready and can be rebuilt from the database at any time. A scheduled
+ * check compares it with the tables and rebuilds it when they differ, which also picks up rows written without going
+ * through the services.</p>
+ */
+@Slf4j
+@Component
+public class RelationGraphIndex {
+
+    private static final int[] NO_RELATIONS = new int[0];
+
+    private final UserRelationRepository userRelationRepository;
+    private final UserRepository userRepository;
+
+    // Not a monitor: rebuilds hold it while reading the database, which would pin a virtual thread
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile Map<Integer, int[]> adjacency = new ConcurrentHashMap<>();
+    private volatile Set<Integer> deletedUsers = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+
+    public RelationGraphIndex(UserRelationRepository userRelationRepository, UserRepository userRepository) {
+        this.userRelationRepository = userRelationRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Loads the index once the application has started.
+     */
+    @WorkloadPool(Workload.REPORTING)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!loaded) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Replaces the whole index with the relations and soft deleted users currently in the database.
+     */
+    @WorkloadPool(Workload.REPORTING)
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            log.info("Rebuilding relation graph index");
+            Snapshot snapshot = readSnapshot();
+            adjacency = snapshot.adjacency();
+            deletedUsers = snapshot.deletedUsers();
+            loaded = true;
+            log.info("Relation graph index rebuilt with {} users and {} deleted users",
+                    snapshot.adjacency().size(), snapshot.deletedUsers().size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Compares the index with the database and rebuilds it if they differ.
+     *
+     * @return the number of relations and deleted flags that did not match.
+     */
+    @WorkloadPool(Workload.REPORTING)
+    @Scheduled(fixedDelayString = "${paymybuddy.relations.consistency-check-interval:PT1H}",
+            initialDelayString = "${paymybuddy.relations.consistency-check-interval:PT1H}")
+    public int checkConsistency() {
+        writeLock.lock();
+        try {
+            if (!loaded) {
+                rebuild();
+                return 0;
+            }
+
+            Snapshot snapshot = readSnapshot();
+            int mismatches = 0;
+
+            Set<Integer> userIds = new HashSet<>(adjacency.keySet());
+            userIds.addAll(snapshot.adjacency().keySet());
+            for (int userId : userIds) {
+                int[] indexed = adjacency.getOrDefault(userId, NO_RELATIONS);
+                int[] stored = snapshot.adjacency().getOrDefault(userId, NO_RELATIONS);
+                if (!Arrays.equals(indexed, stored)) {
+                    log.warn("Relation graph index out of date for user {}: indexed {}, stored {}",
+                            userId, Arrays.toString(indexed), Arrays.toString(stored));
+                    mismatches++;
+                }
+            }
+
+            if (!deletedUsers.equals(snapshot.deletedUsers())) {
+                log.warn("Relation graph index has out of date deleted users");
+                mismatches++;
+            }
+
+            if (mismatches > 0) {
+                adjacency = snapshot.adjacency();
+                deletedUsers = snapshot.deletedUsers();
+                log.warn("Relation graph index repaired after {} mismatches", mismatches);
+            } else {
+                log.info("Relation graph index is consistent with the database");
+            }
+            return mismatches;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether two users are connected, whichever of them added the other.
+     *
+     * @param userId      the ID of one user.
+     * @param otherUserId the ID of the other user.
+     * @return true if a relation between them is indexed.
+     */
+    public boolean isConnected(int userId, int otherUserId) {
+        ensureLoaded();
+        return Arrays.binarySearch(adjacency.getOrDefault(userId, NO_RELATIONS), otherUserId) >= 0;
+    }
+
+    /**
+     * Gets the IDs of the users connected to a user, leaving out soft deleted ones.
+     *
+     * @param userId the ID of the user.
+     * @return the related user IDs in ascending order; the array must not be modified.
+     */
+    public int[] getRelatedUserIds(int userId) {
+        ensureLoaded();
+        int[] related = adjacency.getOrDefault(userId, NO_RELATIONS);
+        Set<Integer> deleted = deletedUsers;
+        if (deleted.isEmpty()) {
+            return related;
+        }
+
+        int count = 0;
+        for (int id : related) {
+            if (!deleted.contains(id)) {
+                count++;
+            }
+        }
+        if (count == related.length) {
+            return related;
+        }
+
+        int[] active = new int[count];
+        int i = 0;
+        for (int id : related) {
+            if (!deleted.contains(id)) {
+                active[i++] = id;
+            }
+        }
+        return active;
+    }
+
+    /**
+     * Records a new relation between two users once the current transaction commits.
+     *
+     * @param userId         the ID of the user who added the relation.
+     * @param userRelationId the ID of the added user.
+     */
+    public void addRelation(int userId, int userRelationId) {
+        afterCommit(() -> link(userId, userRelationId));
+    }
+
+    /**
+     * Forgets the relation between two users once the current transaction commits.
+     *
+     * @param userId         the ID of the user who added the relation.
+     * @param userRelationId the ID of the added user.
+     */
+    public void removeRelation(int userId, int userRelationId) {
+        afterCommit(() -> unlink(userId, userRelationId));
+    }
+
+    /**
+     * Records the soft delete status of a user once the current transaction commits.
+     *
+     * @param userId  the ID of the user.
+     * @param deleted whether the user is now soft deleted.
+     */
+    public void setDeleted(int userId, boolean deleted) {
+        afterCommit(() -> markDeleted(userId, deleted));
+    }
+
+    /**
+     * Forgets a user and all its relations once the current transaction commits.
+     *
+     * @param userId the ID of the removed user.
+     */
+    public void removeUser(int userId) {
+        afterCommit(() -> unlinkAll(userId));
+    }
+
+    private void link(int userId, int otherUserId) {
+        writeLock.lock();
+        try {
+            adjacency.put(userId, with(adjacency.getOrDefault(userId, NO_RELATIONS), otherUserId));
+            adjacency.put(otherUserId, with(adjacency.getOrDefault(otherUserId, NO_RELATIONS), userId));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void unlink(int userId, int otherUserId) {
+        writeLock.lock();
+        try {
+            adjacency.computeIfPresent(userId, (id, related) -> emptyToNull(without(related, otherUserId)));
+            adjacency.computeIfPresent(otherUserId, (id, related) -> emptyToNull(without(related, userId)));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void markDeleted(int userId, boolean deleted) {
+        writeLock.lock();
+        try {
+            if (deleted) {
+                deletedUsers.add(userId);
+            } else {
+                deletedUsers.remove(userId);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void unlinkAll(int userId) {
+        writeLock.lock();
+        try {
+            int[] related = adjacency.remove(userId);
+            if (related != null) {
+                for (int otherUserId : related) {
+                    adjacency.computeIfPresent(otherUserId, (id, others) -> emptyToNull(without(others, userId)));
+                }
+            }
+            deletedUsers.remove(userId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            load();
+        }
+    }
+
+    private Snapshot readSnapshot() {
+        Map<Integer, List<Integer>> related = new HashMap<>();
+        for (UserRelationId relation : userRelationRepository.findAllRelationIds()) {
+            related.computeIfAbsent(relation.getUserId(), id -> new ArrayList<>()).add(relation.getUserRelationId());
+            related.computeIfAbsent(relation.getUserRelationId(), id -> new ArrayList<>()).add(relation.getUserId());
+        }
+
+        Map<Integer, int[]> adjacency = new ConcurrentHashMap<>(Math.max(16, related.size() * 4 / 3 + 1));
+        related.forEach((userId, ids) ->
+                adjacency.put(userId, ids.stream().mapToInt(Integer::intValue).sorted().distinct().toArray()));
+
+        Set<Integer> deletedUsers = ConcurrentHashMap.newKeySet();
+        deletedUsers.addAll(userRepository.findDeletedUserIds());
+        return new Snapshot(adjacency, deletedUsers);
+    }
+
+    private static int[] with(int[] related, int userId) {
+        int position = Arrays.binarySearch(related, userId);
+        if (position >= 0) {
+            return related;
+        }
+        int insertAt = -position - 1;
+        int[] updated = new int[related.length + 1];
+        System.arraycopy(related, 0, updated, 0, insertAt);
+        updated[insertAt] = userId;
+        System.arraycopy(related, insertAt, updated, insertAt + 1, related.length - insertAt);
+        return updated;
+    }
+
+    private static int[] without(int[] related, int userId) {
+        int position = Arrays.binarySearch(related, userId);
+        if (position < 0) {
+            return related;
+        }
+        int[] updated = new int[related.length - 1];
+        System.arraycopy(related, 0, updated, 0, position);
+        System.arraycopy(related, position + 1, updated, position, related.length - position - 1);
+        return updated;
+    }
+
+    private static int[] emptyToNull(int[] related) {
+        return related.length == 0 ? null : related;
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private record Snapshot(Map<Integer, int[]> adjacency, Set<Integer> deletedUsers) {
+    }
+}
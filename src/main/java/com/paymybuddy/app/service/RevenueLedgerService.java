@@ -0,0 +1,228 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.config.BusinessTimeProperties;
+import com.paymybuddy.app.datasource.Workload;
+import com.paymybuddy.app.datasource.WorkloadPool;
+import com.paymybuddy.app.dto.RevenueEntryDTO;
+import com.paymybuddy.app.dto.RevenueSummaryDTO;
+import com.paymybuddy.app.entity.RevenueBucket;
+import com.paymybuddy.app.entity.RevenuePeriod;
+import com.paymybuddy.app.repository.MonetizationRepository;
+import com.paymybuddy.app.repository.RevenueBucketRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains revenue totals (all time, per business day and per month) next to the {@code monetization} table.
+ *
+ * <p>Every monetization insert and removal adds its fee to the matching {@code revenue_bucket} rows in the same
+ * database transaction, so revenue figures are read from a handful of rows instead of summing every monetization or
+ * transaction. The rows of a payment are always updated in primary key order (day, month, total) and spread over
+ * {@value #SLOTS} slots, which keeps concurrent payments from queuing on a single total row.</p>
+ */
+@Slf4j
+@Service
+public class RevenueLedgerService {
+
+    static final int SLOTS = 8;
+    static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private final RevenueBucketRepository revenueBucketRepository;
+    private final MonetizationRepository monetizationRepository;
+    private final BusinessTimeProperties businessTimeProperties;
+    private final TransactionTemplate snapshotTransaction;
+    private final TransactionTemplate writeTransaction;
+
+    public RevenueLedgerService(RevenueBucketRepository revenueBucketRepository,
+                                MonetizationRepository monetizationRepository,
+                                BusinessTimeProperties businessTimeProperties,
+                                PlatformTransactionManager transactionManager) {
+        this.revenueBucketRepository = revenueBucketRepository;
+        this.monetizationRepository = monetizationRepository;
+        this.businessTimeProperties = businessTimeProperties;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Adds the fee of a monetized transaction to the revenue totals.
+     *
+     * @param transactionId   the ID of the transaction, used to pick the slot.
+     * @param transactionDate the date of the transaction.
+     * @param amount          the fee collected (in cents).
+     */
+    @Transactional
+    public void recordRevenue(int transactionId, LocalDateTime transactionDate, long amount) {
+        log.info("Recording revenue of {} cents for transaction {}", amount, transactionId);
+        apply(Math.floorMod(transactionId, SLOTS), businessTimeProperties.toBusinessDay(transactionDate), amount, 1);
+    }
+
+    /**
+     * Adds the fees of transactions made together, such as a batch of payments, to the revenue totals at once.
+     *
+     * @param firstTransactionId the ID of the first transaction, used to pick the slot.
+     * @param transactionDate    the date of the transactions.
+     * @param amount             the fees collected (in cents).
+     * @param transactions       the number of transactions.
+     */
+    @Transactional
+    public void recordRevenue(int firstTransactionId, LocalDateTime transactionDate, long amount, int transactions) {
+        log.info("Recording revenue of {} cents for {} transactions", amount, transactions);
+        apply(Math.floorMod(firstTransactionId, SLOTS), businessTimeProperties.toBusinessDay(transactionDate), amount,
+                transactions);
+    }
+
+    /**
+     * Removes the fee of a canceled transaction from the revenue totals of the day it was made.
+     *
+     * @param transactionId   the ID of the transaction, used to pick the slot.
+     * @param transactionDate the date of the transaction.
+     * @param amount          the fee that had been collected (in cents).
+     */
+    @Transactional
+    public void reverseRevenue(int transactionId, LocalDateTime transactionDate, long amount) {
+        log.info("Reversing revenue of {} cents for transaction {}", amount, transactionId);
+        apply(Math.floorMod(transactionId, SLOTS), businessTimeProperties.toBusinessDay(transactionDate), -amount, -1);
+    }
+
+    /**
+     * Gets the revenue collected since the beginning.
+     *
+     * @return the total revenue.
+     */
+    @WorkloadPool(Workload.REPORTING)
+    public RevenueSummaryDTO getTotalRevenue() {
+        return revenueBucketRepository.summarize(RevenuePeriod.TOTAL, LocalDate.EPOCH);
+    }
+
+    /**
+     * Gets the revenue collected on a business day.
+     *
+     * @param day the business day.
+     * @return the revenue of that day.
+     */
+    @WorkloadPool(Workload.REPORTING)
+    public RevenueSummaryDTO getDailyRevenue(LocalDate day) {
+        return revenueBucketRepository.summarize(RevenuePeriod.DAY, day);
+    }
+
+    /**
+     * Gets the revenue collected during a month.
+     *
+     * @param month the month.
+     * @return the revenue of that month.
+     */
+    @WorkloadPool(Workload.REPORTING)
+    public RevenueSummaryDTO getMonthlyRevenue(YearMonth month) {
+        return revenueBucketRepository.summarize(RevenuePeriod.MONTH, month.atDay(1));
+    }
+
+    /**
+     * Recomputes all revenue totals from the monetization rows, read in chunks of {@value #REBUILD_CHUNK_SIZE}.
+     *
+     * <p>The monetization rows and the current totals are read in one snapshot, without locking anything. The
+     * difference between the two is then added to the totals in short transactions of up to
+     * {@value #REBUILD_CHUNK_SIZE} rows each. Payments keep updating the totals meanwhile. Additions commute, so
+     * whatever they add after the snapshot is kept on top of the corrected figures.</p>
+     *
+     * @return the rebuilt total revenue, as of the snapshot.
+     */
+    @WorkloadPool(Workload.REPORTING)
+    public RevenueSummaryDTO rebuild() {
+        log.info("Rebuilding revenue ledger");
+        Snapshot snapshot = snapshotTransaction.execute(status -> readSnapshot());
+
+        List<Map.Entry<BucketKey, long[]>> corrections = new ArrayList<>();
+        snapshot.expected().forEach((key, sums) -> {
+            long[] current = snapshot.current().getOrDefault(key, new long[2]);
+            if (sums[0] != current[0] || sums[1] != current[1]) {
+                corrections.add(Map.entry(key, new long[]{sums[0] - current[0], sums[1] - current[1]}));
+            }
+        });
+        for (int from = 0; from < corrections.size(); from += REBUILD_CHUNK_SIZE) {
+            List<Map.Entry<BucketKey, long[]>> chunk =
+                    corrections.subList(from, Math.min(from + REBUILD_CHUNK_SIZE, corrections.size()));
+            writeTransaction.executeWithoutResult(status -> chunk.forEach(correction ->
+                    revenueBucketRepository.addToBucket(correction.getKey().period().name(),
+                            correction.getKey().bucketDate(), 0, correction.getValue()[0], correction.getValue()[1])));
+        }
+
+        long[] total = snapshot.expected().getOrDefault(new BucketKey(RevenuePeriod.TOTAL, LocalDate.EPOCH), new long[2]);
+        log.info("Revenue ledger rebuilt: {} cents over {} monetizations, {} totals corrected",
+                total[0], total[1], corrections.size());
+        return new RevenueSummaryDTO(total[0], total[1]);
+    }
+
+    /**
+     * Reads the current totals, summed over their slots, then the totals the monetization rows add up to. Both maps
+     * hold every period present in either, in primary key order.
+     */
+    private Snapshot readSnapshot() {
+        Map<BucketKey, long[]> current = new TreeMap<>();
+        for (RevenueBucket bucket : revenueBucketRepository.findAll()) {
+            long[] sums = current.computeIfAbsent(new BucketKey(bucket.getPeriod(), bucket.getBucketDate()),
+                    key -> new long[2]);
+            sums[0] += bucket.getAmount();
+            sums[1] += bucket.getEntryCount();
+        }
+
+        Map<BucketKey, long[]> expected = new TreeMap<>();
+        current.keySet().forEach(key -> expected.put(key, new long[2]));
+        expected.put(new BucketKey(RevenuePeriod.TOTAL, LocalDate.EPOCH), new long[2]);
+        int lastId = 0;
+        List<RevenueEntryDTO> chunk;
+        do {
+            chunk = monetizationRepository.findRevenueEntriesAfter(lastId, PageRequest.ofSize(REBUILD_CHUNK_SIZE));
+            for (RevenueEntryDTO entry : chunk) {
+                LocalDate day = businessTimeProperties.toBusinessDay(entry.getTransactionDate());
+                add(expected, new BucketKey(RevenuePeriod.DAY, day), entry.getResult());
+                add(expected, new BucketKey(RevenuePeriod.MONTH, day.withDayOfMonth(1)), entry.getResult());
+                add(expected, new BucketKey(RevenuePeriod.TOTAL, LocalDate.EPOCH), entry.getResult());
+                lastId = entry.getMonetizationId();
+            }
+        } while (chunk.size() == REBUILD_CHUNK_SIZE);
+        return new Snapshot(current, expected);
+    }
+
+    private static void add(Map<BucketKey, long[]> totals, BucketKey key, long amount) {
+        long[] sums = totals.computeIfAbsent(key, k -> new long[2]);
+        sums[0] += amount;
+        sums[1]++;
+    }
+
+    private void apply(int slot, LocalDate day, long amount, long entries) {
+        revenueBucketRepository.addToBucket(RevenuePeriod.DAY.name(), day, slot, amount, entries);
+        revenueBucketRepository.addToBucket(RevenuePeriod.MONTH.name(), day.withDayOfMonth(1), slot, amount, entries);
+        revenueBucketRepository.addToBucket(RevenuePeriod.TOTAL.name(), LocalDate.EPOCH, slot, amount, entries);
+    }
+
+    /**
+     * A period of the ledger, all slots together. Sorts like the primary key of {@code revenue_bucket}.
+     */
+    private record BucketKey(RevenuePeriod period, LocalDate bucketDate) implements Comparable<BucketKey> {
+
+        @Override
+        public int compareTo(BucketKey other) {
+            int byPeriod = period.name().compareTo(other.period.name());
+            return byPeriod != 0 ? byPeriod : bucketDate.compareTo(other.bucketDate);
+        }
+    }
+
+    private record Snapshot(Map<BucketKey, long[]> current, Map<BucketKey, long[]> expected) {
+    }
+}
@@ -8,11 +8,19 @@ import com.paymybuddy.app.exception.EntitySaveException;
 import com.paymybuddy.app.repository.TransactionFeeRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service for managing transaction fees.
+ *
+ * <p>Fees are read from an in-memory {@link FeeSchedule} loaded on first use and replaced as a whole after every fee
+ * change commits, so computing a payment's fee never queries the database.</p>
  */
 @Slf4j
 @Service
@@ -20,6 +28,9 @@ public class TransactionFeeService {
 
     private final TransactionFeeRepository transactionFeeRepository;
 
+    private final AtomicReference<FeeSchedule> feeSchedule = new AtomicReference<>();
+    private final AtomicLong scheduleVersion = new AtomicLong();
+
     public TransactionFeeService(TransactionFeeRepository transactionFeeRepository) {
         this.transactionFeeRepository = transactionFeeRepository;
     }
@@ -45,6 +56,7 @@ public class TransactionFeeService {
         try {
             TransactionFee savedFee = transactionFeeRepository.save(fee);
             log.info("Transaction fee created successfully with ID: {}", savedFee.getId());
+            reloadAfterCommit();
             return savedFee;
         } catch (Exception e) {
             log.error("Failed to save transaction fee.", e);
@@ -60,11 +72,50 @@ public class TransactionFeeService {
      */
     public TransactionFee getActiveTransactionFee() {
         log.info("Fetching the active transaction fee.");
-        return transactionFeeRepository.findTopByOrderByEffectiveDateDesc()
-                .orElseThrow(() -> {
-                    log.error("No active transaction fee found.");
-                    return new EntityNotFoundException("No active transaction fee found.");
-                });
+        FeeSchedule.Entry activeFee = getFeeAt(LocalDateTime.now());
+
+        TransactionFee fee = new TransactionFee();
+        fee.setId(activeFee.feeId());
+        fee.setPercentage(activeFee.percentage());
+        fee.setEffectiveDate(activeFee.effectiveDate());
+        return fee;
+    }
+
+    /**
+     * Resolves the fee in effect at a given instant from the in-memory fee schedule.
+     *
+     * <p>If no fee applies, the schedule is reloaded once in case fees were written without going through this
+     * service.</p>
+     *
+     * @param instant the instant to resolve the fee for.
+     * @return the fee in effect at that instant.
+     * @throws EntityNotFoundException if no fee is in effect at that instant.
+     */
+    public FeeSchedule.Entry getFeeAt(LocalDateTime instant) {
+        FeeSchedule schedule = feeSchedule.get();
+        Optional<FeeSchedule.Entry> fee = schedule != null ? schedule.resolve(instant) : Optional.empty();
+        if (fee.isEmpty()) {
+            fee = reloadFeeSchedule().resolve(instant);
+        }
+
+        return fee.orElseThrow(() -> {
+            log.error("No active transaction fee found.");
+            return new EntityNotFoundException("No active transaction fee found.");
+        });
+    }
+
+    /**
+     * Reloads the fee schedule from the database and makes it the current one.
+     *
+     * @return the new fee schedule.
+     */
+    public FeeSchedule reloadFeeSchedule() {
+        FeeSchedule schedule = FeeSchedule.of(scheduleVersion.incrementAndGet(), transactionFeeRepository.findAll());
+        // A slower reload must not replace a newer schedule.
+        feeSchedule.accumulateAndGet(schedule, (current, loaded) ->
+                current == null || current.getVersion() < loaded.getVersion() ? loaded : current);
+        log.info("Fee schedule reloaded, version {}", schedule.getVersion());
+        return schedule;
     }
 
     /**
@@ -88,6 +139,7 @@ public class TransactionFeeService {
             fee.setPercentage(newPercentage);
             TransactionFee updatedFee = transactionFeeRepository.save(fee);
             log.info("Transaction fee with ID: {} updated successfully.", id);
+            reloadAfterCommit();
             return updatedFee;
         }).orElseThrow(() -> {
             log.error("Transaction fee not found with ID: {}", id);
@@ -114,6 +166,7 @@ public class TransactionFeeService {
         try {
             transactionFeeRepository.delete(feeToDelete);
             log.info("Transaction fee with ID: {} deleted successfully.", id);
+            reloadAfterCommit();
         } catch (Exception e) {
             log.error("Failed to delete transaction fee with ID: {}", id, e);
             throw new EntityDeleteException("Failed to delete transaction fee with ID: " + id, e);
@@ -121,28 +174,52 @@ public class TransactionFeeService {
     }
 
     /**
-     * Calculates the fee for a given transaction amount.
+     * Calculates the fee for a given transaction amount, using the fee in effect now.
      *
      * @param transactionAmount the transaction amount (in cents).
      * @return the calculated fee (in cents).
      * @throws IllegalArgumentException if the transaction amount is invalid.
      */
     public long calculateFeeForTransaction(long transactionAmount) {
+        validateAmount(transactionAmount);
+        return calculateFeeForTransaction(transactionAmount, getFeeAt(LocalDateTime.now()));
+    }
+
+    /**
+     * Calculates the fee for a given transaction amount with a given fee.
+     *
+     * @param transactionAmount the transaction amount (in cents).
+     * @param fee               the fee to apply.
+     * @return the calculated fee (in cents).
+     * @throws IllegalArgumentException if the transaction amount is invalid.
+     */
+    public long calculateFeeForTransaction(long transactionAmount, FeeSchedule.Entry fee) {
         log.info("Calculating transaction fee for amount: {} cents", transactionAmount);
+        validateAmount(transactionAmount);
+
+        // Calculate the fee (in cents)
+        long calculatedFee = fee.feeFor(transactionAmount);
+        log.info("Calculated fee for amount {} cents is {} cents using percentage {}‰.", transactionAmount, calculatedFee, fee.percentage());
+        return calculatedFee;
+    }
 
+    private void validateAmount(long transactionAmount) {
         if (transactionAmount <= 0) {
             log.error("Invalid transaction amount: {}", transactionAmount);
             throw new IllegalArgumentException("Transaction amount must be greater than zero.");
         }
+    }
 
-        TransactionFee activeFee = getActiveTransactionFee();
-
-        // Retrieve the fee percentage (in thousandths)
-        long feePercentage = activeFee.getPercentage();
-
-        // Calculate the fee (in cents)
-        long calculatedFee = (transactionAmount * feePercentage) / 100000;
-        log.info("Calculated fee for amount {} cents is {} cents using percentage {}‰.", transactionAmount, calculatedFee, feePercentage);
-        return calculatedFee;
+    private void reloadAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reloadFeeSchedule();
+                }
+            });
+        } else {
+            reloadFeeSchedule();
+        }
     }
 }
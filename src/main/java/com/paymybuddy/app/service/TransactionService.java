@@ -1,22 +1,34 @@
 package com.paymybuddy.app.service;
 
+import com.paymybuddy.app.datasource.Workload;
+import com.paymybuddy.app.datasource.WorkloadPool;
+import com.paymybuddy.app.dto.BatchPaymentItemDTO;
+import com.paymybuddy.app.dto.BatchPaymentItemResultDTO;
+import com.paymybuddy.app.dto.BatchPaymentRequestDTO;
+import com.paymybuddy.app.dto.BatchPaymentResultDTO;
+import com.paymybuddy.app.dto.CursorPage;
+import com.paymybuddy.app.dto.TransactionCursor;
 import com.paymybuddy.app.dto.TransactionDTO;
 import com.paymybuddy.app.entity.Transaction;
 import com.paymybuddy.app.entity.User;
-import com.paymybuddy.app.exception.EntityDeleteException;
 import com.paymybuddy.app.exception.EntityNotFoundException;
 import com.paymybuddy.app.exception.EntitySaveException;
 import com.paymybuddy.app.exception.InsufficientBalanceException;
+import com.paymybuddy.app.metrics.MovedAmount;
 import com.paymybuddy.app.repository.TransactionRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.nio.file.attribute.UserPrincipalNotFoundException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Service for handling transaction operations, including creation, retrieval, and cancellation of transactions.
@@ -25,28 +37,49 @@ import java.util.stream.Collectors;
 @Service
 public class TransactionService {
 
+    public static final int DEFAULT_HISTORY_PAGE_SIZE = 20;
+    public static final int MAX_HISTORY_PAGE_SIZE = 200;
+    public static final int MAX_BATCH_SIZE = 500;
+
+    private static final Comparator<TransactionDTO> NEWEST_FIRST = Comparator
+            .comparing(TransactionDTO::getTransactionDate).reversed()
+            .thenComparing(Comparator.comparingInt(TransactionDTO::getId).reversed());
+
     private final TransactionRepository transactionRepository;
-    private final TransactionFeeService transactionFeeService;
     private final AppAccountService appAccountService;
     private final UserService userService;
-    private final UserRelationService userRelationService;
+    private final TransferEngine transferEngine;
+    private final BalanceMutationExecutor balanceMutationExecutor;
+    private final DailySpendService dailySpendService;
     private final MonetizationService monetizationService;
+    private final RevenueLedgerService revenueLedgerService;
+    private final PaymentGroupCommitter paymentGroupCommitter;
+    private final JournalService journalService;
 
     @Autowired
-    public TransactionService(TransactionRepository transactionRepository, TransactionFeeService transactionFeeService,
-                              AppAccountService appAccountService, UserService userService, UserRelationService userRelationService,
-                              MonetizationService monetizationService) {
+    public TransactionService(TransactionRepository transactionRepository, AppAccountService appAccountService,
+                              UserService userService, TransferEngine transferEngine,
+                              BalanceMutationExecutor balanceMutationExecutor, DailySpendService dailySpendService,
+                              MonetizationService monetizationService, RevenueLedgerService revenueLedgerService,
+                              PaymentGroupCommitter paymentGroupCommitter, JournalService journalService) {
         this.transactionRepository = transactionRepository;
-        this.transactionFeeService = transactionFeeService;
         this.appAccountService = appAccountService;
         this.userService = userService;
-        this.userRelationService = userRelationService;
+        this.transferEngine = transferEngine;
+        this.balanceMutationExecutor = balanceMutationExecutor;
+        this.dailySpendService = dailySpendService;
         this.monetizationService = monetizationService;
+        this.revenueLedgerService = revenueLedgerService;
+        this.paymentGroupCommitter = paymentGroupCommitter;
+        this.journalService = journalService;
     }
 
     /**
      * Creates a transaction between a sender and receiver with a specified amount and description.
      *
+     * <p>When the group commit is enabled, the payment is committed together with the payments made at the same
+     * time, see {@link PaymentGroupCommitter}.</p>
+     *
      * @param senderId    The user sending the transaction.
      * @param receiverId  The user receiving the transaction.
      * @param amount      The amount being transferred (in cents).
@@ -55,151 +88,213 @@ public class TransactionService {
      * @throws EntityNotFoundException if the sender and receiver are not connected.
      * @throws InsufficientBalanceException if the sender's balance is insufficient.
      * @throws EntitySaveException if the transaction fails to save.
+     * @see TransferEngine#transfer(int, int, long, String)
      */
-    public String createTransaction(int senderId, int receiverId, long amount, String description) {
+    public String createTransaction(int senderId, int receiverId, @MovedAmount("payment") long amount,
+                                    String description) {
         log.info("Creating transaction from user {} to user {} with amount: {} and description: {}", senderId, receiverId, amount, description);
 
         long amountInCents = amount * 100;
+        Transaction transaction = paymentGroupCommitter.isEnabled()
+                ? paymentGroupCommitter.transfer(senderId, receiverId, amountInCents, description)
+                : transferEngine.transfer(senderId, receiverId, amountInCents, description);
+        log.info("Transaction {} completed from user {} to user {}", transaction.getId(), senderId, receiverId);
 
-        // Retrieve sender and receiver
-        User sender = userService.getUserById(senderId);
-        User receiver = userService.getUserById(receiverId);
-        log.debug("Sender: {}, Receiver: {}", sender, receiver);
-
-        // Check if the user is marked as deleted in the system
-        if (receiver.isDeleted()) {
-            log.warn("The user with ID {} does not exist or has been marked as deleted.", receiver.getId());
-            throw new EntityNotFoundException("The specified user does not exist or has been deleted.");
-        }
-
-        // Check relation between sender and receiver
-        if (!userRelationService.checkRelation(sender.getId(), receiver.getId())) {
-            log.warn("No relation exists between user {} and user {}", senderId, receiverId);
-            throw new EntityNotFoundException("No relation exists between the sender and receiver.");
-        }
-
-        // Verify daily transaction limit
-        if (!checkTransactionLimit(senderId, amountInCents)) {
-            log.warn("Transaction limit exceeded for user {}", senderId);
-            throw new IllegalStateException("Transaction limit exceeded for the day.");
-        }
-
-        // Verify sender's balance
-        long senderBalance = appAccountService.getBalanceById(sender.getId())
-                .orElseThrow(() -> {
-                    log.error("Sender account not found with ID: {}", sender.getId());
-                    return new EntityNotFoundException("Sender account not found with ID: " + sender.getId());
-                });
-
-        long feeAmount = transactionFeeService.calculateFeeForTransaction(amountInCents);
-        long totalDeduction = amountInCents + feeAmount;
+        return "Transaction successful";
+    }
 
-        if (senderBalance < totalDeduction) {
-            log.error("Insufficient balance for user {}. Available: {}, Required: {}", senderId, senderBalance, totalDeduction);
-            throw new InsufficientBalanceException("Insufficient balance for user ID: " + sender.getId());
+    /**
+     * Makes several payments from one sender in a single database transaction.
+     *
+     * <p>The batch is committed on its own and does not go through the group commit. See
+     * {@link TransferEngine#transferBatch(int, List, boolean)} for how the modes treat failing payments.</p>
+     *
+     * @param request The sender, the mode and the payments (amounts in euros).
+     * @return What was debited from the sender and the outcome of each payment.
+     * @throws IllegalArgumentException if the batch is empty or larger than {@value #MAX_BATCH_SIZE} payments.
+     * @throws EntityNotFoundException if the sender is missing or deleted.
+     * @throws InsufficientBalanceException if the sender's balance does not cover an all-or-nothing batch.
+     * @throws EntitySaveException if the transactions fail to save.
+     */
+    public BatchPaymentResultDTO createBatchTransaction(BatchPaymentRequestDTO request) {
+        List<BatchPaymentItemDTO> payments = request.getPayments();
+        if (payments == null || payments.isEmpty() || payments.size() > MAX_BATCH_SIZE) {
+            log.error("Invalid batch size: {}", payments == null ? 0 : payments.size());
+            throw new IllegalArgumentException("A batch must contain between 1 and " + MAX_BATCH_SIZE + " payments.");
         }
-
-        // Create and save transaction
-        Transaction transaction = new Transaction();
-        transaction.setUserSender(sender);
-        transaction.setUserReceiver(receiver);
-        transaction.setAmount(amountInCents);
-        transaction.setAmountWithFee(totalDeduction);
-        transaction.setDescription(description);
-        transaction.setTransactionDate(LocalDateTime.now());
-
-        try {
-            transactionRepository.save(transaction);
-            log.info("Transaction saved successfully: {}", transaction.getId());
-        } catch (Exception e) {
-            log.error("Failed to save transaction: {}", e.getMessage(), e);
-            throw new EntitySaveException("Failed to save transaction.", e);
+        BatchPaymentRequestDTO.Mode mode = request.getMode() == null
+                ? BatchPaymentRequestDTO.Mode.ALL_OR_NOTHING
+                : request.getMode();
+        log.info("Creating batch of {} payments from user {} ({})", payments.size(), request.getSenderId(), mode);
+
+        List<TransferEngine.Payout> payouts = payments.stream()
+                .map(item -> new TransferEngine.Payout(item.getReceiverId(), item.getAmount() * 100, item.getDescription()))
+                .toList();
+        List<TransferEngine.PayoutResult> outcomes = transferEngine.transferBatch(request.getSenderId(), payouts,
+                mode == BatchPaymentRequestDTO.Mode.ALL_OR_NOTHING);
+
+        BatchPaymentResultDTO result = new BatchPaymentResultDTO(mode, 0, 0, 0, new ArrayList<>(payments.size()));
+        for (int i = 0; i < payments.size(); i++) {
+            BatchPaymentItemDTO item = payments.get(i);
+            TransferEngine.PayoutResult outcome = outcomes.get(i);
+            BatchPaymentItemResultDTO itemResult = new BatchPaymentItemResultDTO(i, item.getReceiverId(), item.getAmount(),
+                    BatchPaymentItemResultDTO.Status.NOT_PAID, null, "Not paid because another payment of the batch failed.");
+            if (outcome.transaction() != null) {
+                itemResult.setStatus(BatchPaymentItemResultDTO.Status.PAID);
+                itemResult.setTransactionId(outcome.transaction().getId());
+                itemResult.setMessage("Transaction successful");
+                result.setPaid(result.getPaid() + 1);
+                result.setTotalDebited(result.getTotalDebited() + outcome.transaction().getAmountWithFee());
+            } else if (outcome.failure() != null) {
+                itemResult.setStatus(BatchPaymentItemResultDTO.Status.FAILED);
+                itemResult.setMessage(outcome.failure().getMessage());
+                result.setFailed(result.getFailed() + 1);
+            }
+            result.getResults().add(itemResult);
         }
 
-        // Update account balances
-        appAccountService.updateBalanceByUserId(sender.getId(), -totalDeduction);
-        appAccountService.updateBalanceByUserId(receiver.getId(), amountInCents);
-        log.info("Balances updated for sender {} and receiver {}", senderId, receiverId);
-
-        // Save monetization details
-        monetizationService.saveMonetization(transaction);
-        log.info("Transaction monetization saved for transaction {}", transaction.getId());
-
-        return "Transaction successful";
+        log.info("Batch from user {} completed: {} paid, {} failed", request.getSenderId(), result.getPaid(), result.getFailed());
+        return result;
     }
 
     /**
-     * Retrieves the transaction history for a given user, including both sent and received transactions.
+     * Retrieves one page of the transaction history of a user, newest first, sent and received combined.
+     *
+     * <p>Each direction is read with a keyset query over (transaction_date, id) limited to {@code size + 1} rows,
+     * so the cost depends on the page size and not on the length of the history. Rows are projected straight into
+     * DTOs with both usernames joined in: a page costs two statements and loads no entity.</p>
      *
      * @param userId The user whose transaction history is to be retrieved.
-     * @return A list of all transactions where the user is either the sender or receiver.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The maximum number of transactions to return.
+     * @return The page of transactions and the cursor of the next page, if any.
+     * @throws IllegalArgumentException if the cursor is malformed or the size is out of range.
      */
-    public List<Transaction> getTransactionHistoryByUserId(int userId) {
-        log.info("Fetching transaction history for user {}", userId);
+    @Transactional(readOnly = true)
+    @WorkloadPool(Workload.USER_READS)
+    public CursorPage<TransactionDTO> getTransactionHistoryPage(int userId, String cursor, int size) {
+        log.info("Fetching transaction history page for user {} (cursor: {}, size: {})", userId, cursor, size);
+
+        if (size <= 0 || size > MAX_HISTORY_PAGE_SIZE) {
+            log.error("Invalid history page size: {}", size);
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_HISTORY_PAGE_SIZE + ".");
+        }
 
-        User user = userService.getUserById(userId);
-        List<Transaction> transactionHistory = new ArrayList<>();
-        transactionHistory.addAll(user.getSenderTransactions());
-        transactionHistory.addAll(user.getReceiverTransactions());
+        TransactionCursor position = TransactionCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<TransactionDTO> sent = transactionRepository.findSentBefore(userId, position.getTransactionDate(), position.getId(), limit);
+        List<TransactionDTO> received = transactionRepository.findReceivedBefore(userId, position.getTransactionDate(), position.getId(), limit);
+
+        List<TransactionDTO> merged = new ArrayList<>(Math.min(sent.size() + received.size(), size + 1));
+        int i = 0;
+        int j = 0;
+        while (merged.size() <= size && (i < sent.size() || j < received.size())) {
+            TransactionDTO next;
+            if (j >= received.size() || (i < sent.size() && NEWEST_FIRST.compare(sent.get(i), received.get(j)) <= 0)) {
+                next = sent.get(i++);
+            } else {
+                next = received.get(j++);
+            }
+            // A payment to oneself shows up in both directions.
+            if (merged.isEmpty() || merged.get(merged.size() - 1).getId() != next.getId()) {
+                merged.add(next);
+            }
+        }
 
-        transactionHistory.sort((t1, t2) -> t2.getTransactionDate().compareTo(t1.getTransactionDate()));
-        log.info("Transaction history retrieved: {} transactions found", transactionHistory.size());
-        return transactionHistory;
+        String nextCursor = null;
+        if (merged.size() > size) {
+            merged = merged.subList(0, size);
+            nextCursor = TransactionCursor.after(merged.get(size - 1)).encode();
+        }
+
+        log.info("Transaction history page retrieved: {} transactions, more: {}", merged.size(), nextCursor != null);
+        return new CursorPage<>(merged, nextCursor);
     }
 
     /**
      * Cancels a transaction by its ID, updating the balances of both the sender and receiver.
      *
+     * <p>Nothing is deleted: the transaction is marked as canceled, which hides it from the history, and the journal
+     * gets the reversal of each of its entries.</p>
+     *
      * @param transactionId The ID of the transaction to cancel.
      * @return A success message if the transaction is canceled.
      * @throws EntityNotFoundException if the transaction is not found.
-     * @throws IllegalStateException if the transaction cannot be canceled (e.g., after 24 hours).
-     * @throws EntityDeleteException if the transaction fails to delete.
+     * @throws IllegalStateException if the transaction cannot be canceled (e.g., after 24 hours, or twice).
+     * @throws EntitySaveException if the cancellation fails to save.
+     * @throws InsufficientBalanceException if the receiver no longer holds the amount.
      */
     public String cancelTransaction(int transactionId) {
         log.info("Canceling transaction with ID {}", transactionId);
 
-        Transaction transaction = transactionRepository.findById(transactionId)
-                .orElseThrow(() -> {
-                    log.error("Transaction not found with ID {}", transactionId);
-                    return new EntityNotFoundException("Transaction not found with ID: " + transactionId);
-                });
+        Transaction transaction = findCancelableTransaction(transactionId);
 
         if (transaction.getTransactionDate().isBefore(LocalDateTime.now().minusDays(1))) {
             log.warn("Transaction ID {} cannot be canceled after 24 hours", transactionId);
             throw new IllegalStateException("Transaction cannot be canceled after 24 hours.");
         }
 
-        User sender = transaction.getUserSender();
-        User receiver = transaction.getUserReceiver();
-
-        appAccountService.updateBalanceByUserId(sender.getId(), transaction.getAmountWithFee());
-        appAccountService.updateBalanceByUserId(receiver.getId(), -transaction.getAmount());
-        log.info("Balances reverted for sender {} and receiver {}", sender.getId(), receiver.getId());
+        int senderId = transaction.getUserSender().getId();
+        int receiverId = transaction.getUserReceiver().getId();
+
+        return balanceMutationExecutor.execute(List.of(senderId, receiverId), () -> {
+            Transaction current = findCancelableTransaction(transactionId);
+            // Claim the cancellation before reverting anything: the account stripes only exclude cancellations made
+            // on this node, the guarded update also excludes the other nodes.
+            LocalDateTime canceledAt = LocalDateTime.now();
+            int claimed;
+            try {
+                claimed = transactionRepository.markCanceled(transactionId, canceledAt);
+            } catch (ConcurrencyFailureException e) {
+                throw e;
+            } catch (Exception e) {
+                log.error("Failed to cancel transaction ID {}: {}", transactionId, e.getMessage(), e);
+                throw new EntitySaveException("Failed to cancel transaction with ID: " + transactionId, e);
+            }
+            if (claimed == 0) {
+                log.warn("Transaction ID {} has already been canceled", transactionId);
+                throw new IllegalStateException("Transaction has already been canceled.");
+            }
+            current.setCanceledAt(canceledAt);
+
+            appAccountService.moveBalance(receiverId, current.getAmount(), senderId, current.getAmountWithFee());
+            dailySpendService.release(senderId, dailySpendService.businessDayOf(current.getTransactionDate()), current.getAmount());
+            log.info("Balances reverted for sender {} and receiver {}", senderId, receiverId);
+
+            monetizationService.cancelMonetization(current);
+            journalService.recordReversal(current);
 
-        try {
-            transactionRepository.delete(transaction);
             log.info("Transaction with ID {} canceled successfully", transactionId);
-        } catch (Exception e) {
-            log.error("Failed to delete transaction ID {}: {}", transactionId, e.getMessage(), e);
-            throw new EntityDeleteException("Failed to delete transaction with ID: " + transactionId, e);
+            return "Transaction canceled successfully";
+        });
+    }
+
+    private Transaction findCancelableTransaction(int transactionId) {
+        Transaction transaction = findTransactionById(transactionId);
+        if (transaction.getCanceledAt() != null) {
+            log.warn("Transaction ID {} has already been canceled", transactionId);
+            throw new IllegalStateException("Transaction has already been canceled.");
         }
+        return transaction;
+    }
 
-        return "Transaction canceled successfully";
+    private Transaction findTransactionById(int transactionId) {
+        return transactionRepository.findById(transactionId)
+                .orElseThrow(() -> {
+                    log.error("Transaction not found with ID {}", transactionId);
+                    return new EntityNotFoundException("Transaction not found with ID: " + transactionId);
+                });
     }
 
     /**
-     * Calculates the total transaction fees across all transactions.
+     * Calculates the total transaction fees across all transactions, read from the revenue ledger.
      *
      * @return The total fees from all transactions.
      */
+    @WorkloadPool(Workload.REPORTING)
     public long calculateTotalFees() {
         log.info("Calculating total transaction fees");
-        List<Transaction> allTransactions = transactionRepository.findAll();
-
-        long totalFees = allTransactions.stream()
-                .mapToLong(transaction -> transaction.getAmountWithFee() - transaction.getAmount())
-                .sum();
+        long totalFees = revenueLedgerService.getTotalRevenue().getAmount();
         log.info("Total fees calculated: {}", totalFees);
         return totalFees;
     }
@@ -215,11 +310,7 @@ public class TransactionService {
         log.info("Checking transaction limit for user {}", userId);
 
         long dailyLimit = appAccountService.getTransactionLimitForUser(userId);
-
-        LocalDateTime startOfDay = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime endOfDay = startOfDay.plusDays(1).minusSeconds(1);
-
-        long dailyTransactionBySender = getTotalSentByUser(userId, startOfDay, endOfDay);
+        long dailyTransactionBySender = dailySpendService.getSpentToday(userId);
         long remainingLimit = dailyLimit - dailyTransactionBySender;
 
         boolean isWithinLimit = (remainingLimit - transactionAmount) >= 0;
@@ -227,42 +318,6 @@ public class TransactionService {
         return isWithinLimit;
     }
 
-    /**
-     * Converts a transaction entity to a DTO.
-     *
-     * @param transaction The transaction to convert.
-     * @return The converted DTO.
-     */
-    public TransactionDTO convertToDTO(Transaction transaction) {
-        log.info("Converting transaction ID {} to DTO", transaction.getId());
-
-        TransactionDTO dto = new TransactionDTO();
-        dto.setSenderId(transaction.getUserSender().getId());
-        dto.setSenderName(userService.findUsernameByUserId(transaction.getUserSender().getId()));
-        dto.setReceiverId(transaction.getUserReceiver().getId());
-        dto.setReceiverName(userService.findUsernameByUserId(transaction.getUserReceiver().getId()));
-        dto.setAmount(transaction.getAmount());
-        dto.setAmountWithFee(transaction.getAmountWithFee());
-        dto.setDescription(transaction.getDescription());
-        dto.setTransactionDate(transaction.getTransactionDate());
-
-        log.info("Transaction ID {} converted to DTO", transaction.getId());
-        return dto;
-    }
-
-    /**
-     * Converts a list of transaction entities to a list of DTOs.
-     *
-     * @param transactions The list of transactions to convert.
-     * @return The list of converted DTOs.
-     */
-    public List<TransactionDTO> convertToDTOList(List<Transaction> transactions) {
-        log.info("Converting list of transactions to DTOs");
-        return transactions.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-    }
-
     /**
      * Calculates the total amount sent by a user within a date range.
      *
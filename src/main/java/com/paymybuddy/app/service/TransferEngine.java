@@ -0,0 +1,333 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.dto.UserRef;
+import com.paymybuddy.app.entity.Transaction;
+import com.paymybuddy.app.exception.EntityNotFoundException;
+import com.paymybuddy.app.exception.EntitySaveException;
+import com.paymybuddy.app.exception.InsufficientBalanceException;
+import com.paymybuddy.app.exception.TransactionLimitExceededException;
+import com.paymybuddy.app.repository.TransactionRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Moves money between two users inside a single database transaction.
+ *
+ * <p>A payment always runs the same short sequence of statements: receiver status, relation check,
+ * daily spend counter, conditional debit, credit, then the transaction, monetization and journal inserts.
+ * Balances are changed through {@link AppAccountService#moveBalance} under the configured concurrency mode, and any
+ * failure rolls the whole payment back, so money is never left half-moved. The fee comes from the in-memory
+ * {@link FeeSchedule} and is recorded on the transaction. The transaction itself is opened by
+ * {@link BalanceMutationExecutor}, which also serialises payments on the same accounts and retries conflicts.</p>
+ */
+@Slf4j
+@Service
+public class TransferEngine {
+
+    private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final AppAccountService appAccountService;
+    private final UserRelationService userRelationService;
+    private final TransactionFeeService transactionFeeService;
+    private final MonetizationService monetizationService;
+    private final BalanceMutationExecutor balanceMutationExecutor;
+    private final DailySpendService dailySpendService;
+    private final AccountBucketService accountBucketService;
+    private final JournalService journalService;
+
+    public TransferEngine(UserRepository userRepository, TransactionRepository transactionRepository,
+                          AppAccountService appAccountService, UserRelationService userRelationService,
+                          TransactionFeeService transactionFeeService, MonetizationService monetizationService,
+                          BalanceMutationExecutor balanceMutationExecutor, DailySpendService dailySpendService,
+                          AccountBucketService accountBucketService, JournalService journalService) {
+        this.userRepository = userRepository;
+        this.transactionRepository = transactionRepository;
+        this.appAccountService = appAccountService;
+        this.userRelationService = userRelationService;
+        this.transactionFeeService = transactionFeeService;
+        this.monetizationService = monetizationService;
+        this.balanceMutationExecutor = balanceMutationExecutor;
+        this.dailySpendService = dailySpendService;
+        this.accountBucketService = accountBucketService;
+        this.journalService = journalService;
+    }
+
+    /**
+     * Validates and applies a payment from the sender to the receiver.
+     *
+     * @param senderId      The ID of the user sending the money.
+     * @param receiverId    The ID of the user receiving the money.
+     * @param amountInCents The amount being transferred (in cents).
+     * @param description   A description of the transaction.
+     * @return The saved transaction.
+     * @throws EntityNotFoundException      if the receiver is missing or deleted, or the users are not connected.
+     * @throws TransactionLimitExceededException if the daily transaction limit would be
+     *                                      exceeded.
+     * @throws InsufficientBalanceException if the sender's balance does not cover the amount and the fee.
+     * @throws EntitySaveException          if the transaction fails to save.
+     * @throws com.paymybuddy.app.exception.BalanceConflictException if the accounts keep changing concurrently.
+     */
+    public Transaction transfer(int senderId, int receiverId, long amountInCents, String description) {
+        log.info("Transferring {} cents from user {} to user {}", amountInCents, senderId, receiverId);
+        // A bucketed receiver is only credited in its buckets, so payments to it need not queue on its stripe
+        List<Integer> lockedUserIds = accountBucketService.isBucketed(receiverId)
+                ? List.of(senderId)
+                : List.of(senderId, receiverId);
+        return balanceMutationExecutor.execute(lockedUserIds,
+                () -> applyTransfer(senderId, receiverId, amountInCents, description));
+    }
+
+    /**
+     * Validates and applies payments from one sender to several receivers, in a single database transaction.
+     *
+     * <p>The sender is checked once, the fee is looked up once, the daily limit is reserved once for the total and
+     * the sender is debited once for the total with the fees; receivers are credited and all rows are inserted
+     * with one call per table. In all-or-nothing mode, a payment that cannot be made leaves every payment unpaid;
+     * a total above the balance or the daily limit fails the whole batch with the usual exception. In best-effort
+     * mode, failing payments are left out and the others are paid, in order, as long as they fit in the balance and
+     * the daily limit.</p>
+     *
+     * @param senderId     The ID of the user sending the money.
+     * @param payouts      The payments to make.
+     * @param allOrNothing Whether one failing payment leaves every payment unpaid.
+     * @return The outcome of each payment, in the order of the payouts.
+     * @throws EntityNotFoundException      if the sender is missing or deleted.
+     * @throws TransactionLimitExceededException if the total would exceed the daily
+     *                                      limit in all-or-nothing mode.
+     * @throws InsufficientBalanceException if the sender's balance does not cover the total in all-or-nothing mode.
+     * @throws EntitySaveException          if the transactions fail to save.
+     * @throws com.paymybuddy.app.exception.BalanceConflictException if the accounts keep changing concurrently.
+     */
+    public List<PayoutResult> transferBatch(int senderId, List<Payout> payouts, boolean allOrNothing) {
+        log.info("Transferring a batch of {} payments from user {} (all or nothing: {})", payouts.size(), senderId, allOrNothing);
+        Set<Integer> lockedUserIds = new LinkedHashSet<>();
+        lockedUserIds.add(senderId);
+        payouts.stream()
+                .map(Payout::receiverId)
+                .filter(receiverId -> !accountBucketService.isBucketed(receiverId))
+                .forEach(lockedUserIds::add);
+        return balanceMutationExecutor.execute(lockedUserIds, () -> applyBatch(senderId, payouts, allOrNothing));
+    }
+
+    private List<PayoutResult> applyBatch(int senderId, List<Payout> payouts, boolean allOrNothing) {
+        findActiveUser(senderId);
+
+        RuntimeException[] failures = new RuntimeException[payouts.size()];
+        Map<Integer, RuntimeException> receiverFailures = new HashMap<>();
+        boolean anyFailed = false;
+        for (int i = 0; i < payouts.size(); i++) {
+            failures[i] = checkPayout(senderId, payouts.get(i), receiverFailures);
+            anyFailed |= failures[i] != null;
+        }
+        if (allOrNothing && anyFailed) {
+            log.warn("Batch from user {} rejected: some payments cannot be made", senderId);
+            return toResults(failures, new Transaction[payouts.size()]);
+        }
+
+        LocalDateTime transactionDate = LocalDateTime.now();
+        FeeSchedule.Entry fee = transactionFeeService.getFeeAt(transactionDate);
+        long[] deductions = new long[payouts.size()];
+        for (int i = 0; i < payouts.size(); i++) {
+            long amountInCents = payouts.get(i).amountInCents();
+            deductions[i] = amountInCents + transactionFeeService.calculateFeeForTransaction(amountInCents, fee);
+        }
+        if (!allOrNothing) {
+            leaveOutWhatDoesNotFit(senderId, payouts, deductions, failures);
+        }
+
+        long totalAmount = 0;
+        long totalDeduction = 0;
+        Map<Integer, Long> credits = new HashMap<>();
+        for (int i = 0; i < payouts.size(); i++) {
+            if (failures[i] == null) {
+                totalAmount += payouts.get(i).amountInCents();
+                totalDeduction += deductions[i];
+                credits.merge(payouts.get(i).receiverId(), payouts.get(i).amountInCents(), Long::sum);
+            }
+        }
+        Transaction[] transactions = new Transaction[payouts.size()];
+        if (credits.isEmpty()) {
+            log.warn("No payment of the batch from user {} can be made", senderId);
+            return toResults(failures, transactions);
+        }
+
+        dailySpendService.reserve(senderId, totalAmount);
+        appAccountService.moveBalances(senderId, totalDeduction, credits);
+        log.info("Balances updated for sender {} and {} receivers", senderId, credits.size());
+
+        List<Transaction> paid = new ArrayList<>(payouts.size());
+        for (int i = 0; i < payouts.size(); i++) {
+            if (failures[i] == null) {
+                Payout payout = payouts.get(i);
+                transactions[i] = newTransaction(senderId, payout.receiverId(), payout.amountInCents(), deductions[i],
+                        payout.description(), transactionDate, fee);
+                paid.add(transactions[i]);
+            }
+        }
+
+        try {
+            transactionRepository.saveAll(paid);
+            log.info("{} transactions of the batch saved successfully", paid.size());
+        } catch (ConcurrencyFailureException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to save transactions: {}", e.getMessage(), e);
+            throw new EntitySaveException("Failed to save transaction.", e);
+        }
+
+        monetizationService.saveMonetizations(paid);
+        journalService.recordPayments(paid);
+
+        return toResults(failures, transactions);
+    }
+
+    /**
+     * Checks what can be checked of a payment before touching any balance.
+     *
+     * @return the reason the payment cannot be made, or null if it can.
+     */
+    private RuntimeException checkPayout(int senderId, Payout payout, Map<Integer, RuntimeException> receiverFailures) {
+        if (payout.amountInCents() <= 0) {
+            return new IllegalArgumentException("Amount must be positive.");
+        }
+        int receiverId = payout.receiverId();
+        if (!receiverFailures.containsKey(receiverId)) {
+            RuntimeException failure = null;
+            try {
+                findActiveUser(receiverId);
+                if (!userRelationService.checkRelation(senderId, receiverId)) {
+                    log.warn("No relation exists between user {} and user {}", senderId, receiverId);
+                    failure = new EntityNotFoundException("No relation exists between the sender and receiver.");
+                }
+            } catch (EntityNotFoundException e) {
+                failure = e;
+            }
+            receiverFailures.put(receiverId, failure);
+        }
+        return receiverFailures.get(receiverId);
+    }
+
+    /**
+     * Leaves out, in order, the payments that no longer fit in the sender's balance or daily limit.
+     */
+    private void leaveOutWhatDoesNotFit(int senderId, List<Payout> payouts, long[] deductions,
+                                        RuntimeException[] failures) {
+        long balance = appAccountService.getBalanceByUserId(senderId);
+        long remainingLimit = appAccountService.getTransactionLimitForUser(senderId) - dailySpendService.getSpentToday(senderId);
+        for (int i = 0; i < payouts.size(); i++) {
+            if (failures[i] != null) {
+                continue;
+            }
+            long amountInCents = payouts.get(i).amountInCents();
+            if (amountInCents > remainingLimit) {
+                failures[i] = new TransactionLimitExceededException("Transaction limit exceeded for the day.");
+            } else if (deductions[i] > balance) {
+                failures[i] = new InsufficientBalanceException("Insufficient balance for user ID: " + senderId);
+            } else {
+                remainingLimit -= amountInCents;
+                balance -= deductions[i];
+            }
+        }
+    }
+
+    private static List<PayoutResult> toResults(RuntimeException[] failures, Transaction[] transactions) {
+        List<PayoutResult> results = new ArrayList<>(failures.length);
+        for (int i = 0; i < failures.length; i++) {
+            results.add(new PayoutResult(transactions[i], failures[i]));
+        }
+        return results;
+    }
+
+    private void findActiveUser(int userId) {
+        UserRef user = userRepository.findRefById(userId)
+                .orElseThrow(() -> {
+                    log.error("User not found with ID: {}", userId);
+                    return new EntityNotFoundException("User not found with ID: " + userId);
+                });
+        if (user.isDeleted()) {
+            log.warn("The user {} does not exist or has been marked as deleted.", user);
+            throw new EntityNotFoundException("The specified user does not exist or has been deleted.");
+        }
+    }
+
+    private Transaction applyTransfer(int senderId, int receiverId, long amountInCents, String description) {
+
+        findActiveUser(receiverId);
+
+        if (!userRelationService.checkRelation(senderId, receiverId)) {
+            log.warn("No relation exists between user {} and user {}", senderId, receiverId);
+            throw new EntityNotFoundException("No relation exists between the sender and receiver.");
+        }
+
+        dailySpendService.reserve(senderId, amountInCents);
+
+        LocalDateTime transactionDate = LocalDateTime.now();
+        FeeSchedule.Entry fee = transactionFeeService.getFeeAt(transactionDate);
+        long feeAmount = transactionFeeService.calculateFeeForTransaction(amountInCents, fee);
+        long totalDeduction = amountInCents + feeAmount;
+
+        appAccountService.moveBalance(senderId, totalDeduction, receiverId, amountInCents);
+        log.info("Balances updated for sender {} and receiver {}", senderId, receiverId);
+
+        Transaction transaction = newTransaction(senderId, receiverId, amountInCents, totalDeduction, description,
+                transactionDate, fee);
+
+        try {
+            transactionRepository.save(transaction);
+            log.info("Transaction saved successfully: {}", transaction.getId());
+        } catch (ConcurrencyFailureException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to save transaction: {}", e.getMessage(), e);
+            throw new EntitySaveException("Failed to save transaction.", e);
+        }
+
+        monetizationService.saveMonetization(transaction);
+        log.info("Transaction monetization saved for transaction {}", transaction.getId());
+
+        journalService.recordPayment(transaction);
+
+        return transaction;
+    }
+
+    private Transaction newTransaction(int senderId, int receiverId, long amountInCents, long totalDeduction,
+                                       String description, LocalDateTime transactionDate, FeeSchedule.Entry fee) {
+        Transaction transaction = new Transaction();
+        transaction.setUserSender(userRepository.getReferenceById(senderId));
+        transaction.setUserReceiver(userRepository.getReferenceById(receiverId));
+        transaction.setAmount(amountInCents);
+        transaction.setAmountWithFee(totalDeduction);
+        transaction.setDescription(description);
+        transaction.setTransactionDate(transactionDate);
+        transaction.setFeeId(fee.feeId());
+        transaction.setFeePercentage(fee.percentage());
+        return transaction;
+    }
+
+    /**
+     * One payment of a batch.
+     *
+     * @param receiverId    The ID of the user receiving the money.
+     * @param amountInCents The amount being transferred (in cents).
+     * @param description   A description of the transaction.
+     */
+    public record Payout(int receiverId, long amountInCents, String description) {
+    }
+
+    /**
+     * Outcome of one payment of a batch: the saved transaction if it was paid, the reason if it cannot be made,
+     * neither if it was valid but left unpaid because another payment of an all-or-nothing batch failed.
+     */
+    public record PayoutResult(Transaction transaction, RuntimeException failure) {
+    }
+}
@@ -1,16 +1,20 @@
 package com.paymybuddy.app.service;
 
+import com.paymybuddy.app.datasource.Workload;
+import com.paymybuddy.app.datasource.WorkloadPool;
 import com.paymybuddy.app.dto.RelatedUserDTO;
 import com.paymybuddy.app.entity.User;
 import com.paymybuddy.app.entity.UserRelation;
 import com.paymybuddy.app.exception.*;
 import com.paymybuddy.app.repository.UserRelationRepository;
+import com.paymybuddy.app.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -22,10 +26,15 @@ public class UserRelationService {
 
     private final UserRelationRepository userRelationRepository;
     private final UserService userService;
+    private final UserRepository userRepository;
+    private final RelationGraphIndex relationGraphIndex;
 
-    public UserRelationService(UserRelationRepository userRelationRepository, UserService userService) {
+    public UserRelationService(UserRelationRepository userRelationRepository, UserService userService,
+                               UserRepository userRepository, RelationGraphIndex relationGraphIndex) {
         this.userRelationRepository = userRelationRepository;
         this.userService = userService;
+        this.userRepository = userRepository;
+        this.relationGraphIndex = relationGraphIndex;
     }
 
     /**
@@ -83,7 +92,11 @@ public class UserRelationService {
             throw new EntitySaveException("Failed to save the new relation", e);
         }
 
-        user.addUserRelation(newRelation);
+        relationGraphIndex.addRelation(user.getId(), userToAdd.getId());
+        // Keeps an already loaded list in step; an unloaded one will be read from the database when needed.
+        if (Hibernate.isInitialized(user.getUserRelations())) {
+            user.addUserRelation(newRelation);
+        }
         return "Relation successfully added between user ID: " + user.getId() + " and user email: " + email;
     }
 
@@ -115,49 +128,29 @@ public class UserRelationService {
             throw new EntityDeleteException("Failed to delete the relation", e);
         }
 
-        user.removeUserRelation(userRelation);
+        // The index links both directions: keep the link while the reverse relation still exists
+        if (!userRelationRepository.existsBetween(userId, userRelationId)) {
+            relationGraphIndex.removeRelation(userId, userRelationId);
+        }
+        // Same as addRelation: the user is detached here, an unloaded list must not be touched.
+        if (Hibernate.isInitialized(user.getUserRelations())) {
+            user.removeUserRelation(userRelation);
+        }
         return "Relation successfully deleted between user ID: " + userId + " and related user ID: " + userRelationId;
     }
 
     /**
      * Retrieves all related users for a given user.
      *
+     * <p>The related user IDs come from the {@link RelationGraphIndex}; their names are then read in a single
+     * query.</p>
+     *
      * @param user The user whose related users are to be retrieved.
      * @return A list of related users as DTOs.
      */
     public List<RelatedUserDTO> getAllRelatedUsers(User user) {
         log.info("Retrieving all related users for user ID: {}", user.getId());
-
-        List<UserRelation> relationsAsUser = user.getUserRelations();
-        List<UserRelation> relationsAsRelatedUser = user.getRelatedUserRelations();
-
-        List<RelatedUserDTO> relatedUsers = new ArrayList<>();
-        for (UserRelation relation : relationsAsUser) {
-            relatedUsers.add(new RelatedUserDTO(
-                    relation.getRelatedUser().getId(),
-                    relation.getRelatedUser().getUserName()
-            ));
-        }
-
-        for (UserRelation relation : relationsAsRelatedUser) {
-            relatedUsers.add(new RelatedUserDTO(
-                    relation.getUser().getId(),
-                    relation.getUser().getUserName()
-            ));
-        }
-
-        Iterator<RelatedUserDTO> iterator = relatedUsers.iterator();
-        while (iterator.hasNext()) {
-            RelatedUserDTO dto = iterator.next();
-            User related = userService.getUserById(dto.getId());
-
-            if (related.isDeleted()) {
-                iterator.remove();
-            }
-        }
-
-        log.info("Total related users found for user ID {}: {}", user.getId(), relatedUsers.size());
-        return relatedUsers;
+        return loadRelatedUsers(user.getId());
     }
 
     /**
@@ -167,21 +160,26 @@ public class UserRelationService {
      * @return A list of related users as DTOs.
      * @throws EntityNotFoundException If the user is not found.
      */
+    @Transactional(readOnly = true)
+    @WorkloadPool(Workload.USER_READS)
     public List<RelatedUserDTO> findRelatedUsers(int userId) {
         log.info("Finding related users for user ID: {}", userId);
 
-        User user = userService.getUserById(userId);
-        if (user == null) {
+        if (userRepository.findRefById(userId).isEmpty()) {
             log.error("User with ID {} not found", userId);
             throw new EntityNotFoundException("User not found with ID: " + userId);
         }
 
-        return getAllRelatedUsers(user);
+        return loadRelatedUsers(userId);
     }
 
     /**
      * Checks if a relation exists between two users.
      *
+     * <p>The answer comes from the {@link RelationGraphIndex}. A relation missing from the index is still looked up
+     * in the database, in case it was written without going through this service, and added to the index if
+     * found.</p>
+     *
      * @param userId         The ID of the user.
      * @param userRelationId The ID of the related user.
      * @return True if the relation exists, false otherwise.
@@ -189,10 +187,24 @@ public class UserRelationService {
     public boolean checkRelation(int userId, int userRelationId) {
         log.info("Checking relation between user ID: {} and related user ID: {}", userId, userRelationId);
 
-        boolean relationExists = userRelationRepository.findByUserIdAndUserRelationId(userId, userRelationId).isPresent() ||
-                userRelationRepository.findByUserIdAndUserRelationId(userRelationId, userId).isPresent();
+        boolean relationExists = relationGraphIndex.isConnected(userId, userRelationId);
+        if (!relationExists && userRelationRepository.existsBetween(userId, userRelationId)) {
+            log.warn("Relation between user ID: {} and related user ID: {} was missing from the index", userId, userRelationId);
+            relationGraphIndex.addRelation(userId, userRelationId);
+            relationExists = true;
+        }
 
         log.info("Relation exists between user ID: {} and related user ID: {}: {}", userId, userRelationId, relationExists);
         return relationExists;
     }
+
+    private List<RelatedUserDTO> loadRelatedUsers(int userId) {
+        int[] relatedUserIds = relationGraphIndex.getRelatedUserIds(userId);
+        List<RelatedUserDTO> relatedUsers = relatedUserIds.length == 0
+                ? List.of()
+                : userRepository.findRelatedUsersByIds(Arrays.stream(relatedUserIds).boxed().toList());
+
+        log.info("Total related users found for user ID {}: {}", userId, relatedUsers.size());
+        return relatedUsers;
+    }
 }
@@ -1,5 +1,7 @@
 package com.paymybuddy.app.service;
 
+import com.paymybuddy.app.datasource.Workload;
+import com.paymybuddy.app.datasource.WorkloadPool;
 import com.paymybuddy.app.dto.UpdateUserRequestDTO;
 import com.paymybuddy.app.dto.UserDTO;
 import com.paymybuddy.app.entity.Role;
@@ -8,6 +10,7 @@ import com.paymybuddy.app.exception.*;
 import com.paymybuddy.app.repository.RoleRepository;
 import com.paymybuddy.app.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,13 +30,18 @@ public class UserService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final AppAccountService appAccountService;
+    private final RelationGraphIndex relationGraphIndex;
+    private final UserCache userCache;
 
     public UserService(UserRepository userRepository, RoleRepository roleRepository,
-                       PasswordEncoder passwordEncoder, AppAccountService appAccountService) {
+                       PasswordEncoder passwordEncoder, AppAccountService appAccountService,
+                       RelationGraphIndex relationGraphIndex, UserCache userCache) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.appAccountService = appAccountService;
+        this.relationGraphIndex = relationGraphIndex;
+        this.userCache = userCache;
     }
 
     /**
@@ -73,9 +81,11 @@ public class UserService {
      *
      * @return A list of all users.
      */
+    @Transactional(readOnly = true)
+    @WorkloadPool(Workload.REPORTING)
     public List<User> getAllUsers() {
         log.info("Fetching all users.");
-        List<User> users = userRepository.findAll();
+        List<User> users = userRepository.findAllWithRoleAndAccount();
         log.info("Found {} users.", users.size());
         return users;
     }
@@ -107,6 +117,7 @@ public class UserService {
 
         User existingUser = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + userId));
+        String previousEmail = existingUser.getEmail();
 
         if (request.getUserName() != null && !request.getUserName().isBlank()) {
             existingUser.setUserName(request.getUserName());
@@ -129,6 +140,7 @@ public class UserService {
 
         try {
             userRepository.save(existingUser);
+            userCache.removeUserFromCache(previousEmail);
             log.info("User with ID: {} updated successfully.", userId);
         } catch (Exception e) {
             log.error("Failed to update user with ID: {}", userId, e);
@@ -157,6 +169,8 @@ public class UserService {
 
         try {
             userRepository.delete(user);
+            relationGraphIndex.removeUser(id);
+            userCache.removeUserFromCache(user.getEmail());
             log.info("User with ID: {} deleted successfully.", id);
             return "User deleted successfully.";
         } catch (Exception e) {
@@ -185,6 +199,7 @@ public class UserService {
 
         try {
             userRepository.save(user);
+            userCache.removeUserFromCache(user.getEmail());
             log.info("Role for user with ID: {} updated to '{}'.", id, role);
             return "User role updated successfully.";
         } catch (Exception e) {
@@ -329,6 +344,8 @@ public class UserService {
         if (!user.isDeleted()) {
             user.setDeleted(true);
             userRepository.save(user);
+            relationGraphIndex.setDeleted(userId, true);
+            userCache.removeUserFromCache(user.getEmail());
             log.info("User with ID {} has been soft deleted.", userId);
             return "User soft deleted successfully.";
         }
@@ -355,6 +372,8 @@ public class UserService {
         if (user.isDeleted()) {
             user.setDeleted(false);
             userRepository.save(user);
+            relationGraphIndex.setDeleted(userId, false);
+            userCache.removeUserFromCache(user.getEmail());
             log.info("Soft delete for user with ID {} has been canceled.", userId);
             return "User soft delete has been canceled.";
         }
@@ -6,6 +6,7 @@ import com.paymybuddy.app.entity.AppAccount;
 import com.paymybuddy.app.exception.AccountAlreadyExistsException;
 import com.paymybuddy.app.exception.EntityNotFoundException;
 import com.paymybuddy.app.exception.InvalidBalanceException;
+import com.paymybuddy.app.service.AccountBucketService;
 import com.paymybuddy.app.service.AppAccountService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -35,6 +36,9 @@ class AppAccountControllerTest {
     @MockBean
     private AppAccountService appAccountService;
 
+    @MockBean
+    private AccountBucketService accountBucketService;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @BeforeEach
@@ -203,6 +207,25 @@ class AppAccountControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("Daily limit updated successfully"));
     }
-}
 
+    @Test
+    void testUpdateCreditBuckets_Success() throws Exception {
+        int userId = 1;
+
+        mockMvc.perform(put("/api/appAccounts/{userId}/creditBuckets/{buckets}", userId, 8).with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Credit buckets updated successfully"));
+
+        verify(accountBucketService, times(1)).setCreditBuckets(userId, 8);
+    }
 
+    @Test
+    void testUpdateCreditBuckets_OutOfRange() throws Exception {
+        int userId = 1;
+        doThrow(new IllegalArgumentException("Credit buckets must be between 0 and 64."))
+                .when(accountBucketService).setCreditBuckets(userId, 100);
+
+        mockMvc.perform(put("/api/appAccounts/{userId}/creditBuckets/{buckets}", userId, 100).with(csrf()))
+                .andExpect(status().isBadRequest());
+    }
+}
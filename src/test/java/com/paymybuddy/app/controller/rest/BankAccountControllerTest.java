@@ -8,6 +8,7 @@ import com.paymybuddy.app.entity.User;
 import com.paymybuddy.app.exception.EntityNotFoundException;
 import com.paymybuddy.app.exception.EntitySaveException;
 import com.paymybuddy.app.service.BankAccountService;
+import com.paymybuddy.app.service.IdempotencyService;
 import com.paymybuddy.app.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,8 +23,11 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -44,11 +48,16 @@ class BankAccountControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @BeforeEach
     void setUp() {
         objectMapper.registerModule(new JavaTimeModule());
+        when(idempotencyService.execute(anyString(), any(), anyString(), any(), any()))
+                .thenAnswer(inv -> ((Supplier<?>) inv.getArgument(4)).get());
     }
 
     @Test
@@ -278,6 +287,25 @@ class BankAccountControllerTest {
                 .andExpect(jsonPath("$.id").value(bankAccountId));
     }
 
+    @Test
+    void testTransferToBankAccount_passesIdempotencyKey() throws Exception {
+        // Arrange
+        BankAccount bankAccount = new BankAccount();
+        bankAccount.setId(2);
+        when(bankAccountService.transferToBankAccount(1, 2, 100)).thenReturn(bankAccount);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/bankAccounts/transferToBankAccount")
+                        .header(IdempotencyService.HEADER, "key-1")
+                        .param("appAccountId", "1")
+                        .param("bankAccountId", "2")
+                        .param("amount", "100")
+                        .with(csrf()))
+                .andExpect(status().isOk());
+
+        verify(idempotencyService).execute(eq("bank-withdrawal:1"), eq("key-1"), eq("2|100"), eq(Object.class), any());
+    }
+
     @Test
     void testTransferToBankAccount_AppAccountNotFound() throws Exception {
         // Arrange
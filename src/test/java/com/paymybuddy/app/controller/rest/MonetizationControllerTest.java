@@ -10,10 +10,13 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Optional;
 
 
 import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -73,4 +76,41 @@ class MonetizationControllerTest {
         verify(monetizationService, times(1)).getTotalResult();
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testGetDailyMonetization_success() throws Exception {
+        // Arrange
+        when(monetizationService.getDailyResult(LocalDate.of(2026, 10, 17))).thenReturn(250L);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/monetization/daily/2026-10-17"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2,50"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testGetMonthlyMonetization_success() throws Exception {
+        // Arrange
+        when(monetizationService.getMonthlyResult(YearMonth.of(2026, 10))).thenReturn(12345L);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/monetization/monthly/2026-10"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("123,45"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testRebuildRevenueLedger_success() throws Exception {
+        // Arrange
+        when(monetizationService.rebuildRevenueLedger()).thenReturn(500L);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/monetization/rebuild").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(content().string("5,00"));
+
+        verify(monetizationService, times(1)).rebuildRevenueLedger();
+    }
 }
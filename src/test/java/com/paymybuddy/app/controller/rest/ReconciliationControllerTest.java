@@ -0,0 +1,97 @@
+package com.paymybuddy.app.controller.rest;
+
+import com.paymybuddy.app.entity.ReconciliationDiscrepancy;
+import com.paymybuddy.app.entity.ReconciliationRun;
+import com.paymybuddy.app.exception.EntityNotFoundException;
+import com.paymybuddy.app.service.ReconciliationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReconciliationController.class)
+@WithMockUser(roles = "ADMIN")
+class ReconciliationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReconciliationService reconciliationService;
+
+    @Test
+    void testRunReconciliation_success() throws Exception {
+        // Arrange
+        when(reconciliationService.reconcile()).thenReturn(run(3, 120, 1));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/reconciliation/run").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(3))
+                .andExpect(jsonPath("$.accountsChecked").value(120))
+                .andExpect(jsonPath("$.discrepancyCount").value(1));
+
+        verify(reconciliationService, times(1)).reconcile();
+    }
+
+    @Test
+    void testRunReconciliation_alreadyRunning() throws Exception {
+        // Arrange
+        when(reconciliationService.reconcile())
+                .thenThrow(new IllegalStateException("A reconciliation is already running."));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/reconciliation/run").with(csrf()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details").value("A reconciliation is already running."));
+    }
+
+    @Test
+    void testGetLatestRun_notFound() throws Exception {
+        // Arrange
+        when(reconciliationService.getLatestRun())
+                .thenThrow(new EntityNotFoundException("No reconciliation run found."));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/reconciliation/latest"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetDiscrepancies_success() throws Exception {
+        // Arrange
+        ReconciliationDiscrepancy discrepancy = new ReconciliationDiscrepancy();
+        discrepancy.setRunId(3);
+        discrepancy.setUserId(42);
+        discrepancy.setRecordedBalance(1500);
+        discrepancy.setExpectedBalance(1000);
+        when(reconciliationService.getDiscrepancies(3)).thenReturn(List.of(discrepancy));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/reconciliation/3/discrepancies"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].userId").value(42))
+                .andExpect(jsonPath("$[0].recordedBalance").value(1500))
+                .andExpect(jsonPath("$[0].expectedBalance").value(1000));
+    }
+
+    private static ReconciliationRun run(int id, long accountsChecked, int discrepancyCount) {
+        ReconciliationRun run = new ReconciliationRun();
+        run.setId(id);
+        run.setStartedAt(LocalDateTime.now().minusSeconds(5));
+        run.setFinishedAt(LocalDateTime.now());
+        run.setAccountsChecked(accountsChecked);
+        run.setDiscrepancyCount(discrepancyCount);
+        return run;
+    }
+}
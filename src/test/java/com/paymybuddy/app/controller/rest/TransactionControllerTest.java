@@ -1,11 +1,18 @@
 package com.paymybuddy.app.controller.rest;
 
+import com.paymybuddy.app.dto.BatchPaymentItemResultDTO;
+import com.paymybuddy.app.dto.BatchPaymentRequestDTO;
+import com.paymybuddy.app.dto.BatchPaymentResultDTO;
+import com.paymybuddy.app.dto.CursorPage;
 import com.paymybuddy.app.dto.TransactionDTO;
 import com.paymybuddy.app.exception.EntityNotFoundException;
 import com.paymybuddy.app.exception.EntitySaveException;
+import com.paymybuddy.app.exception.IdempotencyKeyConflictException;
 import com.paymybuddy.app.exception.InsufficientBalanceException;
+import com.paymybuddy.app.service.IdempotencyService;
 import com.paymybuddy.app.service.TransactionService;
 import com.paymybuddy.app.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -16,7 +23,12 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -35,6 +47,14 @@ class TransactionControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        when(idempotencyService.execute(anyString(), any(), anyString(), any(), any()))
+                .thenAnswer(inv -> ((Supplier<?>) inv.getArgument(4)).get());
+    }
 
     @Test
     void testCreateTransaction_success() throws Exception {
@@ -58,6 +78,84 @@ class TransactionControllerTest {
         verify(transactionService, times(1)).createTransaction(1, 2, 100, "Test transaction");
     }
 
+    @Test
+    void testCreateTransaction_passesIdempotencyKey() throws Exception {
+        // Arrange
+        when(transactionService.createTransaction(1, 2, 100, "Test transaction"))
+                .thenReturn("Transaction successful");
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/create")
+                        .with(csrf())
+                        .header(IdempotencyService.HEADER, "key-1")
+                        .param("senderId", "1")
+                        .param("receiverId", "2")
+                        .param("amount", "100")
+                        .param("description", "Test transaction")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+                .andExpect(status().isCreated());
+
+        verify(idempotencyService).execute(eq("payment:1"), eq("key-1"), eq("2|100|Test transaction"), eq(Map.class), any());
+    }
+
+    @Test
+    void testCreateBatchTransaction_success() throws Exception {
+        // Arrange
+        BatchPaymentResultDTO result = new BatchPaymentResultDTO(BatchPaymentRequestDTO.Mode.ALL_OR_NOTHING, 1, 0, 10500L,
+                List.of(new BatchPaymentItemResultDTO(0, 2, 100, BatchPaymentItemResultDTO.Status.PAID, 41, "Transaction successful")));
+        when(transactionService.createBatchTransaction(any(BatchPaymentRequestDTO.class))).thenReturn(result);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"senderId\":1,\"mode\":\"ALL_OR_NOTHING\",\"payments\":[{\"receiverId\":2,\"amount\":100,\"description\":\"Lunch\"}]}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.paid").value(1))
+                .andExpect(jsonPath("$.totalDebited").value(10500))
+                .andExpect(jsonPath("$.results[0].status").value("PAID"))
+                .andExpect(jsonPath("$.results[0].transactionId").value(41));
+    }
+
+    @Test
+    void testCreateBatchTransaction_nothingPaid() throws Exception {
+        // Arrange
+        BatchPaymentResultDTO result = new BatchPaymentResultDTO(BatchPaymentRequestDTO.Mode.ALL_OR_NOTHING, 0, 1, 0,
+                List.of(new BatchPaymentItemResultDTO(0, 2, 100, BatchPaymentItemResultDTO.Status.FAILED, null,
+                        "No relation exists between the sender and receiver.")));
+        when(transactionService.createBatchTransaction(any(BatchPaymentRequestDTO.class))).thenReturn(result);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"senderId\":1,\"payments\":[{\"receiverId\":2,\"amount\":100,\"description\":\"Lunch\"}]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.results[0].status").value("FAILED"))
+                .andExpect(jsonPath("$.results[0].message").value("No relation exists between the sender and receiver."));
+    }
+
+    @Test
+    void testCreateTransaction_idempotencyKeyConflict() throws Exception {
+        // Arrange
+        doThrow(new IdempotencyKeyConflictException("The idempotency key was already used for a different request."))
+                .when(idempotencyService).execute(anyString(), any(), anyString(), any(), any());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/create")
+                        .with(csrf())
+                        .header(IdempotencyService.HEADER, "key-1")
+                        .param("senderId", "1")
+                        .param("receiverId", "2")
+                        .param("amount", "100")
+                        .param("description", "Test transaction")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.details").value("The idempotency key was already used for a different request."));
+
+        verify(transactionService, never()).createTransaction(anyInt(), anyInt(), anyLong(), anyString());
+    }
+
     @Test
     void testCreateTransaction_noRelationExists() throws Exception {
         // Arrange
@@ -168,21 +266,34 @@ class TransactionControllerTest {
         transactionDTO.setAmount(100);
         transactionDTO.setDescription("Test transaction");
 
-        when(transactionService.getTransactionHistoryByUserId(1))
-                .thenReturn(Collections.emptyList()); // Exemple de liste vide
-        when(transactionService.convertToDTOList(anyList()))
-                .thenReturn(List.of(transactionDTO));
+        when(transactionService.getTransactionHistoryPage(1, null, TransactionService.DEFAULT_HISTORY_PAGE_SIZE))
+                .thenReturn(new CursorPage<>(List.of(transactionDTO), "next-cursor"));
 
         // Act & Assert
         mockMvc.perform(get("/api/transactions/allByUser/1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(TransactionController.NEXT_CURSOR_HEADER, "next-cursor"))
                 .andExpect(jsonPath("$[0].senderId").value(1))
                 .andExpect(jsonPath("$[0].receiverId").value(2))
                 .andExpect(jsonPath("$[0].amount").value(100))
                 .andExpect(jsonPath("$[0].description").value("Test transaction"));
 
-        verify(transactionService, times(1)).getTransactionHistoryByUserId(1);
-        verify(transactionService, times(1)).convertToDTOList(anyList());
+        verify(transactionService, times(1)).getTransactionHistoryPage(1, null, TransactionService.DEFAULT_HISTORY_PAGE_SIZE);
+    }
+
+    @Test
+    void testGetTransactionHistory_lastPage() throws Exception {
+        // Arrange
+        when(transactionService.getTransactionHistoryPage(1, "abc", 5))
+                .thenReturn(new CursorPage<>(Collections.emptyList(), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/allByUser/1")
+                        .param("cursor", "abc")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(TransactionController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$").isEmpty());
     }
 
     @Test
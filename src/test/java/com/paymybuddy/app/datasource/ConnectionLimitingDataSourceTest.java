@@ -0,0 +1,107 @@
+package com.paymybuddy.app.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionLimitingDataSourceTest {
+
+    private DataSource pool;
+    private Connection pooled;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = mock(DataSource.class);
+        pooled = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(pooled);
+    }
+
+    @Test
+    void getConnection_ReleasesPermitOnceWhenClosed() throws SQLException {
+        // Arrange
+        ConnectionLimitingDataSource limited = new ConnectionLimitingDataSource(pool, 1, Duration.ZERO, 10);
+
+        // Act
+        Connection connection = limited.getConnection();
+        int activeWhileOpen = limited.getActive();
+        connection.close();
+        connection.close();
+
+        // Assert
+        assertEquals(1, activeWhileOpen);
+        assertEquals(0, limited.getActive());
+        verify(pooled, times(2)).close();
+        assertNotNull(limited.getConnection());
+    }
+
+    @Test
+    void getConnection_AllHeld_FailsAfterTimeout() throws SQLException {
+        // Arrange
+        ConnectionLimitingDataSource limited = new ConnectionLimitingDataSource(pool, 1, Duration.ofMillis(50), 10);
+        limited.getConnection();
+
+        // Act & Assert
+        assertThrows(SQLTransientConnectionException.class, limited::getConnection);
+        assertEquals(0, limited.getWaiting());
+        verify(pool, times(1)).getConnection();
+    }
+
+    @Test
+    void getConnection_WaitsForRelease() throws Exception {
+        // Arrange
+        ConnectionLimitingDataSource limited = new ConnectionLimitingDataSource(pool, 1, Duration.ofSeconds(5), 10);
+        Connection held = limited.getConnection();
+        CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limited.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (limited.getWaiting() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Act
+        held.close();
+
+        // Assert
+        assertNotNull(waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(1, limited.getActive());
+    }
+
+    @Test
+    void getConnection_TooManyWaiting_FailsAtOnce() throws Exception {
+        // Arrange
+        ConnectionLimitingDataSource limited = new ConnectionLimitingDataSource(pool, 1, Duration.ofSeconds(5), 0);
+        limited.getConnection();
+
+        // Act
+        long start = System.nanoTime();
+        assertThrows(SQLTransientConnectionException.class, limited::getConnection);
+
+        // Assert
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+    }
+
+    @Test
+    void getConnection_PoolFails_ReleasesPermit() throws SQLException {
+        // Arrange
+        when(pool.getConnection()).thenThrow(new SQLException("down"));
+        ConnectionLimitingDataSource limited = new ConnectionLimitingDataSource(pool, 1, Duration.ZERO, 10);
+
+        // Act & Assert
+        assertThrows(SQLException.class, limited::getConnection);
+        assertEquals(0, limited.getActive());
+    }
+}
@@ -0,0 +1,65 @@
+package com.paymybuddy.app.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrimaryPinGuardTest {
+
+    private AtomicLong now;
+    private PrimaryPinGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(System.nanoTime());
+        guard = new PrimaryPinGuard(Duration.ofSeconds(5), now::get);
+    }
+
+    @Test
+    void isPinned_NeverWrote_ReturnsFalse() {
+        assertFalse(guard.isPinned(1));
+    }
+
+    @Test
+    void isPinned_WithinWindow_ReturnsTrue() {
+        // Arrange
+        guard.pin(1);
+
+        // Act
+        now.addAndGet(Duration.ofSeconds(4).toNanos());
+
+        // Assert
+        assertTrue(guard.isPinned(1));
+        assertFalse(guard.isPinned(2));
+    }
+
+    @Test
+    void isPinned_WindowElapsed_ReturnsFalse() {
+        // Arrange
+        guard.pin(1);
+
+        // Act
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        // Assert
+        assertFalse(guard.isPinned(1));
+    }
+
+    @Test
+    void pin_AgainWithinWindow_ExtendsIt() {
+        // Arrange
+        guard.pin(1);
+        now.addAndGet(Duration.ofSeconds(3).toNanos());
+        guard.pin(1);
+
+        // Act
+        now.addAndGet(Duration.ofSeconds(3).toNanos());
+
+        // Assert
+        assertTrue(guard.isPinned(1));
+    }
+}
@@ -0,0 +1,56 @@
+package com.paymybuddy.app.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class QueryTimeoutDataSourceTest {
+
+    private DataSource pool;
+    private Connection pooled;
+    private PreparedStatement statement;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = mock(DataSource.class);
+        pooled = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        when(pool.getConnection()).thenReturn(pooled);
+        when(pooled.prepareStatement("SELECT 1")).thenReturn(statement);
+    }
+
+    @Test
+    void prepareStatement_SetsTimeoutRoundedUpToSeconds() throws SQLException {
+        // Arrange
+        QueryTimeoutDataSource timed = new QueryTimeoutDataSource(pool, Duration.ofMillis(1_500));
+
+        // Act
+        PreparedStatement prepared = timed.getConnection().prepareStatement("SELECT 1");
+
+        // Assert
+        assertSame(statement, prepared);
+        assertEquals(2, timed.getQueryTimeoutSeconds());
+        verify(statement).setQueryTimeout(2);
+    }
+
+    @Test
+    void close_ClosesPooledConnectionWithoutTouchingStatements() throws SQLException {
+        // Arrange
+        QueryTimeoutDataSource timed = new QueryTimeoutDataSource(pool, Duration.ofSeconds(5));
+
+        // Act
+        timed.getConnection().close();
+
+        // Assert
+        verify(pooled).close();
+        verifyNoInteractions(statement);
+    }
+}
@@ -0,0 +1,176 @@
+package com.paymybuddy.app.integration;
+
+import com.paymybuddy.app.entity.AppAccount;
+import com.paymybuddy.app.entity.Role;
+import com.paymybuddy.app.entity.TransactionFee;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.entity.UserRelation;
+import com.paymybuddy.app.repository.AccountBucketRepository;
+import com.paymybuddy.app.repository.AppAccountRepository;
+import com.paymybuddy.app.repository.RoleRepository;
+import com.paymybuddy.app.repository.TransactionFeeRepository;
+import com.paymybuddy.app.repository.UserRelationRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import com.paymybuddy.app.service.AccountBucketService;
+import com.paymybuddy.app.service.AppAccountService;
+import com.paymybuddy.app.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pays a bucketed merchant from many senders at once and checks that no cent is lost while credits sit in buckets,
+ * are folded by a debit, and are consolidated.
+ */
+@SpringBootTest
+@TestPropertySource(properties =
+        "spring.datasource.url=jdbc:h2:mem:account_bucket;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class AccountBucketIT {
+
+    private static final int SENDERS = 12;
+    private static final int PAYMENTS_PER_SENDER = 5;
+    private static final long AMOUNT = 10;
+    private static final int BUCKETS = 4;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AppAccountService appAccountService;
+
+    @Autowired
+    private AccountBucketService accountBucketService;
+
+    @Autowired
+    private AccountBucketRepository accountBucketRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private AppAccountRepository appAccountRepository;
+
+    @Autowired
+    private UserRelationRepository userRelationRepository;
+
+    @Autowired
+    private TransactionFeeRepository transactionFeeRepository;
+
+    private final List<User> senders = new ArrayList<>();
+    private User merchant;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setRoleName("USER");
+        roleRepository.save(role);
+
+        TransactionFee transactionFee = new TransactionFee();
+        transactionFee.setEffectiveDate(LocalDateTime.now().minusDays(1));
+        transactionFee.setPercentage(5000);
+        transactionFeeRepository.save(transactionFee);
+
+        merchant = createUserWithAccount("merchant", role);
+        for (int i = 0; i < SENDERS; i++) {
+            User sender = createUserWithAccount("sender" + i, role);
+            senders.add(sender);
+            relate(sender, merchant);
+        }
+        relate(merchant, senders.get(0));
+
+        accountBucketService.setCreditBuckets(merchant.getId(), BUCKETS);
+    }
+
+    @Test
+    void concurrentCreditsToBucketedMerchant_AllCountedAndConsolidated() throws Exception {
+        // Act
+        ExecutorService callers = Executors.newFixedThreadPool(SENDERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (User sender : senders) {
+                results.add(callers.submit(() -> {
+                    for (int i = 0; i < PAYMENTS_PER_SENDER; i++) {
+                        transactionService.createTransaction(sender.getId(), merchant.getId(), AMOUNT, "Purchase");
+                    }
+                    return "done";
+                }));
+            }
+            for (Future<String> result : results) {
+                result.get();
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        // Assert
+        long received = SENDERS * PAYMENTS_PER_SENDER * AMOUNT * 100;
+        long mainRow = appAccountRepository.findByUserId(merchant.getId()).orElseThrow().getBalance();
+        assertEquals(0L, mainRow, "Credits land in buckets, not on the main row");
+        assertTrue(accountBucketRepository.count() > 1, "Credits spread over several buckets");
+        assertEquals(received, appAccountService.getBalanceByUserId(merchant.getId()));
+        assertEquals(received, appAccountService.getInfoAppAccountByUserId(merchant.getId()).getBalance());
+
+        assertEquals(1, accountBucketService.consolidate());
+        assertEquals(received, appAccountRepository.findByUserId(merchant.getId()).orElseThrow().getBalance());
+        assertEquals(0L, accountBucketService.getPendingCredits(merchant.getId()));
+        assertEquals(received, appAccountService.getBalanceByUserId(merchant.getId()));
+    }
+
+    @Test
+    void bucketedMerchantPaying_FoldsBucketsToCoverTheDebit() {
+        // Arrange
+        transactionService.createTransaction(senders.get(0).getId(), merchant.getId(), 100, "Purchase");
+        transactionService.createTransaction(senders.get(1).getId(), merchant.getId(), 100, "Purchase");
+
+        // Act
+        transactionService.createTransaction(merchant.getId(), senders.get(0).getId(), 150, "Refund");
+
+        // Assert
+        long remaining = appAccountService.getBalanceByUserId(merchant.getId());
+        assertTrue(remaining >= 0 && remaining < 5000, "Balance after refund and fee: " + remaining);
+        assertEquals(0L, accountBucketService.getPendingCredits(merchant.getId()));
+    }
+
+    private void relate(User user, User related) {
+        UserRelation userRelation = new UserRelation();
+        userRelation.setUserId(user.getId());
+        userRelation.setUserRelationId(related.getId());
+        userRelation.setStatus(true);
+        userRelation.setCreatedAt(LocalDateTime.now());
+        userRelationRepository.save(userRelation);
+    }
+
+    private User createUserWithAccount(String name, Role role) {
+        User user = new User();
+        user.setUserName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("password");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setRole(role);
+        user = userRepository.save(user);
+
+        AppAccount account = new AppAccount();
+        account.setUser(user);
+        account.setBalance(name.equals("merchant") ? 0L : 1_000_000L);
+        account.setCreatedAt(LocalDateTime.now());
+        account.setDailyLimit(10_000_000L);
+        appAccountRepository.save(account);
+        return user;
+    }
+}
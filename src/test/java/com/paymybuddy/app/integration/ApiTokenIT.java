@@ -0,0 +1,158 @@
+package com.paymybuddy.app.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymybuddy.app.controller.rest.ApiTokenController;
+import com.paymybuddy.app.entity.Role;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.repository.RoleRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Exchanges a password for an API token and calls the API with it, checking that no session is created and that the
+ * token is checked without reading the user again. The web pages keep their form login.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:api_token;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ApiTokenIT {
+
+    private static final String EMAIL = "john.doe@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setRoleName("USER");
+        roleRepository.save(role);
+
+        user = new User();
+        user.setUserName("John Doe");
+        user.setEmail(EMAIL);
+        user.setPassword(passwordEncoder.encode("password"));
+        user.setRole(role);
+        user.setCreatedAt(LocalDateTime.now());
+        userRepository.save(user);
+    }
+
+    @Test
+    void token_AuthenticatesApiRequestsWithoutSession() throws Exception {
+        // Arrange
+        String token = issueToken();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/relation/all/" + user.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Assert
+        assertNull(result.getRequest().getSession(false));
+        assertEquals(0, statistics.getEntityLoadCount(), "Entities loaded to authenticate");
+        assertEquals(0, statistics.getEntityStatistics(User.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void token_TokenEndpointCreatesNoSession() throws Exception {
+        MvcResult result = mockMvc.perform(post(ApiTokenController.TOKEN_PATH).with(httpBasic(EMAIL, "password")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tokenType").value("Bearer"))
+                .andExpect(jsonPath("$.expiresIn").value(900))
+                .andReturn();
+
+        assertNull(result.getRequest().getSession(false));
+    }
+
+    @Test
+    void token_WrongPassword_Unauthorized() throws Exception {
+        mockMvc.perform(post(ApiTokenController.TOKEN_PATH).with(httpBasic(EMAIL, "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void api_WithoutToken_Unauthorized() throws Exception {
+        mockMvc.perform(get("/api/relation/all/" + user.getId()))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer"));
+    }
+
+    @Test
+    void api_WithPassword_Unauthorized() throws Exception {
+        mockMvc.perform(get("/api/relation/all/" + user.getId()).with(httpBasic(EMAIL, "password")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void api_TamperedToken_Unauthorized() throws Exception {
+        // Arrange
+        String[] parts = issueToken().split("\\.");
+        String tampered = parts[0] + "." + parts[1] + "." + new StringBuilder(parts[2]).reverse();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/relation/all/" + user.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + tampered))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void webPage_WithoutSession_RedirectsToLoginForm() throws Exception {
+        mockMvc.perform(get("/transaction").accept(MediaType.TEXT_HTML))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrlPattern("**/login"));
+    }
+
+    private String issueToken() throws Exception {
+        MvcResult result = mockMvc.perform(post(ApiTokenController.TOKEN_PATH).with(httpBasic(EMAIL, "password")))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+        return body.get("accessToken").asText();
+    }
+}
@@ -48,7 +48,7 @@ public class AppAccountIT {
         account.setUser(user);
         account.setBalance(100);
 
-        AppAccount savedAccount = appAccountRepository.save(account);
+        AppAccount savedAccount = appAccountRepository.saveAndFlush(account);
 
         assertNotNull(savedAccount.getCreatedAt(), "The created_at timestamp should be generated automatically");
         assertNotNull(savedAccount.getLastUpdate(), "The last_update timestamp should be generated automatically");
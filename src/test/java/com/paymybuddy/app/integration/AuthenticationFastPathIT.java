@@ -0,0 +1,130 @@
+package com.paymybuddy.app.integration;
+
+import com.paymybuddy.app.dto.UpdateUserRequestDTO;
+import com.paymybuddy.app.entity.Role;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.repository.RoleRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import com.paymybuddy.app.security.CustomUserDetails;
+import com.paymybuddy.app.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Signs in through the authentication manager and counts the statements it issues, first and then once the user is
+ * cached, and checks that changing the user is seen by the next sign-in.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:authentication_fast_path;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class AuthenticationFastPathIT {
+
+    private static final String EMAIL = "john.doe@example.com";
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Role role = new Role();
+        role.setRoleName("USER");
+        roleRepository.save(role);
+
+        user = new User();
+        user.setUserName("John Doe");
+        user.setEmail(EMAIL);
+        user.setPassword(passwordEncoder.encode("password"));
+        user.setRole(role);
+        user.setCreatedAt(LocalDateTime.now());
+        userRepository.save(user);
+    }
+
+    @Test
+    void authenticate_ReadsOneRowThenNone() {
+        // Act
+        statistics.clear();
+        Authentication first = authenticate("password");
+        long firstStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        Authentication second = authenticate("password");
+
+        // Assert
+        assertEquals(1, firstStatements);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        CustomUserDetails principal = (CustomUserDetails) second.getPrincipal();
+        assertEquals(user.getId(), principal.getId());
+        assertEquals("John Doe", principal.getNameUser());
+        assertTrue(first.getAuthorities().stream().anyMatch(authority -> authority.getAuthority().equals("ROLE_USER")));
+    }
+
+    @Test
+    void authenticate_AfterPasswordChange_OldPasswordRejected() {
+        // Arrange
+        authenticate("password");
+        UpdateUserRequestDTO request = new UpdateUserRequestDTO();
+        request.setPassword("changed");
+
+        // Act
+        userService.updateUser(user.getId(), request);
+
+        // Assert
+        assertThrows(BadCredentialsException.class, () -> authenticate("password"));
+        assertNotNull(authenticate("changed"));
+    }
+
+    @Test
+    void authenticate_AfterSoftDelete_Rejected() {
+        // Arrange
+        authenticate("password");
+
+        // Act
+        userService.softDeleteUser(user.getId());
+
+        // Assert
+        assertThrows(BadCredentialsException.class, () -> authenticate("password"));
+    }
+
+    private Authentication authenticate(String password) {
+        return authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, password));
+    }
+}
@@ -0,0 +1,223 @@
+package com.paymybuddy.app.integration;
+
+import com.paymybuddy.app.dto.BatchPaymentItemDTO;
+import com.paymybuddy.app.dto.BatchPaymentItemResultDTO;
+import com.paymybuddy.app.dto.BatchPaymentRequestDTO;
+import com.paymybuddy.app.dto.BatchPaymentResultDTO;
+import com.paymybuddy.app.entity.AppAccount;
+import com.paymybuddy.app.entity.Role;
+import com.paymybuddy.app.entity.TransactionFee;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.entity.UserRelation;
+import com.paymybuddy.app.exception.InsufficientBalanceException;
+import com.paymybuddy.app.repository.AppAccountRepository;
+import com.paymybuddy.app.repository.JournalEntryRepository;
+import com.paymybuddy.app.repository.MonetizationRepository;
+import com.paymybuddy.app.repository.RoleRepository;
+import com.paymybuddy.app.repository.TransactionFeeRepository;
+import com.paymybuddy.app.repository.TransactionRepository;
+import com.paymybuddy.app.repository.UserRelationRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import com.paymybuddy.app.service.DailySpendService;
+import com.paymybuddy.app.service.MonetizationService;
+import com.paymybuddy.app.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pays several receivers from one sender in one batch and checks balances, limit, revenue and journal.
+ */
+@SpringBootTest
+@TestPropertySource(properties =
+        "spring.datasource.url=jdbc:h2:mem:batch_payment;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BatchPaymentIT {
+
+    private static final long START_BALANCE = 100_000L;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private DailySpendService dailySpendService;
+
+    @Autowired
+    private MonetizationService monetizationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private AppAccountRepository appAccountRepository;
+
+    @Autowired
+    private UserRelationRepository userRelationRepository;
+
+    @Autowired
+    private TransactionFeeRepository transactionFeeRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MonetizationRepository monetizationRepository;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    private User sender;
+    private User alice;
+    private User bob;
+    private User stranger;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setRoleName("USER");
+        roleRepository.save(role);
+
+        TransactionFee transactionFee = new TransactionFee();
+        transactionFee.setEffectiveDate(LocalDateTime.now().minusDays(1));
+        transactionFee.setPercentage(5000);
+        transactionFeeRepository.save(transactionFee);
+
+        sender = createUserWithAccount("sender", role);
+        alice = createUserWithAccount("alice", role);
+        bob = createUserWithAccount("bob", role);
+        stranger = createUserWithAccount("stranger", role);
+        relate(sender, alice);
+        relate(sender, bob);
+    }
+
+    @Test
+    void allOrNothing_PaysEveryReceiver() {
+        // Arrange
+        BatchPaymentRequestDTO request = new BatchPaymentRequestDTO(sender.getId(),
+                BatchPaymentRequestDTO.Mode.ALL_OR_NOTHING, List.of(
+                new BatchPaymentItemDTO(alice.getId(), 100, "Dinner"),
+                new BatchPaymentItemDTO(bob.getId(), 200, "Dinner"),
+                new BatchPaymentItemDTO(alice.getId(), 50, "Taxi")));
+
+        // Act
+        BatchPaymentResultDTO result = transactionService.createBatchTransaction(request);
+
+        // Assert
+        assertEquals(3, result.getPaid());
+        assertEquals(0, result.getFailed());
+        assertTrue(result.getResults().stream().allMatch(item -> item.getTransactionId() != null));
+        assertEquals(3, transactionRepository.count());
+        assertEquals(3, monetizationRepository.count());
+        assertEquals(START_BALANCE - result.getTotalDebited(), balanceOf(sender));
+        assertEquals(START_BALANCE + 15_000L, balanceOf(alice));
+        assertEquals(START_BALANCE + 20_000L, balanceOf(bob));
+        assertEquals(35_000L, dailySpendService.getSpentToday(sender.getId()));
+        assertEquals(result.getTotalDebited() - 35_000L, monetizationService.getTotalResult());
+        assertEquals(0L, journalEntryRepository.findAll().stream().mapToLong(entry -> entry.getAmount()).sum());
+    }
+
+    @Test
+    void allOrNothing_OneInvalidPayment_PaysNothing() {
+        // Arrange
+        BatchPaymentRequestDTO request = new BatchPaymentRequestDTO(sender.getId(),
+                BatchPaymentRequestDTO.Mode.ALL_OR_NOTHING, List.of(
+                new BatchPaymentItemDTO(alice.getId(), 100, "Dinner"),
+                new BatchPaymentItemDTO(stranger.getId(), 100, "Dinner")));
+
+        // Act
+        BatchPaymentResultDTO result = transactionService.createBatchTransaction(request);
+
+        // Assert
+        assertEquals(0, result.getPaid());
+        assertEquals(BatchPaymentItemResultDTO.Status.NOT_PAID, result.getResults().get(0).getStatus());
+        assertEquals(BatchPaymentItemResultDTO.Status.FAILED, result.getResults().get(1).getStatus());
+        assertEquals(0, transactionRepository.count());
+        assertEquals(START_BALANCE, balanceOf(sender));
+        assertEquals(0L, dailySpendService.getSpentToday(sender.getId()));
+    }
+
+    @Test
+    void allOrNothing_TotalAboveBalance_RollsEverythingBack() {
+        // Arrange
+        BatchPaymentRequestDTO request = new BatchPaymentRequestDTO(sender.getId(),
+                BatchPaymentRequestDTO.Mode.ALL_OR_NOTHING, List.of(
+                new BatchPaymentItemDTO(alice.getId(), 500, "Rent"),
+                new BatchPaymentItemDTO(bob.getId(), 500, "Rent")));
+
+        // Act & Assert
+        assertThrows(InsufficientBalanceException.class, () -> transactionService.createBatchTransaction(request));
+        assertEquals(0, transactionRepository.count());
+        assertEquals(START_BALANCE, balanceOf(sender));
+        assertEquals(START_BALANCE, balanceOf(alice));
+        assertEquals(0L, dailySpendService.getSpentToday(sender.getId()));
+    }
+
+    @Test
+    void bestEffort_PaysWhatFits() {
+        // Arrange
+        BatchPaymentRequestDTO request = new BatchPaymentRequestDTO(sender.getId(),
+                BatchPaymentRequestDTO.Mode.BEST_EFFORT, List.of(
+                new BatchPaymentItemDTO(alice.getId(), 500, "Rent"),
+                new BatchPaymentItemDTO(stranger.getId(), 10, "Gift"),
+                new BatchPaymentItemDTO(bob.getId(), 500, "Rent"),
+                new BatchPaymentItemDTO(bob.getId(), 100, "Bills")));
+
+        // Act
+        BatchPaymentResultDTO result = transactionService.createBatchTransaction(request);
+
+        // Assert
+        List<BatchPaymentItemResultDTO> items = result.getResults();
+        assertEquals(BatchPaymentItemResultDTO.Status.PAID, items.get(0).getStatus());
+        assertEquals(BatchPaymentItemResultDTO.Status.FAILED, items.get(1).getStatus());
+        assertEquals(BatchPaymentItemResultDTO.Status.FAILED, items.get(2).getStatus());
+        assertEquals(BatchPaymentItemResultDTO.Status.PAID, items.get(3).getStatus());
+        assertEquals(2, transactionRepository.count());
+        assertEquals(START_BALANCE - result.getTotalDebited(), balanceOf(sender));
+        assertTrue(balanceOf(sender) >= 0);
+        assertEquals(START_BALANCE + 50_000L, balanceOf(alice));
+        assertEquals(START_BALANCE + 10_000L, balanceOf(bob));
+        assertEquals(0L, journalEntryRepository.findAll().stream().mapToLong(entry -> entry.getAmount()).sum());
+    }
+
+    private long balanceOf(User user) {
+        return appAccountRepository.findByUserId(user.getId()).orElseThrow().getBalance();
+    }
+
+    private void relate(User user, User related) {
+        UserRelation userRelation = new UserRelation();
+        userRelation.setUserId(user.getId());
+        userRelation.setUserRelationId(related.getId());
+        userRelation.setStatus(true);
+        userRelation.setCreatedAt(LocalDateTime.now());
+        userRelationRepository.save(userRelation);
+    }
+
+    private User createUserWithAccount(String name, Role role) {
+        User user = new User();
+        user.setUserName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("password");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setRole(role);
+        user = userRepository.save(user);
+
+        AppAccount account = new AppAccount();
+        account.setUser(user);
+        account.setBalance(START_BALANCE);
+        account.setCreatedAt(LocalDateTime.now());
+        account.setDailyLimit(10_000_000L);
+        appAccountRepository.save(account);
+        return user;
+    }
+}
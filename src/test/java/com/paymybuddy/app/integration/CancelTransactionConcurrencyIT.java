@@ -0,0 +1,176 @@
+package com.paymybuddy.app.integration;
+
+import com.paymybuddy.app.entity.AppAccount;
+import com.paymybuddy.app.entity.JournalEntry;
+import com.paymybuddy.app.entity.Role;
+import com.paymybuddy.app.entity.Transaction;
+import com.paymybuddy.app.entity.TransactionFee;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.entity.UserRelation;
+import com.paymybuddy.app.repository.AppAccountRepository;
+import com.paymybuddy.app.repository.JournalEntryRepository;
+import com.paymybuddy.app.repository.RoleRepository;
+import com.paymybuddy.app.repository.TransactionFeeRepository;
+import com.paymybuddy.app.repository.TransactionRepository;
+import com.paymybuddy.app.repository.UserRelationRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import com.paymybuddy.app.service.JournalService;
+import com.paymybuddy.app.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cancels the same payment from two threads that both saw it as not canceled, as two nodes would. Each cancellation
+ * joins a transaction opened by the test, so the in-process account stripes are not taken: only the database can
+ * keep the payment from being refunded twice.
+ */
+@SpringBootTest
+@TestPropertySource(properties =
+        "spring.datasource.url=jdbc:h2:mem:cancel_concurrency;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class CancelTransactionConcurrencyIT {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private AppAccountRepository appAccountRepository;
+
+    @Autowired
+    private UserRelationRepository userRelationRepository;
+
+    @Autowired
+    private TransactionFeeRepository transactionFeeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User sender;
+    private User receiver;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setRoleName("USER");
+        roleRepository.save(role);
+
+        TransactionFee transactionFee = new TransactionFee();
+        transactionFee.setEffectiveDate(LocalDateTime.now().minusDays(1));
+        transactionFee.setPercentage(5000);
+        transactionFeeRepository.save(transactionFee);
+
+        sender = createUserWithAccount("sender", role, 200_00L);
+        receiver = createUserWithAccount("receiver", role, 50_00L);
+
+        UserRelation userRelation = new UserRelation();
+        userRelation.setUserId(sender.getId());
+        userRelation.setUserRelationId(receiver.getId());
+        userRelation.setStatus(true);
+        userRelation.setCreatedAt(LocalDateTime.now());
+        userRelationRepository.save(userRelation);
+    }
+
+    @Test
+    void cancelTwiceConcurrently_RefundsOnce() throws Exception {
+        // Arrange: a payment made before the journal, so no journal line tells a second reversal apart either
+        transactionService.createTransaction(sender.getId(), receiver.getId(), 50, "Payment");
+        Transaction payment = transactionRepository.findAll().get(0);
+        journalEntryRepository.deleteAll();
+
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        CyclicBarrier bothRead = new CyclicBarrier(2);
+
+        // Act
+        ExecutorService nodes = Executors.newFixedThreadPool(2);
+        List<Future<String>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 2; i++) {
+                results.add(nodes.submit(() -> template.execute(status -> {
+                    assertNull(transactionRepository.findById(payment.getId()).orElseThrow().getCanceledAt());
+                    await(bothRead);
+                    return transactionService.cancelTransaction(payment.getId());
+                })));
+            }
+
+            // Assert
+            int canceled = 0;
+            for (Future<String> result : results) {
+                try {
+                    assertEquals("Transaction canceled successfully", result.get(10, TimeUnit.SECONDS));
+                    canceled++;
+                } catch (ExecutionException e) {
+                    // The losing cancellation finds the payment already claimed by the guarded update
+                }
+            }
+            assertEquals(1, canceled);
+        } finally {
+            nodes.shutdownNow();
+        }
+
+        assertEquals(200_00L, appAccountRepository.findByUserId(sender.getId()).orElseThrow().getBalance());
+        assertEquals(50_00L, appAccountRepository.findByUserId(receiver.getId()).orElseThrow().getBalance());
+        List<JournalEntry> reversal = journalService.getEntries(payment.getId());
+        assertEquals(3, reversal.size());
+        assertEquals(payment.getAmountWithFee(), journalService.getBalanceMovement(sender.getId()));
+        assertNotNull(transactionRepository.findById(payment.getId()).orElseThrow().getCanceledAt());
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private User createUserWithAccount(String name, Role role, long balance) {
+        User user = new User();
+        user.setUserName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("password");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setRole(role);
+        user = userRepository.save(user);
+
+        AppAccount account = new AppAccount();
+        account.setUser(user);
+        account.setBalance(balance);
+        account.setCreatedAt(LocalDateTime.now());
+        account.setDailyLimit(500_00L);
+        appAccountRepository.save(account);
+        return user;
+    }
+}
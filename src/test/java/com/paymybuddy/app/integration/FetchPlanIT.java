@@ -0,0 +1,214 @@
+package com.paymybuddy.app.integration;
+
+import com.paymybuddy.app.entity.AppAccount;
+import com.paymybuddy.app.entity.BankAccount;
+import com.paymybuddy.app.entity.Role;
+import com.paymybuddy.app.entity.Transaction;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.entity.UserRelation;
+import com.paymybuddy.app.repository.AppAccountRepository;
+import com.paymybuddy.app.repository.BankAccountRepository;
+import com.paymybuddy.app.repository.RoleRepository;
+import com.paymybuddy.app.repository.TransactionRepository;
+import com.paymybuddy.app.repository.UserRelationRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import com.paymybuddy.app.service.RelationGraphIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.TestExecutionEvent;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Renders each read use case with open-in-view turned off, outside any test transaction, and holds it to a statement
+ * budget. A lazy load while rendering fails the request; an N+1 query pattern fails the budget.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties =
+        "spring.datasource.url=jdbc:h2:mem:fetch_plan;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class FetchPlanIT {
+
+    private static final String OWNER_EMAIL = "owner@fetchplan.test";
+    private static final int FRIENDS = 5;
+    private static final int TRANSACTIONS = 30;
+    private static final int BANK_ACCOUNTS = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AppAccountRepository appAccountRepository;
+
+    @Autowired
+    private UserRelationRepository userRelationRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private RelationGraphIndex relationGraphIndex;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        // The data is committed, so it is only created once for the whole class.
+        owner = userRepository.findByEmail(OWNER_EMAIL).orElseGet(this::seed);
+    }
+
+    @Test
+    @StatementBudget(4)
+    @WithUserDetails(value = OWNER_EMAIL, setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void transactionPage() throws Exception {
+        mockMvc.perform(get("/transaction"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("relationUserList", hasSize(FRIENDS)))
+                .andExpect(model().attribute("transactionList", hasSize(20)));
+    }
+
+    @Test
+    @StatementBudget(2)
+    @WithUserDetails(value = OWNER_EMAIL, setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void transactionHistory() throws Exception {
+        mockMvc.perform(get("/api/transactions/allByUser/" + owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(20)));
+    }
+
+    @Test
+    @StatementBudget(2)
+    @WithUserDetails(value = OWNER_EMAIL, setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void relations() throws Exception {
+        mockMvc.perform(get("/api/relation/all/" + owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(FRIENDS)));
+    }
+
+    @Test
+    @StatementBudget(1)
+    @WithMockUser(roles = "ADMIN")
+    void userAdminListing() throws Exception {
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(FRIENDS + 1)));
+    }
+
+    @Test
+    @StatementBudget(2)
+    @WithMockUser
+    void bankTransfersByUser() throws Exception {
+        mockMvc.perform(get("/api/bankAccounts/user/" + owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(BANK_ACCOUNTS)))
+                .andExpect(jsonPath("$[0].user.userName").value("owner"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void deleteRelation() throws Exception {
+        // Between two friends, so the owner's relations used by the other tests are left alone.
+        User friend = userRepository.findByEmail("friend0@fetchplan.test").orElseThrow();
+        User other = userRepository.findByEmail("friend1@fetchplan.test").orElseThrow();
+        UserRelation userRelation = new UserRelation();
+        userRelation.setUserId(friend.getId());
+        userRelation.setUserRelationId(other.getId());
+        userRelation.setStatus(true);
+        userRelation.setCreatedAt(LocalDateTime.now());
+        userRelationRepository.save(userRelation);
+
+        mockMvc.perform(delete("/api/relation/delete")
+                        .param("userId", String.valueOf(friend.getId()))
+                        .param("userRelationId", String.valueOf(other.getId())))
+                .andExpect(status().isOk());
+        assertTrue(userRelationRepository.findByUserIdAndUserRelationId(friend.getId(), other.getId()).isEmpty());
+    }
+
+    private User seed() {
+        Role role = new Role();
+        role.setRoleName("USER");
+        roleRepository.save(role);
+
+        User seededOwner = createUser("owner", OWNER_EMAIL, role);
+        List<User> friends = new ArrayList<>();
+        for (int i = 0; i < FRIENDS; i++) {
+            User friend = createUser("friend" + i, "friend" + i + "@fetchplan.test", role);
+            friends.add(friend);
+
+            UserRelation userRelation = new UserRelation();
+            userRelation.setUserId(seededOwner.getId());
+            userRelation.setUserRelationId(friend.getId());
+            userRelation.setStatus(true);
+            userRelation.setCreatedAt(LocalDateTime.now());
+            userRelationRepository.save(userRelation);
+        }
+        relationGraphIndex.rebuild();
+
+        LocalDateTime base = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            User friend = friends.get(i % FRIENDS);
+            Transaction transaction = new Transaction();
+            transaction.setUserSender(i % 2 == 0 ? seededOwner : friend);
+            transaction.setUserReceiver(i % 2 == 0 ? friend : seededOwner);
+            transaction.setAmount(100L + i);
+            transaction.setAmountWithFee(105L + i);
+            transaction.setDescription("Payment " + i);
+            transaction.setTransactionDate(base.plusMinutes(i));
+            transactionRepository.save(transaction);
+        }
+
+        for (int i = 0; i < BANK_ACCOUNTS; i++) {
+            BankAccount bankAccount = new BankAccount();
+            bankAccount.setUser(seededOwner);
+            bankAccount.setAmount(1000L * i);
+            bankAccount.setExternalBankAccountNumber("FR76-" + i);
+            bankAccount.setTransferDate(LocalDateTime.now());
+            bankAccountRepository.save(bankAccount);
+        }
+        return seededOwner;
+    }
+
+    private User createUser(String name, String email, Role role) {
+        User user = new User();
+        user.setUserName(name);
+        user.setEmail(email);
+        user.setPassword("$2a$10$testhashedpassword");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setRole(role);
+        user = userRepository.save(user);
+
+        AppAccount account = new AppAccount();
+        account.setUser(user);
+        account.setBalance(10000L);
+        account.setCreatedAt(LocalDateTime.now());
+        account.setDailyLimit(100000L);
+        appAccountRepository.save(account);
+        return user;
+    }
+}
@@ -0,0 +1,167 @@
+package com.paymybuddy.app.integration;
+
+import com.paymybuddy.app.entity.AppAccount;
+import com.paymybuddy.app.entity.Role;
+import com.paymybuddy.app.entity.TransactionFee;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.entity.UserRelation;
+import com.paymybuddy.app.exception.InsufficientBalanceException;
+import com.paymybuddy.app.repository.AppAccountRepository;
+import com.paymybuddy.app.repository.MonetizationRepository;
+import com.paymybuddy.app.repository.RoleRepository;
+import com.paymybuddy.app.repository.TransactionFeeRepository;
+import com.paymybuddy.app.repository.TransactionRepository;
+import com.paymybuddy.app.repository.UserRelationRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import com.paymybuddy.app.service.DailySpendService;
+import com.paymybuddy.app.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sends concurrent payments through the group commit, one of them without enough money, and checks every account,
+ * counter and row against what one-by-one payments would have produced.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:group_commit;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "paymybuddy.payments.group-commit.enabled=true",
+        "paymybuddy.payments.group-commit.max-batch-size=16",
+        "paymybuddy.payments.group-commit.max-linger=50ms"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class GroupCommitIT {
+
+    private static final int SENDERS = 8;
+    private static final int POOR_SENDER = 3;
+    private static final long BALANCE = 1_000_000L;
+    private static final long AMOUNT = 50;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private DailySpendService dailySpendService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private AppAccountRepository appAccountRepository;
+
+    @Autowired
+    private UserRelationRepository userRelationRepository;
+
+    @Autowired
+    private TransactionFeeRepository transactionFeeRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MonetizationRepository monetizationRepository;
+
+    private final List<User> senders = new ArrayList<>();
+    private User receiver;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setRoleName("USER");
+        roleRepository.save(role);
+
+        TransactionFee transactionFee = new TransactionFee();
+        transactionFee.setEffectiveDate(LocalDateTime.now().minusDays(1));
+        transactionFee.setPercentage(5000);
+        transactionFeeRepository.save(transactionFee);
+
+        receiver = createUserWithAccount("receiver", role, BALANCE);
+        for (int i = 0; i < SENDERS; i++) {
+            User sender = createUserWithAccount("sender" + i, role, i == POOR_SENDER ? 100L : BALANCE);
+            senders.add(sender);
+
+            UserRelation userRelation = new UserRelation();
+            userRelation.setUserId(sender.getId());
+            userRelation.setUserRelationId(receiver.getId());
+            userRelation.setStatus(true);
+            userRelation.setCreatedAt(LocalDateTime.now());
+            userRelationRepository.save(userRelation);
+        }
+    }
+
+    @Test
+    void concurrentPayments_EachCallerGetsItsOwnResult() throws Exception {
+        // Act
+        ExecutorService callers = Executors.newFixedThreadPool(SENDERS);
+        List<Future<String>> results = new ArrayList<>();
+        try {
+            for (User sender : senders) {
+                results.add(callers.submit(() ->
+                        transactionService.createTransaction(sender.getId(), receiver.getId(), AMOUNT, "Lunch")));
+            }
+            for (int i = 0; i < SENDERS; i++) {
+                if (i == POOR_SENDER) {
+                    ExecutionException failure = assertThrows(ExecutionException.class, results.get(i)::get);
+                    assertInstanceOf(InsufficientBalanceException.class, failure.getCause());
+                } else {
+                    assertEquals("Transaction successful", results.get(i).get());
+                }
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(SENDERS - 1, transactionRepository.count());
+        assertEquals(SENDERS - 1, monetizationRepository.count());
+        long amountWithFee = transactionRepository.findAll().get(0).getAmountWithFee();
+        for (int i = 0; i < SENDERS; i++) {
+            int senderId = senders.get(i).getId();
+            long balance = appAccountRepository.findByUserId(senderId).orElseThrow().getBalance();
+            if (i == POOR_SENDER) {
+                assertEquals(100L, balance);
+                assertEquals(0L, dailySpendService.getSpentToday(senderId));
+            } else {
+                assertEquals(BALANCE - amountWithFee, balance);
+                assertEquals(AMOUNT * 100, dailySpendService.getSpentToday(senderId));
+            }
+        }
+        assertEquals(BALANCE + (SENDERS - 1) * AMOUNT * 100,
+                appAccountRepository.findByUserId(receiver.getId()).orElseThrow().getBalance());
+    }
+
+    private User createUserWithAccount(String name, Role role, long balance) {
+        User user = new User();
+        user.setUserName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("password");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setRole(role);
+        user = userRepository.save(user);
+
+        AppAccount account = new AppAccount();
+        account.setUser(user);
+        account.setBalance(balance);
+        account.setCreatedAt(LocalDateTime.now());
+        account.setDailyLimit(1_000_000L);
+        appAccountRepository.save(account);
+        return user;
+    }
+}
@@ -0,0 +1,160 @@
+package com.paymybuddy.app.integration;
+
+import com.paymybuddy.app.entity.Role;
+import com.paymybuddy.app.entity.Transaction;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.repository.RoleRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Inserts 100,000 payments three ways: one statement per row reading back an {@code IDENTITY} key, as before pooled
+ * IDs; pooled IDs without batching; pooled IDs with JDBC batching. Reports statement count and latency; run with
+ * {@code -Dbenchmark=true}.
+ */
+@Slf4j
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:id_insert_benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.com.paymybuddy=WARN"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class IdInsertBenchmarkIT {
+
+    private static final int ROWS = 100_000;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void compareInserts() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Role role = new Role();
+        role.setRoleName("USER");
+        roleRepository.save(role);
+        User sender = createUser("sender", role);
+        User receiver = createUser("receiver", role);
+        jdbcTemplate.execute("CREATE TABLE identity_transaction (id INT AUTO_INCREMENT PRIMARY KEY, sender_id INT NOT NULL, "
+                + "receiver_id INT NOT NULL, description VARCHAR(255), amount BIGINT NOT NULL, "
+                + "amount_with_fee BIGINT NOT NULL, transaction_date TIMESTAMP NOT NULL)");
+
+        StringBuilder report = new StringBuilder(String.format("%n%10s | %-28s | %10s | %10s%n", "rows", "path", "statements", "ms"));
+
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                insertWithIdentity(sender, receiver, i);
+            }
+        });
+        report.append(line("before: IDENTITY, per row", ROWS, start));
+
+        report.append(measure(statistics, "after: pooled, no batching", 1, sender, receiver));
+        report.append(measure(statistics, "after: pooled, batches of " + BATCH_SIZE, BATCH_SIZE, sender, receiver));
+
+        assertEquals(2L * ROWS, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction", Long.class));
+        log.warn(report.toString());
+    }
+
+    private String measure(Statistics statistics, String label, int batchSize, User sender, User receiver) {
+        statistics.clear();
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            User senderReference = entityManager.getReference(User.class, sender.getId());
+            User receiverReference = entityManager.getReference(User.class, receiver.getId());
+            for (int i = 0; i < ROWS; i++) {
+                entityManager.persist(newTransaction(senderReference, receiverReference, i));
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    senderReference = entityManager.getReference(User.class, sender.getId());
+                    receiverReference = entityManager.getReference(User.class, receiver.getId());
+                }
+            }
+        });
+        return line(label, statistics.getPrepareStatementCount(), start);
+    }
+
+    private String line(String label, long statements, long start) {
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.warn("{} rows, {}: {} statements, {} ms", ROWS, label, statements, elapsedMillis);
+        return String.format("%10d | %-28s | %10d | %10d%n", ROWS, label, statements, elapsedMillis);
+    }
+
+    private void insertWithIdentity(User sender, User receiver, int i) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement("INSERT INTO identity_transaction "
+                    + "(sender_id, receiver_id, description, amount, amount_with_fee, transaction_date) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+            statement.setInt(1, sender.getId());
+            statement.setInt(2, receiver.getId());
+            statement.setString(3, "Payment " + i);
+            statement.setLong(4, 100L + i);
+            statement.setLong(5, 105L + i);
+            statement.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
+            return statement;
+        }, keyHolder);
+    }
+
+    private static Transaction newTransaction(User sender, User receiver, int i) {
+        Transaction transaction = new Transaction();
+        transaction.setUserSender(sender);
+        transaction.setUserReceiver(receiver);
+        transaction.setDescription("Payment " + i);
+        transaction.setAmount(100L + i);
+        transaction.setAmountWithFee(105L + i);
+        transaction.setTransactionDate(LocalDateTime.now());
+        return transaction;
+    }
+
+    private User createUser(String name, Role role) {
+        User user = new User();
+        user.setUserName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("password");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,188 @@
+package com.paymybuddy.app.integration;
+
+import com.paymybuddy.app.entity.AppAccount;
+import com.paymybuddy.app.entity.Role;
+import com.paymybuddy.app.entity.TransactionFee;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.entity.UserRelation;
+import com.paymybuddy.app.repository.AppAccountRepository;
+import com.paymybuddy.app.repository.IdempotencyRecordRepository;
+import com.paymybuddy.app.repository.RoleRepository;
+import com.paymybuddy.app.repository.TransactionFeeRepository;
+import com.paymybuddy.app.repository.TransactionRepository;
+import com.paymybuddy.app.repository.UserRelationRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import com.paymybuddy.app.service.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sends the same payment many times at once with one idempotency key and checks that money moves once.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties =
+        "spring.datasource.url=jdbc:h2:mem:idempotency;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class IdempotencyIT {
+
+    private static final int RETRIES = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private AppAccountRepository appAccountRepository;
+
+    @Autowired
+    private UserRelationRepository userRelationRepository;
+
+    @Autowired
+    private TransactionFeeRepository transactionFeeRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private User sender;
+    private User receiver;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setRoleName("USER");
+        roleRepository.save(role);
+
+        TransactionFee transactionFee = new TransactionFee();
+        transactionFee.setEffectiveDate(LocalDateTime.now().minusDays(1));
+        transactionFee.setPercentage(5000);
+        transactionFeeRepository.save(transactionFee);
+
+        sender = createUserWithAccount("sender", role);
+        receiver = createUserWithAccount("receiver", role);
+
+        UserRelation userRelation = new UserRelation();
+        userRelation.setUserId(sender.getId());
+        userRelation.setUserRelationId(receiver.getId());
+        userRelation.setStatus(true);
+        userRelation.setCreatedAt(LocalDateTime.now());
+        userRelationRepository.save(userRelation);
+    }
+
+    @Test
+    void concurrentRetriesWithSameKey_PayOnce() throws Exception {
+        // Arrange
+        long before = appAccountRepository.findByUserId(sender.getId()).orElseThrow().getBalance();
+        CountDownLatch start = new CountDownLatch(1);
+
+        // Act
+        ExecutorService callers = Executors.newFixedThreadPool(RETRIES);
+        List<String> bodies = new ArrayList<>();
+        try {
+            List<Future<MvcResult>> results = new ArrayList<>();
+            for (int i = 0; i < RETRIES; i++) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(payment("retry-key", 100)).andReturn();
+                }));
+            }
+            start.countDown();
+            for (Future<MvcResult> result : results) {
+                MvcResult mvcResult = result.get();
+                assertEquals(201, mvcResult.getResponse().getStatus(), mvcResult.getResponse().getContentAsString());
+                bodies.add(mvcResult.getResponse().getContentAsString());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(1, transactionRepository.count());
+        assertEquals(1, idempotencyRecordRepository.count());
+        assertTrue(bodies.stream().allMatch(bodies.get(0)::equals), "Every retry gets the first response");
+        long after = appAccountRepository.findByUserId(sender.getId()).orElseThrow().getBalance();
+        assertTrue(before - after >= 100 * 100 && before - after < 2 * 100 * 100, "Debited once: " + (before - after));
+    }
+
+    @Test
+    void sameKeyWithOtherAmount_IsRejected() throws Exception {
+        // Arrange
+        mockMvc.perform(payment("reused-key", 100)).andExpect(status().isCreated());
+
+        // Act & Assert
+        mockMvc.perform(payment("reused-key", 200))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.details").value("The idempotency key was already used for a different request."));
+        assertEquals(1, transactionRepository.count());
+    }
+
+    @Test
+    void failedPayment_ReleasesKeyForRetry() throws Exception {
+        // Arrange
+        mockMvc.perform(payment("big-key", 1_000_000)).andExpect(status().is4xxClientError());
+        assertEquals(0, idempotencyRecordRepository.count());
+
+        // Act & Assert
+        mockMvc.perform(payment("big-key", 1_000_000)).andExpect(status().is4xxClientError());
+        mockMvc.perform(payment("small-key", 100)).andExpect(status().isCreated());
+        assertEquals(1, transactionRepository.count());
+    }
+
+    private MockHttpServletRequestBuilder payment(String key, long amount) {
+        return post("/api/transactions/create")
+                .with(user("admin").roles("ADMIN"))
+                .header(IdempotencyService.HEADER, key)
+                .param("senderId", String.valueOf(sender.getId()))
+                .param("receiverId", String.valueOf(receiver.getId()))
+                .param("amount", String.valueOf(amount))
+                .param("description", "Lunch");
+    }
+
+    private User createUserWithAccount(String name, Role role) {
+        User user = new User();
+        user.setUserName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("password");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setRole(role);
+        user = userRepository.save(user);
+
+        AppAccount account = new AppAccount();
+        account.setUser(user);
+        account.setBalance(1_000_000L);
+        account.setCreatedAt(LocalDateTime.now());
+        account.setDailyLimit(10_000_000L);
+        appAccountRepository.save(account);
+        return user;
+    }
+}
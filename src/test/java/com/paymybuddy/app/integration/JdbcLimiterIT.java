@@ -0,0 +1,101 @@
+package com.paymybuddy.app.integration;
+
+import com.paymybuddy.app.entity.AppAccount;
+import com.paymybuddy.app.entity.Role;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.repository.AppAccountRepository;
+import com.paymybuddy.app.repository.RoleRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import com.paymybuddy.app.service.AppAccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sends far more threads than pooled connections at the database with the JDBC limiter on, and checks that they all
+ * get their turn and that the limiter is published.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:jdbc_limiter;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "paymybuddy.jdbc-limiter.enabled=true"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class JdbcLimiterIT {
+
+    private static final int THREADS = 200;
+
+    @Autowired
+    private AppAccountService appAccountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private AppAccountRepository appAccountRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void manyThreads_AllServedThroughTwoConnections() throws Exception {
+        // Arrange
+        User user = createUserWithAccount();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Long>> balances = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                balances.add(executor.submit(() -> appAccountService.getBalanceByUserId(user.getId())));
+            }
+            for (Future<Long> balance : balances) {
+                assertEquals(1_000L, balance.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(0, meterRegistry.get("jdbc.limiter.active").tag("pool", "payments").gauge().value());
+        assertEquals(0, meterRegistry.get("jdbc.limiter.waiting").tag("pool", "payments").gauge().value());
+    }
+
+    private User createUserWithAccount() {
+        Role role = new Role();
+        role.setRoleName("USER");
+        roleRepository.save(role);
+
+        User user = new User();
+        user.setUserName("user");
+        user.setEmail("user@example.com");
+        user.setPassword("password");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setRole(role);
+        user = userRepository.save(user);
+
+        AppAccount account = new AppAccount();
+        account.setUser(user);
+        account.setBalance(1_000L);
+        account.setCreatedAt(LocalDateTime.now());
+        account.setDailyLimit(1_000_000L);
+        appAccountRepository.save(account);
+        return user;
+    }
+}
@@ -1,5 +1,6 @@
 package com.paymybuddy.app.integration;
 
+import com.paymybuddy.app.config.BusinessTimeProperties;
 import com.paymybuddy.app.entity.Monetization;
 import com.paymybuddy.app.entity.Role;
 import com.paymybuddy.app.entity.Transaction;
@@ -14,7 +15,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +41,9 @@ public class MonetizationIT {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private BusinessTimeProperties businessTimeProperties;
+
     @Test
     public void shouldSaveTransactionFeeCorrectly() {
 
@@ -139,9 +145,69 @@ public class MonetizationIT {
         monetizationRepository.save(m2);
 
         // Act
+        long rebuilt = monetizationService.rebuildRevenueLedger();
         long total = monetizationService.getTotalResult();
 
         // Assert
+        assertEquals(300, rebuilt);
         assertEquals(300, total);
     }
+
+    @Test
+    public void testRevenueLedgerFollowsMonetizationsAndCancellations() {
+
+        // Arrange
+        Role role = new Role();
+        role.setRoleName("USER");
+        roleRepository.save(role);
+
+        User sender = new User();
+        sender.setUserName("Sender");
+        sender.setEmail("sender@example.com");
+        sender.setPassword("password");
+        sender.setCreatedAt(LocalDateTime.now());
+        sender.setRole(role);
+        sender = userRepository.save(sender);
+
+        User receiver = new User();
+        receiver.setUserName("Receiver");
+        receiver.setEmail("receiver@example.com");
+        receiver.setPassword("password");
+        receiver.setCreatedAt(LocalDateTime.now());
+        receiver.setRole(role);
+        receiver = userRepository.save(receiver);
+
+        LocalDateTime now = LocalDateTime.now();
+        Transaction kept = null;
+        Transaction canceled = null;
+        for (int i = 0; i < 2; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setUserSender(sender);
+            transaction.setUserReceiver(receiver);
+            transaction.setAmount(10000);
+            transaction.setAmountWithFee(10250);
+            transaction.setTransactionDate(now);
+            transaction = transactionRepository.save(transaction);
+            monetizationService.saveMonetization(transaction);
+            if (i == 0) {
+                kept = transaction;
+            } else {
+                canceled = transaction;
+            }
+        }
+
+        // Act
+        canceled.setCanceledAt(now);
+        transactionRepository.save(canceled);
+        monetizationService.cancelMonetization(canceled);
+
+        // Assert
+        LocalDate today = businessTimeProperties.toBusinessDay(now);
+        assertEquals(250, monetizationService.getTotalResult());
+        assertEquals(250, monetizationService.getDailyResult(today));
+        assertEquals(250, monetizationService.getMonthlyResult(YearMonth.from(today)));
+        assertTrue(monetizationRepository.findByTransactionId(kept.getId()).isPresent());
+        assertTrue(monetizationRepository.findByTransactionId(canceled.getId()).isPresent());
+        assertEquals(250, monetizationService.rebuildRevenueLedger());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.paymybuddy.app.integration;
+
+import com.paymybuddy.app.entity.AppAccount;
+import com.paymybuddy.app.entity.Role;
+import com.paymybuddy.app.entity.TransactionFee;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.entity.UserRelation;
+import com.paymybuddy.app.repository.AppAccountRepository;
+import com.paymybuddy.app.repository.RoleRepository;
+import com.paymybuddy.app.repository.TransactionFeeRepository;
+import com.paymybuddy.app.repository.UserRelationRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import com.paymybuddy.app.service.TransactionService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the entities Hibernate loads for one payment, committed in its own transaction as in production.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:payment_entity_load;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class PaymentEntityLoadIT {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private AppAccountRepository appAccountRepository;
+
+    @Autowired
+    private UserRelationRepository userRelationRepository;
+
+    @Autowired
+    private TransactionFeeRepository transactionFeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+    private User sender;
+    private User receiver;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Role role = new Role();
+        role.setRoleName("USER");
+        roleRepository.save(role);
+
+        TransactionFee transactionFee = new TransactionFee();
+        transactionFee.setEffectiveDate(LocalDateTime.now().minusDays(1));
+        transactionFee.setPercentage(5000);
+        transactionFeeRepository.save(transactionFee);
+
+        sender = createUserWithAccount("sender", role);
+        receiver = createUserWithAccount("receiver", role);
+
+        UserRelation userRelation = new UserRelation();
+        userRelation.setUserId(sender.getId());
+        userRelation.setUserRelationId(receiver.getId());
+        userRelation.setStatus(true);
+        userRelation.setCreatedAt(LocalDateTime.now());
+        userRelationRepository.save(userRelation);
+
+        // Warms the fee schedule and the relation index, which are loaded once and then kept in memory.
+        transactionService.createTransaction(sender.getId(), receiver.getId(), 1, "Warm up");
+        statistics.clear();
+    }
+
+    @Test
+    void payment_loadsNoEntity() {
+        // Act
+        transactionService.createTransaction(sender.getId(), receiver.getId(), 10, "Payment");
+
+        // Assert
+        assertEquals(0, statistics.getEntityLoadCount(), "Entities loaded per payment");
+        assertEquals(0, statistics.getCollectionLoadCount(), "Collections loaded per payment");
+    }
+
+    @Test
+    void loadedUser_comparedHashedAndLoggedWithoutLoadingCollections() {
+        // Act
+        Set<User> users = transactionTemplate.execute(status -> {
+            User loaded = userRepository.findById(sender.getId()).orElseThrow();
+            Set<User> set = new HashSet<>();
+            set.add(loaded);
+            set.add(userRepository.getReferenceById(receiver.getId()));
+            assertTrue(loaded.toString().contains("sender"));
+            assertTrue(set.contains(sender));
+            return set;
+        });
+
+        // Assert
+        assertEquals(2, users.size());
+        assertEquals(0, statistics.getCollectionLoadCount(), "Collections loaded by equals, hashCode and toString");
+    }
+
+    private User createUserWithAccount(String name, Role role) {
+        User user = new User();
+        user.setUserName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("password");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setRole(role);
+        user = userRepository.save(user);
+
+        AppAccount account = new AppAccount();
+        account.setUser(user);
+        account.setBalance(1_000_000L);
+        account.setCreatedAt(LocalDateTime.now());
+        account.setDailyLimit(1_000_000L);
+        appAccountRepository.save(account);
+        return user;
+    }
+}
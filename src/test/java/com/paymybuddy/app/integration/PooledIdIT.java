@@ -0,0 +1,102 @@
+package com.paymybuddy.app.integration;
+
+import com.paymybuddy.app.datasource.PooledIdSeeder;
+import com.paymybuddy.app.entity.Role;
+import com.paymybuddy.app.entity.id.PooledIdGenerator;
+import com.paymybuddy.app.repository.RoleRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that entity IDs come by blocks from the ID table, that the seeder moves past IDs already in use, and that a
+ * flush of many new entities is sent as JDBC batches.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pooled_id;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class PooledIdIT {
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PooledIdSeeder pooledIdSeeder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void save_HandsOutIdsFromOneBlock() {
+        // Act
+        Role first = roleRepository.save(role("USER"));
+        Role second = roleRepository.save(role("ADMIN"));
+
+        // Assert
+        assertEquals(first.getId() + 1, second.getId());
+        long nextValue = jdbcTemplate.queryForObject("SELECT next_val FROM " + PooledIdGenerator.TABLE
+                + " WHERE sequence_name = 'roles'", Long.class);
+        assertTrue(second.getId() <= nextValue, "Block ends at " + nextValue);
+    }
+
+    @Test
+    void seeder_MovesPastRowsInsertedWithoutGenerator() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO roles (role_id, role_name) VALUES (1000, 'LEGACY')");
+
+        // Act
+        pooledIdSeeder.afterSingletonsInstantiated();
+        Role role = roleRepository.save(role("USER"));
+
+        // Assert
+        assertTrue(role.getId() > 1000, "Got " + role.getId());
+    }
+
+    @Test
+    void flush_SendsInsertsAsBatches() {
+        // Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < 200; i++) {
+                entityManager.persist(role("ROLE_" + i));
+            }
+        });
+
+        // Assert
+        assertEquals(200, roleRepository.count());
+        assertEquals(200, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 20,
+                "Expected a few batches, got " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    private static Role role(String name) {
+        Role role = new Role();
+        role.setRoleName(name);
+        return role;
+    }
+}
@@ -0,0 +1,160 @@
+package com.paymybuddy.app.integration;
+
+import com.paymybuddy.app.entity.*;
+import com.paymybuddy.app.repository.*;
+import com.paymybuddy.app.service.AppAccountService;
+import com.paymybuddy.app.service.BankAccountService;
+import com.paymybuddy.app.service.ReconciliationService;
+import com.paymybuddy.app.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Moves money through every journaled path, then checks that reconciliation finds only the balance changed behind
+ * the journal's back.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reconciliation;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "paymybuddy.reconciliation.cron=-",
+        "paymybuddy.reconciliation.chunk-size=3",
+        "paymybuddy.reconciliation.parallelism=3"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ReconciliationIT {
+
+    private static final int USERS = 10;
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private BankAccountService bankAccountService;
+
+    @Autowired
+    private AppAccountService appAccountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private AppAccountRepository appAccountRepository;
+
+    @Autowired
+    private UserRelationRepository userRelationRepository;
+
+    @Autowired
+    private TransactionFeeRepository transactionFeeRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<AppAccount> accounts = new ArrayList<>();
+    private final List<BankAccount> bankAccounts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setRoleName("USER");
+        roleRepository.save(role);
+
+        TransactionFee transactionFee = new TransactionFee();
+        transactionFee.setEffectiveDate(LocalDateTime.now().minusDays(1));
+        transactionFee.setPercentage(5000);
+        transactionFeeRepository.save(transactionFee);
+
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setUserName("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword("password");
+            user.setCreatedAt(LocalDateTime.now());
+            user.setRole(role);
+            user = userRepository.save(user);
+            users.add(user);
+
+            AppAccount account = new AppAccount();
+            account.setUser(user);
+            account.setBalance(0L);
+            account.setCreatedAt(LocalDateTime.now());
+            account.setDailyLimit(10_000_000L);
+            accounts.add(appAccountRepository.save(account));
+
+            BankAccount bankAccount = new BankAccount();
+            bankAccount.setUser(user);
+            bankAccount.setAmount(1_000_000L);
+            bankAccount.setExternalBankAccountNumber("FR76-" + i);
+            bankAccount.setTransferDate(LocalDateTime.now());
+            bankAccounts.add(bankAccountService.createBankAccount(bankAccount));
+            bankAccountService.transferFromBankAccount(account.getId(), bankAccount.getId(), 100);
+        }
+        for (int i = 0; i + 1 < USERS; i++) {
+            UserRelation userRelation = new UserRelation();
+            userRelation.setUserId(users.get(i).getId());
+            userRelation.setUserRelationId(users.get(i + 1).getId());
+            userRelation.setStatus(true);
+            userRelation.setCreatedAt(LocalDateTime.now());
+            userRelationRepository.save(userRelation);
+        }
+    }
+
+    @Test
+    void reconcile_JournaledMovements_NoDiscrepancy() {
+        // Arrange
+        for (int i = 0; i + 1 < USERS; i++) {
+            transactionService.createTransaction(users.get(i).getId(), users.get(i + 1).getId(), 10 + i, "Payment");
+        }
+        Transaction canceled = transactionRepository.findAll().get(0);
+        transactionService.cancelTransaction(canceled.getId());
+        bankAccountService.transferToBankAccount(accounts.get(2).getId(), bankAccounts.get(2).getId(), 5);
+        appAccountService.updateBalanceByUserId(users.get(4).getId(), 1234);
+
+        // Act
+        ReconciliationRun run = reconciliationService.reconcile();
+
+        // Assert
+        assertEquals(USERS, run.getAccountsChecked());
+        assertEquals(0, run.getDiscrepancyCount());
+        assertEquals(run.getId(), reconciliationService.getLatestRun().getId());
+        assertTrue(reconciliationService.getDiscrepancies(run.getId()).isEmpty());
+    }
+
+    @Test
+    void reconcile_BalanceChangedOutsideJournal_Reported() {
+        // Arrange
+        transactionService.createTransaction(users.get(0).getId(), users.get(1).getId(), 20, "Payment");
+        User drifted = users.get(7);
+        AppAccount account = appAccountRepository.findByUserId(drifted.getId()).orElseThrow();
+        account.setBalance(account.getBalance() + 999L);
+        appAccountRepository.save(account);
+
+        // Act
+        ReconciliationRun run = reconciliationService.reconcile();
+
+        // Assert
+        assertEquals(USERS, run.getAccountsChecked());
+        assertEquals(1, run.getDiscrepancyCount());
+        List<ReconciliationDiscrepancy> discrepancies = reconciliationService.getDiscrepancies(run.getId());
+        assertEquals(1, discrepancies.size());
+        assertEquals(drifted.getId(), discrepancies.get(0).getUserId());
+        assertEquals(100_00L, discrepancies.get(0).getExpectedBalance());
+        assertEquals(100_00L + 999L, discrepancies.get(0).getRecordedBalance());
+    }
+}
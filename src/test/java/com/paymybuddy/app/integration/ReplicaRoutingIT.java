@@ -0,0 +1,233 @@
+package com.paymybuddy.app.integration;
+
+import com.paymybuddy.app.dto.CursorPage;
+import com.paymybuddy.app.dto.TransactionDTO;
+import com.paymybuddy.app.entity.AppAccount;
+import com.paymybuddy.app.entity.Role;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.repository.AppAccountRepository;
+import com.paymybuddy.app.repository.RoleRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import com.paymybuddy.app.security.CustomUserDetails;
+import com.paymybuddy.app.service.AppAccountService;
+import com.paymybuddy.app.service.TransactionService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the application on two embedded H2 databases, a primary and a replica. The replica is a snapshot of the
+ * primary taken by each test, so a read that returns the snapshot value went to the replica.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=" + ReplicaRoutingIT.PRIMARY_URL,
+        "paymybuddy.datasource.replicas[0].url=" + ReplicaRoutingIT.REPLICA_URL,
+        "paymybuddy.datasource.replicas[0].username=sa",
+        "paymybuddy.datasource.replicas[0].password=password",
+        "paymybuddy.datasource.primary-pin-window=PT1M"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ReplicaRoutingIT {
+
+    static final String PRIMARY_URL =
+            "jdbc:h2:mem:routing_primary;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false";
+    static final String REPLICA_URL =
+            "jdbc:h2:mem:routing_replica;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false";
+
+    private static int userCount;
+
+    @Autowired
+    private AppAccountService appAccountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private AppAccountRepository appAccountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+    private AppAccount account;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Role role = roleRepository.findByRoleName("USER").orElseGet(() -> {
+            Role newRole = new Role();
+            newRole.setRoleName("USER");
+            return roleRepository.save(newRole);
+        });
+
+        userCount++;
+        user = new User();
+        user.setUserName("reader" + userCount);
+        user.setEmail("reader" + userCount + "@routing.test");
+        user.setPassword("$2a$10$testhashedpassword");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setRole(role);
+        user = userRepository.save(user);
+
+        account = new AppAccount();
+        account.setUser(user);
+        account.setBalance(1000L);
+        account.setCreatedAt(LocalDateTime.now());
+        account.setDailyLimit(100000L);
+        account = appAccountRepository.save(account);
+
+        copyPrimaryToReplica();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransaction_ReadsFromReplica() {
+        // Arrange: the primary moves on, the replica lags behind
+        setPrimaryBalance(2500L);
+
+        // Act
+        long readOnlyBalance = appAccountService.getInfoAppAccountByUserId(user.getId()).getBalance();
+        long readWriteBalance = appAccountService.findAccountByUserId(user.getId()).getBalance();
+
+        // Assert
+        assertEquals(1000L, readOnlyBalance);
+        assertEquals(2500L, readWriteBalance);
+    }
+
+    @Test
+    void historyPage_ReadsFromReplica() {
+        // Arrange: a payment reaches the primary only
+        jdbcTemplate.update("INSERT INTO transaction (id, sender_id, receiver_id, description, amount, amount_with_fee, "
+                + "transaction_date) VALUES (?, ?, ?, 'Not replicated', 100, 105, ?)",
+                1_000_000 + userCount, user.getId(), user.getId(), LocalDateTime.now());
+
+        // Act
+        CursorPage<TransactionDTO> page = transactionService.getTransactionHistoryPage(user.getId(), null,
+                TransactionService.DEFAULT_HISTORY_PAGE_SIZE);
+
+        // Assert
+        assertTrue(page.getItems().isEmpty());
+    }
+
+    @Test
+    void writeByUser_PinsThatUsersReadsToPrimary() {
+        // Arrange
+        authenticateAs(user);
+        assertEquals(1000L, appAccountService.getInfoAppAccountByUserId(user.getId()).getBalance());
+
+        // Act
+        appAccountService.changeDailyLimit(user.getId(), 50000L);
+        setPrimaryBalance(2500L);
+
+        // Assert
+        assertEquals(2500L, appAccountService.getInfoAppAccountByUserId(user.getId()).getBalance());
+    }
+
+    @Test
+    void writeWithoutAuthenticatedUser_DoesNotPin() {
+        // Act
+        appAccountService.changeDailyLimit(user.getId(), 50000L);
+        setPrimaryBalance(2500L);
+        authenticateAs(user);
+
+        // Assert
+        assertEquals(1000L, appAccountService.getInfoAppAccountByUserId(user.getId()).getBalance());
+    }
+
+    @Test
+    void readOnlyTransaction_NeitherTracksNorFlushesChanges() throws SQLException {
+        // Arrange
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // Act
+        readOnly.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            assertTrue(session.isDefaultReadOnly());
+            assertEquals(FlushMode.MANUAL, session.getHibernateFlushMode());
+
+            User loaded = userRepository.findById(user.getId()).orElseThrow();
+            assertTrue(session.isReadOnly(loaded));
+            loaded.setUserName("changed");
+        });
+
+        // Assert
+        assertEquals(user.getUserName(), jdbcTemplate.queryForObject(
+                "SELECT username FROM users WHERE id = ?", String.class, user.getId()));
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "password");
+             Statement statement = replica.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT username FROM users WHERE id = " + user.getId())) {
+            assertTrue(resultSet.next());
+            assertEquals(user.getUserName(), resultSet.getString(1));
+        }
+    }
+
+    private void authenticateAs(User authenticated) {
+        CustomUserDetails userDetails = new CustomUserDetails(authenticated.getEmail(), authenticated.getPassword(),
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), authenticated.getId(), authenticated.getUserName());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+
+    private void setPrimaryBalance(long balance) {
+        jdbcTemplate.update("UPDATE app_account SET balance = ? WHERE account_id = ?", balance, account.getId());
+    }
+
+    /**
+     * Stands in for replication: the replica becomes an exact copy of the primary as of now.
+     */
+    private void copyPrimaryToReplica() throws Exception {
+        Path script = Files.createTempFile("routing", ".sql");
+        try {
+            jdbcTemplate.execute("SCRIPT TO '" + script + "'");
+            try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "password");
+                 Statement statement = replica.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+                statement.execute("RUNSCRIPT FROM '" + script + "'");
+            }
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.paymybuddy.app.integration;
+
+import com.paymybuddy.app.entity.AppAccount;
+import com.paymybuddy.app.entity.Role;
+import com.paymybuddy.app.entity.TransactionFee;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.entity.UserRelation;
+import com.paymybuddy.app.repository.AppAccountRepository;
+import com.paymybuddy.app.repository.RoleRepository;
+import com.paymybuddy.app.repository.TransactionFeeRepository;
+import com.paymybuddy.app.repository.UserRelationRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import com.paymybuddy.app.service.TransactionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that users and roles are read from the second-level cache once loaded, that writes through Hibernate keep
+ * the cache current, and that the regions are published as meters.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:second_level_cache;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class SecondLevelCacheIT {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private AppAccountRepository appAccountRepository;
+
+    @Autowired
+    private UserRelationRepository userRelationRepository;
+
+    @Autowired
+    private TransactionFeeRepository transactionFeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private User sender;
+    private User receiver;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Role role = new Role();
+        role.setRoleName("USER");
+        roleRepository.save(role);
+
+        TransactionFee transactionFee = new TransactionFee();
+        transactionFee.setEffectiveDate(LocalDateTime.now().minusDays(1));
+        transactionFee.setPercentage(5000);
+        transactionFeeRepository.save(transactionFee);
+
+        sender = createUserWithAccount("sender", role);
+        receiver = createUserWithAccount("receiver", role);
+
+        UserRelation userRelation = new UserRelation();
+        userRelation.setUserId(sender.getId());
+        userRelation.setUserRelationId(receiver.getId());
+        userRelation.setStatus(true);
+        userRelation.setCreatedAt(LocalDateTime.now());
+        userRelationRepository.save(userRelation);
+    }
+
+    @Test
+    void findById_SecondReadComesFromCache() {
+        // Arrange
+        userRepository.findById(sender.getId()).orElseThrow();
+        statistics.clear();
+
+        // Act
+        User user = userRepository.findById(sender.getId()).orElseThrow();
+
+        // Assert
+        assertEquals("sender", user.getUserName());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(User.CACHE_REGION).getHitCount());
+        // Only the account, which is not cached, is read from the database
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void payment_ReadsReceiverFromQueryCache() {
+        // Arrange
+        transactionService.createTransaction(sender.getId(), receiver.getId(), 1, "Warm up");
+        statistics.clear();
+
+        // Act
+        transactionService.createTransaction(sender.getId(), receiver.getId(), 10, "Payment");
+
+        // Assert
+        assertTrue(statistics.getQueryCacheHitCount() > 0, "Query cache hits per payment");
+        assertEquals(0, statistics.getQueryCacheMissCount(), "Query cache misses per payment");
+    }
+
+    @Test
+    void save_UpdatesCachedUserAndRef() {
+        // Arrange
+        userRepository.findById(receiver.getId()).orElseThrow();
+        assertEquals("receiver", userRepository.findRefById(receiver.getId()).orElseThrow().getUserName());
+        User user = userRepository.findById(receiver.getId()).orElseThrow();
+
+        // Act
+        user.setUserName("renamed");
+        userRepository.save(user);
+
+        // Assert
+        assertEquals("renamed", userRepository.findById(receiver.getId()).orElseThrow().getUserName());
+        assertEquals("renamed", userRepository.findRefById(receiver.getId()).orElseThrow().getUserName());
+    }
+
+    @Test
+    void findByRoleName_PublishesRegionMeters() {
+        // Act
+        roleRepository.findByRoleName("USER").orElseThrow();
+        roleRepository.findByRoleName("USER").orElseThrow();
+
+        // Assert
+        double hits = meterRegistry.get("cache.gets")
+                .tag("cache", RoleRepository.BY_NAME_CACHE_REGION)
+                .tag("result", "hit")
+                .functionCounter().count();
+        assertEquals(1, hits);
+    }
+
+    private User createUserWithAccount(String name, Role role) {
+        User user = new User();
+        user.setUserName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("password");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setRole(role);
+        user = userRepository.save(user);
+
+        AppAccount account = new AppAccount();
+        account.setUser(user);
+        account.setBalance(1_000_000L);
+        account.setCreatedAt(LocalDateTime.now());
+        account.setDailyLimit(1_000_000L);
+        appAccountRepository.save(account);
+        return user;
+    }
+}
@@ -0,0 +1,25 @@
+package com.paymybuddy.app.integration;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares how many SQL statements a test method may issue; {@link StatementBudgetListener} fails the test when it
+ * issues more. Only the test method itself is measured, not {@code @BeforeEach} methods, so a test performing one
+ * request measures that request.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface StatementBudget {
+
+    /**
+     * The maximum number of statements.
+     *
+     * @return the budget.
+     */
+    int value();
+}
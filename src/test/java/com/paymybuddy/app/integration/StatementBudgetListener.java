@@ -0,0 +1,55 @@
+package com.paymybuddy.app.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.core.Ordered;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+/**
+ * N+1 detector: counts the SQL statements prepared by Hibernate while a {@link StatementBudget} test method runs and
+ * fails the test when the count exceeds the budget.
+ *
+ * <p>Registered for every Spring test through {@code META-INF/spring.factories}; tests without the annotation are left
+ * alone. It runs last, so statements issued while setting up the security context are not counted.</p>
+ */
+public class StatementBudgetListener extends AbstractTestExecutionListener {
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public void beforeTestExecution(TestContext testContext) {
+        if (budget(testContext) == null) {
+            return;
+        }
+        Statistics statistics = statistics(testContext);
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Override
+    public void afterTestExecution(TestContext testContext) {
+        StatementBudget budget = budget(testContext);
+        if (budget == null || testContext.getTestException() != null) {
+            return;
+        }
+        long statements = statistics(testContext).getPrepareStatementCount();
+        if (statements > budget.value()) {
+            throw new AssertionError(testContext.getTestMethod().getName() + " issued " + statements
+                    + " SQL statements, over its budget of " + budget.value());
+        }
+    }
+
+    private static StatementBudget budget(TestContext testContext) {
+        return testContext.getTestMethod().getAnnotation(StatementBudget.class);
+    }
+
+    private static Statistics statistics(TestContext testContext) {
+        return testContext.getApplicationContext().getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+}
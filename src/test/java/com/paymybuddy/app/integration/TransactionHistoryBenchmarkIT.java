@@ -0,0 +1,137 @@
+package com.paymybuddy.app.integration;
+
+import com.paymybuddy.app.dto.CursorPage;
+import com.paymybuddy.app.dto.TransactionDTO;
+import com.paymybuddy.app.entity.Role;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.repository.RoleRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import com.paymybuddy.app.service.TransactionService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reads the first page and walks the whole history with the keyset projection for 10, 1,000 and 100,000-row
+ * histories. Reports statement count and latency; run with {@code -Dbenchmark=true}.
+ */
+@Slf4j
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:history_benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.com.paymybuddy=WARN"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TransactionHistoryBenchmarkIT {
+
+    private static final int[] HISTORY_SIZES = {10, 1_000, 100_000};
+    private static final int PAGE_SIZE = TransactionService.DEFAULT_HISTORY_PAGE_SIZE;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Rows are inserted with plain SQL, which the ID generator does not see
+    private int nextTransactionId = 1;
+
+    @Test
+    void compareHistoryListing() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Role role = new Role();
+        role.setRoleName("USER");
+        roleRepository.save(role);
+
+        StringBuilder report = new StringBuilder(String.format("%n%10s | %-24s | %10s | %10s%n", "rows", "path", "statements", "ms"));
+        for (int size : HISTORY_SIZES) {
+            User owner = createUser("owner" + size, role);
+            User friend = createUser("friend" + size, role);
+            insertHistory(owner, friend, size);
+
+            report.append(measure(statistics, size, "first page", () ->
+                    transactionService.getTransactionHistoryPage(owner.getId(), null, PAGE_SIZE).getItems().size()));
+
+            report.append(measure(statistics, size, "full keyset walk", () -> {
+                int rows = 0;
+                String cursor = null;
+                do {
+                    CursorPage<TransactionDTO> page = transactionService.getTransactionHistoryPage(owner.getId(), cursor, TransactionService.MAX_HISTORY_PAGE_SIZE);
+                    rows += page.getItems().size();
+                    cursor = page.getNextCursor();
+                } while (cursor != null);
+                return rows;
+            }));
+
+            statistics.clear();
+            transactionService.getTransactionHistoryPage(owner.getId(), null, PAGE_SIZE);
+            assertEquals(2, statistics.getPrepareStatementCount());
+        }
+        log.warn(report.toString());
+    }
+
+    private String measure(Statistics statistics, int size, String label, Supplier<Integer> run) {
+        statistics.clear();
+        long start = System.nanoTime();
+        int rows = run.get();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.warn("{} rows, {}: {} rows read, {} statements, {} ms", size, label, rows, statistics.getPrepareStatementCount(), elapsedMillis);
+        return String.format("%10d | %-24s | %10d | %10d%n", size, label, statistics.getPrepareStatementCount(), elapsedMillis);
+    }
+
+    private void insertHistory(User owner, User friend, int size) {
+        LocalDateTime base = LocalDateTime.now().minusDays(365);
+        List<Object[]> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            boolean sent = i % 2 == 0;
+            rows.add(new Object[]{
+                    nextTransactionId++,
+                    sent ? owner.getId() : friend.getId(),
+                    sent ? friend.getId() : owner.getId(),
+                    "Payment " + i,
+                    100L + i,
+                    105L + i,
+                    Timestamp.valueOf(base.plusMinutes(i))
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transaction (id, sender_id, receiver_id, description, amount, amount_with_fee, transaction_date) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private User createUser(String name, Role role) {
+        User user = new User();
+        user.setUserName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("password");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+}
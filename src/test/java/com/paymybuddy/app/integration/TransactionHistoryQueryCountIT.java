@@ -0,0 +1,114 @@
+package com.paymybuddy.app.integration;
+
+import com.paymybuddy.app.dto.CursorPage;
+import com.paymybuddy.app.dto.TransactionDTO;
+import com.paymybuddy.app.entity.Role;
+import com.paymybuddy.app.entity.Transaction;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.repository.RoleRepository;
+import com.paymybuddy.app.repository.TransactionRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import com.paymybuddy.app.service.TransactionService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements issued to render one page of transaction history.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:history_query_count;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Transactional
+public class TransactionHistoryQueryCountIT {
+
+    private static final int HISTORY_SIZE = 30;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Role role = new Role();
+        role.setRoleName("USER");
+        roleRepository.save(role);
+
+        owner = createUser("owner", role);
+        User friend = createUser("friend", role);
+        User otherFriend = createUser("otherFriend", role);
+
+        LocalDateTime base = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < HISTORY_SIZE; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setUserSender(i % 3 == 0 ? friend : owner);
+            transaction.setUserReceiver(i % 3 == 0 ? owner : (i % 2 == 0 ? friend : otherFriend));
+            transaction.setAmount(100L + i);
+            transaction.setAmountWithFee(105L + i);
+            transaction.setDescription("Payment " + i);
+            transaction.setTransactionDate(base.plusMinutes(i));
+            transactionRepository.save(transaction);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void historyPage_isTwoProjectionQueries() {
+        // Act
+        CursorPage<TransactionDTO> page = transactionService.getTransactionHistoryPage(owner.getId(), null, 20);
+
+        // Assert
+        assertEquals(20, page.getItems().size());
+        assertNotNull(page.getItems().get(0).getSenderName());
+        assertNotNull(page.getItems().get(0).getReceiverName());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private User createUser(String name, Role role) {
+        User user = new User();
+        user.setUserName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("password");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,148 @@
+package com.paymybuddy.app.integration;
+
+import com.paymybuddy.app.PaymybuddyApplication;
+import com.paymybuddy.app.entity.AppAccount;
+import com.paymybuddy.app.entity.Role;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.repository.AppAccountRepository;
+import com.paymybuddy.app.repository.RoleRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Loads the transaction page with 1,000, 5,000 and 10,000 concurrent requests, once on platform threads and once on
+ * virtual threads, each on a freshly started server. Reports throughput, latency percentiles and failures; run with
+ * {@code -Dbenchmark=true} on Java 21 or later.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@EnabledForJreRange(min = JRE.JAVA_21)
+public class TransactionPageLoadBenchmarkIT {
+
+    private static final int[] CONCURRENCY = {1_000, 5_000, 10_000};
+    private static final String EMAIL = "load@example.com";
+    private static final String PASSWORD = "password";
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        StringBuilder report = new StringBuilder(String.format("%n%-9s | %11s | %8s | %8s | %8s | %8s | %8s%n",
+                "threads", "concurrency", "req/s", "p50 ms", "p99 ms", "max ms", "failed"));
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = start(virtual)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                createUser(context);
+                HttpClient client = HttpClient.newBuilder()
+                        .followRedirects(HttpClient.Redirect.NEVER)
+                        .build();
+                String session = login(client, port);
+                for (int concurrency : CONCURRENCY) {
+                    report.append(measure(client, port, session, virtual ? "virtual" : "platform", concurrency));
+                }
+            }
+        }
+        log.warn(report.toString());
+    }
+
+    private ConfigurableApplicationContext start(boolean virtual) {
+        return new SpringApplicationBuilder(PaymybuddyApplication.class)
+                .properties(
+                        "server.port=0",
+                        "management.server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "server.tomcat.max-connections=20000",
+                        "server.tomcat.accept-count=20000",
+                        "spring.datasource.url=jdbc:h2:mem:page_load_" + virtual
+                                + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+                        "logging.level.com.paymybuddy=WARN")
+                .run();
+    }
+
+    private String measure(HttpClient client, int port, String session, String threads, int concurrency) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/transaction"))
+                .header("Cookie", session)
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        long[] latencies = new long[concurrency];
+        AtomicInteger failed = new AtomicInteger();
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> calls = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int slot = i;
+            long sent = System.nanoTime();
+            calls.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        latencies[slot] = System.nanoTime() - sent;
+                        if (error != null || response.statusCode() != 200) {
+                            failed.incrementAndGet();
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+        long elapsedNanos = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        double throughput = concurrency * 1e9 / elapsedNanos;
+        log.warn("{} threads, {} concurrent: {} req/s, {} failed", threads, concurrency, (long) throughput, failed.get());
+        return String.format("%-9s | %11d | %8d | %8d | %8d | %8d | %8d%n", threads, concurrency, (long) throughput,
+                millis(latencies, 0.50), millis(latencies, 0.99), latencies[concurrency - 1] / 1_000_000, failed.get());
+    }
+
+    private static long millis(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1_000_000;
+    }
+
+    private String login(HttpClient client, int port) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=" + EMAIL + "&password=" + PASSWORD))
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        assertTrue(response.headers().firstValue("Location").orElse("").endsWith("/transaction"), "Signed in");
+        return response.headers().firstValue("Set-Cookie").orElseThrow().split(";", 2)[0];
+    }
+
+    private void createUser(ConfigurableApplicationContext context) {
+        Role role = new Role();
+        role.setRoleName("USER");
+        context.getBean(RoleRepository.class).save(role);
+
+        User user = new User();
+        user.setUserName("load");
+        user.setEmail(EMAIL);
+        user.setPassword(context.getBean(PasswordEncoder.class).encode(PASSWORD));
+        user.setCreatedAt(LocalDateTime.now());
+        user.setRole(role);
+        user = context.getBean(UserRepository.class).save(user);
+
+        AppAccount account = new AppAccount();
+        account.setUser(user);
+        account.setBalance(1_000_000L);
+        account.setCreatedAt(LocalDateTime.now());
+        account.setDailyLimit(1_000_000L);
+        context.getBean(AppAccountRepository.class).save(account);
+    }
+}
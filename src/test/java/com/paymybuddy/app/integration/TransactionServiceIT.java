@@ -1,10 +1,15 @@
 package com.paymybuddy.app.integration;
 
 
+import com.paymybuddy.app.dto.CursorPage;
+import com.paymybuddy.app.dto.TransactionDTO;
 import com.paymybuddy.app.entity.*;
 import com.paymybuddy.app.exception.EntityNotFoundException;
 import com.paymybuddy.app.exception.InsufficientBalanceException;
 import com.paymybuddy.app.repository.*;
+import com.paymybuddy.app.service.DailySpendService;
+import com.paymybuddy.app.service.JournalService;
+import com.paymybuddy.app.service.MonetizationService;
 import com.paymybuddy.app.service.TransactionService;
 import com.paymybuddy.app.service.UserRelationService;
 import jakarta.transaction.Transactional;
@@ -15,6 +20,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -45,6 +51,21 @@ public class TransactionServiceIT {
     @Autowired
     private TransactionFeeRepository transactionFeeRepository;
 
+    @Autowired
+    private DailySpendRepository dailySpendRepository;
+
+    @Autowired
+    private DailySpendService dailySpendService;
+
+    @Autowired
+    private MonetizationService monetizationService;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private MonetizationRepository monetizationRepository;
+
     private Role role;
     private User sender;
     private User receiver;
@@ -125,7 +146,7 @@ public class TransactionServiceIT {
         Transaction transaction = transactionList.get(0);
         assertEquals(5000L, transaction.getAmount());
         assertTrue(transaction.getAmountWithFee() > transaction.getAmount());
-
+        assertEquals(5000L, transaction.getFeePercentage());
 
     }
 
@@ -144,6 +165,54 @@ public class TransactionServiceIT {
                 transactionService.createTransaction(sender.getId(), receiver.getId(), 100, "Transaction limit exceeded for the day."));
     }
 
+    @Test
+    void testCreateTransaction_dailySpendCounterEnforcesLimit() {
+        senderApp.setBalance(2_000_00L);
+        appAccountRepository.save(senderApp);
+
+        transactionService.createTransaction(sender.getId(), receiver.getId(), 300, "First payment");
+        transactionService.createTransaction(sender.getId(), receiver.getId(), 200, "Second payment");
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                transactionService.createTransaction(sender.getId(), receiver.getId(), 1, "Over the limit"));
+        assertEquals("Transaction limit exceeded for the day.", exception.getMessage());
+        assertEquals(500_00L, dailySpendRepository.findAmount(sender.getId(), dailySpendService.today()).orElseThrow());
+    }
+
+    @Test
+    void testGetTransactionHistoryPage_walksWholeHistoryWithCursor() {
+        // Arrange
+        LocalDateTime base = LocalDateTime.now().minusDays(3);
+        for (int i = 0; i < 5; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setUserSender(i % 2 == 0 ? sender : receiver);
+            transaction.setUserReceiver(i % 2 == 0 ? receiver : sender);
+            transaction.setAmount(100L + i);
+            transaction.setAmountWithFee(100L + i);
+            // Two transactions share the same timestamp to exercise the id tie-break.
+            transaction.setTransactionDate(base.plusHours(Math.min(i, 3)));
+            transactionRepository.save(transaction);
+        }
+
+        // Act
+        List<TransactionDTO> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<TransactionDTO> page = transactionService.getTransactionHistoryPage(sender.getId(), cursor, 2);
+            walked.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(3, pages);
+        assertEquals(List.of(104L, 103L, 102L, 101L, 100L), walked.stream().map(TransactionDTO::getAmount).toList());
+        assertEquals("Sender", walked.get(0).getSenderName());
+        assertEquals("Receiver", walked.get(0).getReceiverName());
+    }
+
     @Test
     void testCancelTransaction_success() {
 
@@ -179,73 +248,38 @@ public class TransactionServiceIT {
     }
 
     @Test
-    void testGetTransactionHistoryByUserId_success() {
+    void testCancelTransaction_keepsRowsAndReversesJournal() {
         // Arrange
-        User user = new User();
-        user.setUserName("Alice");
-        user.setEmail("alice@example.com");
-        user.setPassword("password");
-        user.setRole(role);
-        userRepository.save(user);
+        transactionService.createTransaction(sender.getId(), receiver.getId(), 50, "Payment for services");
+        Transaction transaction = transactionRepository.findAll().get(0);
+        List<JournalEntry> posted = journalService.getEntries(transaction.getId());
+        assertEquals(0L, posted.stream().mapToLong(JournalEntry::getAmount).sum());
+        assertEquals(-transaction.getAmountWithFee(), journalService.getBalanceMovement(sender.getId()));
+        assertEquals(transaction.getAmount(), journalService.getBalanceMovement(receiver.getId()));
 
-        User otherUser = new User();
-        otherUser.setUserName("Bob");
-        otherUser.setEmail("bob@example.com");
-        otherUser.setPassword("password");
-        otherUser.setRole(role);
-        userRepository.save(otherUser);
-
-        AppAccount app1 = new AppAccount();
-        app1.setBalance(200_00L);
-        app1.setUser(user);
-        app1.setCreatedAt(LocalDateTime.now());
-        appAccountRepository.save(app1);
-
-        AppAccount app2 = new AppAccount();
-
-        app2.setBalance(100_00L);
-        app2.setUser(otherUser);
-        app2.setCreatedAt(LocalDateTime.now());
-        appAccountRepository.save(app2);
-
-        UserRelation userRelation2 = new UserRelation();
-        userRelation2.setUserId(user.getId());
-        userRelation2.setUserRelationId(otherUser.getId());
-        userRelation2.setUser(user);
-        userRelation2.setRelatedUser(otherUser);
-        userRelation2.setStatus(true);
-        userRelation2.setCreatedAt(LocalDateTime.now());
-        userRelationRepository.save(userRelation2);
-
-        Transaction transaction1 = new Transaction();
-        transaction1.setUserSender(user);
-        transaction1.setUserReceiver(otherUser);
-        transaction1.setAmount(50_00L);
-        transaction1.setTransactionDate(LocalDateTime.now());
-        transactionRepository.save(transaction1);
-
-
-        user.addSenderTransactions(transaction1);
-        otherUser.addReceiverTransactions(transaction1);
-
-        Transaction transaction2 = new Transaction();
-        transaction2.setUserSender(otherUser);
-        transaction2.setUserReceiver(user);
-        transaction2.setAmount(30_00L);
-        transaction2.setTransactionDate(LocalDateTime.now().minusDays(1));
-        transactionRepository.save(transaction2);
+        // Act
+        String result = transactionService.cancelTransaction(transaction.getId());
 
+        // Assert
+        assertEquals("Transaction canceled successfully", result);
+        Transaction canceled = transactionRepository.findById(transaction.getId()).orElseThrow();
+        assertNotNull(canceled.getCanceledAt());
+        assertTrue(monetizationRepository.findByTransactionId(transaction.getId()).isPresent());
 
-        user.addSenderTransactions(transaction2);
-        otherUser.addReceiverTransactions(transaction2);
+        List<JournalEntry> entries = journalService.getEntries(transaction.getId());
+        assertEquals(posted.size() * 2, entries.size());
+        assertEquals(posted.size(), entries.stream().filter(entry -> entry.getReversalOf() != null).count());
+        assertEquals(0L, journalService.getBalanceMovement(sender.getId()));
+        assertEquals(0L, journalService.getBalanceMovement(receiver.getId()));
 
-        // Act
-        List<Transaction> transactions = transactionService.getTransactionHistoryByUserId(user.getId());
+        assertEquals(200_00L, appAccountRepository.findByUserId(sender.getId()).orElseThrow().getBalance());
+        assertEquals(50_00L, appAccountRepository.findByUserId(receiver.getId()).orElseThrow().getBalance());
+        assertTrue(transactionService.getTransactionHistoryPage(sender.getId(), null, 10).getItems().isEmpty());
+        assertEquals(0L, monetizationService.rebuildRevenueLedger());
 
-        // Assert
-        assertEquals(2, transactions.size());
-        assertEquals(50_00L, transactions.get(0).getAmount());
-        assertEquals(30_00L, transactions.get(1).getAmount());
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                transactionService.cancelTransaction(transaction.getId()));
+        assertEquals("Transaction has already been canceled.", exception.getMessage());
     }
 
     @Test
@@ -272,6 +306,7 @@ public class TransactionServiceIT {
         transaction1.setAmountWithFee(51_00L);
         transaction1.setTransactionDate(LocalDateTime.now());
         transactionRepository.save(transaction1);
+        monetizationService.saveMonetization(transaction1);
 
         Transaction transaction2 = new Transaction();
         transaction2.setUserSender(otherUser);
@@ -280,6 +315,7 @@ public class TransactionServiceIT {
         transaction2.setAmountWithFee(31_00L);
         transaction2.setTransactionDate(LocalDateTime.now().minusDays(1));
         transactionRepository.save(transaction2);
+        monetizationService.saveMonetization(transaction2);
 
         // Act
         long totalFees = transactionService.calculateTotalFees();
@@ -0,0 +1,154 @@
+package com.paymybuddy.app.integration;
+
+import com.paymybuddy.app.entity.AppAccount;
+import com.paymybuddy.app.entity.Role;
+import com.paymybuddy.app.entity.TransactionFee;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.entity.UserRelation;
+import com.paymybuddy.app.repository.AppAccountRepository;
+import com.paymybuddy.app.repository.RoleRepository;
+import com.paymybuddy.app.repository.TransactionFeeRepository;
+import com.paymybuddy.app.repository.UserRelationRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import com.paymybuddy.app.service.TransactionService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that reports run on a pool of their own: with every reporting connection taken, reports fail on their own
+ * pool's timeout while payments go through, and each pool publishes its meters.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:workload_pool;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "paymybuddy.datasource.pools.reporting.maximum-pool-size=1",
+        "paymybuddy.datasource.pools.reporting.connection-timeout=PT0.25S",
+        "paymybuddy.datasource.pools.payments.query-timeout=PT3S"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class WorkloadPoolIT {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private AppAccountRepository appAccountRepository;
+
+    @Autowired
+    private UserRelationRepository userRelationRepository;
+
+    @Autowired
+    private TransactionFeeRepository transactionFeeRepository;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private User sender;
+    private User receiver;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setRoleName("USER");
+        roleRepository.save(role);
+
+        TransactionFee transactionFee = new TransactionFee();
+        transactionFee.setEffectiveDate(LocalDateTime.now().minusDays(1));
+        transactionFee.setPercentage(5000);
+        transactionFeeRepository.save(transactionFee);
+
+        sender = createUserWithAccount("sender", role);
+        receiver = createUserWithAccount("receiver", role);
+
+        UserRelation userRelation = new UserRelation();
+        userRelation.setUserId(sender.getId());
+        userRelation.setUserRelationId(receiver.getId());
+        userRelation.setStatus(true);
+        userRelation.setCreatedAt(LocalDateTime.now());
+        userRelationRepository.save(userRelation);
+    }
+
+    @Test
+    void reportingPoolExhausted_PaymentStillGoesThrough() throws Exception {
+        // Arrange
+        HikariDataSource reporting = applicationContext.getBean("reportingDataSource", HikariDataSource.class);
+
+        // Act & Assert
+        try (Connection held = reporting.getConnection()) {
+            assertThrows(RuntimeException.class, transactionService::calculateTotalFees);
+            transactionService.createTransaction(sender.getId(), receiver.getId(), 100, "Payment");
+        }
+        assertEquals(500, transactionService.calculateTotalFees());
+    }
+
+    @Test
+    void pools_PublishWaitActiveAndPendingMeters() {
+        // Act
+        transactionService.createTransaction(sender.getId(), receiver.getId(), 100, "Payment");
+        transactionService.getTransactionHistoryPage(sender.getId(), null, TransactionService.DEFAULT_HISTORY_PAGE_SIZE);
+        transactionService.calculateTotalFees();
+
+        // Assert
+        for (String pool : new String[]{"payments", "user-reads", "reporting"}) {
+            assertNotNull(meterRegistry.get("hikaricp.connections.acquire").tag("pool", pool).timer());
+            assertEquals(0, meterRegistry.get("hikaricp.connections.pending").tag("pool", pool).gauge().value());
+            assertNotNull(meterRegistry.get("hikaricp.connections.active").tag("pool", pool).gauge());
+        }
+        assertTrue(meterRegistry.get("hikaricp.connections.acquire").tag("pool", "reporting").timer().count() > 0);
+    }
+
+    @Test
+    void paymentsPool_TimesStatementsOut() throws Exception {
+        // Act: outside any workload, connections come from the payments pool
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            // Assert
+            assertEquals(3, statement.getQueryTimeout());
+        }
+    }
+
+    private User createUserWithAccount(String name, Role role) {
+        User user = new User();
+        user.setUserName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("password");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setRole(role);
+        user = userRepository.save(user);
+
+        AppAccount account = new AppAccount();
+        account.setUser(user);
+        account.setBalance(1_000_000L);
+        account.setCreatedAt(LocalDateTime.now());
+        account.setDailyLimit(1_000_000L);
+        appAccountRepository.save(account);
+        return user;
+    }
+}
@@ -0,0 +1,97 @@
+package com.paymybuddy.app.metrics;
+
+import com.paymybuddy.app.entity.AppAccount;
+import com.paymybuddy.app.entity.BankAccount;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.repository.AppAccountRepository;
+import com.paymybuddy.app.repository.BankAccountRepository;
+import com.paymybuddy.app.service.AccountBucketService;
+import com.paymybuddy.app.service.BankAccountService;
+import com.paymybuddy.app.service.JournalService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ServiceMetricsAspectTest {
+
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+
+    @Mock
+    private AppAccountRepository appAccountRepository;
+
+    @Mock
+    private AccountBucketService accountBucketService;
+
+    @Mock
+    private JournalService journalService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BankAccountService bankAccountService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+
+        AspectJProxyFactory proxyFactory =
+                new AspectJProxyFactory(new BankAccountService(bankAccountRepository, appAccountRepository,
+                        accountBucketService, journalService));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        bankAccountService = proxyFactory.getProxy();
+
+        AppAccount appAccount = new AppAccount();
+        appAccount.setId(1);
+        appAccount.setBalance(0L);
+        appAccount.setUser(new User());
+        BankAccount bankAccount = new BankAccount();
+        bankAccount.setId(2);
+        bankAccount.setAmount(50000L);
+        when(appAccountRepository.findById(1)).thenReturn(Optional.of(appAccount));
+        when(bankAccountRepository.findById(2)).thenReturn(Optional.of(bankAccount));
+        when(appAccountRepository.save(any(AppAccount.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void measure_successRecordsLatencyAndAmount() {
+        // Act
+        bankAccountService.transferFromBankAccount(1, 2, 120);
+
+        // Assert
+        assertEquals(1, meterRegistry.get(ServiceMetricsAspect.LATENCY_METRIC)
+                .tag("service", "BankAccountService")
+                .tag("method", "transferFromBankAccount")
+                .tag("exception", "none")
+                .timer().count());
+        assertEquals(120.0, meterRegistry.get(ServiceMetricsAspect.AMOUNT_METRIC)
+                .tag("operation", "bank_deposit")
+                .summary().totalAmount());
+        assertNull(meterRegistry.find(ServiceMetricsAspect.FAILURE_METRIC).counter());
+    }
+
+    @Test
+    void measure_failureCountedByExceptionType() {
+        // Act
+        assertThrows(IllegalArgumentException.class, () -> bankAccountService.transferFromBankAccount(1, 2, 1000));
+
+        // Assert
+        assertEquals(1.0, meterRegistry.get(ServiceMetricsAspect.FAILURE_METRIC)
+                .tag("method", "transferFromBankAccount")
+                .tag("exception", "IllegalArgumentException")
+                .counter().count());
+        assertEquals(1, meterRegistry.get(ServiceMetricsAspect.LATENCY_METRIC)
+                .tag("exception", "IllegalArgumentException")
+                .timer().count());
+        assertEquals(0, meterRegistry.get(ServiceMetricsAspect.AMOUNT_METRIC).summary().count());
+    }
+}
@@ -76,4 +76,31 @@ class UserTest {
         assertEquals(0, receiver.getReceiverTransactions().size(), "Receiver should have 0 transactions");
         assertNull(transaction.getUserReceiver(), "Transaction's receiver should be null after removal");
     }
+
+    @Test
+    public void testEquals_basedOnIdOnly() {
+        User first = new User();
+        first.setId(7);
+        first.setUserName("First");
+        User sameId = new User();
+        sameId.setId(7);
+        sameId.setUserName("Renamed");
+        sameId.addSenderTransactions(transaction);
+
+        assertEquals(first, sameId, "Users with the same ID should be equal");
+        assertEquals(first.hashCode(), sameId.hashCode(), "Equal users should have the same hash code");
+        assertNotEquals(sender, receiver, "Unsaved users should only be equal to themselves");
+        assertEquals(sender, sender, "A user should be equal to itself");
+    }
+
+    @Test
+    public void testToString_doesNotPrintAssociations() {
+        sender.setId(3);
+        sender.addSenderTransactions(transaction);
+
+        String text = sender.toString();
+
+        assertTrue(text.contains("id=3") && text.contains("userName=Sender"), "toString should print the ID and name");
+        assertFalse(text.contains("Transactions"), "toString should not print the transaction lists");
+    }
 }
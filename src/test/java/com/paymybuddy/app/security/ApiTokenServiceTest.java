@@ -0,0 +1,86 @@
+package com.paymybuddy.app.security;
+
+import com.paymybuddy.app.config.ApiTokenProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.util.Base64;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiTokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    @Test
+    void issue_DecodesToSamePrincipal() {
+        // Arrange
+        ApiTokenService apiTokenService = new ApiTokenService(properties(SECRET));
+        String token = apiTokenService.issue(details()).getAccessToken();
+
+        // Act
+        Jwt jwt = apiTokenService.getDecoder().decode(token);
+        AbstractAuthenticationToken authentication = apiTokenService.toAuthentication(jwt);
+
+        // Assert
+        CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+        assertTrue(authentication.isAuthenticated());
+        assertEquals("john@example.com", principal.getUsername());
+        assertEquals(7, principal.getId());
+        assertEquals("John", principal.getNameUser());
+        assertEquals(Set.of(new SimpleGrantedAuthority("ROLE_ADMIN")), Set.copyOf(authentication.getAuthorities()));
+    }
+
+    @Test
+    void decode_TokenSignedWithOtherKey_Rejected() {
+        // Arrange
+        ApiTokenProperties randomKey = properties("");
+        randomKey.setAllowRandomSecret(true);
+        String token = new ApiTokenService(randomKey).issue(details()).getAccessToken();
+        ApiTokenService apiTokenService = new ApiTokenService(properties(SECRET));
+
+        // Act & Assert
+        assertThrows(JwtException.class, () -> apiTokenService.getDecoder().decode(token));
+    }
+
+    @Test
+    void decode_OtherIssuer_Rejected() {
+        // Arrange
+        ApiTokenProperties otherIssuer = properties(SECRET);
+        otherIssuer.setIssuer("other");
+        String token = new ApiTokenService(otherIssuer).issue(details()).getAccessToken();
+        ApiTokenService apiTokenService = new ApiTokenService(properties(SECRET));
+
+        // Act & Assert
+        assertThrows(JwtException.class, () -> apiTokenService.getDecoder().decode(token));
+    }
+
+    @Test
+    void constructor_ShortSecret_Rejected() {
+        ApiTokenProperties properties = properties(Base64.getEncoder().encodeToString(new byte[16]));
+
+        assertThrows(IllegalStateException.class, () -> new ApiTokenService(properties));
+    }
+
+    @Test
+    void constructor_BlankSecret_Rejected() {
+        ApiTokenProperties properties = properties(" ");
+
+        assertThrows(IllegalStateException.class, () -> new ApiTokenService(properties));
+    }
+
+    private static ApiTokenProperties properties(String secret) {
+        ApiTokenProperties properties = new ApiTokenProperties();
+        properties.setSecret(secret);
+        return properties;
+    }
+
+    private static CustomUserDetails details() {
+        return new CustomUserDetails("john@example.com", "$2a$10$hash", Set.of(new SimpleGrantedAuthority("ROLE_ADMIN")),
+                7, "John");
+    }
+}
@@ -0,0 +1,80 @@
+package com.paymybuddy.app.security;
+
+import com.paymybuddy.app.config.AuthenticationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginUserCacheTest {
+
+    private LoginUserCache loginUserCache;
+
+    @BeforeEach
+    void setUp() {
+        loginUserCache = new LoginUserCache(new AuthenticationProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getUserFromCache_ReturnsCopyKeepingPassword() {
+        // Arrange
+        loginUserCache.putUserInCache(details());
+
+        // Act
+        CustomUserDetails first = (CustomUserDetails) loginUserCache.getUserFromCache("john@example.com");
+        first.eraseCredentials();
+        CustomUserDetails second = (CustomUserDetails) loginUserCache.getUserFromCache("john@example.com");
+
+        // Assert
+        assertNotSame(first, second);
+        assertEquals("$2a$10$hash", second.getPassword());
+        assertEquals(7, second.getId());
+        assertEquals("John", second.getNameUser());
+        assertEquals(Set.of(new SimpleGrantedAuthority("ROLE_USER")), Set.copyOf(second.getAuthorities()));
+    }
+
+    @Test
+    void putUserInCache_ErasedPassword_NotCached() {
+        // Arrange
+        CustomUserDetails details = details();
+        details.eraseCredentials();
+
+        // Act
+        loginUserCache.putUserInCache(details);
+
+        // Assert
+        assertNull(loginUserCache.getUserFromCache("john@example.com"));
+    }
+
+    @Test
+    void removeUserFromCache_InTransaction_RemovesAgainAfterCompletion() {
+        // Arrange
+        loginUserCache.putUserInCache(details());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            loginUserCache.removeUserFromCache("john@example.com");
+            loginUserCache.putUserInCache(details());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        UserDetails cached = loginUserCache.getUserFromCache("john@example.com");
+        assertNull(cached);
+    }
+
+    private static CustomUserDetails details() {
+        return new CustomUserDetails("john@example.com", "$2a$10$hash", Set.of(new SimpleGrantedAuthority("ROLE_USER")),
+                7, "John");
+    }
+}
@@ -0,0 +1,195 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.entity.AccountBucket;
+import com.paymybuddy.app.entity.AppAccount;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.exception.EntityNotFoundException;
+import com.paymybuddy.app.repository.AccountBucketRepository;
+import com.paymybuddy.app.repository.AppAccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AccountBucketServiceTest {
+
+    @Mock
+    private AccountBucketRepository accountBucketRepository;
+
+    @Mock
+    private AppAccountRepository appAccountRepository;
+
+    @Mock
+    private BalanceMutationExecutor balanceMutationExecutor;
+
+    @InjectMocks
+    private AccountBucketService accountBucketService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(balanceMutationExecutor.execute(anyCollection(), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+    }
+
+    @Test
+    void credit_NotBucketed_LeavesItToTheMainRow() {
+        // Act
+        boolean credited = accountBucketService.credit(7, 100L, 1);
+
+        // Assert
+        assertFalse(credited);
+        verifyNoInteractions(accountBucketRepository);
+    }
+
+    @Test
+    void credit_Bucketed_SpreadsPayersOverAllBuckets() {
+        // Arrange
+        when(appAccountRepository.findBucketedAccounts()).thenReturn(List.of(bucketedAccount(7, 4)));
+        accountBucketService.load();
+
+        // Act
+        for (int payerId = 1; payerId <= 40; payerId++) {
+            assertTrue(accountBucketService.credit(7, 100L, payerId));
+        }
+
+        // Assert
+        ArgumentCaptor<Integer> slots = ArgumentCaptor.forClass(Integer.class);
+        verify(accountBucketRepository, times(40)).addToBucket(eq(7), slots.capture(), eq(100L));
+        Set<Integer> used = new HashSet<>(slots.getAllValues());
+        assertEquals(Set.of(0, 1, 2, 3), used);
+    }
+
+    @Test
+    void drain_EmptiesBucketsAndReturnsTheirSum() {
+        // Arrange
+        AccountBucket first = bucket(7, 0, 300L);
+        AccountBucket second = bucket(7, 1, 0L);
+        AccountBucket third = bucket(7, 2, 50L);
+        when(accountBucketRepository.findByUserIdForUpdate(7)).thenReturn(List.of(first, second, third));
+
+        // Act
+        long drained = accountBucketService.drain(7);
+
+        // Assert
+        assertEquals(350L, drained);
+        assertEquals(0L, first.getAmount());
+        assertEquals(0L, third.getAmount());
+        verify(accountBucketRepository).saveAllAndFlush(List.of(first, third));
+    }
+
+    @Test
+    void foldIntoAccount_AddsBucketsToMainRow() {
+        // Arrange
+        when(accountBucketRepository.findByUserIdForUpdate(7)).thenReturn(List.of(bucket(7, 3, 120L)));
+
+        // Act
+        long folded = accountBucketService.foldIntoAccount(7);
+
+        // Assert
+        assertEquals(120L, folded);
+        verify(appAccountRepository).applyBalanceDelta(eq(7), eq(120L), eq(0L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void foldIntoAccount_NothingPending_LeavesMainRow() {
+        // Arrange
+        when(accountBucketRepository.findByUserIdForUpdate(7)).thenReturn(List.of());
+
+        // Act
+        long folded = accountBucketService.foldIntoAccount(7);
+
+        // Assert
+        assertEquals(0L, folded);
+        verify(appAccountRepository, never()).applyBalanceDelta(anyInt(), anyLong(), anyLong(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void setCreditBuckets_Success_FoldsAndMarksAccountBucketed() {
+        // Arrange
+        when(appAccountRepository.updateCreditBuckets(7, 8)).thenReturn(1);
+
+        // Act
+        accountBucketService.setCreditBuckets(7, 8);
+
+        // Assert
+        verify(accountBucketRepository).findByUserIdForUpdate(7);
+        assertTrue(accountBucketService.isBucketed(7));
+    }
+
+    @Test
+    void setCreditBuckets_Zero_MarksAccountPlainAgain() {
+        // Arrange
+        when(appAccountRepository.findBucketedAccounts()).thenReturn(List.of(bucketedAccount(7, 4)));
+        accountBucketService.load();
+        when(appAccountRepository.updateCreditBuckets(7, 0)).thenReturn(1);
+
+        // Act
+        accountBucketService.setCreditBuckets(7, 0);
+
+        // Assert
+        assertFalse(accountBucketService.isBucketed(7));
+    }
+
+    @Test
+    void setCreditBuckets_OutOfRange_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> accountBucketService.setCreditBuckets(7, -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> accountBucketService.setCreditBuckets(7, AccountBucketService.MAX_CREDIT_BUCKETS + 1));
+        verifyNoInteractions(appAccountRepository);
+    }
+
+    @Test
+    void setCreditBuckets_AccountNotFound_Throws() {
+        // Arrange
+        when(appAccountRepository.updateCreditBuckets(7, 4)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> accountBucketService.setCreditBuckets(7, 4));
+        assertFalse(accountBucketService.isBucketed(7));
+    }
+
+    @Test
+    void consolidate_FoldsEveryAccountWithPendingCredits() {
+        // Arrange
+        when(accountBucketRepository.findUserIdsWithPendingCredits()).thenReturn(List.of(7, 9));
+        when(accountBucketRepository.findByUserIdForUpdate(anyInt())).thenReturn(List.of());
+
+        // Act
+        int consolidated = accountBucketService.consolidate();
+
+        // Assert
+        assertEquals(2, consolidated);
+        verify(balanceMutationExecutor).execute(eq(List.of(7)), any());
+        verify(balanceMutationExecutor).execute(eq(List.of(9)), any());
+    }
+
+    private static AppAccount bucketedAccount(int userId, int buckets) {
+        User user = new User();
+        user.setId(userId);
+        AppAccount account = new AppAccount();
+        account.setUser(user);
+        account.setCreditBuckets(buckets);
+        return account;
+    }
+
+    private static AccountBucket bucket(int userId, int slot, long amount) {
+        AccountBucket bucket = new AccountBucket();
+        bucket.setUserId(userId);
+        bucket.setSlot(slot);
+        bucket.setAmount(amount);
+        return bucket;
+    }
+}
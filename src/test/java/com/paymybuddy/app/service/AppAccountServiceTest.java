@@ -2,6 +2,8 @@ package com.paymybuddy.app.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.paymybuddy.app.config.BalanceConcurrencyMode;
+import com.paymybuddy.app.config.BalanceConcurrencyProperties;
 import com.paymybuddy.app.dto.AppAccountDTO;
 import com.paymybuddy.app.entity.AppAccount;
 import com.paymybuddy.app.entity.Role;
@@ -9,19 +11,24 @@ import com.paymybuddy.app.entity.User;
 import com.paymybuddy.app.exception.AccountAlreadyExistsException;
 import com.paymybuddy.app.exception.EntityNotFoundException;
 import com.paymybuddy.app.exception.EntitySaveException;
+import com.paymybuddy.app.exception.InsufficientBalanceException;
 import com.paymybuddy.app.exception.InvalidBalanceException;
 import com.paymybuddy.app.repository.AppAccountRepository;
 import com.paymybuddy.app.repository.RoleRepository;
 import com.paymybuddy.app.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.MediaType;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -42,6 +49,18 @@ class AppAccountServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private BalanceMutationExecutor balanceMutationExecutor;
+
+    @Spy
+    private BalanceConcurrencyProperties balanceConcurrencyProperties = new BalanceConcurrencyProperties();
+
+    @Mock
+    private AccountBucketService accountBucketService;
+
+    @Mock
+    private JournalService journalService;
+
     @InjectMocks
     private AppAccountService appAccountService;
 
@@ -73,6 +92,8 @@ class AppAccountServiceTest {
 
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
         when(appAccountRepository.findByUserId(user.getId())).thenReturn(Optional.of(account));
+        when(balanceMutationExecutor.execute(anyCollection(), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
     }
 
     @Test
@@ -97,17 +118,23 @@ class AppAccountServiceTest {
 
     @Test
     void testUpdateBalanceByUserId_Success() {
-        when(appAccountRepository.findByUserId(user.getId())).thenReturn(Optional.of(account));
+        AppAccount updatedAccount = new AppAccount();
+        updatedAccount.setUser(user);
+        updatedAccount.setBalance(150);
+        when(appAccountRepository.applyBalanceDelta(eq(user.getId()), eq(50L), eq(0L), any(LocalDateTime.class))).thenReturn(1);
+        when(appAccountRepository.findByUserId(user.getId())).thenReturn(Optional.of(updatedAccount));
 
         long updatedBalance = appAccountService.updateBalanceByUserId(user.getId(), 50);
 
         assertEquals(150, updatedBalance);
-        verify(appAccountRepository, times(1)).findByUserId(user.getId());
-        verify(appAccountRepository, times(1)).save(account);
+        verify(appAccountRepository, times(1)).applyBalanceDelta(eq(user.getId()), eq(50L), eq(0L), any(LocalDateTime.class));
+        verify(appAccountRepository, never()).save(any(AppAccount.class));
+        verify(journalService, times(1)).recordAdjustment(user.getId(), 50L);
     }
 
     @Test
     void testUpdateBalanceByUserId_AccountNotFound() {
+        when(appAccountRepository.applyBalanceDelta(anyInt(), anyLong(), anyLong(), any(LocalDateTime.class))).thenReturn(0);
         when(appAccountRepository.findByUserId(user.getId())).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> appAccountService.updateBalanceByUserId(user.getId(), 50));
@@ -116,10 +143,140 @@ class AppAccountServiceTest {
 
     @Test
     void testUpdateBalanceByUserId_NegativeBalance() {
-        when(appAccountRepository.findByUserId(user.getId())).thenReturn(Optional.of(account));
+        when(appAccountRepository.applyBalanceDelta(eq(user.getId()), eq(-200L), eq(200L), any(LocalDateTime.class))).thenReturn(0);
 
         assertThrows(InvalidBalanceException.class, () -> appAccountService.updateBalanceByUserId(user.getId(), -200));
         verify(appAccountRepository, times(1)).findByUserId(user.getId());
+        verify(journalService, never()).recordAdjustment(anyInt(), anyLong());
+    }
+
+    @Test
+    void testUpdateBalanceByUserId_OptimisticMode() {
+        balanceConcurrencyProperties.setConcurrencyMode(BalanceConcurrencyMode.OPTIMISTIC);
+
+        long updatedBalance = appAccountService.updateBalanceByUserId(user.getId(), 50);
+
+        assertEquals(150, updatedBalance);
+        verify(appAccountRepository, times(1)).saveAndFlush(account);
+        verify(appAccountRepository, never()).applyBalanceDelta(anyInt(), anyLong(), anyLong(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testUpdateBalanceByUserId_PessimisticMode() {
+        balanceConcurrencyProperties.setConcurrencyMode(BalanceConcurrencyMode.PESSIMISTIC);
+        when(appAccountRepository.findByUserIdForUpdate(user.getId())).thenReturn(Optional.of(account));
+
+        assertThrows(InvalidBalanceException.class, () -> appAccountService.updateBalanceByUserId(user.getId(), -200));
+        verify(appAccountRepository, times(1)).findByUserIdForUpdate(user.getId());
+        verify(appAccountRepository, never()).saveAndFlush(any(AppAccount.class));
+    }
+
+    @Test
+    void testMoveBalance_ConditionalTouchesLowerUserIdFirst() {
+        when(appAccountRepository.applyBalanceDelta(anyInt(), anyLong(), anyLong(), any(LocalDateTime.class))).thenReturn(1);
+
+        appAccountService.moveBalance(5, 110L, 2, 100L);
+
+        InOrder inOrder = inOrder(appAccountRepository);
+        inOrder.verify(appAccountRepository).applyBalanceDelta(eq(2), eq(100L), eq(0L), any(LocalDateTime.class));
+        inOrder.verify(appAccountRepository).applyBalanceDelta(eq(5), eq(-110L), eq(110L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testMoveBalances_DebitsOnceInAscendingUserIdOrder() {
+        when(appAccountRepository.applyBalanceDelta(anyInt(), anyLong(), anyLong(), any(LocalDateTime.class))).thenReturn(1);
+
+        appAccountService.moveBalances(5, 330L, Map.of(7, 100L, 2, 100L, 9, 100L));
+
+        InOrder inOrder = inOrder(appAccountRepository);
+        inOrder.verify(appAccountRepository).applyBalanceDelta(eq(2), eq(100L), eq(0L), any(LocalDateTime.class));
+        inOrder.verify(appAccountRepository).applyBalanceDelta(eq(5), eq(-330L), eq(330L), any(LocalDateTime.class));
+        inOrder.verify(appAccountRepository).applyBalanceDelta(eq(7), eq(100L), eq(0L), any(LocalDateTime.class));
+        inOrder.verify(appAccountRepository).applyBalanceDelta(eq(9), eq(100L), eq(0L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testMoveBalance_PessimisticLocksInAscendingOrder() {
+        balanceConcurrencyProperties.setConcurrencyMode(BalanceConcurrencyMode.PESSIMISTIC);
+        when(appAccountRepository.findByUserIdForUpdate(anyInt())).thenReturn(Optional.of(account));
+        when(appAccountRepository.applyBalanceDelta(anyInt(), anyLong(), anyLong(), any(LocalDateTime.class))).thenReturn(1);
+
+        appAccountService.moveBalance(5, 110L, 2, 100L);
+
+        InOrder inOrder = inOrder(appAccountRepository);
+        inOrder.verify(appAccountRepository).findByUserIdForUpdate(2);
+        inOrder.verify(appAccountRepository).findByUserIdForUpdate(5);
+    }
+
+    @Test
+    void testMoveBalance_OptimisticInsufficientBalance() {
+        balanceConcurrencyProperties.setConcurrencyMode(BalanceConcurrencyMode.OPTIMISTIC);
+        AppAccount receiverAccount = new AppAccount();
+        receiverAccount.setBalance(0);
+        when(appAccountRepository.findByUserId(2)).thenReturn(Optional.of(receiverAccount));
+
+        assertThrows(InsufficientBalanceException.class, () -> appAccountService.moveBalance(user.getId(), 500L, 2, 450L));
+        assertEquals(100, account.getBalance());
+        verify(appAccountRepository, never()).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void testDebitBalance_Success() {
+        when(appAccountRepository.applyBalanceDelta(eq(user.getId()), eq(-50L), eq(50L), any(LocalDateTime.class))).thenReturn(1);
+
+        appAccountService.debitBalance(user.getId(), 50);
+
+        verify(appAccountRepository, times(1)).applyBalanceDelta(eq(user.getId()), eq(-50L), eq(50L), any(LocalDateTime.class));
+        verify(appAccountRepository, never()).save(any(AppAccount.class));
+    }
+
+    @Test
+    void testDebitBalance_InsufficientBalance() {
+        when(appAccountRepository.applyBalanceDelta(eq(user.getId()), eq(-200L), eq(200L), any(LocalDateTime.class))).thenReturn(0);
+
+        InsufficientBalanceException exception = assertThrows(InsufficientBalanceException.class,
+                () -> appAccountService.debitBalance(user.getId(), 200));
+        assertEquals("Insufficient balance for user ID: " + user.getId(), exception.getMessage());
+    }
+
+    @Test
+    void testGetBalanceByUserId_BucketedAddsPendingCredits() {
+        account.setCreditBuckets(4);
+        when(accountBucketService.getPendingCredits(user.getId())).thenReturn(250L);
+
+        long balance = appAccountService.getBalanceByUserId(user.getId());
+
+        assertEquals(350, balance);
+    }
+
+    @Test
+    void testMoveBalance_BucketedReceiverCreditedInBucket() {
+        when(accountBucketService.isBucketed(2)).thenReturn(true);
+        when(accountBucketService.credit(2, 100L, 5)).thenReturn(true);
+        when(appAccountRepository.applyBalanceDelta(eq(5), eq(-110L), eq(110L), any(LocalDateTime.class))).thenReturn(1);
+
+        appAccountService.moveBalance(5, 110L, 2, 100L);
+
+        verify(accountBucketService).credit(2, 100L, 5);
+        verify(appAccountRepository, never()).applyBalanceDelta(eq(2), anyLong(), anyLong(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testDebitBalance_ShortfallFoldsBucketsAndRetries() {
+        when(appAccountRepository.applyBalanceDelta(eq(user.getId()), eq(-200L), eq(200L), any(LocalDateTime.class)))
+                .thenReturn(0, 1);
+        when(accountBucketService.foldIntoAccount(user.getId())).thenReturn(150L);
+
+        appAccountService.debitBalance(user.getId(), 200);
+
+        verify(appAccountRepository, times(2)).applyBalanceDelta(eq(user.getId()), eq(-200L), eq(200L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testCreditBalance_AccountNotFound() {
+        when(appAccountRepository.applyBalanceDelta(eq(user.getId()), eq(200L), eq(0L), any(LocalDateTime.class))).thenReturn(0);
+
+        assertThrows(EntityNotFoundException.class, () -> appAccountService.creditBalance(user.getId(), 200));
     }
 
     @Test
@@ -0,0 +1,76 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.config.BalanceConcurrencyProperties;
+import com.paymybuddy.app.exception.BalanceConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class BalanceMutationExecutorTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private AccountLockTable accountLockTable;
+
+    private BalanceConcurrencyProperties properties;
+    private BalanceMutationExecutor executor;
+    private final AtomicInteger heldStripes = new AtomicInteger();
+    private final AtomicInteger maxHeldStripes = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new BalanceConcurrencyProperties();
+        properties.setMaxAttempts(3);
+        properties.setRetryBackoffMillis(1);
+        when(accountLockTable.lock(anyCollection())).thenAnswer(invocation -> {
+            maxHeldStripes.accumulateAndGet(heldStripes.incrementAndGet(), Math::max);
+            return (AccountLockTable.Held) heldStripes::decrementAndGet;
+        });
+        executor = new BalanceMutationExecutor(transactionManager, accountLockTable, properties);
+    }
+
+    @Test
+    void execute_Conflict_ReleasesStripesBeforeRetrying() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        String result = executor.execute(List.of(1, 2), () -> {
+            if (attempts.incrementAndGet() == 1) {
+                assertEquals(1, heldStripes.get());
+                throw new OptimisticLockingFailureException("conflict");
+            }
+            return "done";
+        });
+
+        // Assert
+        assertEquals("done", result);
+        assertEquals(2, attempts.get());
+        verify(accountLockTable, times(2)).lock(List.of(1, 2));
+        assertEquals(0, heldStripes.get());
+        assertEquals(1, maxHeldStripes.get());
+    }
+
+    @Test
+    void execute_ConflictOnEveryAttempt_ThrowsWithStripesReleased() {
+        // Act & Assert
+        assertThrows(BalanceConflictException.class, () -> executor.execute(List.of(1), () -> {
+            throw new OptimisticLockingFailureException("conflict");
+        }));
+        verify(accountLockTable, times(3)).lock(List.of(1));
+        assertEquals(0, heldStripes.get());
+    }
+}
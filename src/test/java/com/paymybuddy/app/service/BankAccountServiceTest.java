@@ -30,6 +30,12 @@ class BankAccountServiceTest {
     @Mock
     private AppAccountRepository appAccountRepository;
 
+    @Mock
+    private AccountBucketService accountBucketService;
+
+    @Mock
+    private JournalService journalService;
+
     @InjectMocks
     private BankAccountService bankAccountService;
 
@@ -46,6 +52,7 @@ class BankAccountServiceTest {
         appAccount = new AppAccount();
         appAccount.setId(1);
         appAccount.setBalance(100000L);
+        appAccount.setUser(user);
 
         bankAccount = new BankAccount();
         bankAccount.setId(1);
@@ -98,6 +105,7 @@ class BankAccountServiceTest {
         assertEquals(60000, bankAccount.getAmount());
         verify(appAccountRepository, times(1)).save(appAccount);
         verify(bankAccountRepository, times(1)).save(bankAccount);
+        verify(journalService, times(1)).recordBankTransfer(user.getId(), bankAccount.getId(), -10000L);
     }
 
     @Test
@@ -130,6 +138,7 @@ class BankAccountServiceTest {
         assertEquals(40000L, bankAccount.getAmount());
         verify(appAccountRepository, times(1)).save(appAccount);
         verify(bankAccountRepository, times(1)).save(bankAccount);
+        verify(journalService, times(1)).recordBankTransfer(user.getId(), bankAccount.getId(), 10000L);
     }
 
     @Test
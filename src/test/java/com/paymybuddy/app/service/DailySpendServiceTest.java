@@ -0,0 +1,121 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.config.BusinessTimeProperties;
+import com.paymybuddy.app.exception.TransactionLimitExceededException;
+import com.paymybuddy.app.repository.DailySpendRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DailySpendServiceTest {
+
+    @Mock
+    private DailySpendRepository dailySpendRepository;
+
+    @Spy
+    private BusinessTimeProperties businessTimeProperties = new BusinessTimeProperties();
+
+    @InjectMocks
+    private DailySpendService dailySpendService;
+
+    private final int userId = 1;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        today = dailySpendService.today();
+    }
+
+    @Test
+    void reserve_withinLimit() {
+        // Arrange
+        when(dailySpendRepository.incrementWithinLimit(userId, today, 10000L)).thenReturn(1);
+
+        // Act
+        dailySpendService.reserve(userId, 10000L);
+
+        // Assert
+        verify(dailySpendRepository, times(1)).insertIfAbsent(userId, today);
+        verify(dailySpendRepository, times(1)).incrementWithinLimit(userId, today, 10000L);
+    }
+
+    @Test
+    void reserve_limitExceeded() {
+        // Arrange
+        when(dailySpendRepository.incrementWithinLimit(userId, today, 10000L)).thenReturn(0);
+
+        // Act & Assert
+        TransactionLimitExceededException exception = assertThrows(TransactionLimitExceededException.class, () ->
+                dailySpendService.reserve(userId, 10000L));
+        assertEquals("Transaction limit exceeded for the day.", exception.getMessage());
+    }
+
+    @Test
+    void getSpentToday_isServedFromCacheAndReloadedAfterCommittedChanges() {
+        // Arrange
+        when(dailySpendRepository.findAmount(userId, today)).thenReturn(Optional.of(20000L), Optional.of(23000L));
+        when(dailySpendRepository.incrementWithinLimit(userId, today, 5000L)).thenReturn(1);
+
+        // Act
+        long first = dailySpendService.getSpentToday(userId);
+        long cached = dailySpendService.getSpentToday(userId);
+        dailySpendService.reserve(userId, 5000L);
+        dailySpendService.release(userId, today, 2000L);
+        long second = dailySpendService.getSpentToday(userId);
+
+        // Assert
+        assertEquals(20000L, first);
+        assertEquals(20000L, cached);
+        assertEquals(23000L, second);
+        verify(dailySpendRepository, times(2)).findAmount(userId, today);
+    }
+
+    @Test
+    void reserve_afterLoadThatAlreadyCountedIt_IsNotCountedTwice() {
+        // Arrange: the load reads the row after the reserve's update committed
+        when(dailySpendRepository.findAmount(userId, today)).thenReturn(Optional.of(25000L));
+        when(dailySpendRepository.incrementWithinLimit(userId, today, 5000L)).thenReturn(1);
+        dailySpendService.getSpentToday(userId);
+
+        // Act
+        dailySpendService.reserve(userId, 5000L);
+
+        // Assert
+        assertEquals(25000L, dailySpendService.getSpentToday(userId));
+    }
+
+    @Test
+    void getSpentToday_noRowYet() {
+        // Arrange
+        when(dailySpendRepository.findAmount(userId, today)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertEquals(0L, dailySpendService.getSpentToday(userId));
+    }
+
+    @Test
+    void businessDayOf_usesConfiguredTimeZone() {
+        // Arrange
+        businessTimeProperties.setTimeZone(ZoneId.of("Pacific/Kiritimati"));
+        LocalDateTime lateEvening = LocalDate.of(2024, 12, 6).atTime(23, 30)
+                .atZone(ZoneId.of("UTC")).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+
+        // Act
+        LocalDate businessDay = dailySpendService.businessDayOf(lateEvening);
+
+        // Assert
+        assertEquals(LocalDate.of(2024, 12, 7), businessDay);
+    }
+}
@@ -0,0 +1,203 @@
+package com.paymybuddy.app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymybuddy.app.config.IdempotencyProperties;
+import com.paymybuddy.app.entity.IdempotencyRecord;
+import com.paymybuddy.app.exception.IdempotencyKeyConflictException;
+import com.paymybuddy.app.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        IdempotencyProperties idempotencyProperties = new IdempotencyProperties();
+        idempotencyProperties.setInProgressWait(Duration.ofMillis(100));
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, idempotencyProperties,
+                new ObjectMapper(), transactionManager);
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void execute_NoKey_RunsWithoutStoringAnything() {
+        // Act
+        String result = idempotencyService.execute("payment:1", null, "2|100|Lunch", String.class, () -> "done");
+
+        // Assert
+        assertEquals("done", result);
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    void execute_InvalidKey_ThrowsException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotencyService.execute("payment:1", " ", "2|100|Lunch", String.class, () -> "done"));
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotencyService.execute("payment:1", "k".repeat(IdempotencyService.MAX_KEY_LENGTH + 1),
+                        "2|100|Lunch", String.class, () -> "done"));
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    void execute_NewKey_ClaimsRunsAndStoresResponse() {
+        // Act
+        String result = idempotencyService.execute("payment:1", "key-1", "2|100|Lunch", String.class, () -> "done");
+
+        // Assert
+        assertEquals("done", result);
+        verify(idempotencyRecordRepository, times(1)).claim(eq("payment:1:key-1"), anyString(),
+                any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(idempotencyRecordRepository, times(1)).complete("payment:1:key-1", "\"done\"");
+    }
+
+    @Test
+    void execute_SameKeyTwice_ReplaysFromCache() {
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        String first = idempotencyService.execute("payment:1", "key-1", "2|100|Lunch", String.class,
+                () -> "done " + runs.incrementAndGet());
+        String second = idempotencyService.execute("payment:1", "key-1", "2|100|Lunch", String.class,
+                () -> "done " + runs.incrementAndGet());
+
+        // Assert
+        assertEquals("done 1", first);
+        assertEquals("done 1", second);
+        assertEquals(1, runs.get());
+        verify(idempotencyRecordRepository, times(1)).claim(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void execute_SameKeyOtherRequest_ThrowsConflict() {
+        // Arrange
+        idempotencyService.execute("payment:1", "key-1", "2|100|Lunch", String.class, () -> "done");
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> idempotencyService.execute("payment:1", "key-1", "2|500|Lunch", String.class, () -> "again"));
+    }
+
+    @Test
+    void execute_KeyStoredByAnotherNode_ReplaysStoredResponse() {
+        // Arrange
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        idempotencyService.execute("payment:2", "key-1", "2|100|Lunch", String.class, () -> "done");
+        verify(idempotencyRecordRepository).claim(anyString(), hash.capture(), any(), any());
+
+        IdempotencyRecord stored = new IdempotencyRecord();
+        stored.setId("payment:1:key-1");
+        stored.setRequestHash(hash.getValue());
+        stored.setResponseBody("\"done elsewhere\"");
+        stored.setCreatedAt(LocalDateTime.now());
+        stored.setExpiresAt(LocalDateTime.now().plusHours(1));
+        when(idempotencyRecordRepository.findById("payment:1:key-1")).thenReturn(Optional.of(stored));
+
+        // Act
+        String result = idempotencyService.execute("payment:1", "key-1", "2|100|Lunch", String.class,
+                () -> fail("Request must not run again"));
+
+        // Assert
+        assertEquals("done elsewhere", result);
+        verify(idempotencyRecordRepository, never()).claim(eq("payment:1:key-1"), anyString(), any(), any());
+    }
+
+    @Test
+    void execute_KeyStillInProgress_ThrowsConflictAfterWaiting() {
+        // Arrange
+        IdempotencyRecord inProgress = new IdempotencyRecord();
+        inProgress.setId("payment:1:key-1");
+        inProgress.setRequestHash("hash");
+        inProgress.setCreatedAt(LocalDateTime.now());
+        inProgress.setExpiresAt(LocalDateTime.now().plusHours(1));
+        when(idempotencyRecordRepository.findById("payment:1:key-1")).thenReturn(Optional.of(inProgress));
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> idempotencyService.execute("payment:1", "key-1", "2|100|Lunch", String.class, () -> "done"));
+    }
+
+    @Test
+    void execute_ClaimRace_RetriesAndReplaysWinner() {
+        // Arrange
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        idempotencyService.execute("payment:2", "key-1", "2|100|Lunch", String.class, () -> "done");
+        verify(idempotencyRecordRepository).claim(anyString(), hash.capture(), any(), any());
+
+        IdempotencyRecord stored = new IdempotencyRecord();
+        stored.setId("payment:1:key-1");
+        stored.setRequestHash(hash.getValue());
+        stored.setResponseBody("\"winner\"");
+        stored.setCreatedAt(LocalDateTime.now());
+        stored.setExpiresAt(LocalDateTime.now().plusHours(1));
+        when(idempotencyRecordRepository.findById("payment:1:key-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(stored));
+        when(idempotencyRecordRepository.claim(eq("payment:1:key-1"), anyString(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // Act
+        String result = idempotencyService.execute("payment:1", "key-1", "2|100|Lunch", String.class,
+                () -> fail("Request must not run again"));
+
+        // Assert
+        assertEquals("winner", result);
+    }
+
+    @Test
+    void execute_FailedRequest_ReleasesKey() {
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("payment:1", "key-1",
+                "2|100|Lunch", String.class, () -> {
+                    runs.incrementAndGet();
+                    throw new IllegalStateException("Insufficient balance");
+                }));
+        String retried = idempotencyService.execute("payment:1", "key-1", "2|100|Lunch", String.class,
+                () -> "done " + runs.incrementAndGet());
+
+        // Assert
+        assertEquals("done 2", retried);
+        verify(idempotencyRecordRepository, times(1)).deleteById("payment:1:key-1");
+        verify(idempotencyRecordRepository, times(1)).complete("payment:1:key-1", "\"done 2\"");
+    }
+
+    @Test
+    void purgeExpired_DeletesExpiredRows() {
+        // Arrange
+        when(idempotencyRecordRepository.deleteExpired(any(LocalDateTime.class))).thenReturn(3);
+
+        // Act
+        int deleted = idempotencyService.purgeExpired();
+
+        // Assert
+        assertEquals(3, deleted);
+    }
+}
@@ -0,0 +1,176 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.entity.JournalAccount;
+import com.paymybuddy.app.entity.JournalEntry;
+import com.paymybuddy.app.entity.Transaction;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.repository.JournalEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JournalServiceTest {
+
+    @Mock
+    private JournalEntryRepository journalEntryRepository;
+
+    @InjectMocks
+    private JournalService journalService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(journalEntryRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void recordPayment_PostsBalancedEntries() {
+        // Arrange
+        Transaction transaction = transaction(10000L, 10050L);
+
+        // Act
+        List<JournalEntry> entries = journalService.recordPayment(transaction);
+
+        // Assert
+        assertEquals(3, entries.size());
+        assertEquals(-10050L, entries.get(0).getAmount());
+        assertEquals(1, entries.get(0).getUserId());
+        assertEquals(10000L, entries.get(1).getAmount());
+        assertEquals(2, entries.get(1).getUserId());
+        assertEquals(JournalAccount.FEE_REVENUE, entries.get(2).getAccount());
+        assertNull(entries.get(2).getUserId());
+        assertEquals(50L, entries.get(2).getAmount());
+        assertEquals(0L, entries.stream().mapToLong(JournalEntry::getAmount).sum());
+        assertTrue(entries.stream().allMatch(entry -> entry.getTransactionId() == 5 && entry.getReversalOf() == null));
+    }
+
+    @Test
+    void recordPayment_NoFee_SkipsRevenueEntry() {
+        // Act
+        List<JournalEntry> entries = journalService.recordPayment(transaction(10000L, 10000L));
+
+        // Assert
+        assertEquals(2, entries.size());
+        assertTrue(entries.stream().allMatch(entry -> entry.getAccount() == JournalAccount.USER_BALANCE));
+    }
+
+    @Test
+    void recordPayments_PostsAllLinesInOneCall() {
+        // Act
+        List<JournalEntry> entries = journalService.recordPayments(List.of(transaction(10000L, 10050L),
+                transaction(10000L, 10000L)));
+
+        // Assert
+        assertEquals(5, entries.size());
+        assertEquals(0L, entries.stream().mapToLong(JournalEntry::getAmount).sum());
+        verify(journalEntryRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void recordBankTransfer_PostsUserAndBankLines() {
+        // Act
+        List<JournalEntry> entries = journalService.recordBankTransfer(1, 9, -2500L);
+
+        // Assert
+        assertEquals(2, entries.size());
+        assertEquals(JournalAccount.USER_BALANCE, entries.get(0).getAccount());
+        assertEquals(1, entries.get(0).getUserId());
+        assertEquals(-2500L, entries.get(0).getAmount());
+        assertEquals(JournalAccount.BANK, entries.get(1).getAccount());
+        assertEquals(2500L, entries.get(1).getAmount());
+        assertTrue(entries.stream().allMatch(entry -> entry.getBankAccountId() == 9 && entry.getTransactionId() == null));
+    }
+
+    @Test
+    void recordAdjustment_PostsUserAndAdjustmentLines() {
+        // Act
+        List<JournalEntry> entries = journalService.recordAdjustment(1, 700L);
+
+        // Assert
+        assertEquals(2, entries.size());
+        assertEquals(700L, entries.get(0).getAmount());
+        assertEquals(1, entries.get(0).getUserId());
+        assertEquals(JournalAccount.ADJUSTMENT, entries.get(1).getAccount());
+        assertEquals(-700L, entries.get(1).getAmount());
+    }
+
+    @Test
+    void recordReversal_PostsOppositeOfEachEntry() {
+        // Arrange
+        Transaction transaction = transaction(10000L, 10050L);
+        List<JournalEntry> posted = journalService.recordPayment(transaction);
+        for (int i = 0; i < posted.size(); i++) {
+            posted.get(i).setId(100 + i);
+        }
+        when(journalEntryRepository.findByTransactionIdOrderById(5)).thenReturn(posted);
+
+        // Act
+        List<JournalEntry> reversals = journalService.recordReversal(transaction);
+
+        // Assert
+        assertEquals(posted.size(), reversals.size());
+        for (int i = 0; i < posted.size(); i++) {
+            assertEquals(-posted.get(i).getAmount(), reversals.get(i).getAmount());
+            assertEquals(posted.get(i).getAccount(), reversals.get(i).getAccount());
+            assertEquals(posted.get(i).getUserId(), reversals.get(i).getUserId());
+            assertEquals(posted.get(i).getId(), reversals.get(i).getReversalOf());
+        }
+    }
+
+    @Test
+    void recordReversal_AlreadyReversed_Throws() {
+        // Arrange
+        JournalEntry reversal = new JournalEntry();
+        reversal.setReversalOf(100L);
+        when(journalEntryRepository.findByTransactionIdOrderById(5)).thenReturn(List.of(new JournalEntry(), reversal));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> journalService.recordReversal(transaction(10000L, 10050L)));
+        verify(journalEntryRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void recordReversal_NoEntries_ReversesAgainstOpeningBalances() {
+        // Arrange
+        when(journalEntryRepository.findByTransactionIdOrderById(5)).thenReturn(List.of());
+
+        // Act
+        List<JournalEntry> reversals = journalService.recordReversal(transaction(10000L, 10050L));
+
+        // Assert
+        assertEquals(3, reversals.size());
+        assertEquals(1, reversals.get(0).getUserId());
+        assertEquals(10050L, reversals.get(0).getAmount());
+        assertEquals(2, reversals.get(1).getUserId());
+        assertEquals(-10000L, reversals.get(1).getAmount());
+        assertEquals(JournalAccount.OPENING, reversals.get(2).getAccount());
+        assertEquals(-50L, reversals.get(2).getAmount());
+        assertEquals(0L, reversals.stream().mapToLong(JournalEntry::getAmount).sum());
+        assertTrue(reversals.stream().allMatch(entry -> entry.getTransactionId() == 5 && entry.getReversalOf() == null));
+    }
+
+    private static Transaction transaction(long amount, long amountWithFee) {
+        User sender = new User();
+        sender.setId(1);
+        User receiver = new User();
+        receiver.setId(2);
+
+        Transaction transaction = new Transaction();
+        transaction.setId(5);
+        transaction.setUserSender(sender);
+        transaction.setUserReceiver(receiver);
+        transaction.setAmount(amount);
+        transaction.setAmountWithFee(amountWithFee);
+        transaction.setTransactionDate(LocalDateTime.now());
+        return transaction;
+    }
+}
@@ -1,6 +1,7 @@
 package com.paymybuddy.app.service;
 
 import com.paymybuddy.app.dto.MonetizationDTO;
+import com.paymybuddy.app.dto.RevenueSummaryDTO;
 import com.paymybuddy.app.entity.Monetization;
 import com.paymybuddy.app.entity.Transaction;
 import com.paymybuddy.app.exception.EntityNotFoundException;
@@ -12,6 +13,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -23,6 +26,9 @@ public class MonetizationServiceTest {
     @Mock
     private MonetizationRepository monetizationRepository;
 
+    @Mock
+    private RevenueLedgerService revenueLedgerService;
+
     @InjectMocks
     private MonetizationService monetizationService;
 
@@ -33,7 +39,7 @@ public class MonetizationServiceTest {
     @Test
     public void testShouldReturnTotalResult() {
         // Arrange
-        when(monetizationRepository.calculateTotalResult()).thenReturn(Optional.of(300L));
+        when(revenueLedgerService.getTotalRevenue()).thenReturn(new RevenueSummaryDTO(300L, 2));
 
         // Act
         long total = monetizationService.getTotalResult();
@@ -45,7 +51,7 @@ public class MonetizationServiceTest {
     @Test
     public void testShouldThrowExceptionWhenNoMonetizationFound() {
         // Arrange
-        when(monetizationRepository.calculateTotalResult()).thenReturn(Optional.empty());
+        when(revenueLedgerService.getTotalRevenue()).thenReturn(new RevenueSummaryDTO(0L, 0));
 
         // Act & Assert
         Exception exception = assertThrows(EntityNotFoundException.class, () -> {
@@ -59,8 +65,10 @@ public class MonetizationServiceTest {
     void testSaveMonetization_success() {
         // Arrange
         Transaction transaction = new Transaction();
+        transaction.setId(7);
         transaction.setAmount(10000);
         transaction.setAmountWithFee(10250);
+        transaction.setTransactionDate(LocalDateTime.now());
 
         when(monetizationRepository.save(any(Monetization.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -69,6 +77,66 @@ public class MonetizationServiceTest {
 
         // Assert
         verify(monetizationRepository, times(1)).save(any(Monetization.class));
+        verify(revenueLedgerService, times(1)).recordRevenue(7, transaction.getTransactionDate(), 250L);
+    }
+
+    @Test
+    void testSaveMonetizations_savesAllAndRecordsRevenueOnce() {
+        // Arrange
+        LocalDateTime date = LocalDateTime.now();
+        Transaction first = new Transaction();
+        first.setId(7);
+        first.setAmount(10000);
+        first.setAmountWithFee(10250);
+        first.setTransactionDate(date);
+        Transaction second = new Transaction();
+        second.setId(8);
+        second.setAmount(2000);
+        second.setAmountWithFee(2050);
+        second.setTransactionDate(date);
+
+        // Act
+        monetizationService.saveMonetizations(List.of(first, second));
+
+        // Assert
+        verify(monetizationRepository, times(1)).saveAll(anyList());
+        verify(monetizationRepository, never()).save(any(Monetization.class));
+        verify(revenueLedgerService, times(1)).recordRevenue(7, date, 300L, 2);
+    }
+
+    @Test
+    void testCancelMonetization_reversesRevenue() {
+        // Arrange
+        Transaction transaction = new Transaction();
+        transaction.setId(7);
+        transaction.setTransactionDate(LocalDateTime.now());
+        Monetization monetization = new Monetization();
+        monetization.setResult(250L);
+        monetization.setTransaction(transaction);
+
+        when(monetizationRepository.findByTransactionId(7)).thenReturn(Optional.of(monetization));
+
+        // Act
+        monetizationService.cancelMonetization(transaction);
+
+        // Assert
+        verify(monetizationRepository, never()).delete(any(Monetization.class));
+        verify(revenueLedgerService, times(1)).reverseRevenue(7, transaction.getTransactionDate(), 250L);
+    }
+
+    @Test
+    void testCancelMonetization_noMonetization() {
+        // Arrange
+        Transaction transaction = new Transaction();
+        transaction.setId(7);
+
+        when(monetizationRepository.findByTransactionId(7)).thenReturn(Optional.empty());
+
+        // Act
+        monetizationService.cancelMonetization(transaction);
+
+        // Assert
+        verify(revenueLedgerService, never()).reverseRevenue(anyInt(), any(), anyLong());
     }
 
     @Test
@@ -85,6 +153,7 @@ public class MonetizationServiceTest {
         assertThrows(EntitySaveException.class, () -> monetizationService.saveMonetization(transaction));
 
         verify(monetizationRepository, times(1)).save(any(Monetization.class));
+        verify(revenueLedgerService, never()).recordRevenue(anyInt(), any(), anyLong());
     }
 
     @Test
@@ -0,0 +1,158 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.config.GroupCommitProperties;
+import com.paymybuddy.app.datasource.PrimaryPinGuard;
+import com.paymybuddy.app.entity.Transaction;
+import com.paymybuddy.app.exception.InsufficientBalanceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PaymentGroupCommitterTest {
+
+    private static final int PAYMENTS = 8;
+
+    @Mock
+    private TransferEngine transferEngine;
+
+    @Mock
+    private BalanceMutationExecutor balanceMutationExecutor;
+
+    @Mock
+    private PrimaryPinGuard primaryPinGuard;
+
+    private PaymentGroupCommitter committer;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(balanceMutationExecutor.execute(anyCollection(), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+        when(transferEngine.transfer(anyInt(), anyInt(), anyLong(), anyString())).thenAnswer(invocation -> {
+            Transaction transaction = new Transaction();
+            transaction.setId(invocation.getArgument(0));
+            return transaction;
+        });
+
+        GroupCommitProperties properties = new GroupCommitProperties();
+        properties.setEnabled(true);
+        properties.setMaxBatchSize(PAYMENTS);
+        properties.setMaxLinger(Duration.ofMillis(200));
+        committer = new PaymentGroupCommitter(transferEngine, balanceMutationExecutor, primaryPinGuard,
+                properties, new SimpleMeterRegistry());
+        callers = Executors.newFixedThreadPool(PAYMENTS);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        callers.shutdownNow();
+        committer.shutdown();
+    }
+
+    @Test
+    void transfer_ConcurrentPayments_CommittedInOneTransaction() throws Exception {
+        // Act
+        List<Future<Transaction>> results = submitAll();
+
+        // Assert
+        for (int i = 0; i < PAYMENTS; i++) {
+            assertEquals(100 + i, results.get(i).get().getId());
+        }
+        verify(balanceMutationExecutor, times(1)).execute(anyCollection(), any());
+        verify(transferEngine, times(PAYMENTS)).transfer(anyInt(), anyInt(), anyLong(), anyString());
+    }
+
+    @Test
+    void transfer_OnePaymentFails_OnlyItsCallerGetsTheFailure() throws Exception {
+        // Arrange
+        when(transferEngine.transfer(eq(103), anyInt(), anyLong(), anyString()))
+                .thenThrow(new InsufficientBalanceException("Insufficient balance for user ID: 103"));
+
+        // Act
+        List<Future<Transaction>> results = submitAll();
+
+        // Assert
+        for (int i = 0; i < PAYMENTS; i++) {
+            Future<Transaction> result = results.get(i);
+            if (i == 3) {
+                ExecutionException failure = assertThrows(ExecutionException.class, result::get);
+                assertInstanceOf(InsufficientBalanceException.class, failure.getCause());
+            } else {
+                assertEquals(100 + i, result.get().getId());
+            }
+        }
+    }
+
+    @Test
+    void transfer_Disabled_Throws() {
+        // Arrange
+        PaymentGroupCommitter disabled = new PaymentGroupCommitter(transferEngine, balanceMutationExecutor,
+                primaryPinGuard, new GroupCommitProperties(), new SimpleMeterRegistry());
+
+        // Act & Assert
+        assertFalse(disabled.isEnabled());
+        assertThrows(IllegalStateException.class, () -> disabled.transfer(1, 2, 100, "Test"));
+    }
+
+    @Test
+    void transfer_ShutdownBeforeEnqueue_FailsInsteadOfWaitingForever() throws Exception {
+        // Arrange: the committer stops and drains its queue between the caller's running check and its enqueue
+        GroupCommitProperties properties = new GroupCommitProperties();
+        properties.setEnabled(true);
+        PaymentGroupCommitter[] racing = new PaymentGroupCommitter[1];
+        BlockingQueue<PaymentGroupCommitter.PendingPayment> queue = new LinkedBlockingQueue<>() {
+            @Override
+            public boolean add(PaymentGroupCommitter.PendingPayment payment) {
+                try {
+                    racing[0].shutdown();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return super.add(payment);
+            }
+        };
+        racing[0] = new PaymentGroupCommitter(transferEngine, balanceMutationExecutor, primaryPinGuard, properties,
+                new SimpleMeterRegistry(), queue);
+
+        // Act
+        Future<Transaction> result = callers.submit(() -> racing[0].transfer(100, 1, 500, "Payment"));
+
+        // Assert
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertTrue(queue.isEmpty());
+        verify(transferEngine, never()).transfer(anyInt(), anyInt(), anyLong(), anyString());
+    }
+
+    /**
+     * Submits the payments from separate threads, each sender paying user 1.
+     */
+    private List<Future<Transaction>> submitAll() {
+        List<Future<Transaction>> results = new ArrayList<>();
+        for (int i = 0; i < PAYMENTS; i++) {
+            int senderId = 100 + i;
+            results.add(callers.submit(() -> committer.transfer(senderId, 1, 500, "Payment " + senderId)));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,169 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.config.ReconciliationProperties;
+import com.paymybuddy.app.dto.UserAmountDTO;
+import com.paymybuddy.app.entity.ReconciliationDiscrepancy;
+import com.paymybuddy.app.entity.ReconciliationRun;
+import com.paymybuddy.app.exception.EntityNotFoundException;
+import com.paymybuddy.app.repository.AccountBucketRepository;
+import com.paymybuddy.app.repository.AppAccountRepository;
+import com.paymybuddy.app.repository.JournalEntryRepository;
+import com.paymybuddy.app.repository.ReconciliationDiscrepancyRepository;
+import com.paymybuddy.app.repository.ReconciliationRunRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReconciliationServiceTest {
+
+    @Mock
+    private AppAccountRepository appAccountRepository;
+
+    @Mock
+    private AccountBucketRepository accountBucketRepository;
+
+    @Mock
+    private JournalEntryRepository journalEntryRepository;
+
+    @Mock
+    private ReconciliationRunRepository reconciliationRunRepository;
+
+    @Mock
+    private ReconciliationDiscrepancyRepository reconciliationDiscrepancyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReconciliationProperties reconciliationProperties;
+    private ReconciliationService reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        reconciliationProperties = new ReconciliationProperties();
+        reconciliationProperties.setChunkSize(10);
+        reconciliationProperties.setParallelism(3);
+        reconciliationService = new ReconciliationService(appAccountRepository, accountBucketRepository,
+                journalEntryRepository, reconciliationRunRepository, reconciliationDiscrepancyRepository,
+                reconciliationProperties, transactionManager);
+
+        when(accountBucketRepository.sumByUserIdBetween(anyInt(), anyInt())).thenReturn(List.of());
+        when(journalEntryRepository.sumBalancesByUserIdBetween(anyInt(), anyInt())).thenReturn(List.of());
+        when(appAccountRepository.findBalancesByUserIdBetween(anyInt(), anyInt())).thenReturn(List.of());
+    }
+
+    @Test
+    void reconcile_NoAccounts_StoresEmptyRun() {
+        // Arrange
+        when(appAccountRepository.findMinUserId()).thenReturn(null);
+        when(appAccountRepository.findMaxUserId()).thenReturn(null);
+
+        // Act
+        ReconciliationRun run = reconciliationService.reconcile();
+
+        // Assert
+        assertEquals(0, run.getAccountsChecked());
+        assertEquals(0, run.getDiscrepancyCount());
+        verify(reconciliationRunRepository, times(1)).save(run);
+        verify(appAccountRepository, never()).findBalancesByUserIdBetween(anyInt(), anyInt());
+    }
+
+    @Test
+    void reconcile_SplitsRangeInChunksAndCountsAccounts() {
+        // Arrange
+        when(appAccountRepository.findMinUserId()).thenReturn(1);
+        when(appAccountRepository.findMaxUserId()).thenReturn(45);
+        when(appAccountRepository.findBalancesByUserIdBetween(anyInt(), anyInt())).thenAnswer(invocation -> {
+            List<UserAmountDTO> balances = new ArrayList<>();
+            for (int userId = invocation.<Integer>getArgument(0); userId <= invocation.<Integer>getArgument(1); userId++) {
+                balances.add(new UserAmountDTO(userId, 0L));
+            }
+            return balances;
+        });
+
+        // Act
+        ReconciliationRun run = reconciliationService.reconcile();
+
+        // Assert
+        assertEquals(45, run.getAccountsChecked());
+        assertEquals(0, run.getDiscrepancyCount());
+        ArgumentCaptor<Integer> from = ArgumentCaptor.forClass(Integer.class);
+        ArgumentCaptor<Integer> to = ArgumentCaptor.forClass(Integer.class);
+        verify(appAccountRepository, atLeast(5)).findBalancesByUserIdBetween(from.capture(), to.capture());
+        for (int i = 0; i < from.getAllValues().size(); i++) {
+            assertTrue(to.getAllValues().get(i) - from.getAllValues().get(i) < 10);
+        }
+    }
+
+    @Test
+    void reconcile_ReportsConfirmedMismatchesOnly() {
+        // Arrange
+        when(appAccountRepository.findMinUserId()).thenReturn(1);
+        when(appAccountRepository.findMaxUserId()).thenReturn(3);
+        when(appAccountRepository.findBalancesByUserIdBetween(1, 3)).thenReturn(List.of(
+                new UserAmountDTO(1, 1000L), new UserAmountDTO(2, 500L), new UserAmountDTO(3, 200L)));
+        when(accountBucketRepository.sumByUserIdBetween(1, 3)).thenReturn(List.of(new UserAmountDTO(2, 300L)));
+        when(journalEntryRepository.sumBalancesByUserIdBetween(1, 3)).thenReturn(List.of(
+                new UserAmountDTO(1, 1000L), new UserAmountDTO(2, 800L), new UserAmountDTO(3, 100L)));
+        // User 3 is still off when read again on its own
+        when(appAccountRepository.findBalancesByUserIdBetween(3, 3)).thenReturn(List.of(new UserAmountDTO(3, 200L)));
+        when(journalEntryRepository.sumBalancesByUserIdBetween(3, 3)).thenReturn(List.of(new UserAmountDTO(3, 100L)));
+        when(reconciliationRunRepository.save(any(ReconciliationRun.class))).thenAnswer(invocation -> {
+            ReconciliationRun saved = invocation.getArgument(0);
+            saved.setId(7);
+            return saved;
+        });
+
+        // Act
+        ReconciliationRun run = reconciliationService.reconcile();
+
+        // Assert
+        assertEquals(3, run.getAccountsChecked());
+        assertEquals(1, run.getDiscrepancyCount());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ReconciliationDiscrepancy>> saved = ArgumentCaptor.forClass(List.class);
+        verify(reconciliationDiscrepancyRepository).saveAll(saved.capture());
+        ReconciliationDiscrepancy discrepancy = saved.getValue().get(0);
+        assertEquals(7, discrepancy.getRunId());
+        assertEquals(3, discrepancy.getUserId());
+        assertEquals(200L, discrepancy.getRecordedBalance());
+        assertEquals(100L, discrepancy.getExpectedBalance());
+    }
+
+    @Test
+    void reconcile_MismatchGoneWhenReadAgain_NotReported() {
+        // Arrange
+        when(appAccountRepository.findMinUserId()).thenReturn(1);
+        when(appAccountRepository.findMaxUserId()).thenReturn(1);
+        when(appAccountRepository.findBalancesByUserIdBetween(1, 1))
+                .thenReturn(List.of(new UserAmountDTO(1, 1000L)))
+                .thenReturn(List.of(new UserAmountDTO(1, 900L)));
+        when(journalEntryRepository.sumBalancesByUserIdBetween(1, 1)).thenReturn(List.of(new UserAmountDTO(1, 900L)));
+
+        // Act
+        ReconciliationRun run = reconciliationService.reconcile();
+
+        // Assert
+        assertEquals(0, run.getDiscrepancyCount());
+    }
+
+    @Test
+    void getLatestRun_NoRun_Throws() {
+        // Arrange
+        when(reconciliationRunRepository.findTopByOrderByIdDesc()).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> reconciliationService.getLatestRun());
+    }
+}
@@ -0,0 +1,113 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.entity.id.UserRelationId;
+import com.paymybuddy.app.repository.UserRelationRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RelationGraphIndexTest {
+
+    @Mock
+    private UserRelationRepository userRelationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private RelationGraphIndex relationGraphIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(userRelationRepository.findAllRelationIds()).thenReturn(List.of(
+                new UserRelationId(1, 2),
+                new UserRelationId(3, 1),
+                new UserRelationId(2, 3)));
+        when(userRepository.findDeletedUserIds()).thenReturn(List.of());
+        relationGraphIndex.rebuild();
+    }
+
+    @Test
+    void isConnected_isSymmetric() {
+        // Assert
+        assertTrue(relationGraphIndex.isConnected(1, 2));
+        assertTrue(relationGraphIndex.isConnected(2, 1));
+        assertTrue(relationGraphIndex.isConnected(1, 3));
+        assertFalse(relationGraphIndex.isConnected(1, 4));
+        assertFalse(relationGraphIndex.isConnected(4, 1));
+    }
+
+    @Test
+    void getRelatedUserIds_sortedAndWithoutDeletedUsers() {
+        // Act
+        relationGraphIndex.setDeleted(3, true);
+
+        // Assert
+        assertArrayEquals(new int[]{1}, relationGraphIndex.getRelatedUserIds(2));
+        assertArrayEquals(new int[]{1, 2}, relationGraphIndex.getRelatedUserIds(3));
+        assertArrayEquals(new int[0], relationGraphIndex.getRelatedUserIds(4));
+
+        relationGraphIndex.setDeleted(3, false);
+        assertArrayEquals(new int[]{1, 3}, relationGraphIndex.getRelatedUserIds(2));
+    }
+
+    @Test
+    void addAndRemoveRelation_updateBothUsers() {
+        // Act
+        relationGraphIndex.addRelation(4, 1);
+
+        // Assert
+        assertTrue(relationGraphIndex.isConnected(1, 4));
+        assertArrayEquals(new int[]{2, 3, 4}, relationGraphIndex.getRelatedUserIds(1));
+
+        relationGraphIndex.removeRelation(1, 2);
+        assertFalse(relationGraphIndex.isConnected(2, 1));
+        assertArrayEquals(new int[]{3}, relationGraphIndex.getRelatedUserIds(2));
+    }
+
+    @Test
+    void removeUser_dropsAllItsRelations() {
+        // Act
+        relationGraphIndex.removeUser(1);
+
+        // Assert
+        assertArrayEquals(new int[0], relationGraphIndex.getRelatedUserIds(1));
+        assertArrayEquals(new int[]{3}, relationGraphIndex.getRelatedUserIds(2));
+        assertArrayEquals(new int[]{2}, relationGraphIndex.getRelatedUserIds(3));
+    }
+
+    @Test
+    void checkConsistency_consistent() {
+        // Act & Assert
+        assertEquals(0, relationGraphIndex.checkConsistency());
+    }
+
+    @Test
+    void checkConsistency_repairsIndex() {
+        // Arrange
+        when(userRelationRepository.findAllRelationIds()).thenReturn(List.of(
+                new UserRelationId(1, 2),
+                new UserRelationId(2, 5)));
+        when(userRepository.findDeletedUserIds()).thenReturn(List.of(5));
+
+        // Act
+        int mismatches = relationGraphIndex.checkConsistency();
+
+        // Assert
+        assertTrue(mismatches > 0);
+        assertTrue(relationGraphIndex.isConnected(5, 2));
+        assertFalse(relationGraphIndex.isConnected(1, 3));
+        assertArrayEquals(new int[]{1}, relationGraphIndex.getRelatedUserIds(2));
+        assertEquals(0, relationGraphIndex.checkConsistency());
+    }
+}
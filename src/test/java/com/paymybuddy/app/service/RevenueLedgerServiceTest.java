@@ -0,0 +1,151 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.config.BusinessTimeProperties;
+import com.paymybuddy.app.dto.RevenueEntryDTO;
+import com.paymybuddy.app.dto.RevenueSummaryDTO;
+import com.paymybuddy.app.entity.RevenueBucket;
+import com.paymybuddy.app.entity.RevenuePeriod;
+import com.paymybuddy.app.repository.MonetizationRepository;
+import com.paymybuddy.app.repository.RevenueBucketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RevenueLedgerServiceTest {
+
+    @Mock
+    private RevenueBucketRepository revenueBucketRepository;
+
+    @Mock
+    private MonetizationRepository monetizationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private BusinessTimeProperties businessTimeProperties = new BusinessTimeProperties();
+
+    @InjectMocks
+    private RevenueLedgerService revenueLedgerService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        businessTimeProperties.setTimeZone(ZoneId.systemDefault());
+    }
+
+    @Test
+    void recordRevenue_updatesDayMonthAndTotalInKeyOrder() {
+        // Arrange
+        LocalDateTime transactionDate = LocalDateTime.of(2026, 10, 17, 12, 0);
+
+        // Act
+        revenueLedgerService.recordRevenue(11, transactionDate, 250L);
+
+        // Assert
+        int slot = 11 % RevenueLedgerService.SLOTS;
+        InOrder inOrder = inOrder(revenueBucketRepository);
+        inOrder.verify(revenueBucketRepository).addToBucket("DAY", LocalDate.of(2026, 10, 17), slot, 250L, 1L);
+        inOrder.verify(revenueBucketRepository).addToBucket("MONTH", LocalDate.of(2026, 10, 1), slot, 250L, 1L);
+        inOrder.verify(revenueBucketRepository).addToBucket("TOTAL", LocalDate.EPOCH, slot, 250L, 1L);
+    }
+
+    @Test
+    void reverseRevenue_subtractsFromTheTransactionDay() {
+        // Arrange
+        LocalDateTime transactionDate = LocalDateTime.of(2026, 10, 16, 23, 0);
+
+        // Act
+        revenueLedgerService.reverseRevenue(11, transactionDate, 250L);
+
+        // Assert
+        int slot = 11 % RevenueLedgerService.SLOTS;
+        verify(revenueBucketRepository).addToBucket("DAY", LocalDate.of(2026, 10, 16), slot, -250L, -1L);
+        verify(revenueBucketRepository).addToBucket("TOTAL", LocalDate.EPOCH, slot, -250L, -1L);
+    }
+
+    @Test
+    void rebuild_readsMonetizationsInChunks() {
+        // Arrange
+        LocalDateTime firstDay = LocalDateTime.of(2026, 9, 30, 10, 0);
+        LocalDateTime secondDay = LocalDateTime.of(2026, 10, 1, 10, 0);
+        List<RevenueEntryDTO> fullChunk = new ArrayList<>();
+        for (int id = 1; id <= RevenueLedgerService.REBUILD_CHUNK_SIZE; id++) {
+            fullChunk.add(new RevenueEntryDTO(id, 10L, firstDay));
+        }
+        int lastId = RevenueLedgerService.REBUILD_CHUNK_SIZE;
+        when(monetizationRepository.findRevenueEntriesAfter(eq(0), any(Pageable.class))).thenReturn(fullChunk);
+        when(monetizationRepository.findRevenueEntriesAfter(eq(lastId), any(Pageable.class)))
+                .thenReturn(List.of(new RevenueEntryDTO(lastId + 1, 500L, secondDay)));
+
+        // Act
+        RevenueSummaryDTO total = revenueLedgerService.rebuild();
+
+        // Assert
+        long expected = 10L * RevenueLedgerService.REBUILD_CHUNK_SIZE + 500L;
+        assertEquals(expected, total.getAmount());
+        assertEquals(RevenueLedgerService.REBUILD_CHUNK_SIZE + 1, total.getEntryCount());
+        verify(revenueBucketRepository, never()).deleteAllInBatch();
+        verify(monetizationRepository, times(2)).findRevenueEntriesAfter(anyInt(), any(Pageable.class));
+        verify(revenueBucketRepository).addToBucket("DAY", LocalDate.of(2026, 9, 30), 0,
+                10L * RevenueLedgerService.REBUILD_CHUNK_SIZE, RevenueLedgerService.REBUILD_CHUNK_SIZE);
+        verify(revenueBucketRepository).addToBucket("MONTH", LocalDate.of(2026, 10, 1), 0, 500L, 1L);
+        verify(revenueBucketRepository).addToBucket("TOTAL", LocalDate.EPOCH, 0, expected,
+                RevenueLedgerService.REBUILD_CHUNK_SIZE + 1);
+    }
+
+    @Test
+    void rebuild_addsOnlyTheDifferenceToCurrentTotals() {
+        // Arrange
+        LocalDate day = LocalDate.of(2026, 10, 17);
+        when(revenueBucketRepository.findAll()).thenReturn(List.of(
+                bucket(RevenuePeriod.DAY, day, 3, 100L, 1L),
+                bucket(RevenuePeriod.DAY, LocalDate.of(2026, 10, 16), 0, 40L, 1L),
+                bucket(RevenuePeriod.MONTH, day.withDayOfMonth(1), 3, 140L, 2L),
+                bucket(RevenuePeriod.TOTAL, LocalDate.EPOCH, 3, 140L, 2L)));
+        when(monetizationRepository.findRevenueEntriesAfter(eq(0), any(Pageable.class)))
+                .thenReturn(List.of(new RevenueEntryDTO(1, 100L, day.atTime(12, 0)),
+                        new RevenueEntryDTO(2, 60L, day.atTime(13, 0))));
+
+        // Act
+        RevenueSummaryDTO total = revenueLedgerService.rebuild();
+
+        // Assert
+        assertEquals(160L, total.getAmount());
+        assertEquals(2L, total.getEntryCount());
+        InOrder inOrder = inOrder(revenueBucketRepository);
+        inOrder.verify(revenueBucketRepository).addToBucket("DAY", LocalDate.of(2026, 10, 16), 0, -40L, -1L);
+        inOrder.verify(revenueBucketRepository).addToBucket("DAY", day, 0, 60L, 1L);
+        inOrder.verify(revenueBucketRepository).addToBucket("MONTH", day.withDayOfMonth(1), 0, 20L, 0L);
+        inOrder.verify(revenueBucketRepository).addToBucket("TOTAL", LocalDate.EPOCH, 0, 20L, 0L);
+        verify(revenueBucketRepository, never()).deleteAllInBatch();
+    }
+
+    private static RevenueBucket bucket(RevenuePeriod period, LocalDate date, int slot, long amount, long entries) {
+        RevenueBucket bucket = new RevenueBucket();
+        bucket.setPeriod(period);
+        bucket.setBucketDate(date);
+        bucket.setSlot(slot);
+        bucket.setAmount(amount);
+        bucket.setEntryCount(entries);
+        return bucket;
+    }
+}
@@ -10,6 +10,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -56,7 +58,7 @@ class TransactionFeeServiceTest {
 
     @Test
     void testGetActiveTransactionFee_NoActiveFee_ThrowsException() {
-        when(transactionFeeRepository.findTopByOrderByEffectiveDateDesc()).thenReturn(Optional.empty());
+        when(transactionFeeRepository.findAll()).thenReturn(List.of());
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () ->
                 transactionFeeService.getActiveTransactionFee());
@@ -68,8 +70,9 @@ class TransactionFeeServiceTest {
     void testGetActiveTransactionFee_ValidFee_ReturnsFee() {
         TransactionFee fee = new TransactionFee();
         fee.setPercentage(5);
+        fee.setEffectiveDate(LocalDateTime.now().minusDays(1));
 
-        when(transactionFeeRepository.findTopByOrderByEffectiveDateDesc()).thenReturn(Optional.of(fee));
+        when(transactionFeeRepository.findAll()).thenReturn(List.of(fee));
 
         TransactionFee activeFee = transactionFeeService.getActiveTransactionFee();
 
@@ -138,7 +141,7 @@ class TransactionFeeServiceTest {
     void testCalculateFeeForTransaction_InvalidAmount_ThrowsException() {
         TransactionFee fee = new TransactionFee();
         fee.setPercentage(5);
-        when(transactionFeeRepository.findTopByOrderByEffectiveDateDesc()).thenReturn(Optional.of(fee));
+        when(transactionFeeRepository.findAll()).thenReturn(List.of(fee));
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
                 transactionFeeService.calculateFeeForTransaction(0));
@@ -151,16 +154,71 @@ class TransactionFeeServiceTest {
         // Arrange
         TransactionFee fee = new TransactionFee();
         fee.setPercentage(5000);
+        fee.setEffectiveDate(LocalDateTime.now().minusDays(1));
 
-        when(transactionFeeRepository.findTopByOrderByEffectiveDateDesc()).thenReturn(Optional.of(fee));
+        when(transactionFeeRepository.findAll()).thenReturn(List.of(fee));
 
         long transactionAmount = 10000;
 
         // Act
         long calculatedFee = transactionFeeService.calculateFeeForTransaction(transactionAmount);
+        transactionFeeService.calculateFeeForTransaction(transactionAmount);
 
         // Assert
         assertEquals(500, calculatedFee, "The calculated fee should be 500 (5% of 10000).");
+        verify(transactionFeeRepository, times(1)).findAll();
+    }
+
+    @Test
+    void testGetFeeAt_ResolvesFeeInEffectAtInstant() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        when(transactionFeeRepository.findAll()).thenReturn(List.of(
+                fee(2, 3000, now.minusDays(1)),
+                fee(1, 5000, now.minusDays(10)),
+                fee(3, 7000, now.plusDays(1))));
+
+        // Act & Assert
+        assertEquals(1, transactionFeeService.getFeeAt(now.minusDays(5)).feeId());
+        assertEquals(2, transactionFeeService.getFeeAt(now).feeId());
+        assertEquals(3, transactionFeeService.getFeeAt(now.plusDays(2)).feeId());
+        verify(transactionFeeRepository, times(1)).findAll();
+    }
+
+    @Test
+    void testGetFeeAt_NoFeeYet_ReloadsOnceThenThrows() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        when(transactionFeeRepository.findAll()).thenReturn(List.of(fee(1, 5000, now)));
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> transactionFeeService.getFeeAt(now.minusDays(1)));
+        verify(transactionFeeRepository, times(1)).findAll();
+    }
+
+    @Test
+    void testUpdateTransactionFeePercentage_SwapsSchedule() {
+        // Arrange
+        TransactionFee fee = fee(1, 5000, LocalDateTime.now().minusDays(1));
+        when(transactionFeeRepository.findAll()).thenReturn(List.of(fee));
+        when(transactionFeeRepository.findById(1)).thenReturn(Optional.of(fee));
+        when(transactionFeeRepository.save(any(TransactionFee.class))).thenReturn(fee);
+        long before = transactionFeeService.calculateFeeForTransaction(10000);
+
+        // Act
+        transactionFeeService.updateTransactionFeePercentage(1, 2500);
+
+        // Assert
+        assertEquals(500, before);
+        assertEquals(250, transactionFeeService.calculateFeeForTransaction(10000));
+    }
+
+    private TransactionFee fee(int id, long percentage, LocalDateTime effectiveDate) {
+        TransactionFee fee = new TransactionFee();
+        fee.setId(id);
+        fee.setPercentage(percentage);
+        fee.setEffectiveDate(effectiveDate);
+        return fee;
     }
 
 }
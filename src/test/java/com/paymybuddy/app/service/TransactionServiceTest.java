@@ -1,5 +1,12 @@
 package com.paymybuddy.app.service;
 
+import com.paymybuddy.app.dto.BatchPaymentItemDTO;
+import com.paymybuddy.app.dto.BatchPaymentItemResultDTO;
+import com.paymybuddy.app.dto.BatchPaymentRequestDTO;
+import com.paymybuddy.app.dto.BatchPaymentResultDTO;
+import com.paymybuddy.app.dto.CursorPage;
+import com.paymybuddy.app.dto.RevenueSummaryDTO;
+import com.paymybuddy.app.dto.TransactionCursor;
 import com.paymybuddy.app.dto.TransactionDTO;
 import com.paymybuddy.app.entity.Transaction;
 import com.paymybuddy.app.entity.User;
@@ -12,33 +19,49 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 class TransactionServiceTest {
 
     @Mock
-    private MonetizationService monetizationService;
+    private TransactionRepository transactionRepository;
 
     @Mock
-    private TransactionRepository transactionRepository;
+    private AppAccountService appAccountService;
 
     @Mock
-    private TransactionFeeService transactionFeeService;
+    private UserService userService;
 
     @Mock
-    private AppAccountService appAccountService;
+    private TransferEngine transferEngine;
 
     @Mock
-    private UserService userService;
+    private BalanceMutationExecutor balanceMutationExecutor;
+
+    @Mock
+    private DailySpendService dailySpendService;
 
     @Mock
-    private UserRelationService userRelationService;
+    private MonetizationService monetizationService;
+
+    @Mock
+    private RevenueLedgerService revenueLedgerService;
+
+    @Mock
+    private PaymentGroupCommitter paymentGroupCommitter;
+
+    @Mock
+    private JournalService journalService;
 
     @InjectMocks
     private TransactionService transactionService;
@@ -46,6 +69,8 @@ class TransactionServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(balanceMutationExecutor.execute(anyCollection(), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
     }
 
     @Test
@@ -57,29 +82,33 @@ class TransactionServiceTest {
         String description = "Test transaction";
         long amountCent = amount * 100;
 
-        User sender = new User();
-        sender.setId(senderId);
+        Transaction transaction = new Transaction();
+        transaction.setId(10);
+        when(transferEngine.transfer(senderId, receiverId, amountCent, description)).thenReturn(transaction);
 
-        User receiver = new User();
-        receiver.setId(receiverId);
+        // Act
+        String result = transactionService.createTransaction(senderId, receiverId, amount, description);
 
-        when(userService.getUserById(senderId)).thenReturn(sender);
-        when(userService.getUserById(receiverId)).thenReturn(receiver);
-        when(userRelationService.checkRelation(senderId, receiverId)).thenReturn(true);
-        when(appAccountService.getBalanceById(senderId)).thenReturn(Optional.of(20000L));
-        when(transactionFeeService.calculateFeeForTransaction(amountCent)).thenReturn(500L);
-        when(appAccountService.getTransactionLimitForUser(senderId)).thenReturn(50000L);
-        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        doNothing().when(monetizationService).saveMonetization(any(Transaction.class));
+        // Assert
+        assertEquals("Transaction successful", result);
+        verify(transferEngine, times(1)).transfer(senderId, receiverId, amountCent, description);
+    }
+
+    @Test
+    void createTransaction_groupCommitEnabled_goesThroughCommitter() {
+        // Arrange
+        Transaction transaction = new Transaction();
+        transaction.setId(10);
+        when(paymentGroupCommitter.isEnabled()).thenReturn(true);
+        when(paymentGroupCommitter.transfer(1, 2, 10000, "Test transaction")).thenReturn(transaction);
 
         // Act
-        String result = transactionService.createTransaction(senderId, receiverId, amount, description);
+        String result = transactionService.createTransaction(1, 2, 100, "Test transaction");
 
         // Assert
         assertEquals("Transaction successful", result);
-        verify(transactionRepository, times(1)).save(any(Transaction.class));
-        verify(appAccountService, times(1)).updateBalanceByUserId(senderId, -(amountCent + 500L));
-        verify(appAccountService, times(1)).updateBalanceByUserId(receiverId, amountCent);
+        verify(paymentGroupCommitter).transfer(1, 2, 10000, "Test transaction");
+        verifyNoInteractions(transferEngine);
     }
 
     @Test
@@ -90,15 +119,8 @@ class TransactionServiceTest {
         long amount = 100;
         String description = "Test transaction";
 
-        User sender = new User();
-        sender.setId(senderId);
-
-        User receiver = new User();
-        receiver.setId(receiverId);
-
-        when(userService.getUserById(senderId)).thenReturn(sender);
-        when(userService.getUserById(receiverId)).thenReturn(receiver);
-        when(userRelationService.checkRelation(senderId, receiverId)).thenReturn(false);
+        when(transferEngine.transfer(senderId, receiverId, amount * 100, description))
+                .thenThrow(new EntityNotFoundException("No relation exists between the sender and receiver."));
 
         // Act & Assert
         assertThrows(EntityNotFoundException.class, () ->
@@ -112,20 +134,9 @@ class TransactionServiceTest {
         int receiverId = 2;
         long amount = 100;
         String description = "Test transaction";
-        long amountCent = amount * 100;
-
-        User sender = new User();
-        sender.setId(senderId);
 
-        User receiver = new User();
-        receiver.setId(receiverId);
-
-        when(userService.getUserById(senderId)).thenReturn(sender);
-        when(userService.getUserById(receiverId)).thenReturn(receiver);
-        when(userRelationService.checkRelation(senderId, receiverId)).thenReturn(true);
-        when(appAccountService.getBalanceById(senderId)).thenReturn(Optional.of(0L));
-        when(transactionFeeService.calculateFeeForTransaction(amountCent)).thenReturn(1000L);
-        when(appAccountService.getTransactionLimitForUser(senderId)).thenReturn(50000L);
+        when(transferEngine.transfer(senderId, receiverId, amount * 100, description))
+                .thenThrow(new InsufficientBalanceException("Insufficient balance for user ID: " + senderId));
 
         // Act & Assert
         assertThrows(InsufficientBalanceException.class, () ->
@@ -133,57 +144,101 @@ class TransactionServiceTest {
     }
 
     @Test
-    void createTransaction_transactionLimitExceeded() {
+    void createBatchTransaction_mapsEachOutcome() {
         // Arrange
-        int senderId = 1;
-        int receiverId = 2;
-        long amount = 100;
-        String description = "Test transaction";
-        long amountCent = amount * 100;
+        Transaction paid = new Transaction();
+        paid.setId(41);
+        paid.setAmount(10000L);
+        paid.setAmountWithFee(10500L);
+        BatchPaymentRequestDTO request = new BatchPaymentRequestDTO(1, BatchPaymentRequestDTO.Mode.BEST_EFFORT, List.of(
+                new BatchPaymentItemDTO(2, 100, "Lunch"),
+                new BatchPaymentItemDTO(3, 100, "Lunch")));
+        when(transferEngine.transferBatch(eq(1), anyList(), eq(false))).thenReturn(List.of(
+                new TransferEngine.PayoutResult(paid, null),
+                new TransferEngine.PayoutResult(null, new EntityNotFoundException("No relation exists between the sender and receiver."))));
 
-        User sender = new User();
-        sender.setId(senderId);
+        // Act
+        BatchPaymentResultDTO result = transactionService.createBatchTransaction(request);
 
-        User receiver = new User();
-        receiver.setId(receiverId);
+        // Assert
+        assertEquals(1, result.getPaid());
+        assertEquals(1, result.getFailed());
+        assertEquals(10500L, result.getTotalDebited());
+        assertEquals(BatchPaymentItemResultDTO.Status.PAID, result.getResults().get(0).getStatus());
+        assertEquals(41, result.getResults().get(0).getTransactionId());
+        assertEquals(BatchPaymentItemResultDTO.Status.FAILED, result.getResults().get(1).getStatus());
+        assertEquals("No relation exists between the sender and receiver.", result.getResults().get(1).getMessage());
+        verify(transferEngine).transferBatch(1, List.of(
+                new TransferEngine.Payout(2, 10000L, "Lunch"),
+                new TransferEngine.Payout(3, 10000L, "Lunch")), false);
+    }
 
-        when(userService.getUserById(senderId)).thenReturn(sender);
-        when(userService.getUserById(receiverId)).thenReturn(receiver);
-        when(userRelationService.checkRelation(senderId, receiverId)).thenReturn(true);
-        when(appAccountService.getBalanceById(senderId)).thenReturn(Optional.of(20000L));
-        when(transactionFeeService.calculateFeeForTransaction(amountCent)).thenReturn(500L);
-        when(appAccountService.getTransactionLimitForUser(senderId)).thenReturn(5000L);
+    @Test
+    void createBatchTransaction_invalidSize() {
+        // Arrange
+        BatchPaymentRequestDTO empty = new BatchPaymentRequestDTO(1, BatchPaymentRequestDTO.Mode.ALL_OR_NOTHING, List.of());
 
         // Act & Assert
-        assertThrows(IllegalStateException.class, () ->
-                transactionService.createTransaction(senderId, receiverId, amount, description));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.createBatchTransaction(empty));
+        verify(transferEngine, never()).transferBatch(anyInt(), anyList(), anyBoolean());
     }
 
     @Test
-    void getTransactionHistory_ByUserId_success() {
+    void getTransactionHistoryPage_mergesBothDirectionsNewestFirst() {
         // Arrange
         int userId = 1;
-        User user = new User();
-        user.setId(userId);
+        LocalDateTime now = LocalDateTime.now();
+        TransactionDTO sent1 = transactionAt(5, now);
+        TransactionDTO sent2 = transactionAt(2, now.minusHours(2));
+        TransactionDTO received1 = transactionAt(4, now.minusHours(1));
+        TransactionDTO received2 = transactionAt(1, now.minusHours(3));
 
-        Transaction transaction1 = new Transaction();
-        transaction1.setTransactionDate(LocalDateTime.now().minusDays(1));
+        when(transactionRepository.findSentBefore(eq(userId), any(LocalDateTime.class), anyInt(), any(Pageable.class)))
+                .thenReturn(List.of(sent1, sent2));
+        when(transactionRepository.findReceivedBefore(eq(userId), any(LocalDateTime.class), anyInt(), any(Pageable.class)))
+                .thenReturn(List.of(received1, received2));
 
-        Transaction transaction2 = new Transaction();
-        transaction2.setTransactionDate(LocalDateTime.now());
+        // Act
+        CursorPage<TransactionDTO> page = transactionService.getTransactionHistoryPage(userId, null, 3);
 
-        user.setSenderTransactions(List.of(transaction1));
-        user.setReceiverTransactions(List.of(transaction2));
+        // Assert
+        assertEquals(List.of(sent1, received1, sent2), page.getItems());
+        assertTrue(page.hasNext());
+        TransactionCursor cursor = TransactionCursor.decode(page.getNextCursor());
+        assertEquals(sent2.getTransactionDate(), cursor.getTransactionDate());
+        assertEquals(sent2.getId(), cursor.getId());
+        verify(transactionRepository).findSentBefore(eq(userId), any(LocalDateTime.class), anyInt(), eq(PageRequest.of(0, 4)));
+    }
 
-        when(userService.getUserById(userId)).thenReturn(user);
+    @Test
+    void getTransactionHistoryPage_lastPageHasNoCursor() {
+        // Arrange
+        int userId = 1;
+        TransactionDTO selfPayment = transactionAt(7, LocalDateTime.now());
+        when(transactionRepository.findSentBefore(eq(userId), any(LocalDateTime.class), anyInt(), any(Pageable.class)))
+                .thenReturn(List.of(selfPayment));
+        when(transactionRepository.findReceivedBefore(eq(userId), any(LocalDateTime.class), anyInt(), any(Pageable.class)))
+                .thenReturn(List.of(selfPayment));
 
         // Act
-        List<Transaction> result = transactionService.getTransactionHistoryByUserId(userId);
+        CursorPage<TransactionDTO> page = transactionService.getTransactionHistoryPage(userId, null, 20);
 
         // Assert
-        assertEquals(2, result.size());
-        assertEquals(transaction2, result.get(0));
-        assertEquals(transaction1, result.get(1));
+        assertEquals(List.of(selfPayment), page.getItems());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void getTransactionHistoryPage_invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> transactionService.getTransactionHistoryPage(1, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.getTransactionHistoryPage(1, "not a cursor", 20));
+    }
+
+    private TransactionDTO transactionAt(int id, LocalDateTime date) {
+        TransactionDTO transaction = new TransactionDTO();
+        transaction.setId(id);
+        transaction.setTransactionDate(date);
+        return transaction;
     }
 
     @Test
@@ -206,6 +261,7 @@ class TransactionServiceTest {
         transaction.setAmountWithFee(1100L);
 
         when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(transaction));
+        when(transactionRepository.markCanceled(eq(transactionId), any(LocalDateTime.class))).thenReturn(1);
         when(userService.getUserById(sender.getId())).thenReturn(sender);
         when(userService.getUserById(receiver.getId())).thenReturn(receiver);
 
@@ -214,9 +270,86 @@ class TransactionServiceTest {
 
         // Assert
         assertEquals("Transaction canceled successfully", result);
-        verify(transactionRepository, times(1)).delete(transaction);
-        verify(appAccountService, times(1)).updateBalanceByUserId(sender.getId(), transaction.getAmountWithFee());
-        verify(appAccountService, times(1)).updateBalanceByUserId(receiver.getId(), -transaction.getAmount());
+        assertNotNull(transaction.getCanceledAt());
+        verify(transactionRepository, times(1)).markCanceled(transactionId, transaction.getCanceledAt());
+        verify(transactionRepository, never()).delete(any(Transaction.class));
+        verify(appAccountService, times(1))
+                .moveBalance(receiver.getId(), transaction.getAmount(), sender.getId(), transaction.getAmountWithFee());
+        verify(dailySpendService, times(1)).release(eq(sender.getId()), any(), eq(transaction.getAmount()));
+        verify(monetizationService, times(1)).cancelMonetization(transaction);
+        verify(journalService, times(1)).recordReversal(transaction);
+    }
+
+    @Test
+    void cancelTransaction_alreadyCanceled() {
+        // Arrange
+        int transactionId = 1;
+        Transaction transaction = new Transaction();
+        transaction.setId(transactionId);
+        transaction.setTransactionDate(LocalDateTime.now());
+        transaction.setCanceledAt(LocalDateTime.now());
+
+        when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(transaction));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () ->
+                transactionService.cancelTransaction(transactionId));
+        verify(appAccountService, never()).moveBalance(anyInt(), anyLong(), anyInt(), anyLong());
+        verify(journalService, never()).recordReversal(any(Transaction.class));
+    }
+
+    @Test
+    void cancelTransaction_alreadyCanceledConcurrently() {
+        // Arrange
+        int transactionId = 1;
+        Transaction transaction = new Transaction();
+        transaction.setId(transactionId);
+        transaction.setTransactionDate(LocalDateTime.now());
+
+        User sender = new User();
+        sender.setId(1);
+        transaction.setUserSender(sender);
+
+        User receiver = new User();
+        receiver.setId(2);
+        transaction.setUserReceiver(receiver);
+
+        when(transactionRepository.findById(transactionId))
+                .thenReturn(Optional.of(transaction))
+                .thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () ->
+                transactionService.cancelTransaction(transactionId));
+        verify(appAccountService, never()).moveBalance(anyInt(), anyLong(), anyInt(), anyLong());
+        verify(transactionRepository, never()).markCanceled(anyInt(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void cancelTransaction_claimedByAnotherNode() {
+        // Arrange
+        int transactionId = 1;
+        Transaction transaction = new Transaction();
+        transaction.setId(transactionId);
+        transaction.setTransactionDate(LocalDateTime.now());
+
+        User sender = new User();
+        sender.setId(1);
+        transaction.setUserSender(sender);
+
+        User receiver = new User();
+        receiver.setId(2);
+        transaction.setUserReceiver(receiver);
+
+        when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(transaction));
+        when(transactionRepository.markCanceled(eq(transactionId), any(LocalDateTime.class))).thenReturn(0);
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                transactionService.cancelTransaction(transactionId));
+        assertEquals("Transaction has already been canceled.", exception.getMessage());
+        verify(appAccountService, never()).moveBalance(anyInt(), anyLong(), anyInt(), anyLong());
+        verify(journalService, never()).recordReversal(any(Transaction.class));
     }
 
     @Test
@@ -249,21 +382,14 @@ class TransactionServiceTest {
     @Test
     void calculateTotalFees_success() {
         // Arrange
-        Transaction transaction1 = new Transaction();
-        transaction1.setAmount(1000L);
-        transaction1.setAmountWithFee(1100L);
-
-        Transaction transaction2 = new Transaction();
-        transaction2.setAmount(2000L);
-        transaction2.setAmountWithFee(2200L);
-
-        when(transactionRepository.findAll()).thenReturn(List.of(transaction1, transaction2));
+        when(revenueLedgerService.getTotalRevenue()).thenReturn(new RevenueSummaryDTO(300L, 2));
 
         // Act
         long result = transactionService.calculateTotalFees();
 
         // Assert
         assertEquals(300L, result);
+        verify(transactionRepository, never()).findAll();
     }
 
     @Test
@@ -273,11 +399,8 @@ class TransactionServiceTest {
         long dailyLimit = 50000L;
         long transactionAmount = 10000L;
 
-        LocalDateTime startOfDay = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime endOfDay = startOfDay.plusDays(1).minusSeconds(1);
-
         when(appAccountService.getTransactionLimitForUser(userId)).thenReturn(dailyLimit);
-        when(transactionRepository.calculateTotalSentByUserAndDateRange(any(User.class), eq(startOfDay), eq(endOfDay))).thenReturn(20000L);
+        when(dailySpendService.getSpentToday(userId)).thenReturn(20000L);
 
         // Act
         boolean result = transactionService.checkTransactionLimit(userId, transactionAmount);
@@ -293,11 +416,8 @@ class TransactionServiceTest {
         long dailyLimit = 5000L;
         long transactionAmount = 40000L;
 
-        LocalDateTime startOfDay = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime endOfDay = startOfDay.plusDays(1).minusSeconds(1);
-
         when(appAccountService.getTransactionLimitForUser(userId)).thenReturn(dailyLimit);
-        when(transactionRepository.calculateTotalSentByUserAndDateRange(any(User.class), eq(startOfDay), eq(endOfDay))).thenReturn(20000L);
+        when(dailySpendService.getSpentToday(userId)).thenReturn(20000L);
 
         // Act
         boolean result = transactionService.checkTransactionLimit(userId, transactionAmount);
@@ -306,41 +426,5 @@ class TransactionServiceTest {
         assertFalse(result);
     }
 
-    @Test
-    void convertToDTO_success() {
-        // Arrange
-        Transaction transaction = new Transaction();
-        User sender = new User();
-        sender.setId(1);
-        sender.setUserName("SenderName");
-
-        User receiver = new User();
-        receiver.setId(2);
-        receiver.setUserName("ReceiverName");
-
-        transaction.setUserSender(sender);
-        transaction.setUserReceiver(receiver);
-        transaction.setAmount(1000L);
-        transaction.setAmountWithFee(1100L);
-        transaction.setDescription("Test transaction");
-        transaction.setTransactionDate(LocalDateTime.now());
-
-        when(userService.findUsernameByUserId(sender.getId())).thenReturn("SenderName");
-        when(userService.findUsernameByUserId(receiver.getId())).thenReturn("ReceiverName");
-
-        // Act
-        TransactionDTO dto = transactionService.convertToDTO(transaction);
-
-        // Assert
-        assertEquals(sender.getId(), dto.getSenderId());
-        assertEquals("SenderName", dto.getSenderName());
-        assertEquals(receiver.getId(), dto.getReceiverId());
-        assertEquals("ReceiverName", dto.getReceiverName());
-        assertEquals(transaction.getAmount(), dto.getAmount());
-        assertEquals(transaction.getAmountWithFee(), dto.getAmountWithFee());
-        assertEquals(transaction.getDescription(), dto.getDescription());
-        assertEquals(transaction.getTransactionDate(), dto.getTransactionDate());
-    }
-
 
 }
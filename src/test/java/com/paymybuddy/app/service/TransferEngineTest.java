@@ -0,0 +1,270 @@
+package com.paymybuddy.app.service;
+
+import com.paymybuddy.app.dto.UserRef;
+import com.paymybuddy.app.entity.Transaction;
+import com.paymybuddy.app.entity.User;
+import com.paymybuddy.app.exception.EntityNotFoundException;
+import com.paymybuddy.app.exception.InsufficientBalanceException;
+import com.paymybuddy.app.repository.TransactionRepository;
+import com.paymybuddy.app.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TransferEngineTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AppAccountService appAccountService;
+
+    @Mock
+    private UserRelationService userRelationService;
+
+    @Mock
+    private TransactionFeeService transactionFeeService;
+
+    @Mock
+    private MonetizationService monetizationService;
+
+    @Mock
+    private BalanceMutationExecutor balanceMutationExecutor;
+
+    @Mock
+    private DailySpendService dailySpendService;
+
+    @Mock
+    private AccountBucketService accountBucketService;
+
+    @Mock
+    private JournalService journalService;
+
+    @InjectMocks
+    private TransferEngine transferEngine;
+
+    private final int senderId = 1;
+    private final int receiverId = 2;
+    private final FeeSchedule.Entry fee = new FeeSchedule.Entry(7, 5000L, LocalDateTime.now().minusDays(1));
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        User sender = new User();
+        sender.setId(senderId);
+        User receiver = new User();
+        receiver.setId(receiverId);
+
+        when(userRepository.findRefById(receiverId)).thenReturn(Optional.of(new UserRef(receiverId, "receiver", false)));
+        when(userRepository.getReferenceById(senderId)).thenReturn(sender);
+        when(userRepository.getReferenceById(receiverId)).thenReturn(receiver);
+        when(userRelationService.checkRelation(senderId, receiverId)).thenReturn(true);
+        when(transactionFeeService.getFeeAt(any(LocalDateTime.class))).thenReturn(fee);
+        when(transactionFeeService.calculateFeeForTransaction(10000L, fee)).thenReturn(500L);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(balanceMutationExecutor.execute(anyCollection(), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+    }
+
+    @Test
+    void transfer_success() {
+        // Act
+        Transaction transaction = transferEngine.transfer(senderId, receiverId, 10000L, "Test transaction");
+
+        // Assert
+        assertEquals(10000L, transaction.getAmount());
+        assertEquals(10500L, transaction.getAmountWithFee());
+        assertEquals(senderId, transaction.getUserSender().getId());
+        assertEquals(receiverId, transaction.getUserReceiver().getId());
+        assertNotNull(transaction.getTransactionDate());
+        assertEquals(7, transaction.getFeeId());
+        assertEquals(5000L, transaction.getFeePercentage());
+        verify(transactionFeeService, times(1)).getFeeAt(transaction.getTransactionDate());
+        verify(balanceMutationExecutor, times(1)).execute(eq(List.of(senderId, receiverId)), any());
+        verify(dailySpendService, times(1)).reserve(senderId, 10000L);
+        verify(appAccountService, times(1)).moveBalance(senderId, 10500L, receiverId, 10000L);
+        verify(transactionRepository, times(1)).save(transaction);
+        verify(monetizationService, times(1)).saveMonetization(transaction);
+        verify(journalService, times(1)).recordPayment(transaction);
+    }
+
+    @Test
+    void transfer_receiverDeleted() {
+        // Arrange
+        when(userRepository.findRefById(receiverId)).thenReturn(Optional.of(new UserRef(receiverId, "receiver", true)));
+
+        // Act & Assert
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () ->
+                transferEngine.transfer(senderId, receiverId, 10000L, "Test transaction"));
+
+        assertEquals("The specified user does not exist or has been deleted.", exception.getMessage());
+        verify(appAccountService, never()).moveBalance(anyInt(), anyLong(), anyInt(), anyLong());
+    }
+
+    @Test
+    void transfer_receiverNotFound() {
+        // Arrange
+        when(userRepository.findRefById(receiverId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () ->
+                transferEngine.transfer(senderId, receiverId, 10000L, "Test transaction"));
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void transfer_noRelationExists() {
+        // Arrange
+        when(userRelationService.checkRelation(senderId, receiverId)).thenReturn(false);
+
+        // Act & Assert
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () ->
+                transferEngine.transfer(senderId, receiverId, 10000L, "Test transaction"));
+
+        assertEquals("No relation exists between the sender and receiver.", exception.getMessage());
+        verify(appAccountService, never()).moveBalance(anyInt(), anyLong(), anyInt(), anyLong());
+    }
+
+    @Test
+    void transfer_transactionLimitExceeded() {
+        // Arrange
+        doThrow(new IllegalStateException("Transaction limit exceeded for the day."))
+                .when(dailySpendService).reserve(senderId, 10000L);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () ->
+                transferEngine.transfer(senderId, receiverId, 10000L, "Test transaction"));
+        verify(appAccountService, never()).moveBalance(anyInt(), anyLong(), anyInt(), anyLong());
+    }
+
+    @Test
+    void transfer_insufficientBalance() {
+        // Arrange
+        doThrow(new InsufficientBalanceException("Insufficient balance for user ID: " + senderId))
+                .when(appAccountService).moveBalance(senderId, 10500L, receiverId, 10000L);
+
+        // Act & Assert
+        assertThrows(InsufficientBalanceException.class, () ->
+                transferEngine.transfer(senderId, receiverId, 10000L, "Test transaction"));
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(journalService, never()).recordPayment(any(Transaction.class));
+    }
+
+    @Test
+    void transferBatch_allOrNothing_paysEverythingInOneGo() {
+        // Arrange
+        int otherReceiverId = 3;
+        User otherReceiver = new User();
+        otherReceiver.setId(otherReceiverId);
+        when(userRepository.findRefById(senderId)).thenReturn(Optional.of(new UserRef(senderId, "sender", false)));
+        when(userRepository.findRefById(otherReceiverId)).thenReturn(Optional.of(new UserRef(otherReceiverId, "other", false)));
+        when(userRepository.getReferenceById(otherReceiverId)).thenReturn(otherReceiver);
+        when(userRelationService.checkRelation(senderId, otherReceiverId)).thenReturn(true);
+        List<TransferEngine.Payout> payouts = List.of(
+                new TransferEngine.Payout(receiverId, 10000L, "Lunch"),
+                new TransferEngine.Payout(otherReceiverId, 10000L, "Lunch"),
+                new TransferEngine.Payout(receiverId, 10000L, "Dinner"));
+
+        // Act
+        List<TransferEngine.PayoutResult> results = transferEngine.transferBatch(senderId, payouts, true);
+
+        // Assert
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(result -> result.transaction() != null && result.failure() == null));
+        assertEquals(otherReceiverId, results.get(1).transaction().getUserReceiver().getId());
+        verify(balanceMutationExecutor, times(1)).execute(eq(Set.of(senderId, receiverId, otherReceiverId)), any());
+        verify(transactionFeeService, times(1)).getFeeAt(any(LocalDateTime.class));
+        verify(dailySpendService, times(1)).reserve(senderId, 30000L);
+        verify(appAccountService, times(1)).moveBalances(senderId, 31500L,
+                Map.of(receiverId, 20000L, otherReceiverId, 10000L));
+        verify(transactionRepository, times(1)).saveAll(anyList());
+        verify(monetizationService, times(1)).saveMonetizations(anyList());
+        verify(journalService, times(1)).recordPayments(anyList());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void transferBatch_allOrNothing_oneInvalidPaymentPaysNothing() {
+        // Arrange
+        int strangerId = 3;
+        when(userRepository.findRefById(senderId)).thenReturn(Optional.of(new UserRef(senderId, "sender", false)));
+        when(userRepository.findRefById(strangerId)).thenReturn(Optional.of(new UserRef(strangerId, "stranger", false)));
+        when(userRelationService.checkRelation(senderId, strangerId)).thenReturn(false);
+        List<TransferEngine.Payout> payouts = List.of(
+                new TransferEngine.Payout(receiverId, 10000L, "Lunch"),
+                new TransferEngine.Payout(strangerId, 10000L, "Lunch"));
+
+        // Act
+        List<TransferEngine.PayoutResult> results = transferEngine.transferBatch(senderId, payouts, true);
+
+        // Assert
+        assertNull(results.get(0).transaction());
+        assertNull(results.get(0).failure());
+        assertInstanceOf(EntityNotFoundException.class, results.get(1).failure());
+        verify(dailySpendService, never()).reserve(anyInt(), anyLong());
+        verify(appAccountService, never()).moveBalances(anyInt(), anyLong(), any());
+        verify(transactionRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void transferBatch_bestEffort_leavesOutWhatCannotBePaid() {
+        // Arrange
+        int strangerId = 3;
+        when(userRepository.findRefById(senderId)).thenReturn(Optional.of(new UserRef(senderId, "sender", false)));
+        when(userRepository.findRefById(strangerId)).thenReturn(Optional.empty());
+        when(appAccountService.getBalanceByUserId(senderId)).thenReturn(25000L);
+        when(appAccountService.getTransactionLimitForUser(senderId)).thenReturn(1_000_000L);
+        when(dailySpendService.getSpentToday(senderId)).thenReturn(0L);
+        List<TransferEngine.Payout> payouts = List.of(
+                new TransferEngine.Payout(receiverId, 10000L, "Lunch"),
+                new TransferEngine.Payout(strangerId, 10000L, "Lunch"),
+                new TransferEngine.Payout(receiverId, 0L, "Nothing"),
+                new TransferEngine.Payout(receiverId, 10000L, "Dinner"),
+                new TransferEngine.Payout(receiverId, 10000L, "Breakfast"));
+
+        // Act
+        List<TransferEngine.PayoutResult> results = transferEngine.transferBatch(senderId, payouts, false);
+
+        // Assert
+        assertNotNull(results.get(0).transaction());
+        assertInstanceOf(EntityNotFoundException.class, results.get(1).failure());
+        assertInstanceOf(IllegalArgumentException.class, results.get(2).failure());
+        assertNotNull(results.get(3).transaction());
+        assertInstanceOf(InsufficientBalanceException.class, results.get(4).failure());
+        verify(dailySpendService, times(1)).reserve(senderId, 20000L);
+        verify(appAccountService, times(1)).moveBalances(senderId, 21000L, Map.of(receiverId, 20000L));
+    }
+
+    @Test
+    void transferBatch_senderDeleted() {
+        // Arrange
+        when(userRepository.findRefById(senderId)).thenReturn(Optional.of(new UserRef(senderId, "sender", true)));
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> transferEngine.transferBatch(senderId,
+                List.of(new TransferEngine.Payout(receiverId, 10000L, "Lunch")), false));
+        verify(appAccountService, never()).moveBalances(anyInt(), anyLong(), any());
+    }
+}
@@ -1,10 +1,12 @@
 package com.paymybuddy.app.service;
 
 import com.paymybuddy.app.dto.RelatedUserDTO;
+import com.paymybuddy.app.dto.UserRef;
 import com.paymybuddy.app.entity.User;
 import com.paymybuddy.app.entity.UserRelation;
 import com.paymybuddy.app.exception.EntityNotFoundException;
 import com.paymybuddy.app.repository.UserRelationRepository;
+import com.paymybuddy.app.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,6 +30,12 @@ class UserRelationServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RelationGraphIndex relationGraphIndex;
+
     @InjectMocks
     private UserRelationService userRelationService;
 
@@ -70,6 +78,7 @@ class UserRelationServiceTest {
 
         assertEquals("Relation successfully added between user ID: 1 and user email: user2@example.com", result);
         verify(userRelationRepository, times(1)).save(any(UserRelation.class));
+        verify(relationGraphIndex, times(1)).addRelation(user.getId(), userToAdd.getId());
         log.info("Relation added successfully between user with ID: {} and user with email: {}", user.getId(), userToAdd.getEmail());
     }
 
@@ -104,9 +113,24 @@ class UserRelationServiceTest {
 
         assertEquals("Relation successfully deleted between user ID: 1 and related user ID: 2", result);
         verify(userRelationRepository, times(1)).delete(userRelation);
+        verify(relationGraphIndex, times(1)).removeRelation(user.getId(), userToAdd.getId());
         log.info("Relation deleted successfully between user with ID: {} and user relation ID: {}", user.getId(), userToAdd.getId());
     }
 
+    @Test
+    void testDeleteRelation_ShouldKeepIndexLink_WhenReverseRelationExists() {
+        log.info("Testing deleteRelation method when the reverse relation still exists");
+        when(userRelationRepository.findByUserIdAndUserRelationId(user.getId(), userToAdd.getId()))
+                .thenReturn(Optional.of(userRelation));
+        when(userService.getUserById(user.getId())).thenReturn(user);
+        when(userRelationRepository.existsBetween(user.getId(), userToAdd.getId())).thenReturn(true);
+
+        userRelationService.deleteRelation(user.getId(), userToAdd.getId());
+
+        verify(userRelationRepository, times(1)).delete(userRelation);
+        verify(relationGraphIndex, never()).removeRelation(anyInt(), anyInt());
+    }
+
     @Test
     void testDeleteRelation_ShouldThrowEntityNotFoundException_WhenRelationNotFound() {
         log.info("Testing deleteRelation method for relation not found scenario");
@@ -120,26 +144,36 @@ class UserRelationServiceTest {
     @Test
     void testCheckRelation_ShouldReturnCorrectStatus() {
         log.info("Testing checkRelation method for existing relation");
-        when(userRelationRepository.findByUserIdAndUserRelationId(user.getId(), userToAdd.getId()))
-                .thenReturn(Optional.of(userRelation));
+        when(relationGraphIndex.isConnected(user.getId(), userToAdd.getId())).thenReturn(true);
 
         assertTrue(userRelationService.checkRelation(user.getId(), userToAdd.getId()));
+        verify(userRelationRepository, never()).existsBetween(anyInt(), anyInt());
         log.info("Relation exists between user with ID: {} and relation ID: {}", user.getId(), userToAdd.getId());
 
-        when(userRelationRepository.findByUserIdAndUserRelationId(user.getId(), userToAdd.getId()))
-                .thenReturn(Optional.empty());
+        when(relationGraphIndex.isConnected(user.getId(), userToAdd.getId())).thenReturn(false);
+        when(userRelationRepository.existsBetween(user.getId(), userToAdd.getId())).thenReturn(false);
 
         assertFalse(userRelationService.checkRelation(user.getId(), userToAdd.getId()));
         log.info("No relation exists between user with ID: {} and relation ID: {}", user.getId(), userToAdd.getId());
     }
 
+    @Test
+    void testCheckRelation_ShouldRepairIndex_WhenRelationOnlyInDatabase() {
+        log.info("Testing checkRelation method for relation missing from the index");
+        when(relationGraphIndex.isConnected(user.getId(), userToAdd.getId())).thenReturn(false);
+        when(userRelationRepository.existsBetween(user.getId(), userToAdd.getId())).thenReturn(true);
+
+        assertTrue(userRelationService.checkRelation(user.getId(), userToAdd.getId()));
+        verify(relationGraphIndex, times(1)).addRelation(user.getId(), userToAdd.getId());
+    }
+
     @Test
     void getAllRelatedUsers_success() {
         log.info("Testing getAllRelatedUsers method for successful retrieval");
 
-        user.setUserRelations(List.of(userRelation));
-
-        when(userService.getUserById(userToAdd.getId())).thenReturn(userToAdd);
+        when(relationGraphIndex.getRelatedUserIds(user.getId())).thenReturn(new int[]{userToAdd.getId()});
+        when(userRepository.findRelatedUsersByIds(List.of(userToAdd.getId())))
+                .thenReturn(List.of(new RelatedUserDTO(userToAdd.getId(), userToAdd.getUserName())));
 
         List<RelatedUserDTO> relatedUsers = userRelationService.getAllRelatedUsers(user);
 
@@ -147,22 +181,30 @@ class UserRelationServiceTest {
         assertEquals(1, relatedUsers.size(), "There should be exactly one related user.");
         assertEquals(userToAdd.getId(), relatedUsers.get(0).getId(), "The related user's ID should match.");
         assertEquals(userToAdd.getUserName(), relatedUsers.get(0).getName(), "The related user's name should match.");
+        verify(userService, never()).getUserById(anyInt());
 
         log.info("Successfully retrieved all related users for user with ID: {}", user.getId());
     }
 
+    @Test
+    void getAllRelatedUsers_noRelations() {
+        log.info("Testing getAllRelatedUsers method for a user without relations");
+        when(relationGraphIndex.getRelatedUserIds(user.getId())).thenReturn(new int[0]);
 
+        List<RelatedUserDTO> relatedUsers = userRelationService.getAllRelatedUsers(user);
 
+        assertTrue(relatedUsers.isEmpty());
+        verify(userRepository, never()).findRelatedUsersByIds(any());
+    }
 
     @Test
     void findRelatedUsers_success() {
         log.info("Testing findRelatedUsers method for successful retrieval");
 
-        UserRelation relation = createRelation(user, userToAdd);
-        user.setUserRelations(List.of(relation));
-
-        when(userService.getUserById(user.getId())).thenReturn(user);
-        when(userService.getUserById(userToAdd.getId())).thenReturn(userToAdd);
+        when(userRepository.findRefById(user.getId())).thenReturn(Optional.of(new UserRef(user.getId(), user.getUserName(), false)));
+        when(relationGraphIndex.getRelatedUserIds(user.getId())).thenReturn(new int[]{userToAdd.getId()});
+        when(userRepository.findRelatedUsersByIds(List.of(userToAdd.getId())))
+                .thenReturn(List.of(new RelatedUserDTO(userToAdd.getId(), userToAdd.getUserName())));
 
         List<RelatedUserDTO> relatedUsers = userRelationService.findRelatedUsers(user.getId());
 
@@ -177,16 +219,9 @@ class UserRelationServiceTest {
     @Test
     void findRelatedUsers_userNotFound() {
         log.info("Testing findRelatedUsers method for user not found scenario");
-        when(userService.getUserById(user.getId())).thenReturn(null);
+        when(userRepository.findRefById(user.getId())).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> userRelationService.findRelatedUsers(user.getId()));
         log.warn("EntityNotFoundException thrown as expected for user with ID: {}", user.getId());
     }
-
-    private UserRelation createRelation(User user, User relatedUser) {
-        UserRelation relation = new UserRelation();
-        relation.setUser(user);
-        relation.setRelatedUser(relatedUser);
-        return relation;
-    }
 }
@@ -15,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
@@ -39,6 +40,12 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private RelationGraphIndex relationGraphIndex;
+
+    @Mock
+    private UserCache userCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -102,12 +109,12 @@ class UserServiceTest {
         User user2 = new User();
         user2.setUserName("user2");
 
-        when(userRepository.findAll()).thenReturn(Arrays.asList(user1, user2));
+        when(userRepository.findAllWithRoleAndAccount()).thenReturn(Arrays.asList(user1, user2));
 
         List<User> users = userService.getAllUsers();
 
         assertEquals(2, users.size());
-        verify(userRepository, times(1)).findAll();
+        verify(userRepository, times(1)).findAllWithRoleAndAccount();
     }
 
     @Test
@@ -171,6 +178,7 @@ class UserServiceTest {
         User user = new User();
         user.setId(1);
         user.setUserName("testUser");
+        user.setEmail("test@example.com");
 
         when(userRepository.findById(1)).thenReturn(Optional.of(user));
 
@@ -178,6 +186,8 @@ class UserServiceTest {
 
         assertEquals("User deleted successfully.", result);
         verify(userRepository, times(1)).delete(user);
+        verify(relationGraphIndex, times(1)).removeUser(1);
+        verify(userCache).removeUserFromCache("test@example.com");
     }
 
     @Test
@@ -233,6 +243,7 @@ class UserServiceTest {
         assertEquals("password", user.getPassword());
         assertEquals("Paul@example.fr", user.getEmail());
         verify(userRepository).save(user);
+        verify(userCache).removeUserFromCache("test@example.com");
     }
     @Test
     void testUpdateUser_InvalidEmail_ThrowsException(){
@@ -607,6 +618,7 @@ class UserServiceTest {
         assertEquals("User soft deleted successfully.", result);
         assertTrue(user.isDeleted());
         verify(userRepository).save(user);
+        verify(relationGraphIndex).setDeleted(userId, true);
     }
 
     @Test
@@ -660,6 +672,7 @@ class UserServiceTest {
         assertEquals("User soft delete has been canceled.", result);
         assertFalse(user.isDeleted());
         verify(userRepository).save(user);
+        verify(relationGraphIndex).setDeleted(userId, false);
     }
 
     @Test